@@ -39,6 +39,7 @@ public class ZigBeeBindingConstants {
 
     // List of Thing Type UIDs
     public final static ThingTypeUID THING_TYPE_GENERIC_DEVICE = new ThingTypeUID(BINDING_ID, "device");
+    public final static ThingTypeUID THING_TYPE_GROUP = new ThingTypeUID(BINDING_ID, "group");
 
     public final static Set<ThingTypeUID> SUPPORTED_THING_TYPES = Collections
             .unmodifiableSet(Sets.newHashSet(THING_TYPE_GENERIC_DEVICE));
@@ -66,6 +67,9 @@ public class ZigBeeBindingConstants {
     public static final String CHANNEL_IAS_MOTION_PRESENCE = "zigbee:ias_motionpresence";
     public static final String CHANNEL_IAS_STANDARDCIE_SYSTEM = "zigbee:ias_standard_system";
 
+    public static final String CHANNEL_SCENE_STORE = "zigbee:scene_store";
+    public static final String CHANNEL_SCENE_RECALL = "zigbee:scene_recall";
+
     public static final String CHANNEL_ELECTRICAL_ACTIVEPOWER = "zigbee:electrical_activepower";
 
     public static final String CHANNEL_POWER_BATTERYPERCENT = "system:battery-level";
@@ -94,6 +98,32 @@ public class ZigBeeBindingConstants {
     public static final String THING_PROPERTY_NEIGHBORS = "zigbee_neighbors";
     public static final String THING_PROPERTY_LASTUPDATE = "zigbee_lastupdate";
     public static final String THING_PROPERTY_ASSOCIATEDDEVICES = "zigbee_devices";
+    public static final String THING_PROPERTY_RXBUFFERSIZE = "zigbee_rxbuffersize";
+    public static final String THING_PROPERTY_RXHIGHWATER = "zigbee_rxhighwater";
+    public static final String THING_PROPERTY_RXOVERFLOWS = "zigbee_rxoverflows";
+    public static final String THING_PROPERTY_RXDROPPED = "zigbee_rxdropped";
+    public static final String THING_PROPERTY_RXLATENCYAVG = "zigbee_rxlatencyavg";
+    public static final String THING_PROPERTY_RXLATENCYMAX = "zigbee_rxlatencymax";
+    public static final String THING_PROPERTY_RXTURNAROUNDAVG = "zigbee_rxturnaroundavg";
+    public static final String THING_PROPERTY_RXTURNAROUNDMAX = "zigbee_rxturnaroundmax";
+    public static final String THING_PROPERTY_RXBYTES = "zigbee_rxbytes";
+    public static final String THING_PROPERTY_RXBLOCKS = "zigbee_rxblocks";
+    public static final String THING_PROPERTY_RXTIMEOUTS = "zigbee_rxtimeouts";
+    public static final String THING_PROPERTY_RXWAIT = "zigbee_rxwait";
+    public static final String THING_PROPERTY_RXRATE = "zigbee_rxrate";
+    public static final String THING_PROPERTY_TXBYTES = "zigbee_txbytes";
+    public static final String THING_PROPERTY_TXFRAMES = "zigbee_txframes";
+    public static final String THING_PROPERTY_TXERRORS = "zigbee_txerrors";
+    public static final String THING_PROPERTY_TXRATE = "zigbee_txrate";
+    public static final String THING_PROPERTY_LINKUTILISATION = "zigbee_linkutilisation";
+    public static final String THING_PROPERTY_INITPROGRESS = "zigbee_initprogress";
+    public static final String THING_PROPERTY_INITREMAINING = "zigbee_initremaining";
+    public static final String THING_PROPERTY_POLLCHANNELS = "zigbee_pollchannels";
+    public static final String THING_PROPERTY_POLLBACKLOG = "zigbee_pollbacklog";
+    public static final String THING_PROPERTY_COMMANDQUEUE = "zigbee_commandqueue";
+    public static final String THING_PROPERTY_COMMANDSCOALESCED = "zigbee_commandscoalesced";
+    public static final String THING_PROPERTY_COMMANDSDROPPED = "zigbee_commandsdropped";
+    public static final String THING_PROPERTY_SCENE_PREFIX = "zigbee_scene_";
 
     // List of all configuration parameters
     public final static String CONFIGURATION_PANID = "zigbee_panid";
@@ -105,11 +135,22 @@ public class ZigBeeBindingConstants {
     public static final String CONFIGURATION_PASSWORD = "zigbee_password";
     public static final String CONFIGURATION_INITIALIZE = "zigbee_initialise";
     public static final String CONFIGURATION_TRUSTCENTREMODE = "zigbee_trustcentremode";
+    public static final String CONFIGURATION_RXBUFFERSIZE = "zigbee_rxbuffersize";
+    public static final String CONFIGURATION_RXBUFFERMAXIMUM = "zigbee_rxbuffermaximum";
+    public static final String CONFIGURATION_RXOVERFLOW = "zigbee_rxoverflow";
+    public static final String CONFIGURATION_RXMODE = "zigbee_rxmode";
+    public static final String CONFIGURATION_TXIDLETIME = "zigbee_txidletime";
+    public static final String CONFIGURATION_CAPTUREFILE = "zigbee_capturefile";
+    public static final String CONFIGURATION_INITPARALLELISM = "zigbee_initparallelism";
+    public static final String CONFIGURATION_POLLRATE = "zigbee_pollrate";
 
     public final static String CONFIGURATION_MACADDRESS = "zigbee_macaddress";
     public final static String CONFIGURATION_JOINENABLE = "zigbee_joinenable";
     public final static String CONFIGURATION_LEAVE = "zigbee_leave";
 
+    public final static String CONFIGURATION_GROUPID = "zigbee_groupid";
+    public final static String CONFIGURATION_GROUPMEMBERS = "zigbee_groupmembers";
+
     public final static String CONFIGURATION_ZNP_MAGICNUMBER = "zigbee_znp_magicnumber";
 
     public final static Set<ThingTypeUID> SUPPORTED_BRIDGE_TYPES_UIDS = ImmutableSet.of(COORDINATOR_TYPE_CC2531,
@@ -121,6 +162,7 @@ public class ZigBeeBindingConstants {
     public final static String OFFLINE_NO_ADDRESS = "@text/zigbee.status.offline_noaddress";
     public final static String OFFLINE_NODE_NOT_FOUND = "@text/zigbee.status.offline_nodenotfound";
     public final static String OFFLINE_DISCOVERY_INCOMPLETE = "@text/zigbee.status.offline_discoveryincomplete";
+    public final static String OFFLINE_NO_GROUP = "@text/zigbee.status.offline_nogroup";
 
     /**
      * Return an ISO 8601 combined date and time string for current date/time
@@ -14,7 +14,6 @@ import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
-import org.openhab.binding.zigbee.internal.ZigBeeSerialPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,7 +68,7 @@ public class ZigBeeCoordinatorCC2531Handler extends ZigBeeCoordinatorHandler {
         }
 
         portId = (String) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_PORT);
-        ZigBeePort serialPort = new ZigBeeSerialPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_NONE);
+        ZigBeePort serialPort = createPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_NONE);
         final ZigBeeDongleTiCc2531 dongle = new ZigBeeDongleTiCc2531(serialPort);
 
         dongle.setMagicNumber(magicNumber);
@@ -20,7 +20,6 @@ import org.eclipse.smarthome.core.thing.binding.firmware.ProgressCallback;
 import org.eclipse.smarthome.core.thing.binding.firmware.ProgressStep;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
-import org.openhab.binding.zigbee.internal.ZigBeeSerialPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,7 +74,7 @@ public class ZigBeeCoordinatorEmberHandler extends ZigBeeCoordinatorHandler impl
         } else {
             portBaud = DEFAULT_BAUD;
         }
-        ZigBeePort serialPort = new ZigBeeSerialPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_RTSCTS);
+        ZigBeePort serialPort = createPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_RTSCTS);
         final ZigBeeTransportTransmit dongle = new ZigBeeDongleEzsp(serialPort);
 
         logger.debug("ZigBee Coordinator Ember opening Port:'{}' PAN:{}, EPAN:{}, Channel:{}", portId,
@@ -96,6 +95,11 @@ public class ZigBeeCoordinatorEmberHandler extends ZigBeeCoordinatorHandler impl
         startZigBee(dongle, config, DefaultSerializer.class, DefaultDeserializer.class);
     }
 
+    @Override
+    public boolean isMulticastSupported() {
+        return true;
+    }
+
     @Override
     public void updateFirmware(Firmware firmware, ProgressCallback progressCallback) {
         logger.debug("Ember coordinator: update firmware with {}", firmware.getVersion());
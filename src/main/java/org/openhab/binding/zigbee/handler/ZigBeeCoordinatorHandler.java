@@ -7,33 +7,59 @@
  */
 package org.openhab.binding.zigbee.handler;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+import org.openhab.binding.zigbee.internal.ZigBeeAttributeReadBatcher;
+import org.openhab.binding.zigbee.internal.ZigBeeByteRingBuffer.OverflowPolicy;
+import org.openhab.binding.zigbee.internal.ZigBeeChannelLayoutCache;
+import org.openhab.binding.zigbee.internal.ZigBeeMulticastTransport;
 import org.openhab.binding.zigbee.internal.ZigBeeNetworkStateSerializerImpl;
+import org.openhab.binding.zigbee.internal.ZigBeeNodeInitialisationQueue;
+import org.openhab.binding.zigbee.internal.ZigBeeNodeInitialisationQueue.Priority;
+import org.openhab.binding.zigbee.internal.ZigBeePollScheduler;
+import org.openhab.binding.zigbee.internal.ZigBeePollScheduler.PollTask;
+import org.openhab.binding.zigbee.internal.ZigBeePortStatistics;
+import org.openhab.binding.zigbee.internal.ZigBeeRecordingPort;
+import org.openhab.binding.zigbee.internal.ZigBeeReplayPort;
+import org.openhab.binding.zigbee.internal.ZigBeeSerialPort;
+import org.openhab.binding.zigbee.internal.ZigBeeSerialPort.ReceiveMode;
+import org.openhab.binding.zigbee.internal.ZigBeeTcpPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.zsmartsystems.zigbee.CommandResult;
 import com.zsmartsystems.zigbee.ExtendedPanId;
 import com.zsmartsystems.zigbee.IeeeAddress;
 import com.zsmartsystems.zigbee.ZigBeeEndpoint;
 import com.zsmartsystems.zigbee.ZigBeeEndpointAddress;
+import com.zsmartsystems.zigbee.ZigBeeGroupAddress;
 import com.zsmartsystems.zigbee.ZigBeeKey;
 import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
 import com.zsmartsystems.zigbee.ZigBeeNetworkManager.ZigBeeInitializeResponse;
@@ -47,9 +73,13 @@ import com.zsmartsystems.zigbee.serialization.ZigBeeSerializer;
 import com.zsmartsystems.zigbee.transport.TransportConfig;
 import com.zsmartsystems.zigbee.transport.TransportConfigOption;
 import com.zsmartsystems.zigbee.transport.TrustCentreJoinMode;
+import com.zsmartsystems.zigbee.transport.ZigBeePort;
+import com.zsmartsystems.zigbee.transport.ZigBeePort.FlowControl;
 import com.zsmartsystems.zigbee.transport.ZigBeeTransportFirmwareUpdate;
 import com.zsmartsystems.zigbee.transport.ZigBeeTransportState;
 import com.zsmartsystems.zigbee.transport.ZigBeeTransportTransmit;
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+import com.zsmartsystems.zigbee.zcl.ZclCommand;
 import com.zsmartsystems.zigbee.zcl.clusters.ZclIasZoneCluster;
 import com.zsmartsystems.zigbee.zcl.clusters.ZclOtaUpgradeCluster;
 import com.zsmartsystems.zigbee.zdo.field.NeighborTable;
@@ -78,13 +108,24 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
     private IeeeAddress nodeIeeeAddress = null;
 
     protected ZigBeeTransportTransmit zigbeeTransport;
+    private ZigBeePort zigbeePort;
     private ZigBeeNetworkManager networkManager;
 
+    /**
+     * The transport passed to the network manager. This wraps the dongle transport to address group commands.
+     */
+    private ZigBeeMulticastTransport multicastTransport;
+
     private Class<?> serializerClass;
     private Class<?> deserializerClass;
 
     private ZigBeeNetworkStateSerializer networkStateSerializer;
 
+    /**
+     * The channels discovered for each node. This is saved with the network state.
+     */
+    private final ZigBeeChannelLayoutCache channelLayoutCache = new ZigBeeChannelLayoutCache();
+
     protected ZigBeeKey networkKey;
 
     private TransportConfig transportConfig;
@@ -95,6 +136,11 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
 
     private final int MESH_UPDATE_TIME = 300;
 
+    /**
+     * Period in seconds between updates of the port statistics properties
+     */
+    private final int STATISTICS_UPDATE_TIME = 60;
+
     /**
      * Set to true on startup if we want to reinitialize the network
      */
@@ -102,8 +148,47 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
 
     private ScheduledFuture<?> restartJob = null;
 
+    private ScheduledFuture<?> statisticsJob = null;
+
+    /**
+     * The port counters at the last statistics update, used to calculate the data rates
+     */
+    private long lastStatisticsTime;
+    private long lastBytesReceived;
+    private long lastBytesTransmitted;
+
     private ZigBeeNetworkMeshMonitor meshMonitor = null;
 
+    /**
+     * The default number of nodes to initialise at the same time
+     */
+    private final int INIT_PARALLELISM_DEFAULT = 4;
+
+    private ZigBeeNodeInitialisationQueue initialisationQueue = null;
+
+    /**
+     * The default maximum number of channel polls started per second
+     */
+    private final int POLL_RATE_DEFAULT = 10;
+
+    private ZigBeePollScheduler pollScheduler = null;
+
+    /**
+     * The attribute read batchers for each node, used to combine the reads from all channels of a node
+     */
+    private final Map<IeeeAddress, ZigBeeAttributeReadBatcher> readBatchers =
+            new ConcurrentHashMap<IeeeAddress, ZigBeeAttributeReadBatcher>();
+
+    /**
+     * The number of threads used to run the delayed tasks of the channel converters
+     */
+    private static final int CONVERTER_THREADS = 2;
+
+    /**
+     * The scheduler shared by all channel converters on the network
+     */
+    private ScheduledThreadPoolExecutor converterScheduler = null;
+
     public ZigBeeCoordinatorHandler(Bridge coordinator) {
         super(coordinator);
     }
@@ -115,6 +200,8 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         channelId = 0;
         initializeNetwork = false;
         String networkKeyString = "";
+        int initParallelism = INIT_PARALLELISM_DEFAULT;
+        int pollRate = POLL_RATE_DEFAULT;
 
         try {
 
@@ -140,12 +227,32 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
                 networkKeyString = (String) param;
             }
 
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_INITPARALLELISM) != null) {
+                initParallelism = ((BigDecimal) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_INITPARALLELISM))
+                        .intValue();
+            }
+
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_POLLRATE) != null) {
+                pollRate = ((BigDecimal) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_POLLRATE)).intValue();
+            }
         } catch (ClassCastException | NumberFormatException e) {
             logger.error("{}: ZigBee initialisation exception ", thing.getUID(), e);
             updateStatus(ThingStatus.OFFLINE);
             return;
         }
 
+        initialisationQueue = new ZigBeeNodeInitialisationQueue(scheduler, initParallelism);
+        initialisationQueue.setProgressListener((completed, total, remainingTime) -> {
+            Map<String, String> properties = editProperties();
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_INITPROGRESS, completed + " of " + total);
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_INITREMAINING,
+                    Long.toString(TimeUnit.MILLISECONDS.toSeconds(remainingTime)));
+            updateProperties(properties);
+        });
+
+        pollScheduler = new ZigBeePollScheduler(scheduler, Math.max(1, pollRate));
+        pollScheduler.start(scheduler);
+
         if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_INITIALIZE) != null) {
             initializeNetwork = (Boolean) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_INITIALIZE);
         } else {
@@ -233,6 +340,103 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         logger.debug("Key final array {}", networkKey);
     }
 
+    /**
+     * Creates the {@link ZigBeePort} used to communicate with the dongle. This applies the port configuration that is
+     * common to all coordinators, such as the receive buffer size, overflow policy and receive mode.
+     * <p>
+     * If the port name is a URL in the form tcp://host:port, a {@link ZigBeeTcpPort} is created to connect to a
+     * network serial bridge. If the port name is in the form replay:/path/to/capture, a {@link ZigBeeReplayPort} plays
+     * back a previous capture. Otherwise the local {@link ZigBeeSerialPort} is used. If a capture file is configured,
+     * the port is wrapped in a {@link ZigBeeRecordingPort}.
+     *
+     * @param portId the port name or URL
+     * @param baudRate the baud rate
+     * @param flowControl the {@link FlowControl} to use on the port
+     * @return the {@link ZigBeePort} to pass to the dongle
+     */
+    protected ZigBeePort createPort(String portId, int baudRate, FlowControl flowControl) {
+        int bufferSize = ZigBeeSerialPort.DEFAULT_BUFFER_SIZE;
+        int bufferMaximum = ZigBeeSerialPort.DEFAULT_BUFFER_MAXIMUM;
+        OverflowPolicy overflowPolicy = OverflowPolicy.GROW;
+        ReceiveMode receiveMode = ReceiveMode.EVENT;
+        int transmitIdleTime = ZigBeeSerialPort.DEFAULT_TRANSMIT_IDLE_TIME;
+
+        try {
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXBUFFERSIZE) != null) {
+                bufferSize = ((BigDecimal) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXBUFFERSIZE))
+                        .intValue();
+            }
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXBUFFERMAXIMUM) != null) {
+                bufferMaximum = ((BigDecimal) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXBUFFERMAXIMUM))
+                        .intValue();
+            }
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXOVERFLOW) != null) {
+                overflowPolicy = OverflowPolicy
+                        .valueOf((String) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXOVERFLOW));
+            }
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXMODE) != null) {
+                receiveMode = ReceiveMode
+                        .valueOf((String) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_RXMODE));
+            }
+            if (getConfig().get(ZigBeeBindingConstants.CONFIGURATION_TXIDLETIME) != null) {
+                transmitIdleTime = ((BigDecimal) getConfig().get(ZigBeeBindingConstants.CONFIGURATION_TXIDLETIME))
+                        .intValue();
+            }
+        } catch (ClassCastException | IllegalArgumentException e) {
+            logger.error("{}: Invalid receive configuration - using defaults ", thing.getUID(), e);
+            bufferSize = ZigBeeSerialPort.DEFAULT_BUFFER_SIZE;
+            bufferMaximum = ZigBeeSerialPort.DEFAULT_BUFFER_MAXIMUM;
+            overflowPolicy = OverflowPolicy.GROW;
+            receiveMode = ReceiveMode.EVENT;
+            transmitIdleTime = ZigBeeSerialPort.DEFAULT_TRANSMIT_IDLE_TIME;
+        }
+
+        if (bufferSize <= 0) {
+            bufferSize = ZigBeeSerialPort.DEFAULT_BUFFER_SIZE;
+        }
+
+        if (ZigBeeReplayPort.isReplayPort(portId)) {
+            logger.debug("{}: Replay port {}", thing.getUID(), portId);
+            zigbeePort = ZigBeeReplayPort.create(portId);
+            return zigbeePort;
+        }
+
+        zigbeePort = null;
+        if (ZigBeeTcpPort.isTcpPort(portId)) {
+            try {
+                logger.debug("{}: TCP port {}, receive buffer {} bytes, maximum {} bytes, overflow policy {}",
+                        thing.getUID(), portId, bufferSize, bufferMaximum, overflowPolicy);
+                zigbeePort = ZigBeeTcpPort.create(portId, bufferSize, bufferMaximum, overflowPolicy);
+            } catch (IllegalArgumentException e) {
+                logger.error("{}: {}", thing.getUID(), e.getMessage());
+            }
+        }
+
+        if (zigbeePort == null) {
+            logger.debug("{}: Receive buffer {} bytes, maximum {} bytes, overflow policy {}, receive mode {}",
+                    thing.getUID(), bufferSize, bufferMaximum, overflowPolicy, receiveMode);
+            logger.debug("{}: Transmit idle time {}us", thing.getUID(), transmitIdleTime);
+            ZigBeeSerialPort serialPort = new ZigBeeSerialPort(portId, baudRate, flowControl, bufferSize,
+                    bufferMaximum, overflowPolicy);
+            serialPort.setReceiveMode(receiveMode);
+            serialPort.setTransmitIdleTime(transmitIdleTime);
+            zigbeePort = serialPort;
+        }
+
+        // Record the port traffic if a capture file is configured
+        Object captureFile = getConfig().get(ZigBeeBindingConstants.CONFIGURATION_CAPTUREFILE);
+        if (captureFile instanceof String && !((String) captureFile).trim().isEmpty()) {
+            File file = new File(((String) captureFile).trim());
+            if (!file.isAbsolute()) {
+                file = new File(ConfigConstants.getUserDataFolder() + File.separator + "zigbee", file.getPath());
+            }
+            logger.debug("{}: Recording port to {}", thing.getUID(), file);
+            return new ZigBeeRecordingPort(zigbeePort, file);
+        }
+
+        return zigbeePort;
+    }
+
     /**
      * A dongle specific initialisation method. This can be overridden by coordinator handlers and is called just before
      * the {@link ZigBeeTransportTransmit#startup(boolean)} is called.
@@ -247,6 +451,25 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         if (restartJob != null) {
             restartJob.cancel(true);
         }
+        if (statisticsJob != null) {
+            statisticsJob.cancel(true);
+        }
+        if (initialisationQueue != null) {
+            initialisationQueue.shutdown();
+        }
+        if (pollScheduler != null) {
+            pollScheduler.shutdown();
+        }
+        for (ZigBeeAttributeReadBatcher batcher : readBatchers.values()) {
+            batcher.cancel();
+        }
+        readBatchers.clear();
+        synchronized (this) {
+            if (converterScheduler != null) {
+                converterScheduler.shutdownNow();
+                converterScheduler = null;
+            }
+        }
 
         if (meshMonitor != null) {
             meshMonitor.shutdown();
@@ -301,10 +524,11 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         logger.debug("Initialising ZigBee coordinator");
 
         String networkId = getThing().getUID().toString().replaceAll(":", "_");
-        networkStateSerializer = new ZigBeeNetworkStateSerializerImpl(networkId);
+        networkStateSerializer = new ZigBeeNetworkStateSerializerImpl(networkId, channelLayoutCache);
 
         // Configure the network manager
-        networkManager = new ZigBeeNetworkManager(zigbeeTransport);
+        multicastTransport = new ZigBeeMulticastTransport(zigbeeTransport);
+        networkManager = new ZigBeeNetworkManager(multicastTransport);
         networkManager.setNetworkStateSerializer(networkStateSerializer);
         networkManager.setSerializer(serializerClass, deserializerClass);
         networkManager.addNetworkStateListener(this);
@@ -385,6 +609,10 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         // Add the IAS Zone cluster to the network manager so we respond to the MatchDescriptor
         networkManager.addSupportedCluster(ZclIasZoneCluster.CLUSTER_ID);
 
+        statisticsJob = scheduler.scheduleWithFixedDelay(() -> {
+            updateStatistics();
+        }, STATISTICS_UPDATE_TIME, STATISTICS_UPDATE_TIME, TimeUnit.SECONDS);
+
         restartJob = scheduler.schedule(() -> {
             // Start the mesh monitor
             meshMonitor = new ZigBeeNetworkMeshMonitor(networkManager);
@@ -420,6 +648,19 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
                     }
                     break;
 
+                case ZigBeeBindingConstants.CONFIGURATION_INITPARALLELISM:
+                    if (initialisationQueue != null) {
+                        initialisationQueue.setParallelism(((BigDecimal) configurationParameter.getValue()).intValue());
+                    }
+                    break;
+
+                case ZigBeeBindingConstants.CONFIGURATION_POLLRATE:
+                    if (pollScheduler != null) {
+                        int pollRate = ((BigDecimal) configurationParameter.getValue()).intValue();
+                        pollScheduler.setReadRate(Math.max(1, pollRate));
+                    }
+                    break;
+
                 case ZigBeeBindingConstants.CONFIGURATION_TRUSTCENTREMODE:
                     TrustCentreJoinMode linkMode = TrustCentreJoinMode
                             .valueOf((String) configurationParameter.getValue());
@@ -508,7 +749,7 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
 
     @Override
     public void nodeRemoved(ZigBeeNode node) {
-        // Nothing to do here...
+        removeAttributeReads(node.getIeeeAddress());
     }
 
     @Override
@@ -579,6 +820,8 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
 
         properties.put(ZigBeeBindingConstants.THING_PROPERTY_LOGICALTYPE, node.getLogicalType().toString());
 
+        addPortProperties(properties);
+
         // If this dongle supports firmware updates, then set the version
         if (zigbeeTransport instanceof ZigBeeTransportFirmwareUpdate) {
             ZigBeeTransportFirmwareUpdate firmwareTransport = (ZigBeeTransportFirmwareUpdate) zigbeeTransport;
@@ -588,6 +831,115 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         updateProperties(properties);
     }
 
+    /**
+     * Gets the {@link ZigBeePortStatistics} from the port used to communicate with the dongle
+     *
+     * @return the {@link ZigBeePortStatistics} or null if the port does not provide statistics
+     */
+    private ZigBeePortStatistics getPortStatistics() {
+        if (zigbeePort instanceof ZigBeeSerialPort) {
+            return ((ZigBeeSerialPort) zigbeePort).getStatistics();
+        }
+        if (zigbeePort instanceof ZigBeeTcpPort) {
+            return ((ZigBeeTcpPort) zigbeePort).getStatistics();
+        }
+        return null;
+    }
+
+    /**
+     * Adds the receive buffer and port traffic counters to the thing properties
+     *
+     * @param properties the thing properties to update
+     */
+    private void addPortProperties(Map<String, String> properties) {
+        if (zigbeePort instanceof ZigBeeSerialPort) {
+            ZigBeeSerialPort serialPort = (ZigBeeSerialPort) zigbeePort;
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXBUFFERSIZE,
+                    Integer.toString(serialPort.getReceiveBufferSize()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXHIGHWATER,
+                    Integer.toString(serialPort.getReceiveHighWaterMark()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXOVERFLOWS,
+                    Long.toString(serialPort.getReceiveOverflowCount()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXDROPPED,
+                    Long.toString(serialPort.getReceiveDroppedBytes()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXLATENCYAVG,
+                    Long.toString(serialPort.getPickupLatency().getAverage()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXLATENCYMAX,
+                    Long.toString(serialPort.getPickupLatency().getMaximum()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXTURNAROUNDAVG,
+                    Long.toString(serialPort.getTurnaroundLatency().getAverage()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXTURNAROUNDMAX,
+                    Long.toString(serialPort.getTurnaroundLatency().getMaximum()));
+        } else if (zigbeePort instanceof ZigBeeTcpPort) {
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXHIGHWATER,
+                    Integer.toString(((ZigBeeTcpPort) zigbeePort).getReceiveHighWaterMark()));
+        }
+
+        ZigBeePortStatistics statistics = getPortStatistics();
+        if (statistics == null) {
+            return;
+        }
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXBYTES, Long.toString(statistics.getBytesReceived()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXBLOCKS, Long.toString(statistics.getBlocksReceived()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXTIMEOUTS, Long.toString(statistics.getReadTimeouts()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXWAIT, Long.toString(statistics.getConsumerWaitTime()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_TXBYTES,
+                Long.toString(statistics.getBytesTransmitted()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_TXFRAMES,
+                Long.toString(statistics.getFramesTransmitted()));
+        properties.put(ZigBeeBindingConstants.THING_PROPERTY_TXERRORS, Long.toString(statistics.getWriteErrors()));
+    }
+
+    /**
+     * Periodically publishes the port counters as thing properties, along with the data rates since the last update.
+     * For serial ports the link utilisation is the busier direction as a percentage of the line rate, assuming 10 bits
+     * per byte on the wire. The channel polling backlog is also published.
+     */
+    private void updateStatistics() {
+        Map<String, String> properties = editProperties();
+        if (pollScheduler != null) {
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_POLLCHANNELS,
+                    Integer.toString(pollScheduler.getRegistered()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_POLLBACKLOG,
+                    Integer.toString(pollScheduler.getBacklog()));
+        }
+
+        ZigBeePortStatistics statistics = getPortStatistics();
+        if (statistics == null) {
+            updateProperties(properties);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long bytesReceived = statistics.getBytesReceived();
+        long bytesTransmitted = statistics.getBytesTransmitted();
+
+        addPortProperties(properties);
+
+        if (lastStatisticsTime != 0 && now > lastStatisticsTime) {
+            double seconds = (now - lastStatisticsTime) / 1000.0;
+            long rxRate = Math.round((bytesReceived - lastBytesReceived) / seconds);
+            long txRate = Math.round((bytesTransmitted - lastBytesTransmitted) / seconds);
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_RXRATE, Long.toString(rxRate));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_TXRATE, Long.toString(txRate));
+
+            if (zigbeePort instanceof ZigBeeSerialPort) {
+                int baudRate = ((ZigBeeSerialPort) zigbeePort).getBaudRate();
+                if (baudRate > 0) {
+                    properties.put(ZigBeeBindingConstants.THING_PROPERTY_LINKUTILISATION,
+                            String.format("%.1f", Math.max(rxRate, txRate) * 10 * 100.0 / baudRate));
+                }
+            }
+        }
+
+        lastStatisticsTime = now;
+        lastBytesReceived = bytesReceived;
+        lastBytesTransmitted = bytesTransmitted;
+
+        logger.debug("{}: Port statistics {}", thing.getUID(), statistics);
+        updateProperties(properties);
+    }
+
     public ZigBeeEndpoint getEndpoint(IeeeAddress address, int endpointId) {
         if (networkManager == null) {
             return null;
@@ -709,6 +1061,229 @@ public abstract class ZigBeeCoordinatorHandler extends BaseBridgeHandler
         networkManager.rediscoverNode(nodeIeeeAddress);
     }
 
+    /**
+     * Queues the initialisation of a node. The number of nodes initialised at the same time is limited, and routers
+     * are initialised before end devices, with sleepy end devices last.
+     *
+     * @param nodeIeeeAddress {@link IeeeAddress} of the node to initialise
+     * @param initialiser the task to initialise the node. This returns true if the node was initialised.
+     * @return true if the node was queued, false if it is already queued
+     */
+    public boolean scheduleNodeInitialisation(IeeeAddress nodeIeeeAddress, Callable<Boolean> initialiser) {
+        if (initialisationQueue == null) {
+            return false;
+        }
+        return initialisationQueue.submit(nodeIeeeAddress, Priority.getPriority(getNode(nodeIeeeAddress)),
+                initialiser);
+    }
+
+    /**
+     * Removes a node from the initialisation queue
+     *
+     * @param nodeIeeeAddress {@link IeeeAddress} of the node
+     */
+    public void cancelNodeInitialisation(IeeeAddress nodeIeeeAddress) {
+        if (initialisationQueue != null) {
+            initialisationQueue.remove(nodeIeeeAddress);
+        }
+    }
+
+    /**
+     * Adds a channel poll to the coordinator poll scheduler, replacing any existing poll with the same key. Polls from
+     * all things are spread over time, and the reads they send are limited to the configured poll rate.
+     *
+     * @param key the key used to identify the poll
+     * @param period the polling period in seconds
+     * @param task the {@link PollTask}, returning the number of reads it sent
+     */
+    public void schedulePoll(Object key, int period, PollTask task) {
+        if (pollScheduler != null) {
+            pollScheduler.register(key, TimeUnit.SECONDS.toMillis(period), task);
+        }
+    }
+
+    /**
+     * Removes a channel poll from the coordinator poll scheduler
+     *
+     * @param key the key used to identify the poll
+     */
+    public void cancelPoll(Object key) {
+        if (pollScheduler != null) {
+            pollScheduler.unregister(key);
+        }
+    }
+
+    /**
+     * Gets the scheduler used by the channel converters for short delayed tasks. The scheduler is shared by all
+     * converters on the network so that the number of threads does not grow with the number of devices. Tasks must not
+     * block for long periods as they will delay the tasks of other converters.
+     *
+     * @return the converter {@link ScheduledExecutorService}
+     */
+    public synchronized ScheduledExecutorService getConverterScheduler() {
+        if (converterScheduler == null) {
+            converterScheduler = new ScheduledThreadPoolExecutor(CONVERTER_THREADS);
+            converterScheduler.setRemoveOnCancelPolicy(true);
+        }
+        return converterScheduler;
+    }
+
+    /**
+     * Requests an attribute is read. Reads from the same node are combined into a single Read Attributes command per
+     * cluster. The reads are sent when {@link #flushAttributeReads(IeeeAddress)} is called, or after a short delay.
+     *
+     * @param nodeIeeeAddress {@link IeeeAddress} of the node
+     * @param cluster the {@link ZclCluster} to read from
+     * @param attributeId the attribute to read
+     */
+    public void readAttribute(IeeeAddress nodeIeeeAddress, ZclCluster cluster, int attributeId) {
+        if (networkManager == null) {
+            cluster.read(cluster.getAttribute(attributeId));
+            return;
+        }
+        ZigBeeAttributeReadBatcher batcher = readBatchers.get(nodeIeeeAddress);
+        if (batcher == null) {
+            batcher = new ZigBeeAttributeReadBatcher(networkManager, scheduler,
+                    ZigBeeAttributeReadBatcher.DEFAULT_WINDOW);
+            ZigBeeAttributeReadBatcher existing = readBatchers.putIfAbsent(nodeIeeeAddress, batcher);
+            if (existing != null) {
+                batcher = existing;
+            }
+        }
+        batcher.read(cluster, attributeId);
+    }
+
+    /**
+     * Sends any attribute reads that are waiting for a node
+     *
+     * @param nodeIeeeAddress {@link IeeeAddress} of the node
+     * @return the number of Read Attributes commands sent
+     */
+    public int flushAttributeReads(IeeeAddress nodeIeeeAddress) {
+        if (nodeIeeeAddress == null) {
+            return 0;
+        }
+        ZigBeeAttributeReadBatcher batcher = readBatchers.get(nodeIeeeAddress);
+        if (batcher == null) {
+            return 0;
+        }
+        return batcher.flush();
+    }
+
+    /**
+     * Discards any attribute reads that are waiting for a node, and releases the resources used to combine its reads.
+     * This is called when the node is removed from the network, or its thing is removed.
+     *
+     * @param nodeIeeeAddress {@link IeeeAddress} of the node
+     */
+    public void removeAttributeReads(IeeeAddress nodeIeeeAddress) {
+        if (nodeIeeeAddress == null) {
+            return;
+        }
+        ZigBeeAttributeReadBatcher batcher = readBatchers.remove(nodeIeeeAddress);
+        if (batcher != null) {
+            batcher.cancel();
+        }
+    }
+
+    /**
+     * Checks if the coordinator can send a command to a group as a single multicast frame. If not, group commands must
+     * be sent to each member of the group.
+     *
+     * @return true if the dongle supports multicast commands
+     */
+    public boolean isMulticastSupported() {
+        return false;
+    }
+
+    /**
+     * Adds a group to the network
+     *
+     * @param groupId the group ID
+     * @param label the group label
+     */
+    public void addGroup(int groupId, String label) {
+        if (networkManager == null) {
+            return;
+        }
+        networkManager.addGroup(new ZigBeeGroupAddress(groupId, label));
+    }
+
+    /**
+     * Removes a group from the network
+     *
+     * @param groupId the group ID
+     */
+    public void removeGroup(int groupId) {
+        if (networkManager == null) {
+            return;
+        }
+        networkManager.removeGroup(groupId);
+    }
+
+    /**
+     * Sends a command to all members of a group as a single multicast frame. This should only be used if
+     * {@link #isMulticastSupported()} returns true.
+     *
+     * @param groupId the group ID
+     * @param command the {@link ZclCommand} to send
+     * @return the command result future, or null if the network is not started
+     */
+    public Future<CommandResult> sendGroupCommand(int groupId, ZclCommand command) {
+        if (networkManager == null) {
+            return null;
+        }
+        return multicastTransport.sendGroupCommand(networkManager, groupId, command);
+    }
+
+    /**
+     * Sends a command to a single endpoint
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param endpointId the endpoint to send the command to
+     * @param command the {@link ZclCommand} to send
+     * @return the command result future, or null if the endpoint is not known
+     */
+    public Future<CommandResult> sendCommand(IeeeAddress address, int endpointId, ZclCommand command) {
+        ZigBeeEndpoint endpoint = getEndpoint(address, endpointId);
+        if (endpoint == null) {
+            return null;
+        }
+        return networkManager.send(endpoint.getEndpointAddress(), command);
+    }
+
+    /**
+     * Gets the channels discovered for a node when the binding last ran
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param thingUID the {@link ThingUID} of the thing the channels are created for
+     * @return the list of {@link Channel}s, or null if the channels need to be discovered
+     */
+    public List<Channel> getCachedChannels(IeeeAddress address, ThingUID thingUID) {
+        String fingerprint = ZigBeeChannelLayoutCache.getFingerprint(getNodeEndpoints(address));
+        return channelLayoutCache.getChannels(address, fingerprint, thingUID);
+    }
+
+    /**
+     * Sets the channels discovered for a node. These are saved when the network state is next saved.
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param channels the discovered {@link Channel}s
+     */
+    public void setCachedChannels(IeeeAddress address, Collection<Channel> channels) {
+        String fingerprint = ZigBeeChannelLayoutCache.getFingerprint(getNodeEndpoints(address));
+        channelLayoutCache.setChannels(address, fingerprint, channels);
+    }
+
+    /**
+     * Removes the channels discovered for a node so that they are discovered again
+     *
+     * @param address the {@link IeeeAddress} of the node
+     */
+    public void removeCachedChannels(IeeeAddress address) {
+        channelLayoutCache.removeChannels(address);
+    }
+
     public void serializeNetwork() {
         if (networkStateSerializer != null) {
             networkStateSerializer.serialize(networkManager);
@@ -23,7 +23,6 @@ import org.eclipse.smarthome.core.thing.binding.firmware.ProgressCallback;
 import org.eclipse.smarthome.core.thing.binding.firmware.ProgressStep;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
-import org.openhab.binding.zigbee.internal.ZigBeeSerialPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,7 +82,7 @@ public class ZigBeeCoordinatorTelegesisHandler extends ZigBeeCoordinatorHandler
         } else {
             portBaud = DEFAULT_BAUD;
         }
-        ZigBeePort serialPort = new ZigBeeSerialPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_NONE);
+        ZigBeePort serialPort = createPort(portId, portBaud, FlowControl.FLOWCONTROL_OUT_NONE);
         dongle = new ZigBeeDongleTelegesis(serialPort);
 
         logger.debug("ZigBee Coordinator Telegesis opening Port:'{}' PAN:{}, EPAN:{}, Channel:{}", portId,
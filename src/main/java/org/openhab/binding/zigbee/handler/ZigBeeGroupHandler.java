@@ -0,0 +1,731 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.handler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
+import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.RefreshType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+import org.openhab.binding.zigbee.internal.ZigBeeCommandQueue;
+import org.openhab.binding.zigbee.internal.ZigBeeSceneRegistry;
+import org.openhab.binding.zigbee.internal.converter.ColorHelper;
+import org.openhab.binding.zigbee.internal.converter.config.ZclLevelControlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.CommandResult;
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkNodeListener;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zcl.ZclCommand;
+import com.zsmartsystems.zigbee.zcl.ZclStatus;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclGroupsCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorTemperatureCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.groups.AddGroupResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.levelcontrol.MoveToLevelWithOnOffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OnCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.scenes.RecallSceneCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.scenes.StoreSceneCommand;
+
+/**
+ * The {@link ZigBeeGroupHandler} controls a group of ZigBee devices. Commands are sent to the group address so that
+ * all members act on a single multicast frame rather than a command being sent to each device in turn. The handler
+ * adds the group to the Groups cluster of each member, and updates the channels of the member things when a command
+ * is sent to the group.
+ * <p>
+ * Members are configured as the IEEE address of the node, optionally followed by "/" and the endpoint. If no endpoint
+ * is given, all endpoints of the node that support the Groups cluster are added to the group.
+ * <p>
+ * Scenes are stored in the Scenes cluster of the members under the group ID, so that a scene is recalled on all
+ * members with a single command. The states of the member channels are recorded when a scene is stored, and are
+ * posted to the channels as soon as the scene is recalled.
+ * <p>
+ * If the coordinator does not support multicast, the command is sent to each member without waiting for the
+ * responses.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeGroupHandler extends BaseThingHandler implements ZigBeeNetworkNodeListener {
+    private Logger logger = LoggerFactory.getLogger(ZigBeeGroupHandler.class);
+
+    private final int GROUPID_MIN = 0x0001;
+    private final int GROUPID_MAX = 0xFFF7;
+
+    /**
+     * The maximum length of the group name stored in the devices
+     */
+    private final int GROUPNAME_MAX = 16;
+
+    /**
+     * The transition time used if it is not configured in the channel. This uses the default time set in the device.
+     */
+    private final int TRANSITION_TIME_DEFAULT = 65535;
+
+    // Default range of 2000K to 6500K
+    private final int CT_DEFAULT_MIN = 2000;
+    private final int CT_DEFAULT_MAX = 6500;
+
+    private ZigBeeCoordinatorHandler coordinatorHandler;
+
+    private int groupId;
+
+    private List<GroupMember> members = Collections.emptyList();
+
+    /**
+     * The members that have not yet confirmed they have been added to the group
+     */
+    private final Set<GroupMember> membersPending = new HashSet<GroupMember>();
+
+    /**
+     * The queue used to add the group to the members. Members are added one at a time, and a member that is already
+     * waiting to be added is only queued once.
+     */
+    private ZigBeeCommandQueue memberQueue;
+
+    /**
+     * The member channel states expected when each scene is recalled
+     */
+    private final ZigBeeSceneRegistry sceneRegistry = new ZigBeeSceneRegistry();
+
+    /**
+     * A member of the group
+     */
+    static class GroupMember {
+        final IeeeAddress address;
+        final Integer endpointId;
+
+        GroupMember(IeeeAddress address, Integer endpointId) {
+            this.address = address;
+            this.endpointId = endpointId;
+        }
+
+        /**
+         * Creates a member from the configuration
+         *
+         * @param member the IEEE address, optionally followed by "/" and the endpoint
+         * @return the {@link GroupMember}
+         * @throws NumberFormatException if the address or endpoint is not valid
+         */
+        static GroupMember parse(String member) {
+            String[] parts = member.trim().split("/");
+            if (parts.length > 2) {
+                throw new NumberFormatException(member);
+            }
+            IeeeAddress address = new IeeeAddress(parts[0].trim());
+            Integer endpointId = parts.length == 2 ? Integer.valueOf(parts[1].trim()) : null;
+            return new GroupMember(address, endpointId);
+        }
+
+        @Override
+        public int hashCode() {
+            return address.hashCode() * 31 + (endpointId == null ? 0 : endpointId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GroupMember)) {
+                return false;
+            }
+            GroupMember other = (GroupMember) obj;
+            return address.equals(other.address)
+                    && (endpointId == null ? other.endpointId == null : endpointId.equals(other.endpointId));
+        }
+
+        @Override
+        public String toString() {
+            return endpointId == null ? address.toString() : address + "/" + endpointId;
+        }
+    }
+
+    public ZigBeeGroupHandler(Thing thing) {
+        super(thing);
+    }
+
+    @Override
+    public void initialize() {
+        Object configGroupId = getConfig().get(ZigBeeBindingConstants.CONFIGURATION_GROUPID);
+        logger.debug("{}: Initializing ZigBee group handler for group {}", getThing().getUID(), configGroupId);
+
+        if (!(configGroupId instanceof BigDecimal) || ((BigDecimal) configGroupId).intValue() < GROUPID_MIN
+                || ((BigDecimal) configGroupId).intValue() > GROUPID_MAX) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    ZigBeeBindingConstants.OFFLINE_NO_GROUP);
+            return;
+        }
+        groupId = ((BigDecimal) configGroupId).intValue();
+        members = getMembers(getConfig().get(ZigBeeBindingConstants.CONFIGURATION_GROUPMEMBERS));
+        loadScenes();
+
+        if (memberQueue != null) {
+            memberQueue.shutdown();
+        }
+        memberQueue = new ZigBeeCommandQueue(getThing().getUID(), scheduler);
+
+        updateStatus(ThingStatus.OFFLINE);
+
+        if (getBridge() != null) {
+            bridgeStatusChanged(getBridge().getStatusInfo());
+        }
+    }
+
+    @Override
+    public void bridgeStatusChanged(ThingStatusInfo bridgeStatusInfo) {
+        logger.debug("{}: Coordinator status changed to {}.", getThing().getUID(), bridgeStatusInfo.getStatus());
+
+        if (bridgeStatusInfo.getStatus() != ThingStatus.ONLINE || getBridge() == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+            return;
+        }
+
+        // The bridge may come online more than once, so remove the listener before it is added again
+        if (coordinatorHandler != null) {
+            coordinatorHandler.removeNetworkNodeListener(this);
+        }
+        coordinatorHandler = (ZigBeeCoordinatorHandler) getBridge().getHandler();
+        coordinatorHandler.addGroup(groupId, getGroupName());
+        coordinatorHandler.addNetworkNodeListener(this);
+
+        synchronized (membersPending) {
+            membersPending.clear();
+            membersPending.addAll(members);
+        }
+        scheduleAddMembers();
+
+        updateStatus(ThingStatus.ONLINE);
+    }
+
+    @Override
+    public void dispose() {
+        logger.debug("{}: Handler dispose.", getThing().getUID());
+
+        if (coordinatorHandler != null) {
+            coordinatorHandler.removeNetworkNodeListener(this);
+        }
+        if (memberQueue != null) {
+            memberQueue.shutdown();
+        }
+        synchronized (membersPending) {
+            membersPending.clear();
+        }
+    }
+
+    @Override
+    public void handleConfigurationUpdate(Map<String, Object> configurationParameters) {
+        logger.debug("{}: Configuration received: {}", getThing().getUID(), configurationParameters);
+
+        // Remove the group from any members that have been removed from the configuration, or from all members if
+        // the group ID has changed
+        List<GroupMember> removedMembers = new ArrayList<GroupMember>(members);
+        Object newGroupId = configurationParameters.get(ZigBeeBindingConstants.CONFIGURATION_GROUPID);
+        if (newGroupId instanceof BigDecimal && ((BigDecimal) newGroupId).intValue() == groupId) {
+            removedMembers
+                    .removeAll(getMembers(configurationParameters.get(ZigBeeBindingConstants.CONFIGURATION_GROUPMEMBERS)));
+        }
+        for (GroupMember member : removedMembers) {
+            removeMember(member);
+        }
+
+        // Update the configuration and reinitialise the handler, which adds any new members
+        super.handleConfigurationUpdate(configurationParameters);
+    }
+
+    @Override
+    public void handleRemoval() {
+        for (GroupMember member : members) {
+            removeMember(member);
+        }
+        if (coordinatorHandler != null) {
+            coordinatorHandler.removeGroup(groupId);
+        }
+        updateStatus(ThingStatus.REMOVED);
+    }
+
+    @Override
+    public void handleCommand(final ChannelUID channelUID, final Command command) {
+        logger.debug("{}: Command for channel {} --> {}", getThing().getUID(), channelUID, command);
+
+        // There is no group state to read - the member things are refreshed individually
+        if (command == RefreshType.REFRESH) {
+            return;
+        }
+
+        if (coordinatorHandler == null) {
+            logger.debug("{}: Coordinator handler not found. Cannot handle command without coordinator.",
+                    getThing().getUID());
+            return;
+        }
+
+        Channel channel = getThing().getChannel(channelUID.getId());
+        if (channel == null || channel.getChannelTypeUID() == null) {
+            logger.debug("{}: Channel {} not found", getThing().getUID(), channelUID);
+            return;
+        }
+        ChannelTypeUID channelTypeUID = channel.getChannelTypeUID();
+        int transitionTime = getTransitionTime(channel);
+
+        List<ZclCommand> zclCommands = createCommands(channelTypeUID, command, transitionTime);
+        if (zclCommands.isEmpty()) {
+            logger.debug("{}: Command {} not supported by channel {}", getThing().getUID(), command, channelUID);
+            return;
+        }
+
+        if (coordinatorHandler.isMulticastSupported()) {
+            for (ZclCommand zclCommand : zclCommands) {
+                coordinatorHandler.sendGroupCommand(groupId, zclCommand);
+            }
+        } else {
+            logger.debug("{}: Coordinator does not support multicast. Sending command to each member.",
+                    getThing().getUID());
+            for (GroupMember member : members) {
+                for (ZigBeeEndpoint endpoint : getMemberEndpoints(member)) {
+                    // A new command is created for each endpoint as the command holds the destination
+                    for (ZclCommand zclCommand : createCommands(channelTypeUID, command, transitionTime)) {
+                        coordinatorHandler.sendCommand(member.address, endpoint.getEndpointId(), zclCommand);
+                    }
+                }
+            }
+        }
+
+        if (!(command instanceof State)) {
+            return;
+        }
+        updateState(channelUID, (State) command);
+
+        switch (channelTypeUID.toString()) {
+            case ZigBeeBindingConstants.CHANNEL_SCENE_STORE:
+                storeScene(((DecimalType) command).intValue());
+                break;
+            case ZigBeeBindingConstants.CHANNEL_SCENE_RECALL:
+                recallScene(((DecimalType) command).intValue());
+                break;
+            default:
+                updateMemberStates(channelTypeUID, (State) command);
+                break;
+        }
+    }
+
+    @Override
+    public void nodeAdded(ZigBeeNode node) {
+        nodeUpdated(node);
+    }
+
+    @Override
+    public void nodeUpdated(ZigBeeNode node) {
+        synchronized (membersPending) {
+            for (GroupMember member : membersPending) {
+                if (member.address.equals(node.getIeeeAddress())) {
+                    scheduleAddMember(member);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void nodeRemoved(ZigBeeNode node) {
+        // Nothing to do - the node will be added to the group again when it rejoins
+    }
+
+    /**
+     * Gets the group members from the configuration. Invalid members are logged and ignored.
+     *
+     * @param configuration the member configuration. This can be a single string, or a collection of strings.
+     * @return the list of {@link GroupMember}s
+     */
+    List<GroupMember> getMembers(Object configuration) {
+        List<String> memberStrings = new ArrayList<String>();
+        if (configuration instanceof Collection) {
+            for (Object member : (Collection<?>) configuration) {
+                memberStrings.add(member.toString());
+            }
+        } else if (configuration instanceof String) {
+            for (String member : ((String) configuration).split(",")) {
+                memberStrings.add(member);
+            }
+        }
+
+        List<GroupMember> newMembers = new ArrayList<GroupMember>();
+        for (String memberString : memberStrings) {
+            if (memberString.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                GroupMember member = GroupMember.parse(memberString);
+                if (!newMembers.contains(member)) {
+                    newMembers.add(member);
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("{}: Invalid group member {}", getThing().getUID(), memberString);
+            }
+        }
+        return newMembers;
+    }
+
+    /**
+     * Gets the endpoints of a member that are in the group
+     *
+     * @param member the {@link GroupMember}
+     * @return the list of {@link ZigBeeEndpoint}s. This is empty if the node is not known.
+     */
+    private List<ZigBeeEndpoint> getMemberEndpoints(GroupMember member) {
+        List<ZigBeeEndpoint> endpoints = new ArrayList<ZigBeeEndpoint>();
+        ZigBeeNode node = coordinatorHandler.getNode(member.address);
+        if (node == null) {
+            return endpoints;
+        }
+
+        if (member.endpointId != null) {
+            ZigBeeEndpoint endpoint = node.getEndpoint(member.endpointId);
+            if (endpoint != null) {
+                endpoints.add(endpoint);
+            }
+            return endpoints;
+        }
+
+        for (ZigBeeEndpoint endpoint : node.getEndpoints()) {
+            if (endpoint.getInputCluster(ZclGroupsCluster.CLUSTER_ID) != null) {
+                endpoints.add(endpoint);
+            }
+        }
+        return endpoints;
+    }
+
+    private String getGroupName() {
+        String label = getThing().getLabel();
+        if (label == null) {
+            return "";
+        }
+        return label.length() > GROUPNAME_MAX ? label.substring(0, GROUPNAME_MAX) : label;
+    }
+
+    /**
+     * Adds the group to any members that have not yet been added
+     */
+    private void scheduleAddMembers() {
+        synchronized (membersPending) {
+            for (GroupMember member : membersPending) {
+                scheduleAddMember(member);
+            }
+        }
+    }
+
+    /**
+     * Queues a member to be added to the group. Each member waits for its response in turn, so only one scheduler
+     * thread is used by the group, and a member that is already queued is not queued again when its node is updated.
+     *
+     * @param member the {@link GroupMember} to add
+     */
+    private void scheduleAddMember(final GroupMember member) {
+        ZigBeeCommandQueue queue = memberQueue;
+        if (queue == null) {
+            return;
+        }
+        queue.submitIfAbsent(member, new Runnable() {
+            @Override
+            public void run() {
+                synchronized (membersPending) {
+                    if (!membersPending.contains(member)) {
+                        return;
+                    }
+                }
+                if (addMember(member)) {
+                    synchronized (membersPending) {
+                        membersPending.remove(member);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the group to the Groups cluster of a member
+     *
+     * @param member the {@link GroupMember} to add
+     * @return true if all endpoints of the member are in the group
+     */
+    private boolean addMember(GroupMember member) {
+        List<ZigBeeEndpoint> endpoints = getMemberEndpoints(member);
+        if (endpoints.isEmpty()) {
+            logger.debug("{}: Group member {} not found", getThing().getUID(), member);
+            return false;
+        }
+
+        boolean added = true;
+        for (ZigBeeEndpoint endpoint : endpoints) {
+            ZclGroupsCluster groupsCluster = (ZclGroupsCluster) endpoint.getInputCluster(ZclGroupsCluster.CLUSTER_ID);
+            if (groupsCluster == null) {
+                logger.warn("{}: Group member {} does not support groups on endpoint {}", getThing().getUID(), member,
+                        endpoint.getEndpointId());
+                continue;
+            }
+
+            try {
+                CommandResult result = groupsCluster.addGroupCommand(groupId, getGroupName()).get();
+                AddGroupResponse response = result.getResponse();
+                if (response != null && (response.getStatus() == ZclStatus.SUCCESS.getId()
+                        || response.getStatus() == ZclStatus.DUPLICATE_EXISTS.getId())) {
+                    logger.debug("{}: Group member {} added on endpoint {}", getThing().getUID(), member,
+                            endpoint.getEndpointId());
+                } else {
+                    logger.debug("{}: Group member {} not added on endpoint {}: {}", getThing().getUID(), member,
+                            endpoint.getEndpointId(), result);
+                    added = false;
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                logger.debug("{}: Exception adding group member {}", getThing().getUID(), member, e);
+                added = false;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes the group from the Groups cluster of a member. The response is not waited for.
+     *
+     * @param member the {@link GroupMember} to remove
+     */
+    private void removeMember(GroupMember member) {
+        if (coordinatorHandler == null) {
+            return;
+        }
+        for (ZigBeeEndpoint endpoint : getMemberEndpoints(member)) {
+            ZclGroupsCluster groupsCluster = (ZclGroupsCluster) endpoint.getInputCluster(ZclGroupsCluster.CLUSTER_ID);
+            if (groupsCluster != null) {
+                logger.debug("{}: Removing group member {} on endpoint {}", getThing().getUID(), member,
+                        endpoint.getEndpointId());
+                groupsCluster.removeGroupCommand(groupId);
+            }
+        }
+    }
+
+    /**
+     * Gets the thing handlers of the members
+     *
+     * @return map of each {@link GroupMember} that has a thing to its {@link ZigBeeThingHandler}
+     */
+    private Map<GroupMember, ZigBeeThingHandler> getMemberHandlers() {
+        Map<GroupMember, ZigBeeThingHandler> handlers = new HashMap<GroupMember, ZigBeeThingHandler>();
+        if (getBridge() == null) {
+            return handlers;
+        }
+        for (Thing thing : getBridge().getThings()) {
+            if (!(thing.getHandler() instanceof ZigBeeThingHandler)) {
+                continue;
+            }
+            Object macAddress = thing.getConfiguration().get(ZigBeeBindingConstants.CONFIGURATION_MACADDRESS);
+            if (!(macAddress instanceof String) || ((String) macAddress).isEmpty()) {
+                continue;
+            }
+            IeeeAddress address;
+            try {
+                address = new IeeeAddress((String) macAddress);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            for (GroupMember member : members) {
+                if (member.address.equals(address)) {
+                    handlers.put(member, (ZigBeeThingHandler) thing.getHandler());
+                }
+            }
+        }
+        return handlers;
+    }
+
+    /**
+     * Updates the channels of the member things following a command sent to the group
+     *
+     * @param channelTypeUID the {@link ChannelTypeUID} of the channels to update
+     * @param state the new {@link State}
+     */
+    private void updateMemberStates(ChannelTypeUID channelTypeUID, State state) {
+        for (Entry<GroupMember, ZigBeeThingHandler> memberHandler : getMemberHandlers().entrySet()) {
+            memberHandler.getValue().setGroupChannelState(memberHandler.getKey().endpointId, channelTypeUID, state);
+        }
+    }
+
+    /**
+     * Records the current state of the member channels for a scene that has been stored in the members, and saves the
+     * scene in the thing properties
+     *
+     * @param sceneId the scene ID
+     */
+    private void storeScene(int sceneId) {
+        Map<ChannelUID, State> states = new HashMap<ChannelUID, State>();
+        for (Entry<GroupMember, ZigBeeThingHandler> memberHandler : getMemberHandlers().entrySet()) {
+            states.putAll(memberHandler.getValue().getChannelStates(memberHandler.getKey().endpointId));
+        }
+        logger.debug("{}: Storing scene {} with {} channel states", getThing().getUID(), sceneId, states.size());
+
+        sceneRegistry.storeScene(sceneId, states);
+        updateProperty(ZigBeeBindingConstants.THING_PROPERTY_SCENE_PREFIX + sceneId,
+                sceneRegistry.serializeScene(sceneId));
+    }
+
+    /**
+     * Posts the states recorded for a scene to the member channels following a scene recall
+     *
+     * @param sceneId the scene ID
+     */
+    private void recallScene(int sceneId) {
+        Map<ChannelUID, State> states = sceneRegistry.getScene(sceneId);
+        logger.debug("{}: Recalling scene {} with {} channel states", getThing().getUID(), sceneId, states.size());
+
+        Collection<ZigBeeThingHandler> handlers = getMemberHandlers().values();
+        for (Entry<ChannelUID, State> state : states.entrySet()) {
+            for (ZigBeeThingHandler handler : handlers) {
+                if (handler.getThing().getUID().equals(state.getKey().getThingUID())) {
+                    handler.setChannelState(state.getKey(), state.getValue());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the scenes saved in the thing properties
+     */
+    private void loadScenes() {
+        for (Entry<String, String> property : getThing().getProperties().entrySet()) {
+            if (!property.getKey().startsWith(ZigBeeBindingConstants.THING_PROPERTY_SCENE_PREFIX)) {
+                continue;
+            }
+            try {
+                int sceneId = Integer.parseInt(
+                        property.getKey().substring(ZigBeeBindingConstants.THING_PROPERTY_SCENE_PREFIX.length()));
+                sceneRegistry.deserializeScene(sceneId, property.getValue());
+            } catch (NumberFormatException e) {
+                logger.debug("{}: Invalid scene property {}", getThing().getUID(), property.getKey());
+            }
+        }
+    }
+
+    private int getTransitionTime(Channel channel) {
+        Object transitionTime = channel.getConfiguration().get(ZclLevelControlConfig.CONFIG_DEFAULTTRANSITIONTIME);
+        if (transitionTime instanceof BigDecimal) {
+            return ((BigDecimal) transitionTime).intValue();
+        }
+        return TRANSITION_TIME_DEFAULT;
+    }
+
+    /**
+     * Creates the ZCL commands to send for a channel command
+     *
+     * @param channelTypeUID the {@link ChannelTypeUID} of the channel
+     * @param command the {@link Command}
+     * @param transitionTime the transition time in 100ms intervals
+     * @return the list of {@link ZclCommand}s to send. This is empty if the command is not supported.
+     */
+    List<ZclCommand> createCommands(ChannelTypeUID channelTypeUID, Command command, int transitionTime) {
+        List<ZclCommand> commands = new ArrayList<ZclCommand>();
+
+        switch (channelTypeUID.toString()) {
+            case ZigBeeBindingConstants.CHANNEL_COLOR_COLOR:
+                if (command instanceof HSBType) {
+                    HSBType color = (HSBType) command;
+                    float xyY[] = new float[3];
+                    ColorHelper.toXY(color.getHue().floatValue(), color.getSaturation().floatValue(), xyY);
+
+                    MoveToColorCommand colorCommand = new MoveToColorCommand();
+                    colorCommand.setColorX((int) (xyY[0] * 65536.0f + 0.5f));
+                    colorCommand.setColorY((int) (xyY[1] * 65536.0f + 0.5f));
+                    colorCommand.setTransitionTime(transitionTime);
+                    commands.add(colorCommand);
+                    commands.add(createLevelCommand(color.getBrightness(), transitionTime));
+                    break;
+                }
+                // Fall through for brightness and on/off commands
+            case ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL:
+                if (command instanceof PercentType) {
+                    commands.add(createLevelCommand((PercentType) command, transitionTime));
+                    break;
+                }
+                // Fall through for on/off commands
+            case ZigBeeBindingConstants.CHANNEL_SWITCH_ONOFF:
+                if (command == OnOffType.ON) {
+                    commands.add(new OnCommand());
+                } else if (command == OnOffType.OFF) {
+                    commands.add(new OffCommand());
+                }
+                break;
+            case ZigBeeBindingConstants.CHANNEL_SCENE_STORE:
+                if (isSceneId(command)) {
+                    StoreSceneCommand storeCommand = new StoreSceneCommand();
+                    storeCommand.setGroupId(groupId);
+                    storeCommand.setSceneId(((DecimalType) command).intValue());
+                    commands.add(storeCommand);
+                }
+                break;
+            case ZigBeeBindingConstants.CHANNEL_SCENE_RECALL:
+                if (isSceneId(command)) {
+                    RecallSceneCommand recallCommand = new RecallSceneCommand();
+                    recallCommand.setGroupId(groupId);
+                    recallCommand.setSceneId(((DecimalType) command).intValue());
+                    commands.add(recallCommand);
+                }
+                break;
+            case ZigBeeBindingConstants.CHANNEL_COLOR_TEMPERATURE:
+                if (command instanceof PercentType) {
+                    MoveToColorTemperatureCommand temperatureCommand = new MoveToColorTemperatureCommand();
+                    temperatureCommand.setColorTemperature((int) (1e6
+                            / ((((PercentType) command).doubleValue() * (CT_DEFAULT_MAX - CT_DEFAULT_MIN) / 100.0)
+                                    + CT_DEFAULT_MIN)
+                            + 0.5));
+                    temperatureCommand.setTransitionTime(transitionTime);
+                    commands.add(temperatureCommand);
+                }
+                break;
+            default:
+                break;
+        }
+
+        return commands;
+    }
+
+    private boolean isSceneId(Command command) {
+        if (!(command instanceof DecimalType) || command instanceof PercentType) {
+            return false;
+        }
+        int sceneId = ((DecimalType) command).intValue();
+        return sceneId >= ZigBeeSceneRegistry.SCENE_MIN && sceneId <= ZigBeeSceneRegistry.SCENE_MAX;
+    }
+
+    private ZclCommand createLevelCommand(PercentType level, int transitionTime) {
+        MoveToLevelWithOnOffCommand levelCommand = new MoveToLevelWithOnOffCommand();
+        levelCommand.setLevel((int) (level.floatValue() * 254.0f / 100.0f + 0.5f));
+        levelCommand.setTransitionTime(transitionTime);
+        return levelCommand;
+    }
+}
@@ -17,12 +17,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.ConfigDescription;
 import org.eclipse.smarthome.config.core.ConfigDescriptionProvider;
@@ -39,11 +38,16 @@ import org.eclipse.smarthome.core.thing.binding.firmware.Firmware;
 import org.eclipse.smarthome.core.thing.binding.firmware.FirmwareUpdateHandler;
 import org.eclipse.smarthome.core.thing.binding.firmware.ProgressCallback;
 import org.eclipse.smarthome.core.thing.binding.firmware.ProgressStep;
+import org.eclipse.smarthome.core.thing.type.ChannelKind;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
 import org.openhab.binding.zigbee.discovery.ZigBeeNodePropertyDiscoverer;
+import org.openhab.binding.zigbee.internal.ZigBeeCommandQueue;
+import org.openhab.binding.zigbee.internal.ZigBeePollScheduler.PollTask;
+import org.openhab.binding.zigbee.internal.converter.ZigBeeAttributeDispatcher;
 import org.openhab.binding.zigbee.internal.converter.ZigBeeBaseChannelConverter;
 import org.openhab.binding.zigbee.internal.converter.ZigBeeChannelConverterFactory;
 import org.slf4j.Logger;
@@ -88,20 +92,41 @@ public class ZigBeeThingHandler extends BaseThingHandler
     private boolean nodeInitialised = false;
 
     private final Object pollingSync = new Object();
-    private ScheduledFuture<?> pollingJob = null;
+    private final List<String> pollKeys = new ArrayList<String>();
     private final int POLLING_PERIOD_MIN = 5;
     private final int POLLING_PERIOD_MAX = 86400;
-    private final int POLLING_PERIOD_DEFAULT = 1800;
-    private int pollingPeriod = POLLING_PERIOD_DEFAULT;
 
     private boolean firmwareUpdateInProgress = false;
 
+    /**
+     * The queue of commands to be sent to the device. Only one command is sent at a time, and a newer command for a
+     * channel replaces any command for the channel that is still waiting.
+     */
+    private ZigBeeCommandQueue commandQueue;
+
     /**
      * A set of channels that have been linked to items. This is used to ensure we only poll channels that are linked to
      * keep network activity to a minimum.
      */
     private final Set<ChannelUID> thingChannelsPoll = new HashSet<ChannelUID>();
 
+    /**
+     * The last state set for each channel. This is used to record the expected states when a scene is stored.
+     */
+    private final Map<ChannelUID, State> channelStates = new ConcurrentHashMap<ChannelUID, State>();
+
+    /**
+     * The channels with an initialised converter. Converters configure binding and reporting in the device when they
+     * are initialised, so this is only done once the channel is linked to avoid traffic for channels that are unused.
+     */
+    private final Set<ChannelUID> channelsInitialised = Collections
+            .newSetFromMap(new ConcurrentHashMap<ChannelUID, Boolean>());
+
+    /**
+     * Routes the attribute reports from the clusters of the node to the converters that require them
+     */
+    private final ZigBeeAttributeDispatcher attributeDispatcher = new ZigBeeAttributeDispatcher();
+
     public ZigBeeThingHandler(Thing zigbeeDevice) {
         super(zigbeeDevice);
     }
@@ -117,6 +142,7 @@ public class ZigBeeThingHandler extends BaseThingHandler
             return;
         }
         nodeIeeeAddress = new IeeeAddress(configAddress);
+        commandQueue = new ZigBeeCommandQueue(nodeIeeeAddress, scheduler);
 
         updateStatus(ThingStatus.OFFLINE);
 
@@ -143,32 +169,45 @@ public class ZigBeeThingHandler extends BaseThingHandler
         initialiseZigBeeNode();
     }
 
+    /**
+     * Queues the node initialisation with the coordinator, which limits the number of nodes initialised at once
+     */
     private void initialiseZigBeeNode() {
-        scheduler.schedule(new Callable<Void>() {
+        if (nodeInitialised || coordinatorHandler == null) {
+            return;
+        }
+        coordinatorHandler.scheduleNodeInitialisation(nodeIeeeAddress, new Callable<Boolean>() {
             @Override
-            public Void call() throws Exception {
-                doNodeInitialisation();
-                return null;
+            public Boolean call() throws Exception {
+                return doNodeInitialisation();
             }
-        }, 10, TimeUnit.MILLISECONDS);
+        });
     }
 
-    private synchronized void doNodeInitialisation() {
+    /**
+     * Initialises the node and creates the channel converters
+     *
+     * @return true if the node is initialised, false if initialisation is deferred or failed
+     */
+    private synchronized boolean doNodeInitialisation() {
         if (nodeInitialised) {
-            return;
+            return true;
+        }
+        if (coordinatorHandler == null || nodeIeeeAddress == null) {
+            return false;
         }
 
         ZigBeeNode node = coordinatorHandler.getNode(nodeIeeeAddress);
         if (node == null) {
             logger.debug("{}: Node not found - deferring handler initialisation", nodeIeeeAddress);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE, ZigBeeBindingConstants.OFFLINE_NODE_NOT_FOUND);
-            return;
+            return false;
         }
         if (!node.isDiscovered()) {
             logger.debug("{}: Node has not finished discovery", nodeIeeeAddress);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
                     ZigBeeBindingConstants.OFFLINE_DISCOVERY_INCOMPLETE);
-            return;
+            return false;
         }
 
         logger.debug("{}: Start initialising ZigBee Thing handler", nodeIeeeAddress);
@@ -176,18 +215,23 @@ public class ZigBeeThingHandler extends BaseThingHandler
         // Create the channel factory
         ZigBeeChannelConverterFactory factory = new ZigBeeChannelConverterFactory();
 
-        // Create the channels from the device
-        // Process all the endpoints for this device and add all channels as derived from the supported clusters
-        List<Channel> nodeChannels = new ArrayList<Channel>();
-        for (ZigBeeEndpoint endpoint : coordinatorHandler.getNodeEndpoints(nodeIeeeAddress)) {
-            logger.debug("{}: Checking endpoint {} channels", nodeIeeeAddress, endpoint.getEndpointId());
-            nodeChannels.addAll(factory.getChannels(getThing().getUID(), endpoint));
+        // Use the channels discovered when the binding last ran if the device hasn't changed
+        List<Channel> nodeChannels = coordinatorHandler.getCachedChannels(nodeIeeeAddress, getThing().getUID());
+        boolean channelsDiscovered = nodeChannels == null;
+        if (!channelsDiscovered) {
+            logger.debug("{}: Using {} cached channels", nodeIeeeAddress, nodeChannels.size());
+        } else {
+            // Create the channels from the device
+            // Process all the endpoints for this device and add all channels as derived from the supported clusters
+            nodeChannels = new ArrayList<Channel>();
+            for (ZigBeeEndpoint endpoint : coordinatorHandler.getNodeEndpoints(nodeIeeeAddress)) {
+                logger.debug("{}: Checking endpoint {} channels", nodeIeeeAddress, endpoint.getEndpointId());
+                nodeChannels.addAll(factory.getChannels(getThing().getUID(), endpoint));
 
+            }
+            logger.debug("{}: Created {} channels", nodeIeeeAddress, nodeChannels.size());
         }
-        logger.debug("{}: Created {} channels", nodeIeeeAddress, nodeChannels.size());
         try {
-            pollingPeriod = POLLING_PERIOD_MAX;
-
             // Check if the channels we've discovered are the same
             List<ChannelUID> oldChannelUidList = new ArrayList<ChannelUID>();
             for (Channel channel : getThing().getChannels()) {
@@ -224,25 +268,25 @@ public class ZigBeeThingHandler extends BaseThingHandler
                     logger.debug("{}: No handler found for {}", nodeIeeeAddress, channel.getUID());
                     continue;
                 }
-
-                logger.debug("{}: Initializing channel {} with {}", nodeIeeeAddress, channel.getUID(), handler);
-                handler.initializeConverter();
-
-                handler.handleRefresh();
-
-                // TODO: Update the channel configuration from the device if method available
-                handler.updateConfiguration(channel.getConfiguration());
+                handler.setAttributeDispatcher(attributeDispatcher);
 
                 channels.put(channel.getUID(), handler);
 
-                if (handler.getPollingPeriod() < pollingPeriod) {
-                    pollingPeriod = handler.getPollingPeriod();
+                // Converters for channels that aren't linked are initialised when the channel is linked
+                if (isLinked(channel.getUID()) || isTriggerChannel(channel)) {
+                    initialiseConverter(channel.getUID());
                 }
             }
+
+            // Send the reads requested by the channel refreshes
+            coordinatorHandler.flushAttributeReads(nodeIeeeAddress);
         } catch (Exception e) {
             logger.error("{}: Exception creating channels ", nodeIeeeAddress, e);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.HANDLER_INITIALIZING_ERROR);
-            return;
+            return false;
+        } finally {
+            // Converters initialised later must not use the results cached during the initialisation
+            factory.closeDiscoverySession();
         }
         logger.debug("{}: Channel initialisation complete", nodeIeeeAddress);
 
@@ -252,6 +296,11 @@ public class ZigBeeThingHandler extends BaseThingHandler
         Map<String, String> newProperties = propertyDiscoverer.getProperties(coordinatorHandler, node);
         updateProperties(newProperties);
 
+        // Cache the discovered channels once the node properties used in the cache fingerprint have been read
+        if (channelsDiscovered) {
+            coordinatorHandler.setCachedChannels(nodeIeeeAddress, nodeChannels);
+        }
+
         // Update the binding table.
         // We're not doing anything with the information here, but we want it up to date so it's ready for use later.
         try {
@@ -272,6 +321,7 @@ public class ZigBeeThingHandler extends BaseThingHandler
 
         // Save the network state
         coordinatorHandler.serializeNetwork();
+        return true;
     }
 
     @Override
@@ -280,16 +330,22 @@ public class ZigBeeThingHandler extends BaseThingHandler
 
         stopPolling();
 
+        if (commandQueue != null) {
+            commandQueue.shutdown();
+        }
+
         if (nodeIeeeAddress != null) {
             if (coordinatorHandler != null) {
                 coordinatorHandler.removeNetworkNodeListener(this);
+                coordinatorHandler.cancelNodeInitialisation(nodeIeeeAddress);
             }
             nodeIeeeAddress = null;
         }
 
-        for (ZigBeeBaseChannelConverter channel : channels.values()) {
-            channel.disposeConverter();
+        for (ChannelUID channelUID : channelsInitialised) {
+            channels.get(channelUID).disposeConverter();
         }
+        channelsInitialised.clear();
         channels.clear();
 
         nodeInitialised = false;
@@ -297,85 +353,180 @@ public class ZigBeeThingHandler extends BaseThingHandler
 
     private void stopPolling() {
         synchronized (pollingSync) {
-            if (pollingJob != null) {
-                pollingJob.cancel(true);
-                pollingJob = null;
+            if (!pollKeys.isEmpty()) {
+                for (String pollKey : pollKeys) {
+                    coordinatorHandler.cancelPoll(pollKey);
+                }
+                pollKeys.clear();
                 logger.debug("{}: Polling stopped", nodeIeeeAddress);
             }
         }
     }
 
     /**
-     * Start polling channel updates
+     * Start polling channel updates. Channels with the same polling period are polled together by the coordinator
+     * poll scheduler, which spreads the polls from all things over time. Polling channels together allows the
+     * attribute reads to be combined into a single command for each cluster.
      */
     private void startPolling() {
-        Runnable pollingRunnable = new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    logger.debug("{}: Polling...", nodeIeeeAddress);
-
-                    for (ChannelUID channelUid : channels.keySet()) {
-                        if (!thingChannelsPoll.contains(channelUid)) {
-                            // Don't poll if this channel isn't linked
-                            continue;
-                        }
+        synchronized (pollingSync) {
+            stopPolling();
 
-                        logger.debug("{}: Polling {}", nodeIeeeAddress, channelUid);
-                        ZigBeeBaseChannelConverter converter = channels.get(channelUid);
-                        if (converter == null) {
-                            logger.debug("{}: Polling aborted as no converter found for {}", nodeIeeeAddress,
-                                    channelUid);
-                        } else {
-                            converter.handleRefresh();
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.warn("{}: Polling aborted due to exception ", nodeIeeeAddress, e);
+            Map<Integer, List<ChannelUID>> pollGroups = new TreeMap<Integer, List<ChannelUID>>();
+            for (ChannelUID channelUid : channelsInitialised) {
+                int pollingPeriod = channels.get(channelUid).getPollingPeriod();
+                if (pollingPeriod < POLLING_PERIOD_MIN) {
+                    logger.debug("{}: Polling period for {} was set below minimum value. Using minimum.",
+                            nodeIeeeAddress, channelUid);
+                    pollingPeriod = POLLING_PERIOD_MIN;
                 }
-            }
-        };
 
-        synchronized (pollingSync) {
-            stopPolling();
+                if (pollingPeriod > POLLING_PERIOD_MAX) {
+                    logger.debug("{}: Polling period for {} was set above maximum value. Using maximum.",
+                            nodeIeeeAddress, channelUid);
+                    pollingPeriod = POLLING_PERIOD_MAX;
+                }
+
+                List<ChannelUID> pollGroup = pollGroups.get(pollingPeriod);
+                if (pollGroup == null) {
+                    pollGroup = new ArrayList<ChannelUID>();
+                    pollGroups.put(pollingPeriod, pollGroup);
+                }
+                pollGroup.add(channelUid);
+            }
 
-            if (pollingPeriod < POLLING_PERIOD_MIN) {
-                logger.debug("{}: Polling period was set below minimum value. Using minimum.", nodeIeeeAddress);
-                pollingPeriod = POLLING_PERIOD_MIN;
+            for (Entry<Integer, List<ChannelUID>> pollGroup : pollGroups.entrySet()) {
+                final int period = pollGroup.getKey();
+                final List<ChannelUID> pollChannels = pollGroup.getValue();
+                String pollKey = getThing().getUID() + "#" + period;
+                coordinatorHandler.schedulePoll(pollKey, period, new PollTask() {
+                    @Override
+                    public int poll() {
+                        IeeeAddress address = nodeIeeeAddress;
+                        for (ChannelUID channelUid : pollChannels) {
+                            if (!thingChannelsPoll.contains(channelUid)) {
+                                // Don't poll if this channel isn't linked
+                                continue;
+                            }
+
+                            ZigBeeBaseChannelConverter converter = channels.get(channelUid);
+                            if (converter == null) {
+                                logger.debug("{}: Polling aborted as no converter found for {}", address,
+                                        channelUid);
+                            } else if (!converter.isPollRequired(period)) {
+                                // Don't poll if the device has reported within the polling period
+                                logger.trace("{}: Polling {} skipped as channel was recently updated", address,
+                                        channelUid);
+                            } else {
+                                logger.debug("{}: Polling {}", address, channelUid);
+                                converter.handlePoll();
+                            }
+                        }
+                        return coordinatorHandler.flushAttributeReads(address);
+                    }
+                });
+                pollKeys.add(pollKey);
+                logger.debug("{}: Polling {} initialised at {}s", nodeIeeeAddress, pollChannels, period);
             }
+        }
+    }
 
-            if (pollingPeriod > POLLING_PERIOD_MAX) {
-                logger.debug("{}: Polling period was set above maximum value. Using maximum.", nodeIeeeAddress);
-                pollingPeriod = POLLING_PERIOD_MAX;
+    /**
+     * Initialises the converter for a channel if it is not already initialised. This configures the binding and
+     * reporting in the device, and requests the current state.
+     *
+     * @param channelUID the {@link ChannelUID} of the channel
+     * @return true if the converter was initialised by this call
+     */
+    private boolean initialiseConverter(ChannelUID channelUID) {
+        ZigBeeBaseChannelConverter converter = channels.get(channelUID);
+        Channel channel = getThing().getChannel(channelUID.getId());
+        if (converter == null || channel == null) {
+            return false;
+        }
+        synchronized (converter) {
+            if (channelsInitialised.contains(channelUID)) {
+                return false;
             }
 
-            // Polling starts almost immediately to get an immediate refresh
-            // Add some random element to the period so that all things aren't synchronised
-            int pollingPeriodMs = pollingPeriod * 1000 + new Random().nextInt(pollingPeriod * 100);
-            pollingJob = scheduler.scheduleAtFixedRate(pollingRunnable, new Random().nextInt(pollingPeriodMs),
-                    pollingPeriodMs, TimeUnit.MILLISECONDS);
-            logger.debug("{}: Polling initialised at {}ms", nodeIeeeAddress, pollingPeriodMs);
+            logger.debug("{}: Initializing channel {} with {}", nodeIeeeAddress, channelUID, converter);
+            converter.initializeConverter();
+
+            converter.handleRefresh();
+
+            // TODO: Update the channel configuration from the device if method available
+            converter.updateConfiguration(channel.getConfiguration());
+
+            channelsInitialised.add(channelUID);
         }
+        return true;
+    }
+
+    /**
+     * Checks if a channel is a trigger channel. Trigger channels are not linked to items, so their converters are
+     * always initialised.
+     *
+     * @param channel the {@link Channel} to check
+     * @return true if the channel is a trigger channel
+     */
+    private boolean isTriggerChannel(Channel channel) {
+        return channel.getKind() == ChannelKind.TRIGGER
+                || ZigBeeBindingConstants.ITEM_TYPE_TRIGGER.equals(channel.getAcceptedItemType());
     }
 
     @Override
-    public void channelLinked(ChannelUID channelUID) {
+    public void channelLinked(final ChannelUID channelUID) {
         logger.debug("{}: Channel {} linked - polling started.", nodeIeeeAddress, channelUID);
 
         // We keep track of what channels are used and only poll channels that the framework is using
         thingChannelsPoll.add(channelUID);
+
+        if (commandQueue == null || channelsInitialised.contains(channelUID) || !channels.containsKey(channelUID)) {
+            return;
+        }
+
+        // Initialise the converter from the command queue to keep a single transaction in progress with the device
+        commandQueue.submit(channelUID + "#link", () -> {
+            if (initialiseConverter(channelUID)) {
+                coordinatorHandler.flushAttributeReads(nodeIeeeAddress);
+                startPolling();
+            }
+        });
     }
 
     @Override
-    public void channelUnlinked(ChannelUID channelUID) {
+    public void channelUnlinked(final ChannelUID channelUID) {
         logger.debug("{}: Channel {} unlinked - polling stopped.", nodeIeeeAddress, channelUID);
 
         // We keep track of what channels are used and only poll channels that the framework is using
         thingChannelsPoll.remove(channelUID);
+
+        Channel channel = getThing().getChannel(channelUID.getId());
+        if (commandQueue == null || channel == null || isTriggerChannel(channel)) {
+            return;
+        }
+
+        // Release the converter so that it no longer processes reports for the channel. This replaces an
+        // initialisation that is still queued. The binding in the device is kept as clusters may be shared with other
+        // channels.
+        commandQueue.submit(channelUID + "#link", () -> {
+            ZigBeeBaseChannelConverter converter = channels.get(channelUID);
+            if (converter == null) {
+                return;
+            }
+            synchronized (converter) {
+                if (channelsInitialised.remove(channelUID)) {
+                    logger.debug("{}: Disposing channel {}", nodeIeeeAddress, channelUID);
+                    converter.disposeConverter();
+                }
+            }
+        });
     }
 
     @Override
     public void handleRemoval() {
+        coordinatorHandler.removeCachedChannels(nodeIeeeAddress);
+        coordinatorHandler.removeAttributeReads(nodeIeeeAddress);
         coordinatorHandler.leave(nodeIeeeAddress);
         updateStatus(ThingStatus.REMOVED);
     }
@@ -422,21 +573,35 @@ public class ZigBeeThingHandler extends BaseThingHandler
             return;
         }
 
-        Runnable commandHandler = new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    if (command == RefreshType.REFRESH) {
-                        handler.handleRefresh();
-                    } else {
-                        handler.handleCommand(command);
-                    }
-                } catch (Exception e) {
-                    logger.debug("{}: Exception sending command to channel {}", nodeIeeeAddress, channelUID, e);
+        // Refreshes are queued separately so they don't replace a command for the same channel
+        if (command == RefreshType.REFRESH) {
+            commandQueue.submit(channelUID + "#" + RefreshType.REFRESH, () -> {
+                if (!initialiseConverter(channelUID)) {
+                    handler.handleRefresh();
                 }
-            }
-        };
-        scheduler.schedule(commandHandler, 0, TimeUnit.MILLISECONDS);
+            });
+        } else {
+            commandQueue.submit(channelUID, () -> {
+                initialiseConverter(channelUID);
+                handler.handleCommand(command);
+            });
+        }
+    }
+
+    /**
+     * Queues a command generated by a channel converter, such as the later step of a command that must wait for the
+     * device. The command is queued with the commands from openHAB for the channel, so a newer command for the channel
+     * replaces it, and it is discarded if a newer command is already waiting.
+     *
+     * @param channelUID the {@link ChannelUID} of the channel
+     * @param command the {@link Runnable} that sends the command
+     * @return true if the command was queued
+     */
+    public boolean submitChannelCommand(ChannelUID channelUID, Runnable command) {
+        if (commandQueue == null) {
+            return false;
+        }
+        return commandQueue.submitIfAbsent(channelUID, command);
     }
 
     @Override
@@ -456,10 +621,55 @@ public class ZigBeeThingHandler extends BaseThingHandler
         if (firmwareUpdateInProgress) {
             return;
         }
+        channelStates.put(channel, state);
         updateState(channel, state);
         updateStatus(ThingStatus.ONLINE);
     }
 
+    /**
+     * Updates the state of channels following a command sent to a group that the device is a member of. The state is
+     * updated without waiting for the device to report so that the thing follows the group, and any device that did
+     * not act on the command will correct the state when it next reports.
+     *
+     * @param endpointId the endpoint that is a member of the group, or null for all endpoints
+     * @param channelTypeUID the {@link ChannelTypeUID} of the channels to update
+     * @param state the new {@link State}
+     */
+    public void setGroupChannelState(Integer endpointId, ChannelTypeUID channelTypeUID, State state) {
+        for (Channel channel : getThing().getChannels()) {
+            if (!channelTypeUID.equals(channel.getChannelTypeUID())) {
+                continue;
+            }
+            if (endpointId != null && !endpointId.toString()
+                    .equals(channel.getProperties().get(ZigBeeBindingConstants.CHANNEL_PROPERTY_ENDPOINT))) {
+                continue;
+            }
+            setChannelState(channel.getUID(), state);
+        }
+    }
+
+    /**
+     * Gets the last state set for each channel on an endpoint
+     *
+     * @param endpointId the endpoint, or null for all endpoints
+     * @return map of {@link ChannelUID} to the last {@link State} of the channel
+     */
+    public Map<ChannelUID, State> getChannelStates(Integer endpointId) {
+        Map<ChannelUID, State> states = new HashMap<ChannelUID, State>();
+        for (Entry<ChannelUID, State> channelState : channelStates.entrySet()) {
+            Channel channel = getThing().getChannel(channelState.getKey().getId());
+            if (channel == null) {
+                continue;
+            }
+            if (endpointId != null && !endpointId.toString()
+                    .equals(channel.getProperties().get(ZigBeeBindingConstants.CHANNEL_PROPERTY_ENDPOINT))) {
+                continue;
+            }
+            states.put(channelState.getKey(), channelState.getValue());
+        }
+        return states;
+    }
+
     @Override
     public void nodeAdded(ZigBeeNode node) {
         nodeUpdated(node);
@@ -518,6 +728,14 @@ public class ZigBeeThingHandler extends BaseThingHandler
         properties.put(ZigBeeBindingConstants.THING_PROPERTY_LASTUPDATE,
                 ZigBeeBindingConstants.getISO8601StringForDate(node.getLastUpdateTime()));
         properties.put(ZigBeeBindingConstants.THING_PROPERTY_NETWORKADDRESS, node.getNetworkAddress().toString());
+        if (commandQueue != null) {
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_COMMANDQUEUE,
+                    Integer.toString(commandQueue.getQueueDepth()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_COMMANDSCOALESCED,
+                    Long.toString(commandQueue.getCoalesced()));
+            properties.put(ZigBeeBindingConstants.THING_PROPERTY_COMMANDSDROPPED,
+                    Long.toString(commandQueue.getDropped()));
+        }
 
         updateProperties(properties);
 
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+import com.zsmartsystems.zigbee.zcl.ZclTransactionMatcher;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ReadAttributesCommand;
+import com.zsmartsystems.zigbee.zcl.protocol.ZclCommandDirection;
+
+/**
+ * Collects the attribute reads requested by the channel converters of a node, and sends them as a single ZCL Read
+ * Attributes command per cluster. Several converters often read attributes from the same clusters - for example the
+ * color, color temperature and level channels of a bulb - so combining the reads reduces the number of frames sent for
+ * each refresh.
+ * <p>
+ * Reads are sent when {@link #flush()} is called at the end of a refresh cycle, or after a short window if no flush is
+ * requested. The values are returned through the cluster attribute listeners as with any other read, so the converters
+ * are updated in the same way as if the attributes were read individually.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeAttributeReadBatcher {
+    private final Logger logger = LoggerFactory.getLogger(ZigBeeAttributeReadBatcher.class);
+
+    /**
+     * The default time in milliseconds that reads are held before they are sent if {@link #flush()} is not called
+     */
+    public static final int DEFAULT_WINDOW = 50;
+
+    /**
+     * The maximum number of attributes read in a single command so that the response fits in one frame
+     */
+    private static final int MAX_ATTRIBUTES = 12;
+
+    private final ZigBeeNetworkManager networkManager;
+    private final ScheduledExecutorService scheduler;
+    private final long window;
+
+    private final Map<ZclCluster, Set<Integer>> pending = new LinkedHashMap<ZclCluster, Set<Integer>>();
+    private ScheduledFuture<?> flushJob;
+
+    private final AtomicLong readsRequested = new AtomicLong();
+    private final AtomicLong commandsSent = new AtomicLong();
+
+    /**
+     * Creates the batcher
+     *
+     * @param networkManager the {@link ZigBeeNetworkManager} used to send the commands
+     * @param scheduler the {@link ScheduledExecutorService} used to send reads if they are not flushed
+     * @param window the time in milliseconds that reads are held before they are sent
+     */
+    public ZigBeeAttributeReadBatcher(ZigBeeNetworkManager networkManager, ScheduledExecutorService scheduler,
+            long window) {
+        this.networkManager = networkManager;
+        this.scheduler = scheduler;
+        this.window = window;
+    }
+
+    /**
+     * Requests an attribute is read. The read is combined with other reads from the same cluster, and an attribute
+     * requested more than once is only read once.
+     *
+     * @param cluster the {@link ZclCluster} to read from
+     * @param attributeId the attribute to read
+     */
+    public void read(ZclCluster cluster, int attributeId) {
+        readsRequested.incrementAndGet();
+        synchronized (pending) {
+            Set<Integer> attributes = pending.get(cluster);
+            if (attributes == null) {
+                attributes = new LinkedHashSet<Integer>();
+                pending.put(cluster, attributes);
+            }
+            attributes.add(attributeId);
+
+            if (flushJob == null) {
+                flushJob = scheduler.schedule(() -> {
+                    flush();
+                }, window, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends all pending reads
+     *
+     * @return the number of Read Attributes commands sent
+     */
+    public int flush() {
+        Map<ZclCluster, Set<Integer>> reads;
+        synchronized (pending) {
+            if (flushJob != null) {
+                flushJob.cancel(false);
+                flushJob = null;
+            }
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            reads = new LinkedHashMap<ZclCluster, Set<Integer>>(pending);
+            pending.clear();
+        }
+
+        int sent = 0;
+        for (Entry<ZclCluster, Set<Integer>> read : reads.entrySet()) {
+            ZclCluster cluster = read.getKey();
+            List<Integer> attributes = new ArrayList<Integer>(read.getValue());
+            for (int start = 0; start < attributes.size(); start += MAX_ATTRIBUTES) {
+                List<Integer> identifiers = attributes.subList(start,
+                        Math.min(start + MAX_ATTRIBUTES, attributes.size()));
+                logger.debug("{}: Reading attributes {} from cluster {}", cluster.getZigBeeAddress(), identifiers,
+                        cluster.getClusterName());
+
+                ReadAttributesCommand command = new ReadAttributesCommand();
+                command.setClusterId(cluster.getClusterId());
+                command.setIdentifiers(new ArrayList<Integer>(identifiers));
+                command.setDestinationAddress(cluster.getZigBeeAddress());
+                if (cluster.isClient()) {
+                    command.setCommandDirection(ZclCommandDirection.SERVER_TO_CLIENT);
+                }
+                networkManager.unicast(command, new ZclTransactionMatcher());
+                commandsSent.incrementAndGet();
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Discards all pending reads without sending them
+     */
+    public void cancel() {
+        synchronized (pending) {
+            if (flushJob != null) {
+                flushJob.cancel(false);
+                flushJob = null;
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * @return the number of attribute reads that have been requested
+     */
+    public long getReadsRequested() {
+        return readsRequested.get();
+    }
+
+    /**
+     * @return the number of Read Attributes commands that have been sent
+     */
+    public long getCommandsSent() {
+        return commandsSent.get();
+    }
+}
@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single-producer / single-consumer lock-free byte ring buffer used to pass received data from a port receive thread
+ * to the dongle parser.
+ * <p>
+ * The producer (eg the serial event thread) calls {@link #put(byte[], int, int)} and the consumer (the dongle receive
+ * thread) calls {@link #take(long)} or {@link #take(byte[], int, int, long)}. No locks are taken on either path - the
+ * head and tail positions are published through volatile fields, and the consumer only parks when the buffer is empty.
+ * The producer will only unpark the consumer if it is actually waiting, so there is at most one wakeup per chunk of
+ * data received.
+ * <p>
+ * When the buffer is full, the {@link OverflowPolicy} defines what happens to new data. With
+ * {@link OverflowPolicy#GROW} the producer links a new ring of twice the size, up to the maximum capacity, and the
+ * consumer moves to the new ring once it has drained the old one. With {@link OverflowPolicy#DROP}, or once the
+ * maximum capacity is reached, new data is discarded. The maximum capacity limits the size of a single ring, so while
+ * the consumer drains the older rings the buffer may briefly hold more than this. Overflows, discarded bytes and the
+ * high water mark are counted so the buffer can be sized from real data.
+ * <p>
+ * Only one thread may act as producer, and one thread as consumer, at any one time.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeByteRingBuffer {
+    /**
+     * Defines the action taken when data is received and the buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard the new data
+         */
+        DROP,
+        /**
+         * Increase the buffer size up to the maximum capacity, then discard the new data
+         */
+        GROW
+    }
+
+    /**
+     * A single ring. The length is always a power of two so we can mask the positions.
+     */
+    private static class Segment {
+        final byte[] data;
+        final int mask;
+
+        /**
+         * The consumer position - the next byte to be read. Only written by the consumer.
+         */
+        volatile long head = 0;
+
+        /**
+         * The producer position - the next byte to be written. Only written by the producer.
+         */
+        volatile long tail = 0;
+
+        /**
+         * The segment the producer moved to when this one filled. Once set, no more data is written to this segment.
+         */
+        volatile Segment next = null;
+
+        Segment(int size) {
+            data = new byte[size];
+            mask = size - 1;
+        }
+    }
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int maximumCapacity;
+
+    /**
+     * The segment the consumer is reading from
+     */
+    private volatile Segment readSegment;
+
+    /**
+     * The segment the producer is writing to
+     */
+    private volatile Segment writeSegment;
+
+    /**
+     * The consumer thread if it is currently parked waiting for data
+     */
+    private volatile Thread waiter = null;
+
+    /**
+     * Set when the buffer is closed to release any waiting consumer
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Statistics - only written by the producer
+     */
+    private volatile long overflowCount = 0;
+    private volatile long droppedBytes = 0;
+    private volatile int highWaterMark = 0;
+
+    /**
+     * Set while the producer is discarding data so that a run of discarded data is counted as a single overflow
+     */
+    private boolean overflowing = false;
+
+    /**
+     * Creates a fixed size ring buffer that drops data when it is full. The capacity is rounded up to the next power of
+     * two.
+     *
+     * @param capacity the minimum number of bytes the buffer can hold
+     */
+    public ZigBeeByteRingBuffer(int capacity) {
+        this(capacity, capacity, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Creates a ring buffer. The capacities are rounded up to the next power of two.
+     *
+     * @param capacity the initial number of bytes the buffer can hold
+     * @param maximumCapacity the maximum number of bytes the buffer may grow to when using
+     *            {@link OverflowPolicy#GROW}
+     * @param overflowPolicy the {@link OverflowPolicy} to apply when the buffer is full
+     */
+    public ZigBeeByteRingBuffer(int capacity, int maximumCapacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive");
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.maximumCapacity = roundUp(Math.max(capacity, maximumCapacity));
+        readSegment = writeSegment = new Segment(roundUp(capacity));
+    }
+
+    private static int roundUp(int capacity) {
+        int size = Integer.highestOneBit(capacity);
+        return size < capacity ? size << 1 : size;
+    }
+
+    /**
+     * Gets the current capacity of the buffer
+     *
+     * @return the number of bytes the buffer can hold
+     */
+    public int getCapacity() {
+        return writeSegment.data.length;
+    }
+
+    /**
+     * Gets the {@link OverflowPolicy} used by this buffer
+     *
+     * @return the {@link OverflowPolicy}
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Gets the number of bytes currently waiting in the buffer
+     *
+     * @return the number of bytes available to the consumer
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment = readSegment; segment != null; segment = segment.next) {
+            size += (int) (segment.tail - segment.head);
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of times data was received and could not be stored in the buffer. Data that is discarded
+     * continuously until space becomes available again is counted as a single overflow.
+     *
+     * @return the number of overflow events
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Gets the total number of bytes that have been discarded because the buffer was full
+     *
+     * @return the number of bytes discarded
+     */
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    /**
+     * Gets the maximum number of bytes that have been held in the buffer
+     *
+     * @return the high water mark in bytes
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Adds a single byte to the buffer. Producer only.
+     *
+     * @param value the byte to add
+     * @return true if the byte was added, false if the buffer was full
+     */
+    public boolean put(byte value) {
+        Segment segment = writeSegment;
+        long tail = segment.tail;
+        if (tail - segment.head >= segment.data.length) {
+            segment = grow(segment);
+            if (segment == null) {
+                overflow(1);
+                return false;
+            }
+            tail = segment.tail;
+        }
+        segment.data[(int) tail & segment.mask] = value;
+        segment.tail = tail + 1;
+        overflowing = false;
+        updateHighWaterMark();
+        signal();
+        return true;
+    }
+
+    /**
+     * Adds a block of data to the buffer and wakes the consumer once for the whole block. Producer only.
+     *
+     * @param data the array containing the data
+     * @param offset the offset of the first byte in the array
+     * @param length the number of bytes to add
+     * @return the number of bytes added. This will be less than length if the buffer is full.
+     */
+    public int put(byte[] data, int offset, int length) {
+        Segment segment = writeSegment;
+        int stored = 0;
+        while (stored < length) {
+            long tail = segment.tail;
+            int free = segment.data.length - (int) (tail - segment.head);
+            if (free == 0) {
+                segment = grow(segment);
+                if (segment == null) {
+                    break;
+                }
+                continue;
+            }
+
+            int count = Math.min(free, length - stored);
+            int index = (int) tail & segment.mask;
+            int firstPart = Math.min(count, segment.data.length - index);
+            System.arraycopy(data, offset + stored, segment.data, index, firstPart);
+            if (firstPart < count) {
+                System.arraycopy(data, offset + stored + firstPart, segment.data, 0, count - firstPart);
+            }
+            segment.tail = tail + count;
+            stored += count;
+        }
+
+        if (stored < length) {
+            overflow(length - stored);
+        } else {
+            overflowing = false;
+        }
+        if (stored != 0) {
+            updateHighWaterMark();
+            signal();
+        }
+        return stored;
+    }
+
+    /**
+     * Removes a single byte from the buffer, waiting up to the specified time for data to arrive. Consumer only.
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @return the byte (0 to 255), or -1 if no data was received before the timeout or the buffer was closed
+     */
+    public int take(long timeout) {
+        Segment segment = readable();
+        if (segment == null) {
+            segment = await(timeout);
+            if (segment == null) {
+                return -1;
+            }
+        }
+        long head = segment.head;
+        int value = segment.data[(int) head & segment.mask] & 0xFF;
+        segment.head = head + 1;
+        return value;
+    }
+
+    /**
+     * Removes up to length bytes from the buffer, waiting up to the specified time for at least one byte to arrive.
+     * Consumer only.
+     *
+     * @param data the array to receive the data
+     * @param offset the offset in the array at which to start writing
+     * @param length the maximum number of bytes to read
+     * @param timeout the maximum time to wait in milliseconds
+     * @return the number of bytes read, or -1 if no data was received before the timeout or the buffer was closed
+     */
+    public int take(byte[] data, int offset, int length, long timeout) {
+        if (length == 0) {
+            return 0;
+        }
+        Segment segment = readable();
+        if (segment == null) {
+            segment = await(timeout);
+            if (segment == null) {
+                return -1;
+            }
+        }
+
+        long head = segment.head;
+        int count = Math.min(length, (int) (segment.tail - head));
+        int index = (int) head & segment.mask;
+        int firstPart = Math.min(count, segment.data.length - index);
+        System.arraycopy(segment.data, index, data, offset, firstPart);
+        if (firstPart < count) {
+            System.arraycopy(segment.data, 0, data, offset + firstPart, count - firstPart);
+        }
+        segment.head = head + count;
+        return count;
+    }
+
+    /**
+     * Discards all data currently in the buffer. This should be called from the consumer thread.
+     */
+    public void clear() {
+        Segment segment = readSegment;
+        while (segment.next != null) {
+            segment = segment.next;
+        }
+        segment.head = segment.tail;
+        readSegment = segment;
+    }
+
+    /**
+     * Closes the buffer, releasing any consumer waiting for data. Any data in the buffer can still be read.
+     */
+    public void close() {
+        closed = true;
+        signal();
+    }
+
+    /**
+     * Reopens a closed buffer and discards any data it holds. This must not be called while the producer is active.
+     */
+    public void open() {
+        Segment segment = writeSegment;
+        segment.head = segment.tail;
+        readSegment = segment;
+        closed = false;
+    }
+
+    /**
+     * Gets the segment the consumer should read from, moving on to the next segment if the current one has been
+     * drained and the producer has moved on. Consumer only.
+     *
+     * @return the {@link Segment} holding the next byte, or null if the buffer is empty
+     */
+    private Segment readable() {
+        Segment segment = readSegment;
+        while (segment.head == segment.tail) {
+            // The next pointer must be read before the tail is checked again. Once the next pointer is set, the
+            // producer will not write to this segment again, so if it is still empty it has been fully drained.
+            Segment next = segment.next;
+            if (next == null || segment.head != segment.tail) {
+                return next == null ? null : segment;
+            }
+            segment = next;
+            readSegment = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Called by the producer when the current segment is full
+     *
+     * @param segment the full {@link Segment}
+     * @return the new {@link Segment} to write to, or null if the buffer can't grow
+     */
+    private Segment grow(Segment segment) {
+        if (overflowPolicy != OverflowPolicy.GROW || segment.data.length >= maximumCapacity) {
+            return null;
+        }
+        Segment next = new Segment(Math.min(segment.data.length << 1, maximumCapacity));
+        writeSegment = next;
+        segment.next = next;
+        return next;
+    }
+
+    private void overflow(int dropped) {
+        if (!overflowing) {
+            overflowing = true;
+            overflowCount = overflowCount + 1;
+        }
+        droppedBytes = droppedBytes + dropped;
+    }
+
+    private void updateHighWaterMark() {
+        int size = size();
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+    }
+
+    /**
+     * Waits until data is available in the buffer
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @return the {@link Segment} holding the data, or null on timeout, interrupt or closure
+     */
+    private Segment await(long timeout) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        waiter = Thread.currentThread();
+        try {
+            // The waiter must be published before we check the tail so that the producer either sees the waiter,
+            // or we see the new tail.
+            Segment segment;
+            while ((segment = readable()) == null) {
+                if (closed || Thread.currentThread().isInterrupted()) {
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return segment;
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /**
+     * Wakes the consumer if it is waiting for data
+     */
+    private void signal() {
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
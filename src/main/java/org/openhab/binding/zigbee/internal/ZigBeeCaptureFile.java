@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads and writes the binary capture files used by {@link ZigBeeRecordingPort} and {@link ZigBeeReplayPort}.
+ * <p>
+ * The file starts with a header holding a magic number, the format version, and the time the capture started in
+ * milliseconds since the epoch. This is followed by one record per byte passed through the port -
+ * <ul>
+ * <li>the direction - 0 for data received from the dongle, 1 for data sent to the dongle
+ * <li>the time since the previous record in nanoseconds, as an unsigned variable length integer
+ * <li>the data byte
+ * </ul>
+ * Bytes within a frame are normally only a few microseconds apart, so most records take 4 or 5 bytes.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeCaptureFile {
+    private static final int MAGIC = 0x5A424350;
+    private static final int VERSION = 1;
+
+    /**
+     * A single byte in the capture
+     */
+    public static class Record {
+        private final boolean transmit;
+        private final long time;
+        private final int value;
+
+        Record(boolean transmit, long time, int value) {
+            this.transmit = transmit;
+            this.time = time;
+            this.value = value;
+        }
+
+        /**
+         * @return true if the byte was sent to the dongle, false if it was received from the dongle
+         */
+        public boolean isTransmit() {
+            return transmit;
+        }
+
+        /**
+         * @return the time of the byte in nanoseconds from the start of the capture
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return the data byte (0 to 255)
+         */
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Writes a capture file. The methods are synchronized as data is recorded from both the transmit and receive
+     * threads.
+     * <p>
+     * Records are buffered, and written to the file at least once every {@link #FLUSH_INTERVAL} while data is being
+     * recorded, or when {@link #flush()} is called, so the capture is still useful if the binding is not shut down
+     * cleanly.
+     */
+    public static class Writer implements Closeable {
+        /**
+         * The maximum time in nanoseconds that records are held in the buffer while data is being recorded
+         */
+        private static final long FLUSH_INTERVAL = 1000000000L;
+
+        private final DataOutputStream stream;
+        private final long startTime;
+        private long lastTime;
+        private long lastFlushTime;
+        private boolean flushPending = false;
+
+        /**
+         * Creates a new capture file, overwriting any existing file
+         *
+         * @param file the capture {@link File}
+         * @throws IOException if the file can't be created
+         */
+        public Writer(File file) throws IOException {
+            stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 8192));
+            startTime = System.nanoTime();
+            lastTime = startTime;
+            lastFlushTime = startTime;
+
+            stream.writeInt(MAGIC);
+            stream.writeByte(VERSION);
+            stream.writeLong(System.currentTimeMillis());
+        }
+
+        /**
+         * Records a byte passing through the port
+         *
+         * @param transmit true if the byte was sent to the dongle
+         * @param value the data byte
+         * @throws IOException if the record can't be written
+         */
+        public synchronized void record(boolean transmit, int value) throws IOException {
+            long now = System.nanoTime();
+            long delta = Math.max(0, now - lastTime);
+            lastTime = now;
+
+            stream.writeByte(transmit ? 1 : 0);
+            while ((delta & ~0x7FL) != 0) {
+                stream.writeByte((int) (delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            stream.writeByte((int) delta);
+            stream.writeByte(value);
+
+            flushPending = true;
+            if (now - lastFlushTime >= FLUSH_INTERVAL) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes any buffered records to the file
+         *
+         * @throws IOException if the records can't be written
+         */
+        public synchronized void flush() throws IOException {
+            if (!flushPending) {
+                return;
+            }
+            stream.flush();
+            flushPending = false;
+            lastFlushTime = System.nanoTime();
+        }
+
+        /**
+         * Gets the time the capture started
+         *
+         * @return the start time from {@link System#nanoTime()}
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    /**
+     * Reads a capture file sequentially
+     */
+    public static class Reader implements Closeable {
+        private final DataInputStream stream;
+        private final long captureTime;
+        private long time = 0;
+
+        /**
+         * Opens a capture file
+         *
+         * @param file the capture {@link File}
+         * @throws IOException if the file can't be read or is not a capture file
+         */
+        public Reader(File file) throws IOException {
+            stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 8192));
+            try {
+                if (stream.readInt() != MAGIC) {
+                    throw new IOException("Not a ZigBee capture file: " + file);
+                }
+                int version = stream.readUnsignedByte();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported ZigBee capture version " + version + ": " + file);
+                }
+                captureTime = stream.readLong();
+            } catch (IOException e) {
+                stream.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Gets the wall clock time when the capture was started
+         *
+         * @return the capture time in milliseconds since the epoch
+         */
+        public long getCaptureTime() {
+            return captureTime;
+        }
+
+        /**
+         * Reads the next record from the capture
+         *
+         * @return the next {@link Record} or null at the end of the capture
+         * @throws IOException if the file can't be read
+         */
+        public Record next() throws IOException {
+            int direction;
+            try {
+                direction = stream.readUnsignedByte();
+            } catch (EOFException e) {
+                return null;
+            }
+
+            long delta = 0;
+            int shift = 0;
+            int value;
+            do {
+                value = stream.readUnsignedByte();
+                delta |= (long) (value & 0x7F) << shift;
+                shift += 7;
+            } while ((value & 0x80) != 0);
+            time += delta;
+
+            return new Record(direction != 0, time, stream.readUnsignedByte());
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+}
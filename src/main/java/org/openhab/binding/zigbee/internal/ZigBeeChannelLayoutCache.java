@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclBasicCluster;
+
+/**
+ * Caches the channels discovered for each node so that the channel discovery, which reads attributes from the device,
+ * doesn't need to be run every time the binding starts. The cache is saved with the network state.
+ * <p>
+ * Each layout is stored with a fingerprint of the node built from the model identifier, the application version, the
+ * date code and the endpoints and clusters of the node. A layout is only used if the fingerprint is unchanged, so a
+ * firmware update or a change in the clusters of the device causes the channels to be discovered again.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeChannelLayoutCache {
+    /**
+     * The version of the channel discovery. This is included in the fingerprint, and must be incremented when the
+     * converters change the channels they detect so that cached layouts are discovered again.
+     */
+    private static final int LAYOUT_VERSION = 1;
+
+    private final Map<IeeeAddress, ZigBeeChannelLayoutDao> layouts =
+            new ConcurrentHashMap<IeeeAddress, ZigBeeChannelLayoutDao>();
+
+    /**
+     * The cached channels of a node
+     */
+    public static class ZigBeeChannelLayoutDao {
+        private String ieeeAddress;
+        private String fingerprint;
+        private List<ZigBeeChannelDao> channels;
+    }
+
+    /**
+     * A cached channel
+     */
+    public static class ZigBeeChannelDao {
+        private String id;
+        private String channelType;
+        private String itemType;
+        private String label;
+        private Map<String, String> properties;
+    }
+
+    /**
+     * Builds the fingerprint of a node from the endpoints and the values of the basic cluster attributes that are
+     * already known. No data is requested from the device.
+     *
+     * @param endpoints the {@link ZigBeeEndpoint}s of the node
+     * @return the fingerprint
+     */
+    public static String getFingerprint(Collection<ZigBeeEndpoint> endpoints) {
+        Map<Integer, ZigBeeEndpoint> sortedEndpoints = new TreeMap<Integer, ZigBeeEndpoint>();
+        for (ZigBeeEndpoint endpoint : endpoints) {
+            sortedEndpoints.put(endpoint.getEndpointId(), endpoint);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(LAYOUT_VERSION);
+        for (ZigBeeEndpoint endpoint : sortedEndpoints.values()) {
+            ZclCluster basicCluster = endpoint.getInputCluster(ZclBasicCluster.CLUSTER_ID);
+            if (basicCluster != null) {
+                builder.append('|');
+                builder.append(getAttributeValue(basicCluster, ZclBasicCluster.ATTR_MODELIDENTIFIER));
+                builder.append('|');
+                builder.append(getAttributeValue(basicCluster, ZclBasicCluster.ATTR_APPLICATIONVERSION));
+                builder.append('|');
+                builder.append(getAttributeValue(basicCluster, ZclBasicCluster.ATTR_DATECODE));
+            }
+        }
+        for (ZigBeeEndpoint endpoint : sortedEndpoints.values()) {
+            builder.append(String.format("|%d:%04X:%04X:", endpoint.getEndpointId(), endpoint.getProfileId(),
+                    endpoint.getDeviceId()));
+            builder.append(new TreeSet<Integer>(endpoint.getInputClusterIds()));
+            builder.append(new TreeSet<Integer>(endpoint.getOutputClusterIds()));
+        }
+        return builder.toString();
+    }
+
+    private static Object getAttributeValue(ZclCluster cluster, int attributeId) {
+        ZclAttribute attribute = cluster.getAttribute(attributeId);
+        if (attribute == null) {
+            return null;
+        }
+        return attribute.getLastValue();
+    }
+
+    /**
+     * Gets the cached channels for a node
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param fingerprint the current fingerprint of the node
+     * @param thingUID the {@link ThingUID} of the thing the channels are created for
+     * @return the list of {@link Channel}s, or null if the node is not cached or the fingerprint has changed
+     */
+    public List<Channel> getChannels(IeeeAddress address, String fingerprint, ThingUID thingUID) {
+        ZigBeeChannelLayoutDao layout = layouts.get(address);
+        if (layout == null || !fingerprint.equals(layout.fingerprint)) {
+            return null;
+        }
+
+        List<Channel> channels = new ArrayList<Channel>();
+        for (ZigBeeChannelDao channelDao : layout.channels) {
+            if (channelDao.properties == null) {
+                channelDao.properties = new HashMap<String, String>();
+            }
+            channels.add(ChannelBuilder.create(new ChannelUID(thingUID, channelDao.id), channelDao.itemType)
+                    .withType(new ChannelTypeUID(channelDao.channelType)).withLabel(channelDao.label)
+                    .withProperties(channelDao.properties).build());
+        }
+        return channels;
+    }
+
+    /**
+     * Sets the channels discovered for a node
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param fingerprint the fingerprint of the node when the channels were discovered
+     * @param channels the discovered {@link Channel}s
+     */
+    public void setChannels(IeeeAddress address, String fingerprint, Collection<Channel> channels) {
+        ZigBeeChannelLayoutDao layout = new ZigBeeChannelLayoutDao();
+        layout.ieeeAddress = address.toString();
+        layout.fingerprint = fingerprint;
+        layout.channels = new ArrayList<ZigBeeChannelDao>();
+        for (Channel channel : channels) {
+            ZigBeeChannelDao channelDao = new ZigBeeChannelDao();
+            channelDao.id = channel.getUID().getId();
+            channelDao.channelType = channel.getChannelTypeUID().toString();
+            channelDao.itemType = channel.getAcceptedItemType();
+            channelDao.label = channel.getLabel();
+            channelDao.properties = new HashMap<String, String>(channel.getProperties());
+            layout.channels.add(channelDao);
+        }
+        layouts.put(address, layout);
+    }
+
+    /**
+     * Removes the cached channels for a node
+     *
+     * @param address the {@link IeeeAddress} of the node
+     */
+    public void removeChannels(IeeeAddress address) {
+        layouts.remove(address);
+    }
+
+    /**
+     * Gets all cached layouts so that they can be saved
+     *
+     * @return the {@link ZigBeeChannelLayoutDao}s
+     */
+    public Collection<ZigBeeChannelLayoutDao> getLayouts() {
+        return new ArrayList<ZigBeeChannelLayoutDao>(layouts.values());
+    }
+
+    /**
+     * Adds a saved layout to the cache
+     *
+     * @param layout the {@link ZigBeeChannelLayoutDao} to add
+     */
+    public void addLayout(ZigBeeChannelLayoutDao layout) {
+        if (layout.ieeeAddress == null || layout.fingerprint == null || layout.channels == null) {
+            return;
+        }
+        layouts.put(new IeeeAddress(layout.ieeeAddress), layout);
+    }
+}
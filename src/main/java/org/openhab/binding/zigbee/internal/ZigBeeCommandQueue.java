@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the commands sent to a device so that only one command is in progress at a time. Commands are identified by
+ * a key - normally the channel - and a newer command with the same key replaces a command that is still waiting to be
+ * sent. This means that when a user drags a dimmer slider, only the latest level is sent once the current transaction
+ * completes, rather than every intermediate value being replayed to the device.
+ * <p>
+ * Each command is run as a separate task on the {@link Executor}, so a device with a long queue does not hold a
+ * thread from other devices. The task should block until the transaction with the device completes.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeCommandQueue {
+    private final Logger logger = LoggerFactory.getLogger(ZigBeeCommandQueue.class);
+
+    private final Object name;
+    private final Executor executor;
+
+    private final Map<Object, Runnable> pending = new LinkedHashMap<Object, Runnable>();
+    private boolean running = false;
+    private boolean shutdown = false;
+
+    private long processed;
+    private long coalesced;
+    private long dropped;
+
+    /**
+     * Creates the command queue
+     *
+     * @param name the name used to identify the queue in log messages
+     * @param executor the {@link Executor} used to run the commands
+     */
+    public ZigBeeCommandQueue(Object name, Executor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a command to the queue. If a command with the same key is waiting to be sent, it is replaced by this
+     * command.
+     *
+     * @param key the key identifying the type of command
+     * @param command the {@link Runnable} that sends the command
+     * @return true if the command was queued
+     */
+    public boolean submit(Object key, Runnable command) {
+        synchronized (pending) {
+            if (shutdown) {
+                dropped++;
+                return false;
+            }
+            if (pending.put(key, command) != null) {
+                coalesced++;
+                logger.trace("{}: Command for {} replaced queued command", name, key);
+            }
+            if (!running) {
+                running = true;
+                startNext();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a command to the queue, unless a command with the same key is already waiting to be sent. This is used for
+     * commands generated by the binding, such as the later steps of a command, which must not replace a newer command.
+     * A newer command with the same key replaces this command if it is still waiting to be sent.
+     *
+     * @param key the key identifying the type of command
+     * @param command the {@link Runnable} that sends the command
+     * @return true if the command was queued
+     */
+    public boolean submitIfAbsent(Object key, Runnable command) {
+        synchronized (pending) {
+            if (pending.containsKey(key)) {
+                logger.trace("{}: Command for {} discarded as a newer command is queued", name, key);
+                return false;
+            }
+            return submit(key, command);
+        }
+    }
+
+    /**
+     * Removes all queued commands and stops accepting new commands. A command that is in progress is not interrupted.
+     */
+    public void shutdown() {
+        synchronized (pending) {
+            shutdown = true;
+            dropped += pending.size();
+            pending.clear();
+        }
+    }
+
+    /**
+     * @return the number of commands waiting to be sent
+     */
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return the number of commands that have been sent
+     */
+    public long getProcessed() {
+        synchronized (pending) {
+            return processed;
+        }
+    }
+
+    /**
+     * @return the number of commands that were replaced by a newer command before they were sent
+     */
+    public long getCoalesced() {
+        synchronized (pending) {
+            return coalesced;
+        }
+    }
+
+    /**
+     * @return the number of commands that were discarded because the queue was shut down, or could not be run
+     */
+    public long getDropped() {
+        synchronized (pending) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Starts the next command. Must be called while holding the lock on {@link #pending}.
+     */
+    private void startNext() {
+        Iterator<Entry<Object, Runnable>> iterator = pending.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            running = false;
+            return;
+        }
+        // The entry must not be used once it is removed from the map
+        Entry<Object, Runnable> entry = iterator.next();
+        final Object key = entry.getKey();
+        final Runnable command = entry.getValue();
+        iterator.remove();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    command.run();
+                } catch (Exception e) {
+                    logger.debug("{}: Exception sending command for {}", name, key, e);
+                } finally {
+                    synchronized (pending) {
+                        processed++;
+                        startNext();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("{}: Command queue rejected by executor", name);
+            dropped += pending.size() + 1;
+            pending.clear();
+            running = false;
+        }
+    }
+}
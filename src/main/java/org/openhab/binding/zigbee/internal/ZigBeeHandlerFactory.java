@@ -26,6 +26,7 @@ import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorCC2531Handler;
 import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorEmberHandler;
 import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorHandler;
 import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorTelegesisHandler;
+import org.openhab.binding.zigbee.handler.ZigBeeGroupHandler;
 import org.openhab.binding.zigbee.handler.ZigBeeThingHandler;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.annotations.Component;
@@ -82,6 +83,10 @@ public class ZigBeeHandlerFactory extends BaseThingHandlerFactory {
             return coordinator;
         }
 
+        if (thingTypeUID.equals(ZigBeeBindingConstants.THING_TYPE_GROUP)) {
+            return new ZigBeeGroupHandler(thing);
+        }
+
         // Everything else gets handled in a single handler
         ZigBeeThingHandler handler = new ZigBeeThingHandler(thing);
 
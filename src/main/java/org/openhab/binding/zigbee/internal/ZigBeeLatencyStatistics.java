@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+/**
+ * Simple latency statistics. This keeps the number of samples, the average and the maximum without any locking.
+ * <p>
+ * Samples must only be recorded from a single thread. The statistics may be read from any thread, but as the fields
+ * are updated independently the average may be very slightly out of step with the count.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeLatencyStatistics {
+    private volatile long count = 0;
+    private volatile long total = 0;
+    private volatile long maximum = 0;
+
+    /**
+     * Records a latency sample
+     *
+     * @param nanoseconds the latency in nanoseconds
+     */
+    public void record(long nanoseconds) {
+        if (nanoseconds < 0) {
+            return;
+        }
+        total = total + nanoseconds;
+        count = count + 1;
+        if (nanoseconds > maximum) {
+            maximum = nanoseconds;
+        }
+    }
+
+    /**
+     * Clears the statistics. This should only be called when no samples are being recorded.
+     */
+    public void reset() {
+        count = 0;
+        total = 0;
+        maximum = 0;
+    }
+
+    /**
+     * Gets the number of samples recorded
+     *
+     * @return the number of samples
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the average latency
+     *
+     * @return the average latency in microseconds, or 0 if no samples have been recorded
+     */
+    public long getAverage() {
+        long samples = count;
+        if (samples == 0) {
+            return 0;
+        }
+        return total / samples / 1000;
+    }
+
+    /**
+     * Gets the maximum latency
+     *
+     * @return the maximum latency in microseconds
+     */
+    public long getMaximum() {
+        return maximum / 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "ZigBeeLatencyStatistics [count=" + count + ", average=" + getAverage() + "us, maximum=" + getMaximum()
+                + "us]";
+    }
+}
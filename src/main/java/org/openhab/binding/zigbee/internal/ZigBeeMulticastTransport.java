@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.concurrent.Future;
+
+import com.zsmartsystems.zigbee.CommandResult;
+import com.zsmartsystems.zigbee.ExtendedPanId;
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeApsFrame;
+import com.zsmartsystems.zigbee.ZigBeeGroupAddress;
+import com.zsmartsystems.zigbee.ZigBeeKey;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager.ZigBeeInitializeResponse;
+import com.zsmartsystems.zigbee.ZigBeeNwkAddressMode;
+import com.zsmartsystems.zigbee.transport.TransportConfig;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportReceive;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportTransmit;
+import com.zsmartsystems.zigbee.zcl.ZclCommand;
+
+/**
+ * Wraps the dongle transport so that group commands are sent as a multicast to the group.
+ * <p>
+ * The {@link ZigBeeNetworkManager} sets the group addressing mode in the APS frame when a command is sent to a
+ * {@link ZigBeeGroupAddress}, but it does not set the group address. Group commands are therefore sent through
+ * {@link #sendGroupCommand(ZigBeeNetworkManager, int, ZclCommand)}, which records the group for the calling thread
+ * while the network manager serialises the command and passes the frame to the transport. All other calls are passed
+ * directly to the dongle transport.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeMulticastTransport implements ZigBeeTransportTransmit {
+    /**
+     * The number of hops a multicast is broadcast by devices that are not members of the group. 7 is unlimited.
+     */
+    private static final int NON_MEMBER_RADIUS = 7;
+
+    private final ZigBeeTransportTransmit transport;
+
+    private final ThreadLocal<Integer> sendingGroup = new ThreadLocal<Integer>();
+
+    public ZigBeeMulticastTransport(ZigBeeTransportTransmit transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Sends a command to all devices that are members of a group with a single multicast frame
+     *
+     * @param networkManager the {@link ZigBeeNetworkManager} using this transport
+     * @param groupId the group to send the command to
+     * @param command the {@link ZclCommand} to send
+     * @return the command result future. This completes when the command is sent as there is no response to a
+     *         multicast.
+     */
+    public Future<CommandResult> sendGroupCommand(ZigBeeNetworkManager networkManager, int groupId,
+            ZclCommand command) {
+        sendingGroup.set(groupId);
+        try {
+            return networkManager.send(new ZigBeeGroupAddress(groupId), command);
+        } finally {
+            sendingGroup.remove();
+        }
+    }
+
+    @Override
+    public void sendCommand(ZigBeeApsFrame apsFrame) {
+        Integer groupId = sendingGroup.get();
+        if (groupId != null && apsFrame.getAddressMode() == ZigBeeNwkAddressMode.GROUP) {
+            apsFrame.setGroupAddress(groupId);
+            apsFrame.setNonMemberRadius(NON_MEMBER_RADIUS);
+        }
+        transport.sendCommand(apsFrame);
+    }
+
+    @Override
+    public ZigBeeInitializeResponse initialize() {
+        return transport.initialize();
+    }
+
+    @Override
+    public boolean startup(boolean reinitialize) {
+        return transport.startup(reinitialize);
+    }
+
+    @Override
+    public void shutdown() {
+        transport.shutdown();
+    }
+
+    @Override
+    public String getVersionString() {
+        return transport.getVersionString();
+    }
+
+    @Override
+    public IeeeAddress getIeeeAddress() {
+        return transport.getIeeeAddress();
+    }
+
+    @Override
+    public void setZigBeeTransportReceive(ZigBeeTransportReceive zigbeeTransportReceive) {
+        transport.setZigBeeTransportReceive(zigbeeTransportReceive);
+    }
+
+    @Override
+    public int getZigBeeChannel() {
+        return transport.getZigBeeChannel();
+    }
+
+    @Override
+    public boolean setZigBeeChannel(int channel) {
+        return transport.setZigBeeChannel(channel);
+    }
+
+    @Override
+    public int getZigBeePanId() {
+        return transport.getZigBeePanId();
+    }
+
+    @Override
+    public boolean setZigBeePanId(int panId) {
+        return transport.setZigBeePanId(panId);
+    }
+
+    @Override
+    public ExtendedPanId getZigBeeExtendedPanId() {
+        return transport.getZigBeeExtendedPanId();
+    }
+
+    @Override
+    public boolean setZigBeeExtendedPanId(ExtendedPanId panId) {
+        return transport.setZigBeeExtendedPanId(panId);
+    }
+
+    @Override
+    public boolean setZigBeeNetworkKey(ZigBeeKey key) {
+        return transport.setZigBeeNetworkKey(key);
+    }
+
+    @Override
+    public boolean setTcLinkKey(ZigBeeKey key) {
+        return transport.setTcLinkKey(key);
+    }
+
+    @Override
+    public void updateTransportConfig(TransportConfig configuration) {
+        transport.updateTransportConfig(configuration);
+    }
+}
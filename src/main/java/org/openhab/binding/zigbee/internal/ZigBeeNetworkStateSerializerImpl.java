@@ -19,6 +19,8 @@ import java.util.List;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+import org.openhab.binding.zigbee.internal.ZigBeeChannelLayoutCache.ZigBeeChannelDao;
+import org.openhab.binding.zigbee.internal.ZigBeeChannelLayoutCache.ZigBeeChannelLayoutDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,8 +67,18 @@ public class ZigBeeNetworkStateSerializerImpl implements ZigBeeNetworkStateSeria
      */
     private final String networkStateFilePath;
 
+    /**
+     * The channels discovered for each node, which are saved with the network state
+     */
+    private final ZigBeeChannelLayoutCache channelLayoutCache;
+
     public ZigBeeNetworkStateSerializerImpl(String networkId) {
+        this(networkId, new ZigBeeChannelLayoutCache());
+    }
+
+    public ZigBeeNetworkStateSerializerImpl(String networkId, ZigBeeChannelLayoutCache channelLayoutCache) {
         this.networkId = networkId;
+        this.channelLayoutCache = channelLayoutCache;
         networkStateFilePath = ConfigConstants.getUserDataFolder() + "/" + ZigBeeBindingConstants.BINDING_ID;
     }
 
@@ -93,6 +105,8 @@ public class ZigBeeNetworkStateSerializerImpl implements ZigBeeNetworkStateSeria
         stream.alias("PowerSourceType", PowerSourceType.class);
         stream.alias("FrequencyBandType", FrequencyBandType.class);
         stream.alias("BindingTable", BindingTable.class);
+        stream.alias("ZigBeeChannelLayout", ZigBeeChannelLayoutDao.class);
+        stream.alias("ZigBeeChannel", ZigBeeChannelDao.class);
         stream.alias("IeeeAddress", BindingTable.class);
         stream.registerConverter(new IeeeAddressConverter());
         return stream;
@@ -117,6 +131,7 @@ public class ZigBeeNetworkStateSerializerImpl implements ZigBeeNetworkStateSeria
             ZigBeeNodeDao nodeDao = node.getDao();
             destinations.add(nodeDao);
         }
+        destinations.addAll(channelLayoutCache.getLayouts());
 
         final File file = new File(networkStateFilePath + "/" + networkStateFileName + networkId + ".xml");
 
@@ -174,6 +189,11 @@ public class ZigBeeNetworkStateSerializerImpl implements ZigBeeNetworkStateSeria
                     }
                 }
             }
+            for (final Object object : objects) {
+                if (object instanceof ZigBeeChannelLayoutDao) {
+                    channelLayoutCache.addLayout((ZigBeeChannelLayoutDao) object);
+                }
+            }
         } catch (Exception e) {
             logger.debug("Error loading ZigBee state ", e);
         }
@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zdo.field.NodeDescriptor.LogicalType;
+import com.zsmartsystems.zigbee.zdo.field.PowerDescriptor;
+import com.zsmartsystems.zigbee.zdo.field.PowerDescriptor.CurrentPowerModeType;
+
+/**
+ * Queue that limits the number of nodes being initialised at the same time. When the coordinator comes online, every
+ * thing handler requests initialisation together, and each initialisation blocks while it binds and configures
+ * reporting. Running them all at once floods the radio, so the queue only runs a configured number of tasks in
+ * parallel, and starts routers first, then end devices, with sleepy devices last.
+ * <p>
+ * Each node is only queued once - a request for a node that is already queued or running is ignored. A task returns
+ * true once the node is initialised. If it returns false, the node is not counted as complete and may be queued again
+ * later, for example once its discovery has finished.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeNodeInitialisationQueue {
+    private final Logger logger = LoggerFactory.getLogger(ZigBeeNodeInitialisationQueue.class);
+
+    /**
+     * The initialisation priority of a node
+     */
+    public enum Priority {
+        /**
+         * Routers and other nodes that have their receiver on when idle
+         */
+        ROUTER,
+        /**
+         * End devices that have their receiver on when idle
+         */
+        END_DEVICE,
+        /**
+         * Sleepy end devices that only listen periodically, or when stimulated
+         */
+        SLEEPY;
+
+        /**
+         * Gets the initialisation priority for a node from its node and power descriptors
+         *
+         * @param node the {@link ZigBeeNode}. May be null if the node is not yet known.
+         * @return the {@link Priority} of the node
+         */
+        public static Priority getPriority(ZigBeeNode node) {
+            if (node == null) {
+                return END_DEVICE;
+            }
+            PowerDescriptor powerDescriptor = node.getPowerDescriptor();
+            if (powerDescriptor != null
+                    && (powerDescriptor.getCurrentPowerMode() == CurrentPowerModeType.RECEIVER_ON_PERIODICALLY
+                            || powerDescriptor.getCurrentPowerMode() == CurrentPowerModeType.RECEIVER_ON_STIMULATED)) {
+                return SLEEPY;
+            }
+            if (node.getLogicalType() == LogicalType.ROUTER || node.getLogicalType() == LogicalType.COORDINATOR) {
+                return ROUTER;
+            }
+            return END_DEVICE;
+        }
+    }
+
+    /**
+     * Listener notified when the initialisation progress changes
+     */
+    public interface ProgressListener {
+        /**
+         * Called when a node has completed initialisation
+         *
+         * @param completed the number of nodes that have been initialised
+         * @param total the number of nodes that have been queued for initialisation
+         * @param remainingTime the estimated time to initialise the remaining nodes in milliseconds
+         */
+        void initialisationProgress(int completed, int total, long remainingTime);
+    }
+
+    private class Task implements Comparable<Task>, Runnable {
+        private final IeeeAddress address;
+        private final Priority priority;
+        private final long sequence;
+        private final Callable<Boolean> initialiser;
+
+        Task(IeeeAddress address, Priority priority, long sequence, Callable<Boolean> initialiser) {
+            this.address = address;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.initialiser = initialiser;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            boolean initialised = false;
+            try {
+                initialised = Boolean.TRUE.equals(initialiser.call());
+            } catch (Exception e) {
+                logger.warn("{}: Exception during node initialisation ", address, e);
+            }
+            taskComplete(this, initialised, System.nanoTime() - start);
+        }
+    }
+
+    private final Executor executor;
+    private int parallelism;
+
+    private final PriorityQueue<Task> queue = new PriorityQueue<Task>();
+    private final Map<IeeeAddress, Task> pending = new HashMap<IeeeAddress, Task>();
+    private final Set<IeeeAddress> nodes = new HashSet<IeeeAddress>();
+    private final Set<IeeeAddress> initialisedNodes = new HashSet<IeeeAddress>();
+    private int running;
+    private long sequence;
+    private long initialisationTime;
+    private boolean shutdown;
+
+    private volatile ProgressListener progressListener;
+
+    /**
+     * Creates the queue
+     *
+     * @param executor the {@link Executor} used to run the initialisation tasks
+     * @param parallelism the maximum number of nodes to initialise at the same time
+     */
+    public ZigBeeNodeInitialisationQueue(Executor executor, int parallelism) {
+        this.executor = executor;
+        setParallelism(parallelism);
+    }
+
+    /**
+     * Sets the maximum number of nodes to initialise at the same time
+     *
+     * @param parallelism the number of nodes. Values less than 1 are treated as 1.
+     */
+    public void setParallelism(int parallelism) {
+        synchronized (queue) {
+            this.parallelism = Math.max(1, parallelism);
+        }
+        dispatch();
+    }
+
+    /**
+     * Sets the listener to be notified as nodes are initialised
+     *
+     * @param progressListener the {@link ProgressListener}
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Queues a node for initialisation
+     *
+     * @param address the {@link IeeeAddress} of the node
+     * @param priority the {@link Priority} of the node
+     * @param initialiser the task to initialise the node. This returns true if the node was initialised.
+     * @return true if the node was queued, false if it is already queued or running
+     */
+    public boolean submit(IeeeAddress address, Priority priority, Callable<Boolean> initialiser) {
+        synchronized (queue) {
+            if (shutdown || pending.containsKey(address)) {
+                return false;
+            }
+            Task task = new Task(address, priority, sequence++, initialiser);
+            pending.put(address, task);
+            nodes.add(address);
+            initialisedNodes.remove(address);
+            queue.add(task);
+            logger.debug("{}: Node queued for initialisation with priority {}, {} waiting", address, priority,
+                    queue.size());
+        }
+        dispatch();
+        return true;
+    }
+
+    /**
+     * Removes a node from the queue. A task that is already running is not interrupted.
+     *
+     * @param address the {@link IeeeAddress} of the node
+     */
+    public void remove(IeeeAddress address) {
+        synchronized (queue) {
+            Task task = pending.get(address);
+            if (task != null && queue.remove(task)) {
+                pending.remove(address);
+            }
+            nodes.remove(address);
+            initialisedNodes.remove(address);
+        }
+    }
+
+    /**
+     * Discards all queued tasks and stops any further tasks being started
+     */
+    public void shutdown() {
+        synchronized (queue) {
+            shutdown = true;
+            for (Task task : queue) {
+                pending.remove(task.address);
+            }
+            queue.clear();
+        }
+    }
+
+    /**
+     * @return the number of nodes that have been initialised
+     */
+    public int getCompleted() {
+        synchronized (queue) {
+            return initialisedNodes.size();
+        }
+    }
+
+    /**
+     * @return the number of nodes that have been queued for initialisation
+     */
+    public int getTotal() {
+        synchronized (queue) {
+            return nodes.size();
+        }
+    }
+
+    /**
+     * @return the number of nodes currently being initialised
+     */
+    public int getRunning() {
+        synchronized (queue) {
+            return running;
+        }
+    }
+
+    /**
+     * Gets the estimated time to initialise the nodes that are not yet initialised, based on the average time taken
+     * by the nodes initialised so far
+     *
+     * @return the estimated time in milliseconds, or 0 if no nodes have been initialised yet
+     */
+    public long getRemainingTime() {
+        synchronized (queue) {
+            return estimateRemainingTime();
+        }
+    }
+
+    private long estimateRemainingTime() {
+        int completed = initialisedNodes.size();
+        if (completed == 0) {
+            return 0;
+        }
+        long average = initialisationTime / completed;
+        return TimeUnit.NANOSECONDS.toMillis(average * (nodes.size() - completed) / parallelism);
+    }
+
+    private void dispatch() {
+        while (true) {
+            Task task;
+            synchronized (queue) {
+                if (shutdown || running >= parallelism || queue.isEmpty()) {
+                    return;
+                }
+                task = queue.poll();
+                running++;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                logger.debug("{}: Node initialisation rejected by executor", task.address);
+                synchronized (queue) {
+                    running--;
+                    pending.remove(task.address);
+                }
+                return;
+            }
+        }
+    }
+
+    private void taskComplete(Task task, boolean initialised, long duration) {
+        int completed;
+        int total;
+        long remainingTime;
+        synchronized (queue) {
+            running--;
+            pending.remove(task.address);
+            if (initialised && nodes.contains(task.address)) {
+                initialisedNodes.add(task.address);
+                initialisationTime += duration;
+            }
+            completed = initialisedNodes.size();
+            total = nodes.size();
+            remainingTime = estimateRemainingTime();
+        }
+
+        if (initialised) {
+            logger.debug("{}: Node initialised in {}ms, {} of {} nodes complete", task.address,
+                    TimeUnit.NANOSECONDS.toMillis(duration), completed, total);
+            ProgressListener listener = progressListener;
+            if (listener != null) {
+                listener.initialisationProgress(completed, total, remainingTime);
+            }
+        }
+
+        dispatch();
+    }
+}
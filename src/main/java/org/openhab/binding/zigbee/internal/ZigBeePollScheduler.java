@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the polling of all channels on the network from a single hashed timing wheel, rather than using a
+ * scheduled job per thing.
+ * <p>
+ * The wheel advances one slot every tick. Polls that become due are moved to a ready queue, and polls are taken from
+ * the ready queue so that no more than the configured number of reads are sent per second, and the radio is not
+ * flooded when many polls are due together. Polls that are due but not yet started are the backlog. Each poll is
+ * scheduled again one period after it is started, and the first poll is placed at a random point in the first period
+ * so that polls are spread over time.
+ * <p>
+ * A single poll may read several clusters, so the rate is limited by the number of reads rather than the number of
+ * polls. A poll is charged one read when it is started, and is then charged the number of reads it returns. A poll
+ * that sends many reads therefore delays the following polls, and a poll that sends none is refunded.
+ * <p>
+ * The poll tasks are run on the {@link Executor} so that a slow poll does not delay the wheel.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeePollScheduler {
+    private final Logger logger = LoggerFactory.getLogger(ZigBeePollScheduler.class);
+
+    /**
+     * The default number of slots in the wheel. This must be a power of 2.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * The default tick period in milliseconds
+     */
+    public static final int DEFAULT_TICK_PERIOD = 250;
+
+    /**
+     * A poll task
+     */
+    public interface PollTask {
+        /**
+         * Polls the device
+         *
+         * @return the number of reads sent to the device
+         */
+        int poll();
+    }
+
+    private class PollEntry {
+        private final Object key;
+        private final long period;
+        private final PollTask task;
+        private long rounds;
+        private int slot = -1;
+
+        PollEntry(Object key, long period, PollTask task) {
+            this.key = key;
+            this.period = period;
+            this.task = task;
+        }
+    }
+
+    private final Executor executor;
+    private final int tickPeriod;
+    private final List<PollEntry>[] wheel;
+    private final int mask;
+    private final Map<Object, PollEntry> entries = new HashMap<Object, PollEntry>();
+    private final Queue<PollEntry> ready = new ArrayDeque<PollEntry>();
+    private final Random random = new Random();
+
+    private long currentTick;
+    private double readsPerTick;
+    private double credit;
+    private long pollCount;
+    private long readCount;
+
+    private ScheduledFuture<?> tickJob;
+
+    /**
+     * Creates the poll scheduler with the default wheel size and tick period
+     *
+     * @param executor the {@link Executor} used to run the polls
+     * @param readRate the maximum number of reads to send per second
+     */
+    public ZigBeePollScheduler(Executor executor, double readRate) {
+        this(executor, readRate, DEFAULT_WHEEL_SIZE, DEFAULT_TICK_PERIOD);
+    }
+
+    /**
+     * Creates the poll scheduler
+     *
+     * @param executor the {@link Executor} used to run the polls
+     * @param readRate the maximum number of reads to send per second
+     * @param wheelSize the number of slots in the wheel. This is rounded up to the next power of 2.
+     * @param tickPeriod the time between ticks in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public ZigBeePollScheduler(Executor executor, double readRate, int wheelSize, int tickPeriod) {
+        if (tickPeriod <= 0) {
+            throw new IllegalArgumentException("Tick period must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.executor = executor;
+        this.tickPeriod = tickPeriod;
+        this.wheel = new List[size];
+        for (int slot = 0; slot < size; slot++) {
+            wheel[slot] = new LinkedList<PollEntry>();
+        }
+        this.mask = size - 1;
+        setReadRate(readRate);
+    }
+
+    /**
+     * Sets the maximum number of reads to send per second
+     *
+     * @param readRate the number of reads per second
+     */
+    public void setReadRate(double readRate) {
+        if (readRate <= 0) {
+            throw new IllegalArgumentException("Read rate must be positive");
+        }
+        synchronized (wheel) {
+            readsPerTick = readRate * tickPeriod / 1000;
+        }
+    }
+
+    /**
+     * Starts the wheel
+     *
+     * @param scheduler the {@link ScheduledExecutorService} used to advance the wheel
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        synchronized (wheel) {
+            if (tickJob != null) {
+                return;
+            }
+            tickJob = scheduler.scheduleAtFixedRate(() -> {
+                tick();
+            }, tickPeriod, tickPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the wheel and removes all polls
+     */
+    public void shutdown() {
+        synchronized (wheel) {
+            if (tickJob != null) {
+                tickJob.cancel(true);
+                tickJob = null;
+            }
+            for (List<PollEntry> slot : wheel) {
+                slot.clear();
+            }
+            ready.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Adds a poll to the scheduler, replacing any existing poll with the same key. The first poll is made at a random
+     * time within the period.
+     *
+     * @param key the key used to identify the poll
+     * @param period the polling period in milliseconds
+     * @param task the poll task
+     */
+    public void register(Object key, long period, PollTask task) {
+        long periodTicks = Math.max(1, period / tickPeriod);
+        synchronized (wheel) {
+            PollEntry previous = entries.remove(key);
+            if (previous != null) {
+                cancel(previous);
+            }
+            PollEntry entry = new PollEntry(key, periodTicks, task);
+            entries.put(key, entry);
+            schedule(entry, 1 + (long) (random.nextDouble() * periodTicks));
+        }
+    }
+
+    /**
+     * Removes a poll from the scheduler. A poll that is already running is not interrupted.
+     *
+     * @param key the key used to identify the poll
+     */
+    public void unregister(Object key) {
+        synchronized (wheel) {
+            PollEntry entry = entries.remove(key);
+            if (entry != null) {
+                cancel(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the number of polls registered
+     */
+    public int getRegistered() {
+        synchronized (wheel) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of polls that are due, but have not been started because of the read rate limit
+     *
+     * @return the number of polls waiting
+     */
+    public int getBacklog() {
+        synchronized (wheel) {
+            return ready.size();
+        }
+    }
+
+    /**
+     * @return the total number of polls started
+     */
+    public long getPollCount() {
+        synchronized (wheel) {
+            return pollCount;
+        }
+    }
+
+    /**
+     * @return the total number of reads charged to the polls
+     */
+    public long getReadCount() {
+        synchronized (wheel) {
+            return readCount;
+        }
+    }
+
+    /**
+     * Advances the wheel by one slot and starts any polls that are due, within the read rate limit
+     */
+    void tick() {
+        List<PollEntry> due = new ArrayList<PollEntry>();
+        synchronized (wheel) {
+            currentTick++;
+            Iterator<PollEntry> iterator = wheel[(int) (currentTick & mask)].iterator();
+            while (iterator.hasNext()) {
+                PollEntry entry = iterator.next();
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    continue;
+                }
+                iterator.remove();
+                entry.slot = -1;
+                ready.add(entry);
+            }
+
+            // Unused credit is limited so that polls are not started in a burst after a quiet period
+            credit = Math.min(credit + readsPerTick, Math.max(1, readsPerTick));
+            while (credit >= 1 && !ready.isEmpty()) {
+                PollEntry entry = ready.poll();
+                credit--;
+                pollCount++;
+                readCount++;
+                due.add(entry);
+                schedule(entry, entry.period);
+            }
+        }
+
+        for (PollEntry entry : due) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        charge(entry.task.poll());
+                    } catch (Exception e) {
+                        logger.warn("{}: Polling aborted due to exception ", entry.key, e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.debug("{}: Poll rejected by executor", entry.key);
+            }
+        }
+    }
+
+    /**
+     * Charges a poll for the reads it sent, once it has completed. The poll was charged one read when it was started,
+     * so the credit may become negative, which delays the following polls until it is repaid.
+     *
+     * @param reads the number of reads sent by the poll
+     */
+    private void charge(int reads) {
+        synchronized (wheel) {
+            credit -= reads - 1;
+            readCount += reads - 1;
+        }
+    }
+
+    private void schedule(PollEntry entry, long delay) {
+        entry.rounds = (delay - 1) / wheel.length;
+        entry.slot = (int) ((currentTick + delay) & mask);
+        wheel[entry.slot].add(entry);
+    }
+
+    private void cancel(PollEntry entry) {
+        if (entry.slot == -1) {
+            ready.remove(entry);
+        } else {
+            wheel[entry.slot].remove(entry);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic and health counters for a ZigBee port. The counters are updated on the transmit and receive paths, so they
+ * only use atomic increments - received data is counted once per block read from the port rather than once per byte.
+ * <p>
+ * The port layer does not see the dongle framing, so transmitted frames are counted as complete frame writes, and
+ * received data is counted in the blocks read from the operating system.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeePortStatistics {
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong blocksReceived = new AtomicLong();
+    private final AtomicLong bytesTransmitted = new AtomicLong();
+    private final AtomicLong framesTransmitted = new AtomicLong();
+    private final AtomicLong readTimeouts = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final AtomicLong consumerWaitTime = new AtomicLong();
+
+    /**
+     * Records a block of data received from the port
+     *
+     * @param length the number of bytes received
+     */
+    public void received(int length) {
+        bytesReceived.addAndGet(length);
+        blocksReceived.incrementAndGet();
+    }
+
+    /**
+     * Records data written to the port
+     *
+     * @param length the number of bytes written
+     * @param frame true if the data was a complete frame
+     */
+    public void transmitted(int length, boolean frame) {
+        bytesTransmitted.addAndGet(length);
+        if (frame) {
+            framesTransmitted.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a read that returned no data before the timeout
+     */
+    public void readTimeout() {
+        readTimeouts.incrementAndGet();
+    }
+
+    /**
+     * Records a failed write
+     *
+     * @return the number of failed writes
+     */
+    public long writeError() {
+        return writeErrors.incrementAndGet();
+    }
+
+    /**
+     * Records the time the consumer waited for data to arrive
+     *
+     * @param nanos the wait time in nanoseconds
+     */
+    public void consumerWaited(long nanos) {
+        consumerWaitTime.addAndGet(nanos);
+    }
+
+    /**
+     * @return the number of bytes received from the port
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * @return the number of blocks of data received from the port
+     */
+    public long getBlocksReceived() {
+        return blocksReceived.get();
+    }
+
+    /**
+     * @return the number of bytes written to the port
+     */
+    public long getBytesTransmitted() {
+        return bytesTransmitted.get();
+    }
+
+    /**
+     * @return the number of complete frames written to the port
+     */
+    public long getFramesTransmitted() {
+        return framesTransmitted.get();
+    }
+
+    /**
+     * @return the number of reads that timed out without data
+     */
+    public long getReadTimeouts() {
+        return readTimeouts.get();
+    }
+
+    /**
+     * @return the number of failed writes
+     */
+    public long getWriteErrors() {
+        return writeErrors.get();
+    }
+
+    /**
+     * Gets the total time the consumer has spent waiting for data. A consumer that rarely waits is not keeping up with
+     * the port.
+     *
+     * @return the wait time in milliseconds
+     */
+    public long getConsumerWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(consumerWaitTime.get());
+    }
+
+    @Override
+    public String toString() {
+        return "ZigBeePortStatistics [rxBytes=" + bytesReceived + ", rxBlocks=" + blocksReceived + ", txBytes="
+                + bytesTransmitted + ", txFrames=" + framesTransmitted + ", readTimeouts=" + readTimeouts
+                + ", writeErrors=" + writeErrors + ", consumerWait=" + getConsumerWaitTime() + "ms]";
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.transport.ZigBeePort;
+
+/**
+ * A {@link ZigBeePort} decorator that records all data passing through the port to a {@link ZigBeeCaptureFile}. The
+ * capture can later be played back through the {@link ZigBeeReplayPort}.
+ * <p>
+ * A new capture file is started each time the port is opened. If the capture file can't be written, the port continues
+ * to operate without recording. Buffered records are written to the file when a read times out, as the port is then
+ * idle.
+ * <p>
+ * The {@link ZigBeePort} interface doesn't expose the receive path of the underlying port, so received bytes are
+ * timestamped when the driver reads them rather than when they arrive at the port. Bytes received in a block are
+ * therefore recorded with the spacing of the driver's reads, and the capture includes any delay before the driver picks
+ * up the data. Transmitted bytes are timestamped when they are written.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeRecordingPort implements ZigBeePort {
+    /**
+     * The logger.
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ZigBeeRecordingPort.class);
+
+    private final ZigBeePort port;
+    private final File file;
+    private volatile ZigBeeCaptureFile.Writer writer;
+
+    /**
+     * Constructor
+     *
+     * @param port the {@link ZigBeePort} to record
+     * @param file the capture {@link File} to write
+     */
+    public ZigBeeRecordingPort(ZigBeePort port, File file) {
+        this.port = port;
+        this.file = file;
+    }
+
+    /**
+     * Gets the port being recorded
+     *
+     * @return the underlying {@link ZigBeePort}
+     */
+    public ZigBeePort getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean open() {
+        startCapture();
+        return port.open();
+    }
+
+    @Override
+    public boolean open(int baudRate) {
+        startCapture();
+        return port.open(baudRate);
+    }
+
+    @Override
+    public boolean open(int baudRate, FlowControl flowControl) {
+        startCapture();
+        return port.open(baudRate, flowControl);
+    }
+
+    @Override
+    public void close() {
+        port.close();
+
+        ZigBeeCaptureFile.Writer currentWriter = writer;
+        writer = null;
+        if (currentWriter != null) {
+            try {
+                currentWriter.close();
+                logger.debug("ZigBee capture {} closed", file);
+            } catch (IOException e) {
+                logger.warn("Error closing ZigBee capture {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void write(int value) {
+        port.write(value);
+        record(true, value);
+    }
+
+    @Override
+    public int read() {
+        return record(false, port.read());
+    }
+
+    @Override
+    public int read(int timeout) {
+        return record(false, port.read(timeout));
+    }
+
+    @Override
+    public void purgeRxBuffer() {
+        port.purgeRxBuffer();
+    }
+
+    private void startCapture() {
+        if (writer != null) {
+            return;
+        }
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            writer = new ZigBeeCaptureFile.Writer(file);
+            logger.info("ZigBee capture started: {}", file);
+        } catch (IOException e) {
+            logger.warn("Unable to start ZigBee capture {}: {}", file, e.getMessage());
+        }
+    }
+
+    private int record(boolean transmit, int value) {
+        ZigBeeCaptureFile.Writer currentWriter = writer;
+        if (currentWriter == null) {
+            return value;
+        }
+        try {
+            if (value == -1) {
+                currentWriter.flush();
+            } else {
+                currentWriter.record(transmit, value);
+            }
+        } catch (IOException e) {
+            logger.warn("Error writing ZigBee capture {} - capture stopped: {}", file, e.getMessage());
+            writer = null;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.transport.ZigBeePort;
+
+/**
+ * A {@link ZigBeePort} that plays back a capture recorded with the {@link ZigBeeRecordingPort}. This allows the dongle
+ * driver, and everything above it, to be exercised with real traffic without any hardware.
+ * <p>
+ * Received data from the capture is fed to the dongle driver either with the original timing, or as fast as possible.
+ * The replay stays in step with the driver - when the capture shows data being sent to the dongle, the replay waits
+ * for the driver to write the same number of bytes before it continues. Bytes written that differ from the capture are
+ * counted so that changes in driver behaviour can be detected.
+ * <p>
+ * The port is selected with a port name in the form replay:/path/to/capture, with ?fast appended to replay as fast as
+ * possible.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeReplayPort implements ZigBeePort {
+    /**
+     * The port name prefix used to select this port
+     */
+    public static final String PREFIX = "replay:";
+
+    /**
+     * The logger.
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ZigBeeReplayPort.class);
+
+    /**
+     * The maximum time to wait for the driver to send data that is in the capture
+     */
+    private static final long TRANSMIT_TIMEOUT = 5000;
+
+    /**
+     * Defines the speed of the replay
+     */
+    public enum Speed {
+        /**
+         * Received data is fed to the driver with the timing in the capture
+         */
+        ORIGINAL,
+        /**
+         * Received data is fed to the driver as fast as it will accept it
+         */
+        FAST
+    }
+
+    private final File file;
+    private final Speed speed;
+    private final ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(ZigBeeSerialPort.DEFAULT_BUFFER_SIZE,
+            65536, ZigBeeByteRingBuffer.OverflowPolicy.GROW);
+    private final BlockingQueue<Integer> transmitted = new LinkedBlockingQueue<Integer>();
+
+    private volatile boolean running = false;
+    private volatile boolean complete = false;
+    private ReplayThread replayThread;
+
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicLong transmitMismatches = new AtomicLong();
+    private final AtomicLong transmitMissing = new AtomicLong();
+    private volatile long replayTime = 0;
+
+    /**
+     * Constructor
+     *
+     * @param file the capture {@link File} to replay
+     * @param speed the replay {@link Speed}
+     */
+    public ZigBeeReplayPort(File file, Speed speed) {
+        this.file = file;
+        this.speed = speed;
+    }
+
+    /**
+     * Checks if a port name refers to a replay port
+     *
+     * @param portName the configured port name
+     * @return true if the port should be opened with {@link ZigBeeReplayPort}
+     */
+    public static boolean isReplayPort(String portName) {
+        return portName != null && portName.trim().startsWith(PREFIX);
+    }
+
+    /**
+     * Creates a port from a port name in the form replay:/path/to/capture[?fast]
+     *
+     * @param portName the port name
+     * @return the {@link ZigBeeReplayPort}
+     */
+    public static ZigBeeReplayPort create(String portName) {
+        String path = portName.trim().substring(PREFIX.length());
+        Speed speed = Speed.ORIGINAL;
+        int options = path.indexOf('?');
+        if (options != -1) {
+            if ("fast".equalsIgnoreCase(path.substring(options + 1))) {
+                speed = Speed.FAST;
+            }
+            path = path.substring(0, options);
+        }
+        return new ZigBeeReplayPort(new File(path), speed);
+    }
+
+    @Override
+    public boolean open() {
+        ZigBeeCaptureFile.Reader reader;
+        try {
+            reader = new ZigBeeCaptureFile.Reader(file);
+        } catch (IOException e) {
+            logger.error("Unable to open ZigBee capture {}: {}", file, e.getMessage());
+            return false;
+        }
+
+        logger.debug("Replaying ZigBee capture {} at {} speed", file, speed);
+        buffer.open();
+        transmitted.clear();
+        complete = false;
+        running = true;
+        replayThread = new ReplayThread(reader);
+        replayThread.start();
+        return true;
+    }
+
+    @Override
+    public boolean open(int baudRate) {
+        return open();
+    }
+
+    @Override
+    public boolean open(int baudRate, FlowControl flowControl) {
+        return open();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (replayThread != null) {
+            replayThread.interrupt();
+            try {
+                replayThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            replayThread = null;
+        }
+        buffer.close();
+    }
+
+    @Override
+    public void write(int value) {
+        if (running && !complete) {
+            transmitted.add(value);
+        }
+    }
+
+    @Override
+    public int read() {
+        return read(9999999);
+    }
+
+    @Override
+    public int read(int timeout) {
+        return buffer.take(timeout);
+    }
+
+    @Override
+    public void purgeRxBuffer() {
+        buffer.clear();
+    }
+
+    /**
+     * Checks if the whole capture has been replayed
+     *
+     * @return true if the replay is complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Waits for the replay to complete
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @return true if the replay is complete
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean waitForCompletion(long timeout) throws InterruptedException {
+        ReplayThread thread = replayThread;
+        if (thread != null) {
+            thread.join(timeout);
+        }
+        return complete;
+    }
+
+    /**
+     * Gets the number of received bytes that have been fed to the driver
+     *
+     * @return the number of bytes replayed
+     */
+    public long getReceivedBytes() {
+        return receivedBytes.get();
+    }
+
+    /**
+     * Gets the number of bytes written by the driver that were different to the capture
+     *
+     * @return the number of mismatched bytes
+     */
+    public long getTransmitMismatchCount() {
+        return transmitMismatches.get();
+    }
+
+    /**
+     * Gets the number of bytes in the capture that the driver did not write
+     *
+     * @return the number of missing bytes
+     */
+    public long getTransmitMissingCount() {
+        return transmitMissing.get();
+    }
+
+    /**
+     * Gets the time taken to replay the capture
+     *
+     * @return the replay time in nanoseconds
+     */
+    public long getReplayTime() {
+        return replayTime;
+    }
+
+    private class ReplayThread extends Thread {
+        private final ZigBeeCaptureFile.Reader reader;
+
+        ReplayThread(ZigBeeCaptureFile.Reader reader) {
+            super("ZigBeeReplayPort " + file.getName());
+            this.reader = reader;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+
+            // The capture time that corresponds to the start of the replay. This moves forward if the driver is slower
+            // to send data than it was when the capture was made.
+            long base = start;
+            try {
+                ZigBeeCaptureFile.Record record;
+                while (running && (record = reader.next()) != null) {
+                    if (record.isTransmit()) {
+                        Integer value = transmitted.poll(TRANSMIT_TIMEOUT, TimeUnit.MILLISECONDS);
+                        if (value == null) {
+                            transmitMissing.incrementAndGet();
+                        } else if (value != record.getValue()) {
+                            transmitMismatches.incrementAndGet();
+                        }
+                        base = Math.max(base, System.nanoTime() - record.getTime());
+                        continue;
+                    }
+
+                    if (speed == Speed.ORIGINAL) {
+                        long wait;
+                        while ((wait = base + record.getTime() - System.nanoTime()) > 0 && running) {
+                            LockSupport.parkNanos(this, wait);
+                        }
+                    }
+                    buffer.put((byte) record.getValue());
+                    receivedBytes.incrementAndGet();
+                }
+                complete = running;
+            } catch (InterruptedException e) {
+                // Replay stopped
+            } catch (IOException e) {
+                logger.error("Error reading ZigBee capture {}: {}", file, e.getMessage());
+            } finally {
+                replayTime = System.nanoTime() - start;
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Nothing to do
+                }
+            }
+            logger.debug("ZigBee capture {} replay {} in {}ms - {} bytes received, {} transmit mismatches", file,
+                    complete ? "complete" : "stopped", TimeUnit.NANOSECONDS.toMillis(replayTime),
+                    receivedBytes.get(), transmitMismatches.get());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the channel states expected when each scene is recalled. The states are recorded when a scene is stored in
+ * the devices, so that they can be posted to the channels as soon as the scene is recalled rather than waiting for
+ * every device to report its new state.
+ * <p>
+ * Scenes can be converted to and from a string so that they can be saved in the thing properties.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeSceneRegistry {
+    private final Logger logger = LoggerFactory.getLogger(ZigBeeSceneRegistry.class);
+
+    /**
+     * The lowest scene ID
+     */
+    public static final int SCENE_MIN = 0;
+
+    /**
+     * The highest scene ID
+     */
+    public static final int SCENE_MAX = 255;
+
+    private static final String STATE_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = "=";
+    private static final String TYPE_SEPARATOR = ":";
+
+    private final Map<Integer, Map<ChannelUID, State>> scenes =
+            new ConcurrentHashMap<Integer, Map<ChannelUID, State>>();
+
+    /**
+     * Stores the channel states for a scene, replacing any states already stored for the scene
+     *
+     * @param sceneId the scene ID
+     * @param states the channel states expected when the scene is recalled
+     */
+    public void storeScene(int sceneId, Map<ChannelUID, State> states) {
+        scenes.put(sceneId, Collections.unmodifiableMap(new LinkedHashMap<ChannelUID, State>(states)));
+    }
+
+    /**
+     * Gets the channel states for a scene
+     *
+     * @param sceneId the scene ID
+     * @return the channel states. This is empty if the scene is not known.
+     */
+    public Map<ChannelUID, State> getScene(int sceneId) {
+        Map<ChannelUID, State> states = scenes.get(sceneId);
+        if (states == null) {
+            return Collections.emptyMap();
+        }
+        return states;
+    }
+
+    /**
+     * Removes a scene
+     *
+     * @param sceneId the scene ID
+     */
+    public void removeScene(int sceneId) {
+        scenes.remove(sceneId);
+    }
+
+    /**
+     * Gets the IDs of all known scenes
+     *
+     * @return the scene IDs in ascending order
+     */
+    public Set<Integer> getSceneIds() {
+        return new TreeSet<Integer>(scenes.keySet());
+    }
+
+    /**
+     * Converts the states of a scene to a string
+     *
+     * @param sceneId the scene ID
+     * @return the scene as a string
+     */
+    public String serializeScene(int sceneId) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<ChannelUID, State> entry : getScene(sceneId).entrySet()) {
+            if (builder.length() != 0) {
+                builder.append(STATE_SEPARATOR);
+            }
+            builder.append(entry.getKey());
+            builder.append(VALUE_SEPARATOR);
+            builder.append(entry.getValue().getClass().getSimpleName());
+            builder.append(TYPE_SEPARATOR);
+            builder.append(entry.getValue().toString());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Stores a scene from a string created by {@link #serializeScene(int)}. States that can't be converted are
+     * ignored.
+     *
+     * @param sceneId the scene ID
+     * @param scene the scene as a string
+     */
+    public void deserializeScene(int sceneId, String scene) {
+        Map<ChannelUID, State> states = new LinkedHashMap<ChannelUID, State>();
+        for (String entry : scene.split(STATE_SEPARATOR)) {
+            int valueIndex = entry.indexOf(VALUE_SEPARATOR);
+            if (valueIndex == -1) {
+                continue;
+            }
+            String value = entry.substring(valueIndex + 1);
+            int typeIndex = value.indexOf(TYPE_SEPARATOR);
+            if (typeIndex == -1) {
+                continue;
+            }
+
+            try {
+                State state = createState(value.substring(0, typeIndex), value.substring(typeIndex + 1));
+                if (state == null) {
+                    logger.debug("Scene {}: Unsupported state {}", sceneId, value);
+                    continue;
+                }
+                states.put(new ChannelUID(entry.substring(0, valueIndex)), state);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Scene {}: Invalid state {}", sceneId, entry);
+            }
+        }
+        storeScene(sceneId, states);
+    }
+
+    private State createState(String type, String value) {
+        switch (type) {
+            case "OnOffType":
+                return OnOffType.valueOf(value);
+            case "HSBType":
+                return new HSBType(value);
+            case "PercentType":
+                return new PercentType(value);
+            case "DecimalType":
+                return new DecimalType(value);
+            default:
+                return null;
+        }
+    }
+}
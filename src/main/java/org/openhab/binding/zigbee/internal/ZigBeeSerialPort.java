@@ -18,7 +18,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.TooManyListenersException;
+import java.util.concurrent.locks.LockSupport;
 
+import org.openhab.binding.zigbee.internal.ZigBeeByteRingBuffer.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,10 +37,30 @@ import gnu.io.UnsupportedCommOperationException;
 
 /**
  * The default/reference Java serial port implementation using serial events to provide a non-blocking read call.
+ * <p>
+ * Received data is normally read from the RXTX serial event. On some systems the event notification adds significant
+ * latency, so the port can instead use a dedicated high priority thread blocking on the serial input stream - see
+ * {@link ReceiveMode}. Both modes feed the same receive buffer, and the port records the time from data being received
+ * to it being read by the dongle, and from the last transmission to the next received data, so the modes can be
+ * compared.
  *
  * @author Chris Jackson
  */
 public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
+    /**
+     * Defines how data is read from the serial port
+     */
+    public enum ReceiveMode {
+        /**
+         * Data is read when RXTX notifies a serial event
+         */
+        EVENT,
+        /**
+         * Data is read by a dedicated thread blocking on the serial input stream
+         */
+        THREAD
+    }
+
     /**
      * The logger.
      */
@@ -69,35 +91,116 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
      */
     private final int baudRate;
 
+    /**
+     * The baud rate the port was opened at
+     */
+    private volatile int openBaudRate;
+
     /**
      * True to enable RTS / CTS flow control
      */
     private final FlowControl flowControl;
 
     /**
-     * The circular fifo queue for receive data
+     * The default size of the receive buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+
+    /**
+     * The default maximum size the receive buffer may grow to
+     */
+    public static final int DEFAULT_BUFFER_MAXIMUM = 8192;
+
+    /**
+     * The lock-free fifo queue for receive data
+     */
+    private final ZigBeeByteRingBuffer buffer;
+
+    /**
+     * The largest block that will be read from the serial port in one call
+     */
+    private static final int MAXIMUM_RECEIVE_CHUNK = 4096;
+
+    /**
+     * Reusable block used to drain the serial input stream. This is only used from the serial event thread.
+     */
+    private byte[] receiveBuffer = new byte[64];
+
+    /**
+     * Transmit buffer. If a transmit idle time is set, bytes written with {@link #write(int)} are held here until the
+     * writer is idle for that time, so that a frame written one byte at a time is passed to the port in a single write.
+     * Frames are also copied here so that any pending bytes and the frame are sent together.
+     */
+    private byte[] transmitBuffer = new byte[256];
+
+    /**
+     * The number of bytes waiting in the {@link #transmitBuffer}
+     */
+    private int transmitLength = 0;
+
+    /**
+     * The time the last byte was added to the {@link #transmitBuffer}
+     */
+    private volatile long transmitQueuedTime = 0;
+
+    /**
+     * The default time in microseconds the writer must be idle before the bytes written with {@link #write(int)} are
+     * sent. 0 writes each byte to the port as it is written.
      */
-    private int[] buffer = new int[512];
+    public static final int DEFAULT_TRANSMIT_IDLE_TIME = 0;
 
     /**
-     * The receive buffer end pointer (where we put the newly received data)
+     * The time in nanoseconds the writer must be idle before the bytes in the transmit buffer are sent, or 0 to write
+     * each byte through to the port. The drivers write a frame in a tight loop, so a time much longer than the time
+     * between the bytes of a frame, but short compared to the time to send a frame on the serial link, sends each frame
+     * in a single write. This adds the idle time to the latency of every frame.
      */
-    private int end = 0;
+    private long transmitIdleTime = DEFAULT_TRANSMIT_IDLE_TIME;
 
     /**
-     * The receive buffer start pointer (where we take the data to pass to the application)
+     * The thread that sends the transmit buffer once the writer is idle
      */
-    private int start = 0;
+    private TransmitThread transmitThread = null;
 
     /**
-     * The length of the receive buffer
+     * Synchronisation object for the transmit path
      */
-    private int maxLength = 512;
+    private final Object writeSynchronisationObject = new Object();
 
     /**
-     * Synchronisation object for buffer queue manipulation
+     * The traffic counters for the port
      */
-    private Object bufferSynchronisationObject = new Object();
+    private final ZigBeePortStatistics statistics = new ZigBeePortStatistics();
+
+    /**
+     * The {@link ReceiveMode} used to read data from the port
+     */
+    private ReceiveMode receiveMode = ReceiveMode.EVENT;
+
+    /**
+     * The receive thread when using {@link ReceiveMode#THREAD}
+     */
+    private ReceiveThread receiveThread = null;
+
+    /**
+     * The time data was added to an empty receive buffer, or 0 if the consumer has read it
+     */
+    private volatile long arrivalTime = 0;
+
+    /**
+     * The time of the last transmission, or 0 if data has been received since
+     */
+    private volatile long lastWriteTime = 0;
+
+    /**
+     * The time from data being placed in the receive buffer to the consumer reading it. Recorded by the consumer.
+     */
+    private final ZigBeeLatencyStatistics pickupLatency = new ZigBeeLatencyStatistics();
+
+    /**
+     * The time from the last transmission to the next data being received. Recorded by the receive thread.
+     */
+    private final ZigBeeLatencyStatistics turnaroundLatency = new ZigBeeLatencyStatistics();
 
     /**
      * Constructor setting port name and baud rate.
@@ -107,9 +210,53 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
      * @param flowControl to use flow control
      */
     public ZigBeeSerialPort(String portName, int baudRate, FlowControl flowControl) {
+        this(portName, baudRate, flowControl, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_MAXIMUM, OverflowPolicy.GROW);
+    }
+
+    /**
+     * Constructor setting port name, baud rate and the receive buffer configuration.
+     *
+     * @param portName the port name
+     * @param baudRate the baud rate
+     * @param flowControl to use flow control
+     * @param bufferSize the initial size of the receive buffer in bytes
+     * @param bufferMaximum the maximum size the receive buffer may grow to in bytes
+     * @param overflowPolicy the {@link OverflowPolicy} to apply when the receive buffer is full
+     */
+    public ZigBeeSerialPort(String portName, int baudRate, FlowControl flowControl, int bufferSize, int bufferMaximum,
+            OverflowPolicy overflowPolicy) {
         this.portName = portName;
         this.baudRate = baudRate;
         this.flowControl = flowControl;
+        this.buffer = new ZigBeeByteRingBuffer(bufferSize, bufferMaximum, overflowPolicy);
+    }
+
+    /**
+     * Sets the {@link ReceiveMode} used to read data from the port. This must be set before the port is opened.
+     *
+     * @param receiveMode the {@link ReceiveMode}
+     */
+    public void setReceiveMode(ReceiveMode receiveMode) {
+        this.receiveMode = receiveMode;
+    }
+
+    /**
+     * Sets the time the writer must be idle before the bytes written with {@link #write(int)} are sent to the port as a
+     * single write. This must be set before the port is opened.
+     *
+     * @param transmitIdleTime the idle time in microseconds, or 0 to write each byte through to the port
+     */
+    public void setTransmitIdleTime(int transmitIdleTime) {
+        this.transmitIdleTime = Math.max(0, transmitIdleTime) * 1000L;
+    }
+
+    /**
+     * Gets the {@link ReceiveMode} used to read data from the port
+     *
+     * @return the {@link ReceiveMode}
+     */
+    public ReceiveMode getReceiveMode() {
+        return receiveMode;
     }
 
     @Override
@@ -125,8 +272,8 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
     @Override
     public boolean open(int baudRate, FlowControl flowControl) {
         try {
-            logger.debug("Connecting to serial port [{}] at {} baud, flow control {}.", portName, baudRate,
-                    flowControl);
+            logger.debug("Connecting to serial port [{}] at {} baud, flow control {}, receive mode {}.", portName,
+                    baudRate, flowControl, receiveMode);
             try {
                 CommPortIdentifier portIdentifier = CommPortIdentifier.getPortIdentifier(portName);
                 CommPort commPort = portIdentifier.open("org.openhab.binding.zigbee", 100);
@@ -147,10 +294,19 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
                         break;
                 }
 
+                openBaudRate = baudRate;
+                buffer.open();
+                arrivalTime = 0;
+                lastWriteTime = 0;
+                pickupLatency.reset();
+                turnaroundLatency.reset();
+
                 serialPort.enableReceiveThreshold(1);
                 serialPort.enableReceiveTimeout(100);
-                serialPort.addEventListener(this);
-                serialPort.notifyOnDataAvailable(true);
+                if (receiveMode == ReceiveMode.EVENT) {
+                    serialPort.addEventListener(this);
+                    serialPort.notifyOnDataAvailable(true);
+                }
 
                 logger.debug("Serial port [{}] is initialized.", portName);
             } catch (NoSuchPortException e) {
@@ -173,6 +329,14 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
             } catch (IOException e) {
             }
 
+            if (receiveMode == ReceiveMode.THREAD) {
+                receiveThread = new ReceiveThread(inputStream);
+                receiveThread.start();
+            }
+            if (transmitIdleTime > 0) {
+                startTransmitThread();
+            }
+
             return true;
         } catch (Exception e) {
             logger.error("Unable to open serial port: ", e);
@@ -184,7 +348,12 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
     public void close() {
         try {
             if (serialPort != null) {
-                synchronized (this) {
+                if (receiveThread != null) {
+                    receiveThread.interrupt();
+                }
+                stopTransmitThread();
+                synchronized (writeSynchronisationObject) {
+                    flushTransmitBuffer(0);
                     serialPort.enableReceiveTimeout(1);
 
                     inputStream.close();
@@ -196,7 +365,12 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
                     serialPort = null;
                     inputStream = null;
                     outputStream = null;
-                    this.notify();
+                }
+                buffer.close();
+
+                if (receiveThread != null) {
+                    receiveThread.join(1000);
+                    receiveThread = null;
                 }
 
                 logger.debug("Serial port '{}' closed.", portName);
@@ -206,17 +380,243 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
         }
     }
 
+    /**
+     * Writes a byte to the port. If a transmit idle time is set, the byte is added to the transmit buffer, which is
+     * sent to the port with a single write once the writer has been idle for the idle time, or when the buffer is full.
+     * The dongle drivers write a frame one byte at a time, so this sends each frame in one native call rather than one
+     * call per byte, at the cost of the idle time in latency. Otherwise the byte is written straight to the port.
+     *
+     * @param value the byte to write
+     */
     @Override
     public void write(int value) {
-        if (outputStream == null) {
-            return;
+        synchronized (writeSynchronisationObject) {
+            if (outputStream == null) {
+                return;
+            }
+            if (transmitIdleTime == 0) {
+                writeThrough(value);
+                return;
+            }
+            if (transmitLength == transmitBuffer.length) {
+                flushTransmitBuffer(0);
+            }
+            transmitBuffer[transmitLength++] = (byte) value;
+            transmitQueuedTime = System.nanoTime();
+            statistics.transmitted(1, false);
+            if (transmitLength == 1) {
+                writeSynchronisationObject.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes a complete frame to the port. The frame is copied into the transmit buffer, after any bytes still waiting
+     * to be sent, and passed to the serial port in a single write.
+     *
+     * @param frame the frame data as an array of byte values
+     * @return true if the frame was written to the port
+     */
+    public boolean write(int[] frame) {
+        synchronized (writeSynchronisationObject) {
+            if (outputStream == null) {
+                return false;
+            }
+            ensureTransmitCapacity(frame.length);
+            for (int value : frame) {
+                transmitBuffer[transmitLength++] = (byte) value;
+            }
+            return flushTransmitBuffer(frame.length);
+        }
+    }
+
+    /**
+     * Writes a complete frame to the port with a single write to the serial port, after any bytes still waiting to be
+     * sent.
+     *
+     * @param frame the array holding the frame
+     * @param offset the offset of the first byte of the frame
+     * @param length the length of the frame
+     * @return true if the frame was written to the port
+     */
+    public boolean write(byte[] frame, int offset, int length) {
+        synchronized (writeSynchronisationObject) {
+            if (outputStream == null) {
+                return false;
+            }
+            ensureTransmitCapacity(length);
+            System.arraycopy(frame, offset, transmitBuffer, transmitLength, length);
+            transmitLength += length;
+            return flushTransmitBuffer(length);
         }
+    }
+
+    /**
+     * Sends any bytes waiting in the transmit buffer without waiting for the writer to be idle
+     */
+    void flush() {
+        synchronized (writeSynchronisationObject) {
+            flushTransmitBuffer(0);
+        }
+    }
+
+    /**
+     * Gets the number of write operations that have failed
+     *
+     * @return the number of failed writes
+     */
+    public long getWriteErrorCount() {
+        return statistics.getWriteErrors();
+    }
+
+    /**
+     * Gets the traffic counters for the port
+     *
+     * @return the {@link ZigBeePortStatistics}
+     */
+    public ZigBeePortStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the baud rate the port was opened at
+     *
+     * @return the baud rate, or 0 if the port has not been opened
+     */
+    public int getBaudRate() {
+        return openBaudRate;
+    }
+
+    /**
+     * Gets the current size of the receive buffer. This may be larger than the configured size if the buffer has grown.
+     *
+     * @return the receive buffer size in bytes
+     */
+    public int getReceiveBufferSize() {
+        return buffer.getCapacity();
+    }
+
+    /**
+     * Gets the number of times received data has been discarded because the receive buffer was full
+     *
+     * @return the number of receive buffer overflows
+     */
+    public long getReceiveOverflowCount() {
+        return buffer.getOverflowCount();
+    }
+
+    /**
+     * Gets the number of received bytes that have been discarded because the receive buffer was full
+     *
+     * @return the number of bytes discarded
+     */
+    public long getReceiveDroppedBytes() {
+        return buffer.getDroppedBytes();
+    }
+
+    /**
+     * Gets the maximum number of bytes that have been waiting in the receive buffer
+     *
+     * @return the receive buffer high water mark in bytes
+     */
+    public int getReceiveHighWaterMark() {
+        return buffer.getHighWaterMark();
+    }
+
+    /**
+     * Gets the statistics for the time from data being received to the dongle reading it from the port
+     *
+     * @return the {@link ZigBeeLatencyStatistics}
+     */
+    public ZigBeeLatencyStatistics getPickupLatency() {
+        return pickupLatency;
+    }
+
+    /**
+     * Gets the statistics for the time from the last transmission to the next data being received. This includes any
+     * delay in the operating system or the RXTX library before the data is seen by the binding.
+     *
+     * @return the {@link ZigBeeLatencyStatistics}
+     */
+    public ZigBeeLatencyStatistics getTurnaroundLatency() {
+        return turnaroundLatency;
+    }
+
+    /**
+     * Writes a byte straight to the port after any bytes waiting in the transmit buffer. Must be called with the write
+     * lock held.
+     *
+     * @param value the byte to write
+     */
+    private void writeThrough(int value) {
+        flushTransmitBuffer(0);
         try {
             outputStream.write(value);
+            lastWriteTime = System.nanoTime();
+            statistics.transmitted(1, false);
         } catch (IOException e) {
+            writeFailed(e);
+        }
+    }
+
+    private void ensureTransmitCapacity(int length) {
+        if (transmitBuffer.length - transmitLength < length) {
+            byte[] newBuffer = new byte[Integer.highestOneBit(transmitLength + length) << 1];
+            System.arraycopy(transmitBuffer, 0, newBuffer, 0, transmitLength);
+            transmitBuffer = newBuffer;
         }
     }
 
+    /**
+     * Sends the transmit buffer to the port. Must be called with the write lock held.
+     *
+     * @param frameLength the number of bytes in the buffer that have not already been counted as transmitted
+     * @return true if the data was written to the port
+     */
+    private boolean flushTransmitBuffer(int frameLength) {
+        if (transmitLength == 0) {
+            return true;
+        }
+        int length = transmitLength;
+        transmitLength = 0;
+        if (outputStream == null) {
+            return false;
+        }
+        try {
+            outputStream.write(transmitBuffer, 0, length);
+            outputStream.flush();
+            lastWriteTime = System.nanoTime();
+            statistics.transmitted(frameLength, true);
+            return true;
+        } catch (IOException e) {
+            writeFailed(e);
+            return false;
+        }
+    }
+
+    /**
+     * Starts the thread that sends the transmit buffer once the writer is idle
+     */
+    void startTransmitThread() {
+        transmitThread = new TransmitThread();
+        transmitThread.start();
+    }
+
+    /**
+     * Stops the thread that sends the transmit buffer
+     */
+    void stopTransmitThread() {
+        if (transmitThread != null) {
+            transmitThread.interrupt();
+            transmitThread = null;
+        }
+    }
+
+    private void writeFailed(IOException e) {
+        long errors = statistics.writeError();
+        logger.warn("Serial port [{}] write failed ({} errors): {}", portName, errors, e.getMessage());
+    }
+
     @Override
     public int read() {
         return read(9999999);
@@ -224,63 +624,192 @@ public class ZigBeeSerialPort implements ZigBeePort, SerialPortEventListener {
 
     @Override
     public int read(int timeout) {
-        long endTime = System.currentTimeMillis() + timeout;
+        int value;
+        if (buffer.size() == 0) {
+            long start = System.nanoTime();
+            value = buffer.take(timeout);
+            statistics.consumerWaited(System.nanoTime() - start);
+        } else {
+            value = buffer.take(timeout);
+        }
+        if (value == -1) {
+            statistics.readTimeout();
+        } else {
+            pickedUp();
+        }
+        return value;
+    }
+
+    /**
+     * Reads a block of data from the port. This will block until at least one byte is available or the timeout period
+     * is reached, and then returns as much data as is available up to the requested length.
+     * <p>
+     * This allows dongle drivers that process data in blocks to avoid the per byte overhead of {@link #read(int)}.
+     *
+     * @param data the array to receive the data
+     * @param offset the offset in the array at which to start writing
+     * @param length the maximum number of bytes to read
+     * @param timeout the timeout in milliseconds to wait
+     * @return the number of bytes read, or -1 if no data was received before the timeout
+     */
+    public int read(byte[] data, int offset, int length, int timeout) {
+        int count;
+        if (buffer.size() == 0) {
+            long start = System.nanoTime();
+            count = buffer.take(data, offset, length, timeout);
+            statistics.consumerWaited(System.nanoTime() - start);
+        } else {
+            count = buffer.take(data, offset, length, timeout);
+        }
+        if (count > 0) {
+            pickedUp();
+        } else {
+            statistics.readTimeout();
+        }
+        return count;
+    }
+
+    private void pickedUp() {
+        long arrival = arrivalTime;
+        if (arrival != 0) {
+            arrivalTime = 0;
+            pickupLatency.record(System.nanoTime() - arrival);
+        }
+    }
 
+    @Override
+    public void serialEvent(SerialPortEvent event) {
+        if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE) {
+            readAvailable();
+        }
+    }
+
+    /**
+     * Drains all the data currently available from the serial input stream into the receive buffer. Data is read in
+     * blocks sized from {@link InputStream#available()}, and each block is passed to the receive buffer with a single
+     * copy so the consumer is signalled once per block rather than once per byte.
+     */
+    void readAvailable() {
+        boolean discarded = false;
         try {
-            while (System.currentTimeMillis() < endTime) {
-                synchronized (bufferSynchronisationObject) {
-                    if (start != end) {
-                        int value = buffer[start++];
-                        if (start >= maxLength) {
-                            start = 0;
-                        }
-                        return value;
-                    }
+            while (true) {
+                int available = inputStream.available();
+                if (available <= 0) {
+                    break;
+                }
+                if (available > receiveBuffer.length && receiveBuffer.length < MAXIMUM_RECEIVE_CHUNK) {
+                    receiveBuffer = new byte[Math.min(Integer.highestOneBit(available) << 1, MAXIMUM_RECEIVE_CHUNK)];
+                }
+                int length = inputStream.read(receiveBuffer, 0, Math.min(available, receiveBuffer.length));
+                if (length <= 0) {
+                    break;
                 }
+                if (!received(receiveBuffer, length)) {
+                    discarded = true;
+                }
+            }
+        } catch (IOException e) {
+        }
+        if (discarded) {
+            logger.warn("Serial port [{}] receive buffer full - data discarded ({} overflows, {} bytes)", portName,
+                    buffer.getOverflowCount(), buffer.getDroppedBytes());
+        }
+    }
 
-                synchronized (this) {
-                    if (serialPort == null) {
-                        return -1;
-                    }
+    /**
+     * Passes received data to the receive buffer, recording the receive timing
+     *
+     * @param data the received data
+     * @param length the number of bytes received
+     * @return true if all the data was added to the receive buffer
+     */
+    private boolean received(byte[] data, int length) {
+        long now = System.nanoTime();
+        long sent = lastWriteTime;
+        if (sent != 0) {
+            lastWriteTime = 0;
+            turnaroundLatency.record(now - sent);
+        }
+        if (arrivalTime == 0 && buffer.size() == 0) {
+            arrivalTime = now;
+        }
+        statistics.received(length);
+        return buffer.put(data, 0, length) == length;
+    }
 
-                    wait(endTime - System.currentTimeMillis());
+    /**
+     * Thread used to read data from the port in {@link ReceiveMode#THREAD}. The thread blocks on the input stream
+     * rather than waiting for RXTX to notify it that data is available.
+     */
+    private class ReceiveThread extends Thread {
+        private final InputStream stream;
+        private final byte[] block = new byte[256];
+
+        ReceiveThread(InputStream stream) {
+            super("ZigBeeSerialPort " + portName);
+            this.stream = stream;
+            setDaemon(true);
+            setPriority(Thread.MAX_PRIORITY);
+        }
+
+        @Override
+        public void run() {
+            logger.debug("Serial port [{}] receive thread started", portName);
+            while (!isInterrupted()) {
+                try {
+                    int length = stream.read(block, 0, block.length);
+                    if (length > 0 && !received(block, length)) {
+                        logger.warn("Serial port [{}] receive buffer full - data discarded ({} overflows, {} bytes)",
+                                portName, buffer.getOverflowCount(), buffer.getDroppedBytes());
+                    }
+                } catch (IOException e) {
+                    if (!isInterrupted()) {
+                        logger.warn("Serial port [{}] receive error: {}", portName, e.getMessage());
+                    }
+                    break;
                 }
             }
-            return -1;
-        } catch (InterruptedException e) {
-            logger.error("Error reading from serial port ", e);
+            logger.debug("Serial port [{}] receive thread stopped", portName);
         }
-        return -1;
     }
 
-    @Override
-    public void serialEvent(SerialPortEvent event) {
-        if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE) {
-            try {
-                synchronized (bufferSynchronisationObject) {
-                    int recv;
-                    while ((recv = inputStream.read()) != -1) {
-                        buffer[end++] = recv;
-                        if (end >= maxLength) {
-                            end = 0;
+    /**
+     * Thread that sends the bytes written with {@link #write(int)} once the writer has been idle for the transmit idle
+     * time
+     */
+    private class TransmitThread extends Thread {
+        TransmitThread() {
+            super("ZigBeeSerialPort TX " + portName);
+            setDaemon(true);
+            setPriority(Thread.MAX_PRIORITY);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                long idleWait;
+                synchronized (writeSynchronisationObject) {
+                    try {
+                        while (transmitLength == 0) {
+                            writeSynchronisationObject.wait();
                         }
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    idleWait = transmitIdleTime - (System.nanoTime() - transmitQueuedTime);
+                    if (idleWait <= 0) {
+                        flushTransmitBuffer(0);
+                        continue;
                     }
                 }
-            } catch (IOException e) {
-            }
-
-            synchronized (this) {
-                this.notify();
+                LockSupport.parkNanos(idleWait);
             }
         }
     }
 
     @Override
     public void purgeRxBuffer() {
-        synchronized (bufferSynchronisationObject) {
-            start = 0;
-            end = 0;
-        }
+        buffer.clear();
     }
 
 }
@@ -0,0 +1,527 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.zigbee.internal.ZigBeeByteRingBuffer.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.transport.ZigBeePort;
+
+/**
+ * A {@link ZigBeePort} implementation for coordinators that are connected through a TCP serial bridge such as ser2net.
+ * <p>
+ * The port uses a non-blocking {@link SocketChannel} serviced by a single thread. Received data is placed in a
+ * {@link ZigBeeByteRingBuffer} so the read semantics are the same as the {@link ZigBeeSerialPort}. Data written to the
+ * port is staged in a transmit buffer and sent by the same thread. Nagle's algorithm is disabled, so a frame written
+ * with {@link #write(int[])} is sent in a single segment. Dongle drivers write one byte at a time, and the first byte
+ * wakes the thread, so a frame written this way is usually split across several segments - only the bytes written
+ * while the thread is busy are combined.
+ * <p>
+ * If the connection is lost, the port will keep trying to reconnect until it is closed. Data written while the port
+ * is disconnected is discarded and counted as a write error.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeTcpPort implements ZigBeePort {
+    /**
+     * The URI scheme used to select this port
+     */
+    public static final String SCHEME = "tcp";
+
+    /**
+     * The logger.
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ZigBeeTcpPort.class);
+
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int DEFAULT_RECONNECT_DELAY = 5000;
+    private static final int TRANSMIT_BUFFER_SIZE = 1024;
+    private static final int TRANSMIT_BUFFER_MAXIMUM = 65536;
+
+    /**
+     * The remote host name
+     */
+    private final String host;
+
+    /**
+     * The remote TCP port
+     */
+    private final int port;
+
+    /**
+     * The lock-free fifo queue for receive data
+     */
+    private final ZigBeeByteRingBuffer buffer;
+
+    /**
+     * Data waiting to be sent. This is in write mode and is protected by the writeSynchronisationObject.
+     */
+    private ByteBuffer transmitBuffer = ByteBuffer.allocate(TRANSMIT_BUFFER_SIZE);
+
+    /**
+     * Set when the IO thread has been woken to send the transmit buffer
+     */
+    private boolean transmitPending = false;
+
+    /**
+     * Synchronisation object for the transmit path
+     */
+    private final Object writeSynchronisationObject = new Object();
+
+    private volatile Selector selector;
+    private volatile SocketChannel channel;
+    private volatile boolean running = false;
+    private IoThread ioThread;
+
+    private int reconnectDelay = DEFAULT_RECONNECT_DELAY;
+
+    private final ZigBeePortStatistics statistics = new ZigBeePortStatistics();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    /**
+     * Constructor setting the remote address.
+     *
+     * @param host the remote host name or address
+     * @param port the remote TCP port
+     */
+    public ZigBeeTcpPort(String host, int port) {
+        this(host, port, ZigBeeSerialPort.DEFAULT_BUFFER_SIZE, ZigBeeSerialPort.DEFAULT_BUFFER_MAXIMUM,
+                OverflowPolicy.GROW);
+    }
+
+    /**
+     * Constructor setting the remote address and the receive buffer configuration.
+     *
+     * @param host the remote host name or address
+     * @param port the remote TCP port
+     * @param bufferSize the initial size of the receive buffer in bytes
+     * @param bufferMaximum the maximum size the receive buffer may grow to in bytes
+     * @param overflowPolicy the {@link OverflowPolicy} to apply when the receive buffer is full
+     */
+    public ZigBeeTcpPort(String host, int port, int bufferSize, int bufferMaximum, OverflowPolicy overflowPolicy) {
+        this.host = host;
+        this.port = port;
+        this.buffer = new ZigBeeByteRingBuffer(bufferSize, bufferMaximum, overflowPolicy);
+    }
+
+    /**
+     * Creates a port from a URL in the form tcp://host:port
+     *
+     * @param url the URL of the remote serial bridge
+     * @param bufferSize the initial size of the receive buffer in bytes
+     * @param bufferMaximum the maximum size the receive buffer may grow to in bytes
+     * @param overflowPolicy the {@link OverflowPolicy} to apply when the receive buffer is full
+     * @return the {@link ZigBeeTcpPort}
+     * @throws IllegalArgumentException if the URL is not a valid tcp URL
+     */
+    public static ZigBeeTcpPort create(String url, int bufferSize, int bufferMaximum, OverflowPolicy overflowPolicy) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid TCP port URL " + url, e);
+        }
+        if (!SCHEME.equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null || uri.getPort() == -1) {
+            throw new IllegalArgumentException("TCP port URL must be in the form tcp://host:port - " + url);
+        }
+        return new ZigBeeTcpPort(uri.getHost(), uri.getPort(), bufferSize, bufferMaximum, overflowPolicy);
+    }
+
+    /**
+     * Checks if a port name refers to a TCP port
+     *
+     * @param portName the configured port name
+     * @return true if the port should be opened with {@link ZigBeeTcpPort}
+     */
+    public static boolean isTcpPort(String portName) {
+        return portName != null && portName.trim().toLowerCase().startsWith(SCHEME + "://");
+    }
+
+    /**
+     * Sets the time to wait between attempts to reconnect to the remote bridge
+     *
+     * @param reconnectDelay the delay in milliseconds
+     */
+    public void setReconnectDelay(int reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public boolean open() {
+        logger.debug("Connecting to TCP port [{}:{}].", host, port);
+        try {
+            selector = Selector.open();
+            buffer.open();
+            synchronized (writeSynchronisationObject) {
+                transmitBuffer.clear();
+                transmitPending = false;
+            }
+            if (!connect()) {
+                selector.close();
+                selector = null;
+                return false;
+            }
+        } catch (IOException e) {
+            logger.error("Unable to open TCP port [{}:{}]: {}", host, port, e.getMessage());
+            return false;
+        }
+
+        running = true;
+        ioThread = new IoThread();
+        ioThread.start();
+
+        logger.debug("TCP port [{}:{}] is initialized.", host, port);
+        return true;
+    }
+
+    @Override
+    public boolean open(int baudRate) {
+        // The baud rate is set on the remote bridge
+        return open();
+    }
+
+    @Override
+    public boolean open(int baudRate, FlowControl flowControl) {
+        // The baud rate and flow control are set on the remote bridge
+        return open();
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            ioThread.interrupt();
+            selector.wakeup();
+            ioThread.join(1000);
+            ioThread = null;
+
+            disconnect();
+            selector.close();
+            selector = null;
+        } catch (IOException | InterruptedException e) {
+            logger.error("Error closing TCP port [{}:{}] ", host, port, e);
+        }
+        buffer.close();
+
+        logger.debug("TCP port [{}:{}] closed.", host, port);
+    }
+
+    @Override
+    public void write(int value) {
+        synchronized (writeSynchronisationObject) {
+            if (!running) {
+                return;
+            }
+            if (channel == null || !reserve(1)) {
+                statistics.writeError();
+                return;
+            }
+            transmitBuffer.put((byte) value);
+            statistics.transmitted(1, false);
+            transmit();
+        }
+    }
+
+    /**
+     * Writes a complete frame to the port
+     *
+     * @param frame the frame data as an array of byte values
+     * @return true if the frame was queued for transmission
+     */
+    public boolean write(int[] frame) {
+        synchronized (writeSynchronisationObject) {
+            if (!running) {
+                return false;
+            }
+            if (channel == null || !reserve(frame.length)) {
+                statistics.writeError();
+                return false;
+            }
+            for (int value : frame) {
+                transmitBuffer.put((byte) value);
+            }
+            statistics.transmitted(frame.length, true);
+            transmit();
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of writes that have been discarded because the port was disconnected or the transmit buffer was
+     * full
+     *
+     * @return the number of failed writes
+     */
+    public long getWriteErrorCount() {
+        return statistics.getWriteErrors();
+    }
+
+    /**
+     * Gets the traffic counters for the port
+     *
+     * @return the {@link ZigBeePortStatistics}
+     */
+    public ZigBeePortStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the maximum number of bytes that have been waiting in the receive buffer
+     *
+     * @return the receive buffer high water mark in bytes
+     */
+    public int getReceiveHighWaterMark() {
+        return buffer.getHighWaterMark();
+    }
+
+    /**
+     * Gets the number of times the connection to the remote bridge has been lost and re-established
+     *
+     * @return the number of reconnections
+     */
+    public long getReconnectCount() {
+        return reconnects.get();
+    }
+
+    /**
+     * Checks if the port is currently connected to the remote bridge
+     *
+     * @return true if the port is connected
+     */
+    public boolean isConnected() {
+        return channel != null;
+    }
+
+    @Override
+    public int read() {
+        return read(9999999);
+    }
+
+    @Override
+    public int read(int timeout) {
+        int value;
+        if (buffer.size() == 0) {
+            long start = System.nanoTime();
+            value = buffer.take(timeout);
+            statistics.consumerWaited(System.nanoTime() - start);
+        } else {
+            value = buffer.take(timeout);
+        }
+        if (value == -1) {
+            statistics.readTimeout();
+        }
+        return value;
+    }
+
+    /**
+     * Reads a block of data from the port. This will block until at least one byte is available or the timeout period
+     * is reached, and then returns as much data as is available up to the requested length.
+     *
+     * @param data the array to receive the data
+     * @param offset the offset in the array at which to start writing
+     * @param length the maximum number of bytes to read
+     * @param timeout the timeout in milliseconds to wait
+     * @return the number of bytes read, or -1 if no data was received before the timeout
+     */
+    public int read(byte[] data, int offset, int length, int timeout) {
+        int count;
+        if (buffer.size() == 0) {
+            long start = System.nanoTime();
+            count = buffer.take(data, offset, length, timeout);
+            statistics.consumerWaited(System.nanoTime() - start);
+        } else {
+            count = buffer.take(data, offset, length, timeout);
+        }
+        if (count <= 0) {
+            statistics.readTimeout();
+        }
+        return count;
+    }
+
+    @Override
+    public void purgeRxBuffer() {
+        buffer.clear();
+    }
+
+    /**
+     * Makes sure there is space in the transmit buffer. Must be called with the writeSynchronisationObject held.
+     */
+    private boolean reserve(int length) {
+        if (transmitBuffer.remaining() >= length) {
+            return true;
+        }
+        int required = transmitBuffer.position() + length;
+        if (required > TRANSMIT_BUFFER_MAXIMUM) {
+            logger.debug("TCP port [{}:{}] transmit buffer full - data discarded", host, port);
+            return false;
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(Math.min(Integer.highestOneBit(required) << 1,
+                TRANSMIT_BUFFER_MAXIMUM));
+        transmitBuffer.flip();
+        newBuffer.put(transmitBuffer);
+        transmitBuffer = newBuffer;
+        return true;
+    }
+
+    /**
+     * Wakes the IO thread to send the transmit buffer. Must be called with the writeSynchronisationObject held.
+     */
+    private void transmit() {
+        if (!transmitPending) {
+            transmitPending = true;
+            selector.wakeup();
+        }
+    }
+
+    private boolean connect() {
+        SocketChannel newChannel = null;
+        try {
+            newChannel = SocketChannel.open();
+            newChannel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT);
+            newChannel.socket().setTcpNoDelay(true);
+            newChannel.socket().setKeepAlive(true);
+            newChannel.configureBlocking(false);
+            newChannel.register(selector, SelectionKey.OP_READ);
+            channel = newChannel;
+            return true;
+        } catch (IOException e) {
+            logger.debug("TCP port [{}:{}] connection failed: {}", host, port, e.getMessage());
+            if (newChannel != null) {
+                try {
+                    newChannel.close();
+                } catch (IOException e1) {
+                    // Nothing to do
+                }
+            }
+            return false;
+        }
+    }
+
+    private void disconnect() {
+        SocketChannel oldChannel = channel;
+        synchronized (writeSynchronisationObject) {
+            channel = null;
+            transmitBuffer.clear();
+            transmitPending = false;
+        }
+        if (oldChannel != null) {
+            try {
+                oldChannel.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    /**
+     * Sends as much of the transmit buffer as the socket will accept. Called from the IO thread.
+     */
+    private void send() throws IOException {
+        synchronized (writeSynchronisationObject) {
+            transmitPending = false;
+            SocketChannel currentChannel = channel;
+            if (currentChannel == null || transmitBuffer.position() == 0) {
+                return;
+            }
+            transmitBuffer.flip();
+            currentChannel.write(transmitBuffer);
+            transmitBuffer.compact();
+
+            // If the socket buffer is full, wait until the channel is writable
+            SelectionKey key = currentChannel.keyFor(selector);
+            if (key != null && key.isValid()) {
+                key.interestOps(transmitBuffer.position() == 0 ? SelectionKey.OP_READ
+                        : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Thread servicing the socket. This reads data into the receive buffer, sends the transmit buffer, and reconnects
+     * if the connection is lost.
+     */
+    private class IoThread extends Thread {
+        private final ByteBuffer receiveBuffer = ByteBuffer.allocate(1024);
+
+        IoThread() {
+            super("ZigBeeTcpPort " + host + ":" + port);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            logger.debug("TCP port [{}:{}] IO thread started", host, port);
+            while (running) {
+                try {
+                    if (channel == null) {
+                        Thread.sleep(reconnectDelay);
+                        if (running && connect()) {
+                            reconnects.incrementAndGet();
+                            logger.info("TCP port [{}:{}] reconnected", host, port);
+                        }
+                        continue;
+                    }
+
+                    selector.select(1000);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid() && key.isReadable()) {
+                            receive((SocketChannel) key.channel());
+                        }
+                    }
+                    send();
+                } catch (InterruptedException e) {
+                    break;
+                } catch (IOException e) {
+                    if (running) {
+                        logger.warn("TCP port [{}:{}] connection error: {}", host, port, e.getMessage());
+                        disconnect();
+                    }
+                }
+            }
+            logger.debug("TCP port [{}:{}] IO thread stopped", host, port);
+        }
+
+        private void receive(SocketChannel readChannel) throws IOException {
+            while (true) {
+                receiveBuffer.clear();
+                int length = readChannel.read(receiveBuffer);
+                if (length == -1) {
+                    logger.warn("TCP port [{}:{}] connection closed by remote host", host, port);
+                    disconnect();
+                    return;
+                }
+                if (length == 0) {
+                    return;
+                }
+                statistics.received(length);
+                if (buffer.put(receiveBuffer.array(), 0, length) != length) {
+                    logger.warn("TCP port [{}:{}] receive buffer full - data discarded ({} overflows, {} bytes)",
+                            host, port, buffer.getOverflowCount(), buffer.getDroppedBytes());
+                }
+            }
+        }
+    }
+}
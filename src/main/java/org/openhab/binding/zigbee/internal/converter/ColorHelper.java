@@ -8,12 +8,19 @@
 
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.math.BigDecimal;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.PercentType;
 
 /**
  * The methods provided by this class should be merged into HSBType directly
  * They are here only while these are merged into ESH HSBType class
+ * <p>
+ * The primitive methods work with float values and caller supplied arrays so that converters can convert colors
+ * without creating intermediate {@link HSBType} or {@link PercentType} objects. The sRGB gamma curves are precomputed
+ * into lookup tables when the class is loaded.
  *
  * @author Pedro Garcia - CIE XY color conversions
  *
@@ -21,45 +28,148 @@ import org.eclipse.smarthome.core.library.types.PercentType;
 
 public class ColorHelper {
     // 1931 CIE XYZ to sRGB (D65 reference white)
-    private static float Xy2Rgb[][] = { { 3.2406f, -1.5372f, -0.4986f }, { -0.9689f, 1.8758f, 0.0415f },
+    private static final float Xy2Rgb[][] = { { 3.2406f, -1.5372f, -0.4986f }, { -0.9689f, 1.8758f, 0.0415f },
             { 0.0557f, -0.2040f, 1.0570f } };
 
     // sRGB to 1931 CIE XYZ (D65 reference white)
-    private static float Rgb2Xy[][] = { { 0.4124f, 0.3576f, 0.1805f }, { 0.2126f, 0.7152f, 0.0722f },
+    private static final float Rgb2Xy[][] = { { 0.4124f, 0.3576f, 0.1805f }, { 0.2126f, 0.7152f, 0.0722f },
             { 0.0193f, 0.1192f, 0.9505f } };
 
+    // Number of steps in the gamma lookup tables. Values between the steps are interpolated.
+    private static final int GAMMA_TABLE_SIZE = 4096;
+
+    // The tables only hold the power curves, so that the interpolation does not cross into the linear segments
+    private static final float gammaCompressTable[] = new float[GAMMA_TABLE_SIZE + 1];
+    private static final float gammaDecompressTable[] = new float[GAMMA_TABLE_SIZE + 1];
+
+    static {
+        for (int cnt = 0; cnt <= GAMMA_TABLE_SIZE; cnt++) {
+            float c = (float) cnt / GAMMA_TABLE_SIZE;
+            gammaCompressTable[cnt] = (1.0f + 0.055f) * (float) Math.pow(c, 1.0f / 2.4f) - 0.055f;
+            gammaDecompressTable[cnt] = (float) Math.pow((c + 0.055f) / (1.0f + 0.055f), 2.4f);
+        }
+    }
+
+    // Looks up a value in the 0.0 - 1.0 range in one of the gamma tables
+    private static float gammaLookup(float table[], float c) {
+        if (c >= 1.0f) {
+            return table[GAMMA_TABLE_SIZE];
+        }
+
+        float position = c * GAMMA_TABLE_SIZE;
+        int index = (int) position;
+        return table[index] + (table[index + 1] - table[index]) * (position - index);
+    }
+
     // Gamma compression (sRGB) for a single component, in the 0.0 - 1.0 range
     private static float gammaCompress(float c) {
-        if (c < 0.0f) {
-            c = 0.0f;
-        } else if (c > 1.0f) {
-            c = 1.0f;
+        if (!(c > 0.0f)) {
+            return 0.0f;
         }
 
-        return c <= 0.0031308f ? 19.92f * c : (1.0f + 0.055f) * (float) Math.pow(c, 1.0f / 2.4f) - 0.055f;
+        return c <= 0.0031308f ? 19.92f * c : gammaLookup(gammaCompressTable, c);
     }
 
     // Gamma decompression (sRGB) for a single component, in the 0.0 - 1.0 range
     private static float gammaDecompress(float c) {
-        if (c < 0.0f) {
-            c = 0.0f;
-        } else if (c > 1.0f) {
-            c = 1.0f;
+        if (!(c > 0.0f)) {
+            return 0.0f;
         }
 
-        return c <= 0.04045f ? c / 19.92f : (float) Math.pow((c + 0.055f) / (1.0f + 0.055f), 2.4f);
+        return c <= 0.04045f ? c / 19.92f : gammaLookup(gammaDecompressTable, c);
     }
 
     /**
-     * Returns a HSBType object representing the provided xy color values in CIE XY color model.
+     * Converts a hue and saturation to sRGB at full brightness.
+     *
+     * @param hue the hue in degrees 0.0 - 360.0
+     * @param saturation the saturation 0.0 - 100.0
+     * @param rgb array of at least 3 elements that is set to the red, green and blue components 0.0 - 1.0
+     */
+    public static void hsToRgb(float hue, float saturation, float rgb[]) {
+        float s = saturation / 100.0f;
+        float h = (hue % 360.0f) / 60.0f;
+        if (h < 0.0f) {
+            h += 6.0f;
+        }
+        int sector = (int) h;
+        float f = h - sector;
+
+        float p = 1.0f - s;
+        float q = 1.0f - s * f;
+        float t = 1.0f - s * (1.0f - f);
+
+        switch (sector) {
+            case 0:
+                rgb[0] = 1.0f;
+                rgb[1] = t;
+                rgb[2] = p;
+                break;
+            case 1:
+                rgb[0] = q;
+                rgb[1] = 1.0f;
+                rgb[2] = p;
+                break;
+            case 2:
+                rgb[0] = p;
+                rgb[1] = 1.0f;
+                rgb[2] = t;
+                break;
+            case 3:
+                rgb[0] = p;
+                rgb[1] = q;
+                rgb[2] = 1.0f;
+                break;
+            case 4:
+                rgb[0] = t;
+                rgb[1] = p;
+                rgb[2] = 1.0f;
+                break;
+            default:
+                rgb[0] = 1.0f;
+                rgb[1] = p;
+                rgb[2] = q;
+                break;
+        }
+    }
+
+    /**
+     * Converts sRGB to hue and saturation. The brightness is ignored.
+     *
+     * @param r, g, b the sRGB components 0.0 - 1.0
+     * @param hs array of at least 2 elements that is set to the hue 0.0 - 360.0 and saturation 0.0 - 100.0
+     */
+    public static void rgbToHs(float r, float g, float b, float hs[]) {
+        float max = Math.max(r, Math.max(g, b));
+        float min = Math.min(r, Math.min(g, b));
+        float delta = max - min;
+
+        float hue;
+        if (delta <= 0.0f) {
+            hue = 0.0f;
+        } else if (max == r) {
+            hue = 60.0f * ((g - b) / delta);
+        } else if (max == g) {
+            hue = 60.0f * ((b - r) / delta + 2.0f);
+        } else {
+            hue = 60.0f * ((r - g) / delta + 4.0f);
+        }
+        if (hue < 0.0f) {
+            hue += 360.0f;
+        }
+
+        hs[0] = hue;
+        hs[1] = max <= 0.0f ? 0.0f : delta / max * 100.0f;
+    }
+
+    /**
+     * Converts the xy color values in CIE XY color model to hue and saturation.
      * Conversion from CIE XY color model to sRGB using D65 reference white
-     * Returned color is set to full brightness
      *
      * @param x, y color information 0.0 - 1.0
-     *
-     * @return new HSBType object representing the given CIE XY color, full brightness
+     * @param hs array of at least 2 elements that is set to the hue 0.0 - 360.0 and saturation 0.0 - 100.0
      */
-    public static HSBType fromXY(float x, float y) {
+    public static void fromXY(float x, float y, float hs[]) {
         float Yo = 1.0f;
         float X = (Yo / y) * x;
         float Z = (Yo / y) * (1.0f - x - y);
@@ -73,11 +183,61 @@ public class ColorHelper {
             max = b;
         }
 
-        r = gammaCompress(r / max);
-        g = gammaCompress(g / max);
-        b = gammaCompress(b / max);
+        rgbToHs(gammaCompress(r / max), gammaCompress(g / max), gammaCompress(b / max), hs);
+    }
+
+    /**
+     * Converts the hue and saturation to the xyY values in CIE XY color model.
+     * Conversion from sRGB to CIE XY using D65 reference white
+     * The color information is calculated at full brightness so that it is kept even if brightness is zero
+     *
+     * @param hue the hue in degrees 0.0 - 360.0
+     * @param saturation the saturation 0.0 - 100.0
+     * @param xyY array of at least 3 elements that is set to x and y 0.0 - 1.0, and the relative luminance Y 0.0 - 1.0
+     *            at full brightness
+     */
+    public static void toXY(float hue, float saturation, float xyY[]) {
+        hsToRgb(hue, saturation, xyY);
+
+        float r = gammaDecompress(xyY[0]);
+        float g = gammaDecompress(xyY[1]);
+        float b = gammaDecompress(xyY[2]);
+
+        float X = r * Rgb2Xy[0][0] + g * Rgb2Xy[0][1] + b * Rgb2Xy[0][2];
+        float Y = r * Rgb2Xy[1][0] + g * Rgb2Xy[1][1] + b * Rgb2Xy[1][2];
+        float Z = r * Rgb2Xy[2][0] + g * Rgb2Xy[2][1] + b * Rgb2Xy[2][2];
+
+        xyY[0] = X / (X + Y + Z);
+        xyY[1] = Y / (X + Y + Z);
+        xyY[2] = Y;
+    }
+
+    /**
+     * Converts a float to a {@link BigDecimal} with 4 decimal places for use in the ESH types, without formatting it
+     * as a string
+     *
+     * @param value the value to convert
+     * @return the {@link BigDecimal}
+     */
+    public static BigDecimal toBigDecimal(float value) {
+        return BigDecimal.valueOf(Math.round(value * 10000.0d), 4);
+    }
+
+    /**
+     * Returns a HSBType object representing the provided xy color values in CIE XY color model.
+     * Conversion from CIE XY color model to sRGB using D65 reference white
+     * Returned color is set to full brightness
+     *
+     * @param x, y color information 0.0 - 1.0
+     *
+     * @return new HSBType object representing the given CIE XY color, full brightness
+     */
+    public static HSBType fromXY(float x, float y) {
+        float hs[] = new float[2];
+        fromXY(x, y, hs);
 
-        return HSBType.fromRGB((int) (r * 255.0f + 0.5f), (int) (g * 255.0f + 0.5f), (int) (b * 255.0f + 0.5f));
+        return new HSBType(new DecimalType(toBigDecimal(hs[0])), new PercentType(toBigDecimal(hs[1])),
+                PercentType.HUNDRED);
     }
 
     /**
@@ -90,22 +250,11 @@ public class ColorHelper {
      * @return PercentType[x, y, Y] values in the CIE XY color model
      */
     public static PercentType[] toXY(HSBType HSB) {
-        // This makes sure we keep color information even if brightness is zero
-        PercentType sRGB[] = new HSBType(HSB.getHue(), HSB.getSaturation(), PercentType.HUNDRED).toRGB();
-
-        float r = gammaDecompress(sRGB[0].floatValue() / 100.0f);
-        float g = gammaDecompress(sRGB[1].floatValue() / 100.0f);
-        float b = gammaDecompress(sRGB[2].floatValue() / 100.0f);
-
-        float X = r * Rgb2Xy[0][0] + g * Rgb2Xy[0][1] + b * Rgb2Xy[0][2];
-        float Y = r * Rgb2Xy[1][0] + g * Rgb2Xy[1][1] + b * Rgb2Xy[1][2];
-        float Z = r * Rgb2Xy[2][0] + g * Rgb2Xy[2][1] + b * Rgb2Xy[2][2];
-
-        float x = X / (X + Y + Z);
-        float y = Y / (X + Y + Z);
+        float xyY[] = new float[3];
+        toXY(HSB.getHue().floatValue(), HSB.getSaturation().floatValue(), xyY);
 
-        return new PercentType[] { new PercentType(Float.valueOf(x * 100.0f).toString()),
-                new PercentType(Float.valueOf(y * 100.0f).toString()),
-                new PercentType(Float.valueOf(Y * HSB.getBrightness().floatValue()).toString()) };
+        return new PercentType[] { new PercentType(toBigDecimal(xyY[0] * 100.0f)),
+                new PercentType(toBigDecimal(xyY[1] * 100.0f)),
+                new PercentType(toBigDecimal(xyY[2] * HSB.getBrightness().floatValue())) };
     }
 }
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.ZclAttributeListener;
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+
+/**
+ * Routes attribute reports from the clusters of a node to the converters that require them.
+ * <p>
+ * The library notifies each listener on a cluster in a separate notification task, so when several converters listen
+ * to the same cluster, every report is passed to all of them and each converter checks if it is interested. Instead,
+ * the dispatcher registers a single listener with each cluster, and keeps a table of the listeners for each attribute
+ * of the cluster. A report is passed only to the listeners registered for the attribute, in a single notification
+ * task.
+ * <p>
+ * The table is replaced, rather than modified, when a listener is added or removed, so reports are dispatched
+ * without locking.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeAttributeDispatcher {
+    private Logger logger = LoggerFactory.getLogger(ZigBeeAttributeDispatcher.class);
+
+    /**
+     * The listener registered with each cluster. Clusters are compared by identity as each endpoint has its own
+     * cluster instance.
+     */
+    private final Map<ZclCluster, ClusterDispatcher> clusters = new IdentityHashMap<ZclCluster, ClusterDispatcher>();
+
+    /**
+     * Adds a listener for attributes of a cluster
+     *
+     * @param cluster the {@link ZclCluster} providing the attributes
+     * @param listener the {@link ZclAttributeListener} to receive the reports
+     * @param attributeIds the IDs of the attributes the listener requires
+     */
+    public synchronized void addListener(ZclCluster cluster, ZclAttributeListener listener, int... attributeIds) {
+        ClusterDispatcher dispatcher = clusters.get(cluster);
+        if (dispatcher == null) {
+            dispatcher = new ClusterDispatcher(cluster);
+            clusters.put(cluster, dispatcher);
+            cluster.addAttributeListener(dispatcher);
+        }
+        dispatcher.addListener(listener, attributeIds);
+    }
+
+    /**
+     * Removes a listener from all attributes of a cluster. The dispatcher stops listening to the cluster once it has
+     * no listeners.
+     *
+     * @param cluster the {@link ZclCluster}
+     * @param listener the {@link ZclAttributeListener} to remove
+     */
+    public synchronized void removeListener(ZclCluster cluster, ZclAttributeListener listener) {
+        ClusterDispatcher dispatcher = clusters.get(cluster);
+        if (dispatcher == null) {
+            return;
+        }
+        dispatcher.removeListener(listener);
+        if (dispatcher.isEmpty()) {
+            cluster.removeAttributeListener(dispatcher);
+            clusters.remove(cluster);
+        }
+    }
+
+    /**
+     * Dispatches the reports of a single cluster
+     */
+    private class ClusterDispatcher implements ZclAttributeListener {
+        private final ZclCluster cluster;
+
+        /**
+         * The listeners for each attribute ID. This is replaced when a listener is added or removed.
+         */
+        private volatile Map<Integer, List<ZclAttributeListener>> routes = Collections.emptyMap();
+
+        ClusterDispatcher(ZclCluster cluster) {
+            this.cluster = cluster;
+        }
+
+        void addListener(ZclAttributeListener listener, int... attributeIds) {
+            Map<Integer, List<ZclAttributeListener>> newRoutes = new HashMap<Integer, List<ZclAttributeListener>>(
+                    routes);
+            for (int attributeId : attributeIds) {
+                List<ZclAttributeListener> listeners = newRoutes.get(attributeId);
+                if (listeners == null) {
+                    listeners = Collections.emptyList();
+                }
+                if (listeners.contains(listener)) {
+                    continue;
+                }
+                List<ZclAttributeListener> newListeners = new ArrayList<ZclAttributeListener>(listeners);
+                newListeners.add(listener);
+                newRoutes.put(attributeId, Collections.unmodifiableList(newListeners));
+            }
+            routes = newRoutes;
+        }
+
+        void removeListener(ZclAttributeListener listener) {
+            Map<Integer, List<ZclAttributeListener>> newRoutes = new HashMap<Integer, List<ZclAttributeListener>>(
+                    routes);
+            Iterator<Map.Entry<Integer, List<ZclAttributeListener>>> iterator = newRoutes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, List<ZclAttributeListener>> route = iterator.next();
+                if (!route.getValue().contains(listener)) {
+                    continue;
+                }
+                List<ZclAttributeListener> newListeners = new ArrayList<ZclAttributeListener>(route.getValue());
+                newListeners.remove(listener);
+                if (newListeners.isEmpty()) {
+                    iterator.remove();
+                } else {
+                    route.setValue(Collections.unmodifiableList(newListeners));
+                }
+            }
+            routes = newRoutes;
+        }
+
+        boolean isEmpty() {
+            return routes.isEmpty();
+        }
+
+        @Override
+        public void attributeUpdated(ZclAttribute attribute) {
+            List<ZclAttributeListener> listeners = routes.get(attribute.getId());
+            if (listeners == null) {
+                return;
+            }
+            for (ZclAttributeListener listener : listeners) {
+                try {
+                    listener.attributeUpdated(attribute);
+                } catch (Exception e) {
+                    logger.debug("{}: Exception dispatching attribute report {}", cluster.getZigBeeAddress(),
+                            attribute, e);
+                }
+            }
+        }
+    }
+}
@@ -7,9 +7,13 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
@@ -29,6 +33,7 @@ import org.openhab.binding.zigbee.handler.ZigBeeThingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.zsmartsystems.zigbee.CommandResult;
 import com.zsmartsystems.zigbee.IeeeAddress;
 import com.zsmartsystems.zigbee.ZigBeeEndpoint;
 import com.zsmartsystems.zigbee.zcl.ZclCluster;
@@ -131,6 +136,41 @@ public abstract class ZigBeeBaseChannelConverter {
      */
     protected int pollingPeriod = POLLING_PERIOD_DEFAULT;
 
+    /**
+     * The time the channel state was last updated in milliseconds. This is used to avoid polling channels that have
+     * received a report within the polling period.
+     */
+    private volatile long lastUpdateTime = 0;
+
+    /**
+     * The time the channel was last polled in milliseconds
+     */
+    private volatile long lastPollTime = 0;
+
+    /**
+     * The time in milliseconds after a poll during which updates are taken to be the response to the poll. This is the
+     * time the library waits for a transaction to complete.
+     */
+    private static final long POLL_RESPONSE_TIME = 8000;
+
+    /**
+     * The {@link ZigBeeStatePredictor} used once the converter predicts the channel state following a command
+     */
+    private volatile ZigBeeStatePredictor statePredictor = null;
+
+    /**
+     * The {@link ZigBeeDiscoverySession} used to discover and read the clusters when detecting the channel and
+     * initialising the converter. This is shared with the other converters of the node by the
+     * {@link ZigBeeChannelConverterFactory}.
+     */
+    protected ZigBeeDiscoverySession discoverySession = new ZigBeeDiscoverySession();
+
+    /**
+     * The {@link ZigBeeAttributeDispatcher} the converter registers with to receive attribute reports. This is shared
+     * with the other converters of the node by the {@link ZigBeeThingHandler}.
+     */
+    protected ZigBeeAttributeDispatcher attributeDispatcher = new ZigBeeAttributeDispatcher();
+
     /**
      * Constructor. Creates a new instance of the {@link ZigBeeBaseChannelConverter} class.
      *
@@ -196,6 +236,16 @@ public abstract class ZigBeeBaseChannelConverter {
         // Overridable if a channel can be refreshed
     }
 
+    /**
+     * Polls the channel by refreshing its state. This is called by the Thing Handler polling task, and records the
+     * time of the poll so that the response is not mistaken for a report from the device by
+     * {@link #isPollRequired(int)}.
+     */
+    public void handlePoll() {
+        lastPollTime = System.currentTimeMillis();
+        handleRefresh();
+    }
+
     /**
      * Receives a command from openHAB and translates it to an operation on the ZigBeee network.
      * <p>
@@ -225,6 +275,48 @@ public abstract class ZigBeeBaseChannelConverter {
      */
     public abstract Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint);
 
+    /**
+     * Gets the input clusters the converter requires. The {@link ZigBeeChannelConverterFactory} only calls
+     * {@link #getChannel(ThingUID, ZigBeeEndpoint)} if the endpoint has one of the clusters returned by this method or
+     * {@link #getOutputClusterIds()}. If neither method returns a cluster, the converter is checked for every endpoint.
+     * <p>
+     * This must not depend on the state of the converter as it is called once when the factory is created.
+     *
+     * @return the {@link Set} of input cluster IDs
+     */
+    public Set<Integer> getInputClusterIds() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Gets the output clusters the converter requires. See {@link #getInputClusterIds()}.
+     *
+     * @return the {@link Set} of output cluster IDs
+     */
+    public Set<Integer> getOutputClusterIds() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Sets the {@link ZigBeeDiscoverySession} shared by the converters of the node. This must be called before
+     * {@link #getChannel(ThingUID, ZigBeeEndpoint)} or {@link #initializeConverter()}.
+     *
+     * @param discoverySession the {@link ZigBeeDiscoverySession}
+     */
+    public void setDiscoverySession(ZigBeeDiscoverySession discoverySession) {
+        this.discoverySession = discoverySession;
+    }
+
+    /**
+     * Sets the {@link ZigBeeAttributeDispatcher} shared by the converters of the node. This must be called before
+     * {@link #initializeConverter()}.
+     *
+     * @param attributeDispatcher the {@link ZigBeeAttributeDispatcher}
+     */
+    public void setAttributeDispatcher(ZigBeeAttributeDispatcher attributeDispatcher) {
+        this.attributeDispatcher = attributeDispatcher;
+    }
+
     /**
      * Updates the channel state within the thing.
      *
@@ -233,7 +325,85 @@ public abstract class ZigBeeBaseChannelConverter {
     protected void updateChannelState(State state) {
         logger.debug("{}: Channel {} updated to {}", endpoint.getIeeeAddress(), channelUID, state);
 
-        thing.setChannelState(channelUID, state);
+        lastUpdateTime = System.currentTimeMillis();
+        ZigBeeStatePredictor predictor = statePredictor;
+        if (predictor != null) {
+            predictor.report(state);
+        } else {
+            thing.setChannelState(channelUID, state);
+        }
+    }
+
+    /**
+     * Predicts the channel state following a command. If the command succeeded, the predicted state is posted
+     * immediately and reconciled with the state the device reports. If the command failed, the channel is rolled back
+     * to the last state reported by the device.
+     *
+     * @param result the {@link CommandResult} of the command, or null if the command failed
+     * @param state the {@link State} expected once the device has completed the command
+     * @param timeout the time to wait for the device to report the state in milliseconds. 0 disables the prediction.
+     */
+    protected void predictChannelState(CommandResult result, State state, long timeout) {
+        if (timeout <= 0) {
+            return;
+        }
+        ZigBeeStatePredictor predictor = getStatePredictor();
+        if (result != null && result.isSuccess()) {
+            logger.debug("{}: Channel {} predicted to be {}", endpoint.getIeeeAddress(), channelUID, state);
+            predictor.predict(state, timeout);
+        } else {
+            logger.debug("{}: Channel {} command failed - rolling back prediction", endpoint.getIeeeAddress(),
+                    channelUID);
+            predictor.rollback();
+        }
+    }
+
+    private synchronized ZigBeeStatePredictor getStatePredictor() {
+        if (statePredictor == null) {
+            statePredictor = new ZigBeeStatePredictor(coordinator.getConverterScheduler(),
+                    new ZigBeeStatePredictor.StateUpdater() {
+                        @Override
+                        public void updateState(State state) {
+                            thing.setChannelState(channelUID, state);
+                        }
+                    });
+        }
+        return statePredictor;
+    }
+
+    /**
+     * Requests an attribute is read from the device. Reads from all channels of the node are combined into a single
+     * Read Attributes command per cluster, and the value is returned through the cluster attribute listeners.
+     *
+     * @param cluster the {@link ZclCluster} to read from
+     * @param attributeId the attribute to read
+     */
+    protected void readAttribute(ZclCluster cluster, int attributeId) {
+        coordinator.readAttribute(endpoint.getIeeeAddress(), cluster, attributeId);
+    }
+
+    /**
+     * Waits for a command sent to the device to complete. Commands are sent from the thing command queue, so waiting
+     * here keeps a single transaction in progress with the device, and allows newer commands to replace queued ones.
+     *
+     * <p>
+     * If the thread is interrupted while waiting, the interrupt flag is restored and null is returned. The result of
+     * the command is then unknown rather than failed, so callers should check {@link Thread#isInterrupted()} before
+     * acting on a null result.
+     *
+     * @param command the {@link Future} returned when the command was sent
+     * @return the {@link CommandResult}, or null if the command failed or the thread was interrupted
+     */
+    protected CommandResult waitForCommand(Future<CommandResult> command) {
+        try {
+            return command.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            logger.debug("{}: Exception waiting for command to complete", endpoint.getIeeeAddress(), e);
+            return null;
+        }
     }
 
     /**
@@ -264,6 +434,31 @@ public abstract class ZigBeeBaseChannelConverter {
         return pollingPeriod;
     }
 
+    /**
+     * Gets the time the channel state was last updated, either from an attribute report or a refresh
+     *
+     * @return the time of the last update in milliseconds, or 0 if the channel has not been updated
+     */
+    public long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * Checks if the channel needs to be polled. A channel that has been updated within the polling period does not
+     * need to be polled, unless the update was the response to the previous poll. Otherwise the response to each poll
+     * would cause the following poll to be skipped.
+     *
+     * @param period the polling period in seconds
+     * @return true if the channel has not been updated by the device within the period
+     */
+    public boolean isPollRequired(int period) {
+        long updateTime = lastUpdateTime;
+        if (System.currentTimeMillis() - updateTime >= period * 1000L) {
+            return true;
+        }
+        return updateTime - lastPollTime < POLL_RESPONSE_TIME;
+    }
+
     /**
      * Creates a channel. This is called from extended converters to create a channel they support
      *
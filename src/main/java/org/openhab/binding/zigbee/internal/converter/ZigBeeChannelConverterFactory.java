@@ -7,12 +7,15 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -32,6 +35,8 @@ import com.zsmartsystems.zigbee.ZigBeeEndpoint;
  * The factory performs two functions -
  * <ul>
  * <li>gets a list of channels the thing supports. This uses methods in each converter to decide if they are supported.
+ * Converters are indexed by the clusters they require, so only the converters for the clusters an endpoint supports
+ * are checked.
  * <li>instantiates converters based on the channel UID.
  * </ul>
  *
@@ -43,34 +48,68 @@ public class ZigBeeChannelConverterFactory {
     /**
      * Map of all channels supported by the binding
      */
-    private final Map<String, Class<? extends ZigBeeBaseChannelConverter>> channelMap;
+    private final Map<String, Supplier<ZigBeeBaseChannelConverter>> channelMap;
+
+    /**
+     * Map of input cluster IDs to the channels whose converters require the cluster
+     */
+    private final Map<Integer, List<String>> inputClusterChannels = new HashMap<Integer, List<String>>();
+
+    /**
+     * Map of output cluster IDs to the channels whose converters require the cluster
+     */
+    private final Map<Integer, List<String>> outputClusterChannels = new HashMap<Integer, List<String>>();
+
+    /**
+     * Channels whose converters don't declare any clusters. These are checked for every endpoint.
+     */
+    private final List<String> unindexedChannels = new ArrayList<String>();
 
     /**
      * Map of all channels to be consolidated. Note that order is important.
      */
     private final Map<String, String> channelConsolidation;
 
+    /**
+     * The {@link ZigBeeDiscoverySession} shared by all converters created by this factory. The factory is created for
+     * each node initialisation, so each cluster is discovered and read once per initialisation.
+     */
+    private final ZigBeeDiscoverySession discoverySession = new ZigBeeDiscoverySession();
+
     public ZigBeeChannelConverterFactory() {
-        channelMap = new HashMap<String, Class<? extends ZigBeeBaseChannelConverter>>();
+        channelMap = new HashMap<String, Supplier<ZigBeeBaseChannelConverter>>();
 
         // Add all the converters into the map...
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_COLOR_COLOR, ZigBeeConverterColorColor.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_COLOR_TEMPERATURE, ZigBeeConverterColorTemperature.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_ELECTRICAL_ACTIVEPOWER, ZigBeeConverterMeasurementPower.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_HUMIDITY_VALUE, ZigBeeConverterRelativeHumidity.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_CONTACT_PORTAL1, ZigBeeConverterIasContactPortal1.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_MOTION_INTRUSION, ZigBeeConverterIasMotionIntrusion.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_MOTION_PRESENCE, ZigBeeConverterIasMotionPresence.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_STANDARDCIE_SYSTEM, ZigBeeConverterIasCieSystem.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_ILLUMINANCE_VALUE, ZigBeeConverterIlluminance.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_OCCUPANCY_SENSOR, ZigBeeConverterOccupancy.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_POWER_BATTERYPERCENT, ZigBeeConverterBatteryPercent.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_POWER_BATTERYVOLTAGE, ZigBeeConverterBatteryVoltage.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_PRESSURE_VALUE, ZigBeeConverterAtmosphericPressure.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_ONOFF, ZigBeeConverterSwitchOnoff.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_TRIGGER, ZigBeeConverterSwitchTrigger.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL, ZigBeeConverterSwitchLevel.class);
-        channelMap.put(ZigBeeBindingConstants.CHANNEL_TEMPERATURE_VALUE, ZigBeeConverterTemperature.class);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_COLOR_COLOR, ZigBeeConverterColorColor::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_COLOR_TEMPERATURE, ZigBeeConverterColorTemperature::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_ELECTRICAL_ACTIVEPOWER, ZigBeeConverterMeasurementPower::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_HUMIDITY_VALUE, ZigBeeConverterRelativeHumidity::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_CONTACT_PORTAL1, ZigBeeConverterIasContactPortal1::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_MOTION_INTRUSION, ZigBeeConverterIasMotionIntrusion::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_MOTION_PRESENCE, ZigBeeConverterIasMotionPresence::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_IAS_STANDARDCIE_SYSTEM, ZigBeeConverterIasCieSystem::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_ILLUMINANCE_VALUE, ZigBeeConverterIlluminance::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_OCCUPANCY_SENSOR, ZigBeeConverterOccupancy::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_POWER_BATTERYPERCENT, ZigBeeConverterBatteryPercent::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_POWER_BATTERYVOLTAGE, ZigBeeConverterBatteryVoltage::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_PRESSURE_VALUE, ZigBeeConverterAtmosphericPressure::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_ONOFF, ZigBeeConverterSwitchOnoff::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_TRIGGER, ZigBeeConverterSwitchTrigger::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL, ZigBeeConverterSwitchLevel::new);
+        channelMap.put(ZigBeeBindingConstants.CHANNEL_TEMPERATURE_VALUE, ZigBeeConverterTemperature::new);
+
+        // Index the channels by the clusters their converters require
+        for (Map.Entry<String, Supplier<ZigBeeBaseChannelConverter>> channel : channelMap.entrySet()) {
+            ZigBeeBaseChannelConverter converter = channel.getValue().get();
+            Set<Integer> inputClusters = converter.getInputClusterIds();
+            Set<Integer> outputClusters = converter.getOutputClusterIds();
+            if (inputClusters.isEmpty() && outputClusters.isEmpty()) {
+                unindexedChannels.add(channel.getKey());
+                continue;
+            }
+            addClusterChannel(inputClusterChannels, inputClusters, channel.getKey());
+            addClusterChannel(outputClusterChannels, outputClusters, channel.getKey());
+        }
 
         // Add the hierarchical list of channels that are to be removed due to inheritance
         // Note that order is important in the event that there are multiple removals...
@@ -86,6 +125,50 @@ public class ZigBeeChannelConverterFactory {
                 ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL);
     }
 
+    private void addClusterChannel(Map<Integer, List<String>> clusterChannels, Set<Integer> clusters,
+            String channelType) {
+        for (Integer clusterId : clusters) {
+            List<String> channelTypes = clusterChannels.get(clusterId);
+            if (channelTypes == null) {
+                channelTypes = new ArrayList<String>();
+                clusterChannels.put(clusterId, channelTypes);
+            }
+            channelTypes.add(channelType);
+        }
+    }
+
+    /**
+     * Gets the channel types whose converters may support the endpoint, based on the clusters the endpoint supports
+     *
+     * @param endpoint the {@link ZigBeeEndpoint}
+     * @return the set of channel types to check
+     */
+    private Set<String> getCandidateChannels(ZigBeeEndpoint endpoint) {
+        Set<String> candidates = new LinkedHashSet<String>(unindexedChannels);
+        for (Integer clusterId : endpoint.getInputClusterIds()) {
+            List<String> channelTypes = inputClusterChannels.get(clusterId);
+            if (channelTypes != null) {
+                candidates.addAll(channelTypes);
+            }
+        }
+        for (Integer clusterId : endpoint.getOutputClusterIds()) {
+            List<String> channelTypes = outputClusterChannels.get(clusterId);
+            if (channelTypes != null) {
+                candidates.addAll(channelTypes);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Closes the {@link ZigBeeDiscoverySession} shared by the converters once the node initialisation has completed.
+     * Converters initialised later, when their channel is linked, then read from the device rather than using the
+     * results, including the failures, remembered during the initialisation.
+     */
+    public void closeDiscoverySession() {
+        discoverySession.close();
+    }
+
     /**
      * Gets a list of all channels supported by the {@link ZigBeeEndpoint}
      *
@@ -93,23 +176,16 @@ public class ZigBeeChannelConverterFactory {
      * @param endpoint the {@link ZigBeeEndpoint} to generate the channels for
      * @return
      */
-    @SuppressWarnings("unchecked")
     public Collection<Channel> getChannels(ThingUID thingUID, ZigBeeEndpoint endpoint) {
         Map<String, Channel> channels = new HashMap<String, Channel>();
 
-        Constructor<? extends ZigBeeBaseChannelConverter> constructor;
-        for (Class<?> converterClass : channelMap.values()) {
-            try {
-                constructor = (Constructor<? extends ZigBeeBaseChannelConverter>) converterClass.getConstructor();
-                ZigBeeBaseChannelConverter converter = constructor.newInstance();
-
-                Channel channel = converter.getChannel(thingUID, endpoint);
-                if (channel != null) {
-                    channels.put(channel.getChannelTypeUID().toString(), channel);
-                }
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-                    | InvocationTargetException | NoSuchMethodException | SecurityException e) {
-                logger.debug("{}: Exception while getting channels: ", endpoint.getIeeeAddress(), e);
+        for (String channelType : getCandidateChannels(endpoint)) {
+            ZigBeeBaseChannelConverter converter = channelMap.get(channelType).get();
+            converter.setDiscoverySession(discoverySession);
+
+            Channel channel = converter.getChannel(thingUID, endpoint);
+            if (channel != null) {
+                channels.put(channel.getChannelTypeUID().toString(), channel);
             }
         }
 
@@ -138,16 +214,16 @@ public class ZigBeeChannelConverterFactory {
      */
     public ZigBeeBaseChannelConverter createConverter(ZigBeeThingHandler thingHandler, Channel channel,
             ZigBeeCoordinatorHandler coordinatorHandler, IeeeAddress ieeeAddress, int endpointId) {
-        Constructor<? extends ZigBeeBaseChannelConverter> constructor;
-        try {
-            if (channelMap.get(channel.getChannelTypeUID().toString()) == null) {
-                logger.debug("{}: Channel converter for channel type {} is not implemented!", ieeeAddress,
-                        channel.getUID().getId());
-                return null;
-            }
-            constructor = channelMap.get(channel.getChannelTypeUID().toString()).getConstructor();
-            ZigBeeBaseChannelConverter instance = constructor.newInstance();
+        Supplier<ZigBeeBaseChannelConverter> supplier = channelMap.get(channel.getChannelTypeUID().toString());
+        if (supplier == null) {
+            logger.debug("{}: Channel converter for channel type {} is not implemented!", ieeeAddress,
+                    channel.getUID().getId());
+            return null;
+        }
 
+        try {
+            ZigBeeBaseChannelConverter instance = supplier.get();
+            instance.setDiscoverySession(discoverySession);
             instance.initialize(thingHandler, channel, coordinatorHandler, ieeeAddress, endpointId);
             return instance;
         } catch (Exception e) {
@@ -8,6 +8,8 @@
 package org.openhab.binding.zigbee.internal.converter;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Channel;
@@ -60,7 +62,8 @@ public class ZigBeeConverterAtmosphericPressure extends ZigBeeBaseChannelConvert
         cluster.bind();
 
         // Add a listener, then request the status
-        cluster.addAttributeListener(this);
+        attributeDispatcher.addListener(cluster, this, ZclPressureMeasurementCluster.ATTR_MEASUREDVALUE,
+                ZclPressureMeasurementCluster.ATTR_SCALEDVALUE, ZclPressureMeasurementCluster.ATTR_SCALE);
 
         // Configure reporting - no faster than once per second - no slower than 10 minutes.
         if (enhancedScale != null) {
@@ -73,18 +76,23 @@ public class ZigBeeConverterAtmosphericPressure extends ZigBeeBaseChannelConvert
 
     @Override
     public void disposeConverter() {
-        cluster.removeAttributeListener(this);
+        attributeDispatcher.removeListener(cluster, this);
     }
 
     @Override
     public void handleRefresh() {
         if (enhancedScale != null) {
-            cluster.getScaledValue(0);
+            readAttribute(cluster, ZclPressureMeasurementCluster.ATTR_SCALEDVALUE);
         } else {
-            cluster.getMeasuredValue(0);
+            readAttribute(cluster, ZclPressureMeasurementCluster.ATTR_MEASUREDVALUE);
         }
     }
 
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclPressureMeasurementCluster.CLUSTER_ID);
+    }
+
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
         if (endpoint.getInputCluster(ZclPressureMeasurementCluster.CLUSTER_ID) == null) {
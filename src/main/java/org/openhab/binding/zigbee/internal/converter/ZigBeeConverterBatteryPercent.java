@@ -7,6 +7,8 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -55,7 +57,7 @@ public class ZigBeeConverterBatteryPercent extends ZigBeeBaseChannelConverter im
         }
 
         // Add a listener, then request the status
-        cluster.addAttributeListener(this);
+        attributeDispatcher.addListener(cluster, this, ZclPowerConfigurationCluster.ATTR_BATTERYPERCENTAGEREMAINING);
 
         return true;
     }
@@ -64,36 +66,37 @@ public class ZigBeeConverterBatteryPercent extends ZigBeeBaseChannelConverter im
     public void disposeConverter() {
         logger.debug("{}: Closing power configuration cluster", endpoint.getIeeeAddress());
 
-        cluster.removeAttributeListener(this);
+        attributeDispatcher.removeListener(cluster, this);
     }
 
     @Override
     public void handleRefresh() {
-        cluster.getBatteryPercentageRemaining(0);
+        readAttribute(cluster, ZclPowerConfigurationCluster.ATTR_BATTERYPERCENTAGEREMAINING);
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclPowerConfigurationCluster.CLUSTER_ID);
     }
 
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
-        ZclPowerConfigurationCluster powerCluster = (ZclPowerConfigurationCluster) endpoint
+        final ZclPowerConfigurationCluster powerCluster = (ZclPowerConfigurationCluster) endpoint
                 .getInputCluster(ZclPowerConfigurationCluster.CLUSTER_ID);
         if (powerCluster == null) {
             return null;
         }
 
-        try {
-            if (!powerCluster.discoverAttributes(false).get()) {
-                logger.debug("{}: Failed discovering attributes in power configuration cluster",
-                        endpoint.getIeeeAddress());
-                if (cluster.getBatteryPercentageRemaining(Long.MAX_VALUE) == null) {
-                    return null;
-                }
-            } else if (!powerCluster
-                    .isAttributeSupported(ZclPowerConfigurationCluster.ATTR_BATTERYPERCENTAGEREMAINING)) {
+        if (!discoverySession.discoverAttributes(powerCluster)) {
+            logger.debug("{}: Failed discovering attributes in power configuration cluster",
+                    endpoint.getIeeeAddress());
+            if (discoverySession.readAttribute(powerCluster,
+                    ZclPowerConfigurationCluster.ATTR_BATTERYPERCENTAGEREMAINING,
+                    () -> powerCluster.getBatteryPercentageRemaining(Long.MAX_VALUE)) == null) {
                 return null;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.warn("{}: Exception discovering attributes in power configuration cluster",
-                    endpoint.getIeeeAddress(), e);
+        } else if (!powerCluster.isAttributeSupported(ZclPowerConfigurationCluster.ATTR_BATTERYPERCENTAGEREMAINING)) {
+            return null;
         }
 
         return createChannel(thingUID, endpoint, ZigBeeBindingConstants.CHANNEL_POWER_BATTERYPERCENT,
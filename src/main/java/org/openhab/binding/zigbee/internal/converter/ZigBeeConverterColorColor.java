@@ -7,8 +7,10 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +25,7 @@ import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+import org.openhab.binding.zigbee.internal.converter.config.ZclColorControlConfig;
 import org.openhab.binding.zigbee.internal.converter.config.ZclLevelControlConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +60,9 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
     private ScheduledFuture<?> colorUpdateTimer = null;
     private Object colorUpdateSync = new Object();
 
+    private ScheduledFuture<?> colorChangeTimer = null;
+    private Object colorChangeSync = new Object();
+
     private boolean supportsHue = false;
     private float lastHue = -1.0f;
     private float lastSaturation = -1.0f;
@@ -69,11 +75,12 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
     private boolean yChanged = false;
 
     private ZclLevelControlConfig configLevelControl;
+    private ZclColorControlConfig configColorControl;
 
     @Override
     public boolean initializeConverter() {
         currentHSB = new HSBType();
-        colorUpdateScheduler = Executors.newSingleThreadScheduledExecutor();
+        colorUpdateScheduler = coordinator.getConverterScheduler();
 
         clusterColorControl = (ZclColorControlCluster) endpoint.getInputCluster(ZclColorControlCluster.CLUSTER_ID);
         if (clusterColorControl == null) {
@@ -92,32 +99,27 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         }
 
         // Discover whether the device supports HUE/SAT or XY color set of commands
-        try {
-            if (!clusterColorControl.discoverAttributes(false).get()) {
-                logger.warn("{}: Cannot determine whether device supports RGB color. Assuming it supports HUE/SAT",
-                        endpoint.getIeeeAddress());
-                supportsHue = true;
-            } else if (clusterColorControl.getSupportedAttributes().contains(ZclColorControlCluster.ATTR_CURRENTHUE)) {
-                logger.debug("{}: Device supports Hue/Saturation color set of commands", endpoint.getIeeeAddress());
-                supportsHue = true;
-            } else if (clusterColorControl.getSupportedAttributes().contains(ZclColorControlCluster.ATTR_CURRENTX)) {
-                logger.debug("{}: Device supports XY color set of commands", endpoint.getIeeeAddress());
-                supportsHue = false;
-                delayedColorChange = true; // For now, only for XY lights till this is configurable
-            } else {
-                logger.warn("{}: Device does not support RGB color", endpoint.getIeeeAddress());
-                return false;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.warn(
-                    "{}: Exception checking whether device endpoint supports RGB color. Assuming it supports HUE/SAT",
-                    endpoint.getIeeeAddress(), e);
+        if (!discoverySession.discoverAttributes(clusterColorControl)) {
+            logger.warn("{}: Cannot determine whether device supports RGB color. Assuming it supports HUE/SAT",
+                    endpoint.getIeeeAddress());
             supportsHue = true;
+        } else if (clusterColorControl.getSupportedAttributes().contains(ZclColorControlCluster.ATTR_CURRENTHUE)) {
+            logger.debug("{}: Device supports Hue/Saturation color set of commands", endpoint.getIeeeAddress());
+            supportsHue = true;
+        } else if (clusterColorControl.getSupportedAttributes().contains(ZclColorControlCluster.ATTR_CURRENTX)) {
+            logger.debug("{}: Device supports XY color set of commands", endpoint.getIeeeAddress());
+            supportsHue = false;
+            delayedColorChange = true; // For now, only for XY lights till this is configurable
+        } else {
+            logger.warn("{}: Device does not support RGB color", endpoint.getIeeeAddress());
+            return false;
         }
 
         // Bind to attribute reports, add listeners, then request the status
         // Configure reporting - no faster than once per second - no slower than 10 minutes.
-        clusterColorControl.addAttributeListener(this);
+        attributeDispatcher.addListener(clusterColorControl, this, ZclColorControlCluster.ATTR_CURRENTHUE,
+                ZclColorControlCluster.ATTR_CURRENTSATURATION, ZclColorControlCluster.ATTR_CURRENTX,
+                ZclColorControlCluster.ATTR_CURRENTY);
 
         try {
             CommandResult bindResponse = clusterColorControl.bind().get();
@@ -144,7 +146,7 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         }
 
         if (clusterLevelControl != null) {
-            clusterLevelControl.addAttributeListener(this);
+            attributeDispatcher.addListener(clusterLevelControl, this, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
             try {
                 CommandResult bindResponse = clusterLevelControl.bind().get();
                 if (!bindResponse.isSuccess()) {
@@ -161,7 +163,7 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         }
 
         if (clusterOnOff != null) {
-            clusterOnOff.addAttributeListener(this);
+            attributeDispatcher.addListener(clusterOnOff, this, ZclOnOffCluster.ATTR_ONOFF);
             try {
                 CommandResult bindResponse = clusterOnOff.bind().get();
                 if (!bindResponse.isSuccess()) {
@@ -177,62 +179,69 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         }
 
         // Create a configuration handler and get the available options
-        configLevelControl = new ZclLevelControlConfig(clusterLevelControl);
+        configLevelControl = new ZclLevelControlConfig(clusterLevelControl, discoverySession);
         configOptions = configLevelControl.getConfiguration();
 
+        configColorControl = new ZclColorControlConfig(clusterColorControl);
+        if (delayedColorChange) {
+            configOptions.addAll(configColorControl.getConfiguration());
+        }
+
         return true;
     }
 
     @Override
     public void disposeConverter() {
-        clusterColorControl.removeAttributeListener(this);
+        attributeDispatcher.removeListener(clusterColorControl, this);
 
         if (clusterLevelControl != null) {
-            clusterLevelControl.removeAttributeListener(this);
+            attributeDispatcher.removeListener(clusterLevelControl, this);
         }
 
         if (clusterOnOff != null) {
-            clusterOnOff.removeAttributeListener(this);
+            attributeDispatcher.removeListener(clusterOnOff, this);
         }
 
         synchronized (colorUpdateSync) {
             if (colorUpdateTimer != null) {
-                colorUpdateTimer.cancel(true);
+                colorUpdateTimer.cancel(false);
+                colorUpdateTimer = null;
             }
         }
+
+        cancelColorChange();
     }
 
     @Override
     public void handleRefresh() {
         if (supportsHue) {
-            clusterColorControl.getCurrentHue(0);
-            clusterColorControl.getCurrentSaturation(0);
+            readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTHUE);
+            readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTSATURATION);
         } else {
-            clusterColorControl.getCurrentX(0);
-            clusterColorControl.getCurrentY(0);
+            readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTX);
+            readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTY);
         }
 
         if (clusterLevelControl != null) {
-            clusterLevelControl.getCurrentLevel(0);
+            readAttribute(clusterLevelControl, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
         }
 
         if (clusterOnOff != null) {
-            clusterOnOff.getOnOff(0);
+            readAttribute(clusterOnOff, ZclOnOffCluster.ATTR_ONOFF);
         }
     }
 
-    private void changeOnOff(OnOffType onoff) throws InterruptedException, ExecutionException {
+    private CommandResult changeOnOff(OnOffType onoff) throws InterruptedException, ExecutionException {
         boolean on = onoff == OnOffType.ON;
         PercentType brightness = on ? PercentType.HUNDRED : PercentType.ZERO;
 
         if (clusterLevelControl != null) {
-            changeBrightness(brightness);
-            return;
+            return changeBrightness(brightness);
         }
 
         if (clusterOnOff == null) {
             logger.warn("{}: ignoring on/off command", endpoint.getIeeeAddress());
-            return;
+            return null;
         }
 
         HSBType oldHSB = currentHSB;
@@ -240,20 +249,19 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         lastBrightness = brightness;
 
         if (on) {
-            clusterOnOff.onCommand().get();
+            return clusterOnOff.onCommand().get();
         } else {
-            clusterOnOff.offCommand().get();
+            return clusterOnOff.offCommand().get();
         }
     }
 
-    private void changeBrightness(PercentType brightness) throws InterruptedException, ExecutionException {
+    private CommandResult changeBrightness(PercentType brightness) throws InterruptedException, ExecutionException {
         if (clusterLevelControl == null) {
             if (clusterOnOff != null) {
-                changeOnOff(brightness.intValue() == 0 ? OnOffType.OFF : OnOffType.ON);
-            } else {
-                logger.warn("{}: ignoring brightness command", endpoint.getIeeeAddress());
+                return changeOnOff(brightness.intValue() == 0 ? OnOffType.OFF : OnOffType.ON);
             }
-            return;
+            logger.warn("{}: ignoring brightness command", endpoint.getIeeeAddress());
+            return null;
         }
 
         HSBType oldHSB = currentHSB;
@@ -263,38 +271,100 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         int level = percentToLevel(brightness);
 
         if (clusterOnOff != null) {
-            clusterLevelControl.moveToLevelWithOnOffCommand(level, configLevelControl.getDefaultTransitionTime()).get();
+            return clusterLevelControl
+                    .moveToLevelWithOnOffCommand(level, configLevelControl.getDefaultTransitionTime()).get();
         } else {
-            clusterLevelControl.moveToLevelCommand(level, configLevelControl.getDefaultTransitionTime()).get();
+            return clusterLevelControl.moveToLevelCommand(level, configLevelControl.getDefaultTransitionTime()).get();
         }
     }
 
-    private void changeColorHueSaturation(HSBType color) throws InterruptedException, ExecutionException {
+    private Future<CommandResult> changeColor(HSBType color) {
+        if (supportsHue) {
+            return changeColorHueSaturation(color);
+        } else {
+            return changeColorXY(color);
+        }
+    }
+
+    private Future<CommandResult> changeColorHueSaturation(HSBType color) {
         HSBType oldHSB = currentHSB;
         currentHSB = new HSBType(color.getHue(), color.getSaturation(), oldHSB.getBrightness());
         int hue = (int) (color.getHue().floatValue() * 254.0f / 360.0f + 0.5f);
         int saturation = percentToLevel(color.getSaturation());
 
-        clusterColorControl
-                .moveToHueAndSaturationCommand(hue, saturation, configLevelControl.getDefaultTransitionTime()).get();
+        return clusterColorControl.moveToHueAndSaturationCommand(hue, saturation,
+                configLevelControl.getDefaultTransitionTime());
     }
 
-    private void changeColorXY(HSBType color) throws InterruptedException, ExecutionException {
-        PercentType xy[] = ColorHelper.toXY(color);
+    private Future<CommandResult> changeColorXY(HSBType color) {
+        float xyY[] = new float[3];
+        ColorHelper.toXY(color.getHue().floatValue(), color.getSaturation().floatValue(), xyY);
 
         HSBType oldHSB = currentHSB;
         currentHSB = new HSBType(color.getHue(), color.getSaturation(), oldHSB.getBrightness());
 
+        int x = (int) (xyY[0] * 65536.0f + 0.5f); // up to 65279
+        int y = (int) (xyY[1] * 65536.0f + 0.5f); // up to 65279
         logger.debug("{}: Change Color HSV ({}, {}, {}) -> XY ({}, {})", endpoint.getIeeeAddress(), color.getHue(),
-                color.getSaturation(), oldHSB.getBrightness(), xy[0], xy[1]);
-        int x = (int) (xy[0].floatValue() / 100.0f * 65536.0f + 0.5f); // up to 65279
-        int y = (int) (xy[1].floatValue() / 100.0f * 65536.0f + 0.5f); // up to 65279
+                color.getSaturation(), oldHSB.getBrightness(), x, y);
+
+        return clusterColorControl.moveToColorCommand(x, y, configLevelControl.getDefaultTransitionTime());
+    }
+
+    /**
+     * Changes the color once the brightness transition has completed. The converter scheduler waits for the transition
+     * so that the command thread is not held, and the timer is cancelled if a newer command is received. The color
+     * command is then sent through the thing command queue for the channel, so that it is replaced by a newer command
+     * that is waiting to be sent.
+     *
+     * @param color the {@link HSBType} to change to
+     * @param delay the time to wait in milliseconds
+     * @param predictionTimeout the time to wait for the device to report the color in milliseconds
+     */
+    private void scheduleColorChange(final HSBType color, int delay, final long predictionTimeout) {
+        synchronized (colorChangeSync) {
+            colorChangeTimer = colorUpdateScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (colorChangeSync) {
+                        colorChangeTimer = null;
+                    }
+                    if (!thing.submitChannelCommand(channelUID, () -> sendColorChange(color, predictionTimeout))) {
+                        logger.debug("{}: Delayed color change to {} replaced by newer command",
+                                endpoint.getIeeeAddress(), color);
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendColorChange(HSBType color, long predictionTimeout) {
+        try {
+            predictChannelState(changeColor(color).get(), color, predictionTimeout);
+        } catch (InterruptedException e) {
+            // The result is unknown, so the prediction is left to expire
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("{}: Exception processing delayed color change", endpoint.getIeeeAddress(), e);
+            predictChannelState(null, currentHSB, predictionTimeout);
+        }
+    }
 
-        clusterColorControl.moveToColorCommand(x, y, configLevelControl.getDefaultTransitionTime()).get();
+    private void cancelColorChange() {
+        synchronized (colorChangeSync) {
+            if (colorChangeTimer != null) {
+                colorChangeTimer.cancel(false);
+                colorChangeTimer = null;
+            }
+        }
     }
 
     @Override
     public void handleCommand(final Command command) {
+        // A newer command replaces any color change still waiting for a brightness transition
+        cancelColorChange();
+
+        long predictionTimeout = configLevelControl.getPredictionTimeout();
         try {
             if (command instanceof HSBType) {
                 HSBType current = currentHSB;
@@ -310,68 +380,93 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
                                     - color.getSaturation().intValue()) > changeSensitivity;
                 }
 
+                CommandResult result = null;
                 if (brightness.intValue() != currentHSB.getBrightness().intValue()) {
-                    changeBrightness(brightness);
-                    if (changeColor && delayedColorChange) {
-                        Thread.sleep(1100);
+                    result = changeBrightness(brightness);
+                    // If the brightness wasn't changed there is no transition to wait for, so the color is sent now
+                    if (changeColor && delayedColorChange && configColorControl.getColorChangeDelay() > 0
+                            && result != null && result.isSuccess()) {
+                        // Only the brightness is predicted until the color command is sent
+                        predictChannelState(result, currentHSB,
+                                predictionTimeout + configColorControl.getColorChangeDelay());
+                        scheduleColorChange(color, configColorControl.getColorChangeDelay(), predictionTimeout);
+                        return;
                     }
                 }
 
                 if (changeColor) {
-                    if (supportsHue) {
-                        changeColorHueSaturation(color);
-                    } else {
-                        changeColorXY(color);
-                    }
+                    result = changeColor(color).get();
+                }
+                if (result != null) {
+                    predictChannelState(result, color, predictionTimeout);
                 }
             } else if (command instanceof PercentType) {
-                changeBrightness((PercentType) command);
+                CommandResult result = changeBrightness((PercentType) command);
+                if (result != null) {
+                    predictChannelState(result, currentHSB, predictionTimeout);
+                }
             } else if (command instanceof OnOffType) {
-                changeOnOff((OnOffType) command);
+                CommandResult result = changeOnOff((OnOffType) command);
+                if (result != null) {
+                    predictChannelState(result, currentHSB, predictionTimeout);
+                }
             }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException e) {
+            // The result is unknown, so the prediction is left to expire
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
             logger.warn("{}: Exception processing command", endpoint.getIeeeAddress(), e);
+            predictChannelState(null, currentHSB, predictionTimeout);
         }
     }
 
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclColorControlCluster.CLUSTER_ID);
+    }
+
+    private Integer getColorCapabilities(final ZclColorControlCluster clusterColorControl) {
+        return discoverySession.readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_COLORCAPABILITIES,
+                () -> clusterColorControl.getColorCapabilities(Long.MAX_VALUE));
+    }
+
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
-        ZclColorControlCluster clusterColorControl = (ZclColorControlCluster) endpoint
+        final ZclColorControlCluster clusterColorControl = (ZclColorControlCluster) endpoint
                 .getInputCluster(ZclColorControlCluster.CLUSTER_ID);
         if (clusterColorControl == null) {
             return null;
         }
 
-        try {
-            if (!clusterColorControl.discoverAttributes(false).get()) {
-                // Device is not supporting attribute reporting - instead, just read the attributes
-                Integer capabilities = clusterColorControl.getColorCapabilities(Long.MAX_VALUE);
-                if (capabilities == null && clusterColorControl.getCurrentX(Long.MAX_VALUE) == null
-                        && clusterColorControl.getCurrentHue(Long.MAX_VALUE) == null) {
-                    return null;
-                }
-                if (capabilities != null && ((capabilities & (ColorCapabilitiesEnum.HUE_AND_SATURATION.getKey()
-                        | ColorCapabilitiesEnum.XY_ATTRIBUTE.getKey())) == 0)) {
-                    // No support for hue or XY
-                    return null;
-                }
+        if (!discoverySession.discoverAttributes(clusterColorControl)) {
+            // Device is not supporting attribute reporting - instead, just read the attributes
+            Integer capabilities = getColorCapabilities(clusterColorControl);
+            if (capabilities == null
+                    && discoverySession.readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTX,
+                            () -> clusterColorControl.getCurrentX(Long.MAX_VALUE)) == null
+                    && discoverySession.readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_CURRENTHUE,
+                            () -> clusterColorControl.getCurrentHue(Long.MAX_VALUE)) == null) {
+                return null;
+            }
+            if (capabilities != null && ((capabilities & (ColorCapabilitiesEnum.HUE_AND_SATURATION.getKey()
+                    | ColorCapabilitiesEnum.XY_ATTRIBUTE.getKey())) == 0)) {
+                // No support for hue or XY
+                return null;
+            }
 
-            } else if (clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORCAPABILITIES)) {
-                // If the device is reporting is capabilities, then use this over attribute detection
-                // The color control cluster is required to always support XY attributes, so a non-color bulb is still
-                // detected as a color bulb in this case.
-                Integer capabilities = clusterColorControl.getColorCapabilities(Long.MAX_VALUE);
-                if ((capabilities != null) && (capabilities & (ColorCapabilitiesEnum.HUE_AND_SATURATION.getKey()
-                        | ColorCapabilitiesEnum.XY_ATTRIBUTE.getKey())) == 0) {
-                    // No support for hue or XY
-                    return null;
-                }
-            } else if (!clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_CURRENTHUE)
-                    && !clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_CURRENTX)) {
+        } else if (clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORCAPABILITIES)) {
+            // If the device is reporting is capabilities, then use this over attribute detection
+            // The color control cluster is required to always support XY attributes, so a non-color bulb is still
+            // detected as a color bulb in this case.
+            Integer capabilities = getColorCapabilities(clusterColorControl);
+            if ((capabilities != null) && (capabilities & (ColorCapabilitiesEnum.HUE_AND_SATURATION.getKey()
+                    | ColorCapabilitiesEnum.XY_ATTRIBUTE.getKey())) == 0) {
+                // No support for hue or XY
                 return null;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.warn("{}: Exception discovering attributes in color control cluster", endpoint.getIeeeAddress(), e);
+        } else if (!clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_CURRENTHUE)
+                && !clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_CURRENTX)) {
+            return null;
         }
 
         return createChannel(thingUID, endpoint, ZigBeeBindingConstants.CHANNEL_COLOR_COLOR,
@@ -399,25 +494,22 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
         updateChannelState(newHSB);
     }
 
-    private void updateColorXY(PercentType x, PercentType y) {
-        HSBType color = ColorHelper.fromXY(x.floatValue() / 100.0f, y.floatValue() / 100.0f);
-        logger.debug("{}: Update Color XY ({}, {}) -> HSV ({}, {}, {})", endpoint.getIeeeAddress(), x.toString(),
-                y.toString(), color.getHue(), color.getSaturation(), currentHSB.getBrightness());
-        updateColorHSB(color.getHue(), color.getSaturation());
-    }
-
     private void updateColorHSB() {
-        DecimalType hue = new DecimalType(Float.valueOf(lastHue).toString());
-        PercentType saturation = new PercentType(Float.valueOf(lastSaturation).toString());
+        DecimalType hue = new DecimalType(ColorHelper.toBigDecimal(lastHue));
+        PercentType saturation = new PercentType(ColorHelper.toBigDecimal(lastSaturation));
         updateColorHSB(hue, saturation);
         hueChanged = false;
         saturationChanged = false;
     }
 
     private void updateColorXY() {
-        PercentType x = new PercentType(Float.valueOf(lastX * 100.0f).toString());
-        PercentType y = new PercentType(Float.valueOf(lastY * 100.0f).toString());
-        updateColorXY(x, y);
+        float hs[] = new float[2];
+        ColorHelper.fromXY(lastX, lastY, hs);
+        DecimalType hue = new DecimalType(ColorHelper.toBigDecimal(hs[0]));
+        PercentType saturation = new PercentType(ColorHelper.toBigDecimal(hs[1]));
+        logger.debug("{}: Update Color XY ({}, {}) -> HSV ({}, {}, {})", endpoint.getIeeeAddress(), lastX, lastY, hue,
+                saturation, currentHSB.getBrightness());
+        updateColorHSB(hue, saturation);
         xChanged = false;
         yChanged = false;
     }
@@ -425,7 +517,17 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
     @Override
     public Configuration updateConfiguration(@NonNull Configuration configuration) {
         Configuration updatedConfiguration = new Configuration();
-        configLevelControl.updateConfiguration(configuration, updatedConfiguration);
+        Configuration levelConfiguration = new Configuration();
+        Configuration colorConfiguration = new Configuration();
+        for (String property : configuration.getProperties().keySet()) {
+            if (property.startsWith(ZclColorControlConfig.CONFIG_PREFIX)) {
+                colorConfiguration.put(property, configuration.get(property));
+            } else {
+                levelConfiguration.put(property, configuration.get(property));
+            }
+        }
+        configLevelControl.updateConfiguration(levelConfiguration, updatedConfiguration);
+        configColorControl.updateConfiguration(colorConfiguration, updatedConfiguration);
 
         return updatedConfiguration;
     }
@@ -451,28 +553,28 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
                     if (attribute.getId() == ZclColorControlCluster.ATTR_CURRENTHUE) {
                         Integer value = (Integer) attribute.getLastValue();
                         float hue = value * 360.0f / 254.0f;
-                        if (Math.abs(hue - lastHue) < .0000001) {
+                        if (Math.abs(hue - lastHue) > .0000001) {
                             lastHue = hue;
                             hueChanged = true;
                         }
                     } else if (attribute.getId() == ZclColorControlCluster.ATTR_CURRENTSATURATION) {
                         Integer value = (Integer) attribute.getLastValue();
                         float saturation = value * 100.0f / 254.0f;
-                        if (Math.abs(saturation - lastSaturation) < .0000001) {
+                        if (Math.abs(saturation - lastSaturation) > .0000001) {
                             lastSaturation = saturation;
                             saturationChanged = true;
                         }
                     } else if (attribute.getId() == ZclColorControlCluster.ATTR_CURRENTX) {
                         Integer value = (Integer) attribute.getLastValue();
                         float x = value / 65536.0f;
-                        if (Math.abs(x - lastX) < .0000001) {
+                        if (Math.abs(x - lastX) > .0000001) {
                             lastX = x;
                             xChanged = true;
                         }
                     } else if (attribute.getId() == ZclColorControlCluster.ATTR_CURRENTY) {
                         Integer value = (Integer) attribute.getLastValue();
                         float y = value / 65536.0f;
-                        if (Math.abs(y - lastY) < .0000001) {
+                        if (Math.abs(y - lastY) > .0000001) {
                             lastY = y;
                             yChanged = true;
                         }
@@ -481,7 +583,7 @@ public class ZigBeeConverterColorColor extends ZigBeeBaseChannelConverter implem
 
                 if (hueChanged || saturationChanged || xChanged || yChanged) {
                     if (colorUpdateTimer != null) {
-                        colorUpdateTimer.cancel(true);
+                        colorUpdateTimer.cancel(false);
                         colorUpdateTimer = null;
                     }
 
@@ -7,7 +7,8 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
-import java.util.concurrent.ExecutionException;
+import java.util.Collections;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.PercentType;
@@ -52,8 +53,12 @@ public class ZigBeeConverterColorTemperature extends ZigBeeBaseChannelConverter
             return false;
         }
 
-        Integer kMin = clusterColorControl.getColorTemperatureMin(Long.MAX_VALUE);
-        Integer kMax = clusterColorControl.getColorTemperatureMax(Long.MAX_VALUE);
+        Integer kMin = discoverySession.readAttribute(clusterColorControl,
+                ZclColorControlCluster.ATTR_COLORTEMPERATUREMIN,
+                () -> clusterColorControl.getColorTemperatureMin(Long.MAX_VALUE));
+        Integer kMax = discoverySession.readAttribute(clusterColorControl,
+                ZclColorControlCluster.ATTR_COLORTEMPERATUREMAX,
+                () -> clusterColorControl.getColorTemperatureMax(Long.MAX_VALUE));
 
         if (kMin == null) {
             kelvinMin = CT_DEFAULT_MIN;
@@ -69,7 +74,7 @@ public class ZigBeeConverterColorTemperature extends ZigBeeBaseChannelConverter
 
         clusterColorControl.bind();
 
-        clusterColorControl.addAttributeListener(this);
+        attributeDispatcher.addListener(clusterColorControl, this, ZclColorControlCluster.ATTR_COLORTEMPERATURE);
 
         // Configure reporting - no faster than once per second - no slower than 10 minutes.
         clusterColorControl.setColorTemperatureReporting(1, REPORTING_PERIOD_DEFAULT_MAX, 1);
@@ -79,12 +84,12 @@ public class ZigBeeConverterColorTemperature extends ZigBeeBaseChannelConverter
 
     @Override
     public void disposeConverter() {
-        clusterColorControl.removeAttributeListener(this);
+        attributeDispatcher.removeListener(clusterColorControl, this);
     }
 
     @Override
     public void handleRefresh() {
-        clusterColorControl.getColorTemperature(0);
+        readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_COLORTEMPERATURE);
     }
 
     private int convertPercentToKelvin(PercentType colorTemp) {
@@ -113,40 +118,48 @@ public class ZigBeeConverterColorTemperature extends ZigBeeBaseChannelConverter
             return;
         }
 
-        clusterColorControl.moveToColorTemperatureCommand(convertPercentToKelvin(colorTemp), 10);
+        waitForCommand(clusterColorControl.moveToColorTemperatureCommand(convertPercentToKelvin(colorTemp), 10));
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclColorControlCluster.CLUSTER_ID);
+    }
+
+    private Integer getColorCapabilities(final ZclColorControlCluster clusterColorControl) {
+        return discoverySession.readAttribute(clusterColorControl, ZclColorControlCluster.ATTR_COLORCAPABILITIES,
+                () -> clusterColorControl.getColorCapabilities(Long.MAX_VALUE));
     }
 
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
-        ZclColorControlCluster clusterColorControl = (ZclColorControlCluster) endpoint
+        final ZclColorControlCluster clusterColorControl = (ZclColorControlCluster) endpoint
                 .getInputCluster(ZclColorControlCluster.CLUSTER_ID);
         if (clusterColorControl == null) {
             return null;
         }
 
-        try {
-            if (!clusterColorControl.discoverAttributes(false).get()) {
-                // Device is not supporting attribute reporting - instead, just read the attributes
-                Integer capabilities = clusterColorControl.getColorCapabilities(Long.MAX_VALUE);
-                if (capabilities == null && clusterColorControl.getColorTemperature(Long.MAX_VALUE) == null) {
-                    return null;
-                }
-                if (capabilities != null && (capabilities & ColorCapabilitiesEnum.COLOR_TEMPERATURE.getKey()) == 0) {
-                    // No support for color temperature
-                    return null;
-                }
-            } else if (clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORCAPABILITIES)) {
-                // If the device is reporting is capabilities, then use this over attribute detection
-                Integer capabilities = clusterColorControl.getColorCapabilities(Long.MAX_VALUE);
-                if (capabilities != null && (capabilities & ColorCapabilitiesEnum.COLOR_TEMPERATURE.getKey()) == 0) {
-                    // No support for color temperature
-                    return null;
-                }
-            } else if (!clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORTEMPERATURE)) {
+        if (!discoverySession.discoverAttributes(clusterColorControl)) {
+            // Device is not supporting attribute reporting - instead, just read the attributes
+            Integer capabilities = getColorCapabilities(clusterColorControl);
+            if (capabilities == null && discoverySession.readAttribute(clusterColorControl,
+                    ZclColorControlCluster.ATTR_COLORTEMPERATURE,
+                    () -> clusterColorControl.getColorTemperature(Long.MAX_VALUE)) == null) {
                 return null;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.warn("{}: Exception discovering attributes in color control cluster", endpoint.getIeeeAddress(), e);
+            if (capabilities != null && (capabilities & ColorCapabilitiesEnum.COLOR_TEMPERATURE.getKey()) == 0) {
+                // No support for color temperature
+                return null;
+            }
+        } else if (clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORCAPABILITIES)) {
+            // If the device is reporting is capabilities, then use this over attribute detection
+            Integer capabilities = getColorCapabilities(clusterColorControl);
+            if (capabilities != null && (capabilities & ColorCapabilitiesEnum.COLOR_TEMPERATURE.getKey()) == 0) {
+                // No support for color temperature
+                return null;
+            }
+        } else if (!clusterColorControl.isAttributeSupported(ZclColorControlCluster.ATTR_COLORTEMPERATURE)) {
+            return null;
         }
 
         return createChannel(thingUID, endpoint, ZigBeeBindingConstants.CHANNEL_COLOR_TEMPERATURE,
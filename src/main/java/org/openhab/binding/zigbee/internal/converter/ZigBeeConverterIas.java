@@ -7,6 +7,9 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.slf4j.Logger;
@@ -77,7 +80,12 @@ public abstract class ZigBeeConverterIas extends ZigBeeBaseChannelConverter impl
 
     @Override
     public void handleRefresh() {
-        clusterIasZone.getZoneStatus(0);
+        readAttribute(clusterIasZone, ZclIasZoneCluster.ATTR_ZONESTATUS);
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclIasZoneCluster.CLUSTER_ID);
     }
 
     protected boolean supportsIasChannel(ZigBeeEndpoint endpoint, ZoneTypeEnum requiredZoneType) {
@@ -85,19 +93,22 @@ public abstract class ZigBeeConverterIas extends ZigBeeBaseChannelConverter impl
             return false;
         }
 
-        ZclIasZoneCluster cluster = (ZclIasZoneCluster) endpoint.getInputCluster(ZclIasZoneCluster.CLUSTER_ID);
+        final ZclIasZoneCluster cluster = (ZclIasZoneCluster) endpoint.getInputCluster(ZclIasZoneCluster.CLUSTER_ID);
         if (cluster == null) {
             logger.error("{}: Error opening IAS zone cluster", endpoint.getIeeeAddress());
             return false;
         }
 
-        Integer zoneTypeId = null;
-        for (int retry = 0; retry < 3; retry++) {
-            zoneTypeId = cluster.getZoneType(Long.MAX_VALUE);
-            if (zoneTypeId != null) {
-                break;
+        // Each IAS converter checks the zone type, so the session reads it once for all of them
+        Integer zoneTypeId = discoverySession.readAttribute(cluster, ZclIasZoneCluster.ATTR_ZONETYPE, () -> {
+            for (int retry = 0; retry < 3; retry++) {
+                Integer zoneType = cluster.getZoneType(Long.MAX_VALUE);
+                if (zoneType != null) {
+                    return zoneType;
+                }
             }
-        }
+            return null;
+        });
         if (zoneTypeId == null) {
             logger.debug("{}: Did not get IAS zone type", endpoint.getIeeeAddress());
             return false;
@@ -7,6 +7,8 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -74,7 +76,7 @@ public class ZigBeeConverterMeasurementPower extends ZigBeeBaseChannelConverter
         }
 
         // Add a listener, then request the status
-        clusterMeasurement.addAttributeListener(this);
+        attributeDispatcher.addListener(clusterMeasurement, this, ZclElectricalMeasurementCluster.ATTR_ACTIVEPOWER);
 
         return true;
     }
@@ -83,12 +85,17 @@ public class ZigBeeConverterMeasurementPower extends ZigBeeBaseChannelConverter
     public void disposeConverter() {
         logger.debug("{}: Closing electrical measurement cluster", endpoint.getIeeeAddress());
 
-        clusterMeasurement.removeAttributeListener(this);
+        attributeDispatcher.removeListener(clusterMeasurement, this);
     }
 
     @Override
     public void handleRefresh() {
-        clusterMeasurement.getTotalActivePower(0);
+        readAttribute(clusterMeasurement, ZclElectricalMeasurementCluster.ATTR_TOTALACTIVEPOWER);
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclElectricalMeasurementCluster.CLUSTER_ID);
     }
 
     @Override
@@ -103,15 +110,9 @@ public class ZigBeeConverterMeasurementPower extends ZigBeeBaseChannelConverter
             return null;
         }
 
-        try {
-            if (cluster.discoverAttributes(false).get() == false) {
-                logger.warn("{}: Failed discovering attributes in electrical measurement cluster",
-                        endpoint.getIeeeAddress());
-                return null;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.warn("{}: Exception discovering xattributes in electrical measurement cluster",
-                    endpoint.getIeeeAddress(), e);
+        if (!discoverySession.discoverAttributes(cluster)) {
+            logger.warn("{}: Failed discovering attributes in electrical measurement cluster",
+                    endpoint.getIeeeAddress());
             return null;
         }
 
@@ -7,6 +7,9 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -44,7 +47,7 @@ public class ZigBeeConverterOccupancy extends ZigBeeBaseChannelConverter impleme
         clusterOccupancy.bind();
 
         // Add a listener, then request the status
-        clusterOccupancy.addAttributeListener(this);
+        attributeDispatcher.addListener(clusterOccupancy, this, ZclOccupancySensingCluster.ATTR_OCCUPANCY);
 
         // Configure reporting - no faster than once per second - no slower than 10 minutes.
         clusterOccupancy.setOccupancyReporting(1, REPORTING_PERIOD_DEFAULT_MAX);
@@ -55,12 +58,17 @@ public class ZigBeeConverterOccupancy extends ZigBeeBaseChannelConverter impleme
     public void disposeConverter() {
         logger.debug("{}: Closing device occupancy cluster", endpoint.getIeeeAddress());
 
-        clusterOccupancy.removeAttributeListener(this);
+        attributeDispatcher.removeListener(clusterOccupancy, this);
     }
 
     @Override
     public void handleRefresh() {
-        clusterOccupancy.getOccupancy(0);
+        readAttribute(clusterOccupancy, ZclOccupancySensingCluster.ATTR_OCCUPANCY);
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclOccupancySensingCluster.CLUSTER_ID);
     }
 
     @Override
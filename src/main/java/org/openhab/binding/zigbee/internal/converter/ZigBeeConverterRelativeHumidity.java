@@ -8,6 +8,8 @@
 package org.openhab.binding.zigbee.internal.converter;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Channel;
@@ -45,7 +47,7 @@ public class ZigBeeConverterRelativeHumidity extends ZigBeeBaseChannelConverter
         cluster.bind();
 
         // Add a listener, then request the status
-        cluster.addAttributeListener(this);
+        attributeDispatcher.addListener(cluster, this, ZclRelativeHumidityMeasurementCluster.ATTR_MEASUREDVALUE);
 
         // Configure reporting - no faster than once per second - no slower than 10 minutes.
         cluster.setMeasuredValueReporting(1, REPORTING_PERIOD_DEFAULT_MAX, 0.1);
@@ -54,12 +56,17 @@ public class ZigBeeConverterRelativeHumidity extends ZigBeeBaseChannelConverter
 
     @Override
     public void disposeConverter() {
-        cluster.removeAttributeListener(this);
+        attributeDispatcher.removeListener(cluster, this);
     }
 
     @Override
     public void handleRefresh() {
-        cluster.getMeasuredValue(0);
+        readAttribute(cluster, ZclRelativeHumidityMeasurementCluster.ATTR_MEASUREDVALUE);
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclRelativeHumidityMeasurementCluster.CLUSTER_ID);
     }
 
     @Override
@@ -7,6 +7,8 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -64,10 +66,10 @@ public class ZigBeeConverterSwitchLevel extends ZigBeeBaseChannelConverter imple
         }
 
         // Add a listener, then request the status
-        clusterLevelControl.addAttributeListener(this);
+        attributeDispatcher.addListener(clusterLevelControl, this, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
 
         // Create a configuration handler and get the available options
-        configLevelControl = new ZclLevelControlConfig(clusterLevelControl);
+        configLevelControl = new ZclLevelControlConfig(clusterLevelControl, discoverySession);
         configOptions = configLevelControl.getConfiguration();
 
         return true;
@@ -75,12 +77,12 @@ public class ZigBeeConverterSwitchLevel extends ZigBeeBaseChannelConverter imple
 
     @Override
     public void disposeConverter() {
-        clusterLevelControl.removeAttributeListener(this);
+        attributeDispatcher.removeListener(clusterLevelControl, this);
     }
 
     @Override
     public void handleRefresh() {
-        clusterLevelControl.getCurrentLevel(0);
+        readAttribute(clusterLevelControl, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
     }
 
     @Override
@@ -101,8 +103,19 @@ public class ZigBeeConverterSwitchLevel extends ZigBeeBaseChannelConverter imple
             return;
         }
 
-        clusterLevelControl.moveToLevelWithOnOffCommand(percentToLevel(percent),
-                configLevelControl.getDefaultTransitionTime());
+        int level = percentToLevel(percent);
+        CommandResult result = waitForCommand(clusterLevelControl.moveToLevelWithOnOffCommand(level,
+                configLevelControl.getDefaultTransitionTime()));
+        if (Thread.currentThread().isInterrupted()) {
+            // The result is unknown, so the channel is not rolled back
+            return;
+        }
+        predictChannelState(result, levelToPercent(level), configLevelControl.getPredictionTimeout());
+    }
+
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclLevelControlCluster.CLUSTER_ID);
     }
 
     @Override
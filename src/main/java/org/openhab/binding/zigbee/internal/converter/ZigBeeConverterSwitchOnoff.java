@@ -7,6 +7,9 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.PercentType;
 import org.eclipse.smarthome.core.thing.Channel;
@@ -101,20 +104,20 @@ public class ZigBeeConverterSwitchOnoff extends ZigBeeBaseChannelConverter
         logger.debug("{}: Closing device on/off cluster", endpoint.getIeeeAddress());
 
         if (clusterOnOffClient != null) {
-            clusterOnOffClient.removeAttributeListener(this);
+            attributeDispatcher.removeListener(clusterOnOffClient, this);
         }
         if (clusterOnOffServer != null) {
-            clusterOnOffServer.removeAttributeListener(this);
+            attributeDispatcher.removeListener(clusterOnOffServer, this);
         }
     }
 
     @Override
     public void handleRefresh() {
         if (clusterOnOffClient != null) {
-            clusterOnOffClient.getOnOff(0);
+            readAttribute(clusterOnOffClient, ZclOnOffCluster.ATTR_ONOFF);
         }
         if (clusterOnOffServer != null) {
-            clusterOnOffServer.getOnOff(0);
+            readAttribute(clusterOnOffServer, ZclOnOffCluster.ATTR_ONOFF);
         }
     }
 
@@ -132,12 +135,22 @@ public class ZigBeeConverterSwitchOnoff extends ZigBeeBaseChannelConverter
         }
 
         if (cmdOnOff == OnOffType.ON) {
-            clusterOnOffServer.onCommand();
+            waitForCommand(clusterOnOffServer.onCommand());
         } else {
-            clusterOnOffServer.offCommand();
+            waitForCommand(clusterOnOffServer.offCommand());
         }
     }
 
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclOnOffCluster.CLUSTER_ID);
+    }
+
+    @Override
+    public Set<Integer> getOutputClusterIds() {
+        return Collections.singleton(ZclOnOffCluster.CLUSTER_ID);
+    }
+
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
         if (endpoint.getInputCluster(ZclOnOffCluster.CLUSTER_ID) == null
@@ -7,6 +7,9 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -54,14 +57,14 @@ public class ZigBeeConverterSwitchTrigger extends ZigBeeBaseChannelConverter
 
         if (clusterOnOffServer != null) {
             clusterOnOffServer.bind();
-            clusterOnOffServer.addAttributeListener(this);
+            attributeDispatcher.addListener(clusterOnOffServer, this, ZclOnOffCluster.ATTR_ONOFF);
             clusterOnOffServer.addCommandListener(this);
         }
 
         if (clusterOnOffClient != null) {
             clusterOnOffClient.bind();
             clusterOnOffClient.addCommandListener(this);
-            clusterOnOffClient.addAttributeListener(this);
+            attributeDispatcher.addListener(clusterOnOffClient, this, ZclOnOffCluster.ATTR_ONOFF);
         }
 
         return true;
@@ -72,13 +75,24 @@ public class ZigBeeConverterSwitchTrigger extends ZigBeeBaseChannelConverter
         logger.debug("{}: Closing device trigger cluster", endpoint.getIeeeAddress());
 
         if (clusterOnOffServer != null) {
-            clusterOnOffServer.removeAttributeListener(this);
+            attributeDispatcher.removeListener(clusterOnOffServer, this);
         }
         if (clusterOnOffClient != null) {
+            attributeDispatcher.removeListener(clusterOnOffClient, this);
             clusterOnOffClient.removeCommandListener(this);
         }
     }
 
+    @Override
+    public Set<Integer> getInputClusterIds() {
+        return Collections.singleton(ZclOnOffCluster.CLUSTER_ID);
+    }
+
+    @Override
+    public Set<Integer> getOutputClusterIds() {
+        return Collections.singleton(ZclOnOffCluster.CLUSTER_ID);
+    }
+
     @Override
     public Channel getChannel(ThingUID thingUID, ZigBeeEndpoint endpoint) {
         if (endpoint.getInputCluster(ZclOnOffCluster.CLUSTER_ID) == null
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+
+/**
+ * Remembers the attribute discovery results and the attributes read while the channels of a node are detected and
+ * the converters are initialised. Several converters use the same clusters, so without the session each converter
+ * would discover and read the same cluster again.
+ * <p>
+ * The library already skips a repeated attribute discovery once it has succeeded, but a failed discovery or read is
+ * repeated every time it is requested, and each one waits for the transaction to time out. The session remembers the
+ * failures as well, so each cluster is discovered, and each attribute is read, only once.
+ * <p>
+ * A session is created by the {@link ZigBeeChannelConverterFactory} for each node initialisation and is shared by all
+ * converters it creates. The session is closed once the initialisation has completed, as converters for channels that
+ * are not linked are initialised later, and must not use the failures remembered during the initialisation. Once the
+ * session is closed, every request is sent to the device.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeDiscoverySession {
+    private Logger logger = LoggerFactory.getLogger(ZigBeeDiscoverySession.class);
+
+    /**
+     * Results of the attribute discovery, keyed by the cluster
+     */
+    private final Map<String, Boolean> discoveries = new HashMap<String, Boolean>();
+
+    /**
+     * Values of the attributes read, keyed by the cluster and attribute. A null value records a failed read.
+     */
+    private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+    private boolean closed = false;
+
+    /**
+     * Discovers the attributes supported by the cluster, if this hasn't already been done in this session
+     *
+     * @param cluster the {@link ZclCluster} to discover
+     * @return true if the discovery succeeded and {@link ZclCluster#getSupportedAttributes()} is valid
+     */
+    public synchronized boolean discoverAttributes(ZclCluster cluster) {
+        String key = getKey(cluster);
+        Boolean result = discoveries.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        try {
+            result = cluster.discoverAttributes(false).get();
+            if (!result) {
+                logger.debug("{}: Unable to get supported attributes for {}.", cluster.getZigBeeAddress(),
+                        cluster.getClusterName());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            logger.debug("{}: Error getting supported attributes for {}. ", cluster.getZigBeeAddress(),
+                    cluster.getClusterName(), e);
+            result = false;
+        }
+
+        if (!closed) {
+            discoveries.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads an attribute, if it hasn't already been read in this session. The reader is normally one of the cluster
+     * getters, and is only called the first time the attribute is requested.
+     *
+     * @param cluster the {@link ZclCluster} the attribute belongs to
+     * @param attributeId the attribute ID
+     * @param reader the {@link Supplier} that reads the attribute from the device
+     * @return the attribute value, or null if the attribute could not be read
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T readAttribute(ZclCluster cluster, int attributeId, Supplier<T> reader) {
+        String key = getKey(cluster) + "/" + attributeId;
+        if (attributes.containsKey(key)) {
+            return (T) attributes.get(key);
+        }
+
+        T value = reader.get();
+        if (!closed) {
+            attributes.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Closes the session. The remembered results are discarded, and later requests are sent to the device.
+     */
+    public synchronized void close() {
+        closed = true;
+        discoveries.clear();
+        attributes.clear();
+    }
+
+    private String getKey(ZclCluster cluster) {
+        return cluster.getZigBeeAddress() + "/" + cluster.getClusterId();
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * Predicts the state of a channel following a command, so that the state is updated as soon as the device accepts
+ * the command rather than when the device reports its new state at the end of the transition.
+ * <p>
+ * While a prediction is pending, reported states that do not match the prediction are held back as the device is
+ * assumed to still be moving towards the commanded state. The prediction is complete when a matching state is
+ * reported. If no matching state is reported before the timeout, the channel is reconciled with the last state the
+ * device reported. If the command fails, the prediction is rolled back to the last state the device reported.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeStatePredictor {
+    /**
+     * Receives the states to be posted to the channel
+     */
+    public interface StateUpdater {
+        /**
+         * Updates the channel state
+         *
+         * @param state the {@link State} to post to the channel
+         */
+        void updateState(State state);
+    }
+
+    /**
+     * The maximum difference between a predicted and a reported value for the prediction to be met. This allows for
+     * the rounding when converting between channel and ZigBee values.
+     */
+    private static final double MATCH_TOLERANCE = 1.0;
+
+    private final ScheduledExecutorService scheduler;
+    private final StateUpdater updater;
+
+    /**
+     * The last state reported by the device
+     */
+    private State confirmedState = null;
+
+    /**
+     * The pending prediction, or null if there is no prediction
+     */
+    private State predictedState = null;
+
+    /**
+     * The last state reported by the device that did not match the pending prediction
+     */
+    private State heldState = null;
+
+    private ScheduledFuture<?> timeoutTimer = null;
+
+    /**
+     * Counts the predictions so that the timeout of a replaced prediction is ignored
+     */
+    private int predictionCount = 0;
+
+    /**
+     * Creates a state predictor
+     *
+     * @param scheduler the {@link ScheduledExecutorService} used for the prediction timeout
+     * @param updater the {@link StateUpdater} that posts the states to the channel
+     */
+    public ZigBeeStatePredictor(ScheduledExecutorService scheduler, StateUpdater updater) {
+        this.scheduler = scheduler;
+        this.updater = updater;
+    }
+
+    /**
+     * Posts the predicted state of the channel following a successful command, replacing any pending prediction
+     *
+     * @param state the predicted {@link State}
+     * @param timeout the time to wait for the device to report the predicted state in milliseconds
+     */
+    public synchronized void predict(State state, long timeout) {
+        cancelTimeout();
+        predictedState = state;
+        heldState = null;
+        updater.updateState(state);
+
+        final int prediction = ++predictionCount;
+        timeoutTimer = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                timeout(prediction);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Restores the last state reported by the device following a failed command
+     */
+    public synchronized void rollback() {
+        cancelTimeout();
+        predictedState = null;
+        heldState = null;
+        if (confirmedState != null) {
+            updater.updateState(confirmedState);
+        }
+    }
+
+    /**
+     * Processes a state reported by the device. The state is posted to the channel unless a prediction is pending and
+     * the state does not match the prediction.
+     *
+     * @param state the reported {@link State}
+     */
+    public synchronized void report(State state) {
+        confirmedState = state;
+        if (predictedState == null) {
+            updater.updateState(state);
+            return;
+        }
+
+        if (isMatch(predictedState, state)) {
+            cancelTimeout();
+            predictedState = null;
+            heldState = null;
+            updater.updateState(state);
+            return;
+        }
+
+        heldState = state;
+    }
+
+    /**
+     * Checks if a prediction is pending
+     *
+     * @return true if a prediction is waiting for the device to report the predicted state
+     */
+    public synchronized boolean isPredicting() {
+        return predictedState != null;
+    }
+
+    /**
+     * Cancels any pending prediction without updating the channel
+     */
+    public synchronized void cancel() {
+        cancelTimeout();
+        predictedState = null;
+        heldState = null;
+    }
+
+    private synchronized void timeout(int prediction) {
+        if (prediction != predictionCount || predictedState == null) {
+            return;
+        }
+        timeoutTimer = null;
+        predictedState = null;
+
+        // Reconcile with the device if it reported a different state. If nothing was reported, the prediction stands
+        // until the next report.
+        if (heldState != null) {
+            updater.updateState(heldState);
+            heldState = null;
+        }
+    }
+
+    private void cancelTimeout() {
+        if (timeoutTimer != null) {
+            timeoutTimer.cancel(false);
+            timeoutTimer = null;
+        }
+    }
+
+    private boolean isMatch(State predicted, State reported) {
+        if (predicted instanceof HSBType && reported instanceof HSBType) {
+            HSBType predictedHSB = (HSBType) predicted;
+            HSBType reportedHSB = (HSBType) reported;
+            return isMatch(predictedHSB.getHue(), reportedHSB.getHue())
+                    && isMatch(predictedHSB.getSaturation(), reportedHSB.getSaturation())
+                    && isMatch(predictedHSB.getBrightness(), reportedHSB.getBrightness());
+        }
+        if (predicted instanceof DecimalType && reported instanceof DecimalType) {
+            return Math.abs(((DecimalType) predicted).doubleValue()
+                    - ((DecimalType) reported).doubleValue()) <= MATCH_TOLERANCE;
+        }
+        return predicted.equals(reported);
+    }
+}
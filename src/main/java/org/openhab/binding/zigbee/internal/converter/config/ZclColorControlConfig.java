@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter.config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameter.Type;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameterBuilder;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+
+/**
+ * Configuration handler for the {@link ZclColorControlCluster}
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZclColorControlConfig implements ZclClusterConfigHandler {
+    private Logger logger = LoggerFactory.getLogger(ZclColorControlConfig.class);
+
+    /**
+     * The prefix used for all color control configuration parameters
+     */
+    public static final String CONFIG_PREFIX = "zigbee_colorcontrol_";
+
+    private final String CONFIG_COLORCHANGEDELAY = CONFIG_PREFIX + "colorchangedelay";
+
+    private static final int COLORCHANGEDELAY_DEFAULT = 1100;
+
+    private final ZclColorControlCluster cluster;
+    private int colorChangeDelay = COLORCHANGEDELAY_DEFAULT;
+
+    public ZclColorControlConfig(ZclColorControlCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public List<ConfigDescriptionParameter> getConfiguration() {
+        List<ConfigDescriptionParameter> parameters = new ArrayList<ConfigDescriptionParameter>();
+
+        parameters.add(ConfigDescriptionParameterBuilder.create(CONFIG_COLORCHANGEDELAY, Type.INTEGER)
+                .withLabel("Color Change Delay")
+                .withDescription(
+                        "Time in milliseconds to wait for a brightness change to complete before changing the color")
+                .withDefault(Integer.toString(COLORCHANGEDELAY_DEFAULT)).withMinimum(new BigDecimal(0))
+                .withMaximum(new BigDecimal(10000)).build());
+
+        return parameters;
+    }
+
+    @Override
+    public void updateConfiguration(@NonNull Configuration configuration, @NonNull Configuration updatedConfiguration) {
+        for (String property : configuration.getProperties().keySet()) {
+            logger.debug("{}: Update configuration property {}->{}", cluster.getZigBeeAddress(), property,
+                    configuration.get(property));
+            switch (property) {
+                case CONFIG_COLORCHANGEDELAY:
+                    colorChangeDelay = ((BigDecimal) configuration.get(property)).intValue();
+                    break;
+                default:
+                    logger.warn("{}: Unhandled configuration property {}", cluster.getZigBeeAddress(), property);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Gets the time to wait after changing the brightness before the color is changed. This allows lights that can't
+     * change brightness and color at the same time to complete the brightness transition.
+     *
+     * @return the color change delay in milliseconds
+     */
+    public int getColorChangeDelay() {
+        return colorChangeDelay;
+    }
+}
@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
@@ -12,6 +11,7 @@ import org.eclipse.smarthome.config.core.ConfigDescriptionParameter.Type;
 import org.eclipse.smarthome.config.core.ConfigDescriptionParameterBuilder;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.config.core.ParameterOption;
+import org.openhab.binding.zigbee.internal.converter.ZigBeeDiscoverySession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,32 +26,29 @@ import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
 public class ZclLevelControlConfig implements ZclClusterConfigHandler {
     private Logger logger = LoggerFactory.getLogger(ZclLevelControlConfig.class);
 
-    private final String CONFIG_DEFAULTTRANSITIONTIME = "zigbee_levelcontrol_transitiontimedefault";
+    public static final String CONFIG_DEFAULTTRANSITIONTIME = "zigbee_levelcontrol_transitiontimedefault";
     private final String CONFIG_ONOFFTRANSITIONTIME = "zigbee_levelcontrol_transitiontimeonoff";
     private final String CONFIG_ONTRANSITIONTIME = "zigbee_levelcontrol_transitiontimeon";
     private final String CONFIG_OFFTRANSITIONTIME = "zigbee_levelcontrol_transitiontimeoff";
     private final String CONFIG_ONLEVEL = "zigbee_levelcontrol_onlevel";
     private final String CONFIG_DEFAULTMOVERATE = "zigbee_levelcontrol_defaultrate";
+    private final String CONFIG_PREDICTIONTIMEOUT = "zigbee_levelcontrol_predictiontimeout";
+
+    private final int TRANSITION_TIME_UNKNOWN = 65535;
 
     private final ZclLevelControlCluster cluster;
+    private final ZigBeeDiscoverySession discoverySession;
     private int defaultTransitionTime = 10;
+    private int predictionTimeout = 3000;
 
-    public ZclLevelControlConfig(ZclLevelControlCluster cluster) {
+    public ZclLevelControlConfig(ZclLevelControlCluster cluster, ZigBeeDiscoverySession discoverySession) {
         this.cluster = cluster;
+        this.discoverySession = discoverySession;
     }
 
     @Override
     public List<ConfigDescriptionParameter> getConfiguration() {
-        try {
-            Boolean result = cluster.discoverAttributes(false).get();
-            if (!result) {
-                logger.debug("{}: Unable to get supported attributes for {}.", cluster.getZigBeeAddress(),
-                        cluster.getClusterName());
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("{}: Error getting supported attributes for {}. ", cluster.getZigBeeAddress(),
-                    cluster.getClusterName(), e);
-        }
+        discoverySession.discoverAttributes(cluster);
 
         // Build a list of configuration supported by this channel based on the attributes the cluster supports
         List<ConfigDescriptionParameter> parameters = new ArrayList<ConfigDescriptionParameter>();
@@ -63,6 +60,15 @@ public class ZclLevelControlConfig implements ZclClusterConfigHandler {
                 .withMinimum(new BigDecimal(0)).withMaximum(new BigDecimal(60000)).withOptions(options)
                 .withLimitToOptions(false).build());
 
+        options = new ArrayList<ParameterOption>();
+        options.add(new ParameterOption("0", "Disabled"));
+        parameters.add(ConfigDescriptionParameterBuilder.create(CONFIG_PREDICTIONTIMEOUT, Type.INTEGER)
+                .withLabel("State Prediction Timeout")
+                .withDescription(
+                        "Time in milliseconds after the transition to wait for the device to report the commanded state")
+                .withDefault("3000").withMinimum(new BigDecimal(0)).withMaximum(new BigDecimal(60000))
+                .withOptions(options).withLimitToOptions(false).build());
+
         if (cluster.isAttributeSupported(ZclLevelControlCluster.ATTR_ONOFFTRANSITIONTIME)) {
             options = new ArrayList<ParameterOption>();
             parameters.add(ConfigDescriptionParameterBuilder.create(CONFIG_ONOFFTRANSITIONTIME, Type.INTEGER)
@@ -126,6 +132,9 @@ public class ZclLevelControlConfig implements ZclClusterConfigHandler {
                 case CONFIG_DEFAULTTRANSITIONTIME:
                     defaultTransitionTime = ((BigDecimal) configuration.get(property)).intValue();
                     break;
+                case CONFIG_PREDICTIONTIMEOUT:
+                    predictionTimeout = ((BigDecimal) configuration.get(property)).intValue();
+                    break;
                 default:
                     logger.warn("{}: Unhandled configuration property {}", cluster.getZigBeeAddress(), property);
                     break;
@@ -141,4 +150,18 @@ public class ZclLevelControlConfig implements ZclClusterConfigHandler {
     public int getDefaultTransitionTime() {
         return defaultTransitionTime;
     }
+
+    /**
+     * Gets the time to wait for the device to report the commanded state before the predicted state is reconciled
+     * with the device. This includes the default transition time if it is known.
+     *
+     * @return the prediction timeout in milliseconds, or 0 if the state should not be predicted
+     */
+    public long getPredictionTimeout() {
+        if (predictionTimeout == 0 || defaultTransitionTime == TRANSITION_TIME_UNKNOWN) {
+            return predictionTimeout;
+        }
+        // The transition time is in 1/10 second
+        return predictionTimeout + defaultTransitionTime * 100L;
+    }
 }
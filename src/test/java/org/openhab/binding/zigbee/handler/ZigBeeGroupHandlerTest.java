@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.handler;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+import org.openhab.binding.zigbee.handler.ZigBeeGroupHandler.GroupMember;
+
+import com.zsmartsystems.zigbee.CommandResult;
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zcl.ZclCommand;
+import com.zsmartsystems.zigbee.zcl.ZclStatus;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclGroupsCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorTemperatureCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.groups.AddGroupResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.levelcontrol.MoveToLevelWithOnOffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OnCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.scenes.RecallSceneCommand;
+
+/**
+ * Test of the ZigBeeGroupHandler
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeGroupHandlerTest {
+    private static final String MEMBER_1 = "1234567890ABCDEF";
+    private static final String MEMBER_2 = "1111111111111111";
+
+    private final ChannelTypeUID colorChannel = new ChannelTypeUID(ZigBeeBindingConstants.CHANNEL_COLOR_COLOR);
+    private final ChannelTypeUID levelChannel = new ChannelTypeUID(ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL);
+    private final ChannelTypeUID onoffChannel = new ChannelTypeUID(ZigBeeBindingConstants.CHANNEL_SWITCH_ONOFF);
+    private final ChannelTypeUID temperatureChannel = new ChannelTypeUID(
+            ZigBeeBindingConstants.CHANNEL_COLOR_TEMPERATURE);
+
+    private ZigBeeGroupHandler createHandler(Map<String, Object> configuration, final Bridge bridge) {
+        Thing thing = Mockito.mock(Thing.class);
+        Mockito.when(thing.getConfiguration()).thenReturn(new Configuration(configuration));
+        Mockito.when(thing.getStatus()).thenReturn(ThingStatus.UNINITIALIZED);
+
+        ZigBeeGroupHandler handler = new ZigBeeGroupHandler(thing) {
+            @Override
+            protected Bridge getBridge() {
+                return bridge;
+            }
+        };
+        handler.setCallback(Mockito.mock(ThingHandlerCallback.class));
+        return handler;
+    }
+
+    private ZigBeeGroupHandler createHandler() {
+        return createHandler(new HashMap<String, Object>(), null);
+    }
+
+    private Bridge createBridge(ZigBeeCoordinatorHandler coordinatorHandler) {
+        Bridge bridge = Mockito.mock(Bridge.class);
+        Mockito.when(bridge.getHandler()).thenReturn(coordinatorHandler);
+        Mockito.when(bridge.getStatusInfo())
+                .thenReturn(new ThingStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, null));
+        return bridge;
+    }
+
+    @Test
+    public void parseMember() {
+        GroupMember member = GroupMember.parse(MEMBER_1);
+        assertEquals(new IeeeAddress(MEMBER_1), member.address);
+        assertNull(member.endpointId);
+
+        member = GroupMember.parse(" " + MEMBER_1 + " / 2 ");
+        assertEquals(new IeeeAddress(MEMBER_1), member.address);
+        assertEquals(Integer.valueOf(2), member.endpointId);
+
+        assertEquals(GroupMember.parse(MEMBER_1 + "/2"), member);
+        assertFalse(GroupMember.parse(MEMBER_1).equals(member));
+        assertEquals(MEMBER_1 + "/2", member.toString());
+
+        try {
+            GroupMember.parse(MEMBER_1 + "/1/2");
+            fail();
+        } catch (NumberFormatException e) {
+        }
+        try {
+            GroupMember.parse("XYZ");
+            fail();
+        } catch (NumberFormatException e) {
+        }
+    }
+
+    @Test
+    public void getMembers() {
+        ZigBeeGroupHandler handler = createHandler();
+
+        // Invalid, empty and duplicate members are ignored
+        List<GroupMember> members = handler.getMembers(MEMBER_1 + ", XYZ,," + MEMBER_2 + "/1, " + MEMBER_1);
+        assertEquals(2, members.size());
+        assertEquals(GroupMember.parse(MEMBER_1), members.get(0));
+        assertEquals(GroupMember.parse(MEMBER_2 + "/1"), members.get(1));
+
+        members = handler.getMembers(Arrays.asList(MEMBER_1, MEMBER_2));
+        assertEquals(2, members.size());
+
+        assertTrue(handler.getMembers(null).isEmpty());
+    }
+
+    @Test
+    public void createColorCommands() {
+        ZigBeeGroupHandler handler = createHandler();
+
+        List<ZclCommand> commands = handler.createCommands(colorChannel,
+                new HSBType(new DecimalType(0), PercentType.HUNDRED, PercentType.HUNDRED), 10);
+        assertEquals(2, commands.size());
+        assertTrue(commands.get(0) instanceof MoveToColorCommand);
+        assertEquals(Integer.valueOf(10), ((MoveToColorCommand) commands.get(0)).getTransitionTime());
+        assertTrue(commands.get(1) instanceof MoveToLevelWithOnOffCommand);
+        assertEquals(Integer.valueOf(254), ((MoveToLevelWithOnOffCommand) commands.get(1)).getLevel());
+
+        // Brightness and on/off commands fall through to the level and on/off commands
+        commands = handler.createCommands(colorChannel, new PercentType(50), 10);
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0) instanceof MoveToLevelWithOnOffCommand);
+
+        commands = handler.createCommands(colorChannel, OnOffType.ON, 10);
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0) instanceof OnCommand);
+    }
+
+    @Test
+    public void createLevelCommands() {
+        ZigBeeGroupHandler handler = createHandler();
+
+        List<ZclCommand> commands = handler.createCommands(levelChannel, new PercentType(50), 10);
+        assertEquals(1, commands.size());
+        assertEquals(Integer.valueOf(127), ((MoveToLevelWithOnOffCommand) commands.get(0)).getLevel());
+
+        commands = handler.createCommands(levelChannel, PercentType.ZERO, 10);
+        assertEquals(Integer.valueOf(0), ((MoveToLevelWithOnOffCommand) commands.get(0)).getLevel());
+
+        commands = handler.createCommands(levelChannel, OnOffType.OFF, 10);
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0) instanceof OffCommand);
+
+        // The on/off channel doesn't support levels
+        assertTrue(handler.createCommands(onoffChannel, new PercentType(50), 10).isEmpty());
+        assertTrue(handler.createCommands(onoffChannel, new HSBType(), 10).isEmpty());
+    }
+
+    @Test
+    public void createColorTemperatureCommands() {
+        ZigBeeGroupHandler handler = createHandler();
+
+        // 0% is 2000K, and 100% is 6500K, in mireds
+        List<ZclCommand> commands = handler.createCommands(temperatureChannel, PercentType.ZERO, 10);
+        assertEquals(1, commands.size());
+        assertEquals(Integer.valueOf(500), ((MoveToColorTemperatureCommand) commands.get(0)).getColorTemperature());
+
+        commands = handler.createCommands(temperatureChannel, PercentType.HUNDRED, 10);
+        assertEquals(Integer.valueOf(154), ((MoveToColorTemperatureCommand) commands.get(0)).getColorTemperature());
+
+        assertTrue(handler.createCommands(temperatureChannel, OnOffType.ON, 10).isEmpty());
+    }
+
+    @Test
+    public void createSceneCommands() {
+        ZigBeeGroupHandler handler = createHandler();
+        ChannelTypeUID recallChannel = new ChannelTypeUID(ZigBeeBindingConstants.CHANNEL_SCENE_RECALL);
+
+        List<ZclCommand> commands = handler.createCommands(recallChannel, new DecimalType(3), 10);
+        assertEquals(1, commands.size());
+        assertEquals(Integer.valueOf(3), ((RecallSceneCommand) commands.get(0)).getSceneId());
+
+        // A percentage is not a scene
+        assertTrue(handler.createCommands(recallChannel, new PercentType(3), 10).isEmpty());
+    }
+
+    @Test
+    public void bridgeOnline() {
+        ZigBeeCoordinatorHandler coordinatorHandler = Mockito.mock(ZigBeeCoordinatorHandler.class);
+        Map<String, Object> configuration = new HashMap<String, Object>();
+        configuration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPID, new BigDecimal(1));
+        ZigBeeGroupHandler handler = createHandler(configuration, createBridge(coordinatorHandler));
+
+        handler.initialize();
+        handler.bridgeStatusChanged(new ThingStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, null));
+
+        // The listener is only registered once
+        InOrder inOrder = Mockito.inOrder(coordinatorHandler);
+        inOrder.verify(coordinatorHandler).addNetworkNodeListener(handler);
+        inOrder.verify(coordinatorHandler).removeNetworkNodeListener(handler);
+        inOrder.verify(coordinatorHandler).addNetworkNodeListener(handler);
+    }
+
+    @Test
+    public void removeMember() {
+        ZclGroupsCluster groupsCluster1 = Mockito.mock(ZclGroupsCluster.class);
+        ZclGroupsCluster groupsCluster2 = Mockito.mock(ZclGroupsCluster.class);
+        ZigBeeCoordinatorHandler coordinatorHandler = Mockito.mock(ZigBeeCoordinatorHandler.class);
+        for (String address : new String[] { MEMBER_1, MEMBER_2 }) {
+            ZigBeeEndpoint endpoint = Mockito.mock(ZigBeeEndpoint.class);
+            Mockito.when(endpoint.getInputCluster(ZclGroupsCluster.CLUSTER_ID))
+                    .thenReturn(MEMBER_1.equals(address) ? groupsCluster1 : groupsCluster2);
+            ZigBeeNode node = Mockito.mock(ZigBeeNode.class);
+            Mockito.when(node.getEndpoints()).thenReturn(Collections.singletonList(endpoint));
+            Mockito.when(coordinatorHandler.getNode(new IeeeAddress(address))).thenReturn(node);
+        }
+
+        Map<String, Object> configuration = new HashMap<String, Object>();
+        configuration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPID, new BigDecimal(1));
+        configuration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPMEMBERS, MEMBER_1 + "," + MEMBER_2);
+        ZigBeeGroupHandler handler = createHandler(configuration, createBridge(coordinatorHandler));
+        handler.initialize();
+
+        // Only the member removed from the configuration is removed from the group
+        Map<String, Object> newConfiguration = new HashMap<String, Object>(configuration);
+        newConfiguration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPMEMBERS, MEMBER_1);
+        handler.handleConfigurationUpdate(newConfiguration);
+        Mockito.verify(groupsCluster1, Mockito.never()).removeGroupCommand(Matchers.anyInt());
+        Mockito.verify(groupsCluster2).removeGroupCommand(1);
+
+        // All members are removed if the group ID changes
+        newConfiguration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPID, new BigDecimal(2));
+        handler.handleConfigurationUpdate(newConfiguration);
+        Mockito.verify(groupsCluster1).removeGroupCommand(1);
+    }
+
+    @Test
+    public void addMemberQueuedOnce() throws InterruptedException {
+        CompletableFuture<CommandResult> addResult = new CompletableFuture<CommandResult>();
+        ZclGroupsCluster groupsCluster = Mockito.mock(ZclGroupsCluster.class);
+        Mockito.when(groupsCluster.addGroupCommand(Matchers.anyInt(), Matchers.anyString())).thenReturn(addResult);
+        ZigBeeEndpoint endpoint = Mockito.mock(ZigBeeEndpoint.class);
+        Mockito.when(endpoint.getInputCluster(ZclGroupsCluster.CLUSTER_ID)).thenReturn(groupsCluster);
+        ZigBeeNode node = Mockito.mock(ZigBeeNode.class);
+        Mockito.when(node.getIeeeAddress()).thenReturn(new IeeeAddress(MEMBER_1));
+        Mockito.when(node.getEndpoints()).thenReturn(Collections.singletonList(endpoint));
+        ZigBeeCoordinatorHandler coordinatorHandler = Mockito.mock(ZigBeeCoordinatorHandler.class);
+        Mockito.when(coordinatorHandler.getNode(new IeeeAddress(MEMBER_1))).thenReturn(node);
+
+        Map<String, Object> configuration = new HashMap<String, Object>();
+        configuration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPID, new BigDecimal(1));
+        configuration.put(ZigBeeBindingConstants.CONFIGURATION_GROUPMEMBERS, MEMBER_1);
+        ZigBeeGroupHandler handler = createHandler(configuration, createBridge(coordinatorHandler));
+        handler.initialize();
+        Mockito.verify(groupsCluster, Mockito.timeout(1000)).addGroupCommand(1, "");
+
+        // Node updates while the member is being added don't add it again
+        for (int cnt = 0; cnt < 5; cnt++) {
+            handler.nodeUpdated(node);
+        }
+        AddGroupResponse response = new AddGroupResponse();
+        response.setGroupId(1);
+        response.setStatus(ZclStatus.SUCCESS.getId());
+        addResult.complete(new CommandResult(response));
+
+        Thread.sleep(200);
+        Mockito.verify(groupsCluster, Mockito.times(1)).addGroupCommand(Matchers.anyInt(), Matchers.anyString());
+        handler.dispose();
+    }
+}
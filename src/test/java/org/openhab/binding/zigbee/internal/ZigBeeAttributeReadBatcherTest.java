@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.DeviceType;
+
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.ZclAttributeListener;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+
+/**
+ * Test of the ZigBeeAttributeReadBatcher using a simulated color light
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeAttributeReadBatcherTest {
+    private ZigBeeSimulatedTransport transport;
+    private ZigBeeNetworkManager networkManager;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void startNetwork() throws InterruptedException {
+        transport = new ZigBeeSimulatedTransport(1);
+        transport.setLatency(1, 5);
+        transport.addNodes(1, DeviceType.COLOR_LIGHT);
+
+        networkManager = new ZigBeeNetworkManager(transport);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+        networkManager.initialize();
+        networkManager.startup(false);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        long end = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < end) {
+            ZigBeeNode node = networkManager.getNode(0x1001);
+            if (node != null && node.isDiscovered()) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @After
+    public void stopNetwork() {
+        scheduler.shutdownNow();
+        networkManager.shutdown();
+    }
+
+    private Set<Integer> waitForUpdates(Set<Integer> updates, int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < end) {
+            synchronized (updates) {
+                if (updates.size() >= count) {
+                    break;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return updates;
+    }
+
+    @Test
+    public void flush() throws InterruptedException {
+        ZigBeeEndpoint endpoint = networkManager.getNode(0x1001).getEndpoint(1);
+        ZclColorControlCluster colorCluster = (ZclColorControlCluster) endpoint
+                .getInputCluster(ZclColorControlCluster.CLUSTER_ID);
+        ZclLevelControlCluster levelCluster = (ZclLevelControlCluster) endpoint
+                .getInputCluster(ZclLevelControlCluster.CLUSTER_ID);
+
+        final Set<Integer> updates = new HashSet<Integer>();
+        colorCluster.addAttributeListener(new ZclAttributeListener() {
+            @Override
+            public void attributeUpdated(ZclAttribute attribute) {
+                synchronized (updates) {
+                    updates.add(attribute.getId());
+                }
+            }
+        });
+
+        ZigBeeAttributeReadBatcher batcher = new ZigBeeAttributeReadBatcher(networkManager, scheduler, 60000);
+        long frames = transport.getFramesReceived();
+
+        // Reads from the color and color temperature converters, and the color converter reading level
+        batcher.read(colorCluster, ZclColorControlCluster.ATTR_CURRENTHUE);
+        batcher.read(colorCluster, ZclColorControlCluster.ATTR_CURRENTSATURATION);
+        batcher.read(levelCluster, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
+        batcher.read(colorCluster, ZclColorControlCluster.ATTR_COLORTEMPERATURE);
+        batcher.read(colorCluster, ZclColorControlCluster.ATTR_CURRENTHUE);
+        assertEquals(frames, transport.getFramesReceived());
+
+        batcher.flush();
+        assertEquals(5, batcher.getReadsRequested());
+        assertEquals(2, batcher.getCommandsSent());
+        assertEquals(frames + 2, transport.getFramesReceived());
+
+        assertEquals(3, waitForUpdates(updates, 3).size());
+        assertNotNull(levelCluster.getCurrentLevel(Long.MAX_VALUE));
+
+        // Nothing left to send
+        batcher.flush();
+        assertEquals(2, batcher.getCommandsSent());
+    }
+
+    @Test
+    public void window() throws InterruptedException {
+        ZigBeeEndpoint endpoint = networkManager.getNode(0x1001).getEndpoint(1);
+        ZclOnOffCluster onOffCluster = (ZclOnOffCluster) endpoint.getInputCluster(ZclOnOffCluster.CLUSTER_ID);
+
+        final Set<Integer> updates = new HashSet<Integer>();
+        onOffCluster.addAttributeListener(new ZclAttributeListener() {
+            @Override
+            public void attributeUpdated(ZclAttribute attribute) {
+                synchronized (updates) {
+                    updates.add(attribute.getId());
+                }
+            }
+        });
+
+        // Reads are sent after the window if they are not flushed
+        ZigBeeAttributeReadBatcher batcher = new ZigBeeAttributeReadBatcher(networkManager, scheduler, 20);
+        batcher.read(onOffCluster, ZclOnOffCluster.ATTR_ONOFF);
+        assertEquals(1, waitForUpdates(updates, 1).size());
+        assertEquals(1, batcher.getCommandsSent());
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        ZigBeeEndpoint endpoint = networkManager.getNode(0x1001).getEndpoint(1);
+        ZclOnOffCluster onOffCluster = (ZclOnOffCluster) endpoint.getInputCluster(ZclOnOffCluster.CLUSTER_ID);
+
+        // Cancelled reads are not sent after the window, or when the batcher is flushed
+        ZigBeeAttributeReadBatcher batcher = new ZigBeeAttributeReadBatcher(networkManager, scheduler, 20);
+        long frames = transport.getFramesReceived();
+        batcher.read(onOffCluster, ZclOnOffCluster.ATTR_ONOFF);
+        batcher.cancel();
+        Thread.sleep(100);
+        assertEquals(0, batcher.flush());
+        assertEquals(0, batcher.getCommandsSent());
+        assertEquals(frames, transport.getFramesReceived());
+    }
+}
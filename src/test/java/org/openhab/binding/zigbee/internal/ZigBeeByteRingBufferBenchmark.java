@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+/**
+ * Benchmark comparing the {@link ZigBeeByteRingBuffer} with the synchronised int[] queue and wait/notify handshake
+ * previously used in {@link ZigBeeSerialPort}.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the throughput (bytes per second) for single
+ * byte and bulk reads, and the wakeup latency when the consumer is waiting for data.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeByteRingBufferBenchmark {
+    private static final int TOTAL_BYTES = 20000000;
+    private static final int CHUNK_SIZE = 64;
+    private static final int LATENCY_SAMPLES = 2000;
+
+    /**
+     * The receive queue implementation as it was used in the serial port before the ring buffer was introduced
+     */
+    private static class LegacyQueue {
+        private final int[] buffer = new int[512];
+        private int start = 0;
+        private int end = 0;
+        private final Object bufferSynchronisationObject = new Object();
+
+        void put(byte[] data, int length) {
+            synchronized (bufferSynchronisationObject) {
+                for (int cnt = 0; cnt < length; cnt++) {
+                    buffer[end++] = data[cnt] & 0xFF;
+                    if (end >= buffer.length) {
+                        end = 0;
+                    }
+                }
+            }
+            synchronized (this) {
+                notify();
+            }
+        }
+
+        int free() {
+            synchronized (bufferSynchronisationObject) {
+                return buffer.length - 1 - ((end - start + buffer.length) % buffer.length);
+            }
+        }
+
+        int take(int timeout) throws InterruptedException {
+            long endTime = System.currentTimeMillis() + timeout;
+            while (System.currentTimeMillis() < endTime) {
+                synchronized (bufferSynchronisationObject) {
+                    if (start != end) {
+                        int value = buffer[start++];
+                        if (start >= buffer.length) {
+                            start = 0;
+                        }
+                        return value;
+                    }
+                }
+                synchronized (this) {
+                    wait(Math.max(1, endTime - System.currentTimeMillis()));
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static double legacyThroughput() throws InterruptedException {
+        final LegacyQueue queue = new LegacyQueue();
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int sent = 0;
+                while (sent < TOTAL_BYTES) {
+                    if (queue.free() < CHUNK_SIZE) {
+                        Thread.yield();
+                        continue;
+                    }
+                    queue.put(chunk, CHUNK_SIZE);
+                    sent += CHUNK_SIZE;
+                }
+            }
+        };
+
+        long start = System.nanoTime();
+        producer.start();
+        for (int cnt = 0; cnt < TOTAL_BYTES; cnt++) {
+            queue.take(1000);
+        }
+        long time = System.nanoTime() - start;
+        producer.join();
+        return TOTAL_BYTES * 1e9 / time;
+    }
+
+    private static double ringThroughput(final boolean bulk) throws InterruptedException {
+        final ZigBeeByteRingBuffer ring = new ZigBeeByteRingBuffer(512);
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int sent = 0;
+                while (sent < TOTAL_BYTES) {
+                    int count = ring.put(chunk, 0, CHUNK_SIZE);
+                    if (count == 0) {
+                        Thread.yield();
+                    }
+                    sent += count;
+                }
+            }
+        };
+
+        long start = System.nanoTime();
+        producer.start();
+        if (bulk) {
+            byte[] data = new byte[CHUNK_SIZE];
+            int received = 0;
+            while (received < TOTAL_BYTES) {
+                received += ring.take(data, 0, data.length, 1000);
+            }
+        } else {
+            for (int cnt = 0; cnt < TOTAL_BYTES; cnt++) {
+                ring.take(1000);
+            }
+        }
+        long time = System.nanoTime() - start;
+        producer.join();
+        return TOTAL_BYTES * 1e9 / time;
+    }
+
+    private static double legacyLatency() throws InterruptedException {
+        final LegacyQueue queue = new LegacyQueue();
+        final byte[] data = new byte[1];
+        long total = 0;
+        for (int cnt = 0; cnt < LATENCY_SAMPLES; cnt++) {
+            final long[] sent = new long[1];
+            Thread producer = new Thread() {
+                @Override
+                public void run() {
+                    sleepQuietly();
+                    sent[0] = System.nanoTime();
+                    queue.put(data, 1);
+                }
+            };
+            producer.start();
+            queue.take(1000);
+            total += System.nanoTime() - sent[0];
+            producer.join();
+        }
+        return total / (double) LATENCY_SAMPLES / 1000.0;
+    }
+
+    private static double ringLatency() throws InterruptedException {
+        final ZigBeeByteRingBuffer ring = new ZigBeeByteRingBuffer(512);
+        final byte[] data = new byte[1];
+        long total = 0;
+        for (int cnt = 0; cnt < LATENCY_SAMPLES; cnt++) {
+            final long[] sent = new long[1];
+            Thread producer = new Thread() {
+                @Override
+                public void run() {
+                    sleepQuietly();
+                    sent[0] = System.nanoTime();
+                    ring.put(data, 0, 1);
+                }
+            };
+            producer.start();
+            ring.take(1000);
+            total += System.nanoTime() - sent[0];
+            producer.join();
+        }
+        return total / (double) LATENCY_SAMPLES / 1000.0;
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Warm up
+        legacyThroughput();
+        ringThroughput(false);
+        ringThroughput(true);
+
+        System.out.println(String.format("Legacy queue     : %,14.0f bytes/s", legacyThroughput()));
+        System.out.println(String.format("Ring buffer      : %,14.0f bytes/s", ringThroughput(false)));
+        System.out.println(String.format("Ring buffer bulk : %,14.0f bytes/s", ringThroughput(true)));
+        System.out.println(String.format("Legacy wakeup    : %,10.1f us", legacyLatency()));
+        System.out.println(String.format("Ring wakeup      : %,10.1f us", ringLatency()));
+    }
+}
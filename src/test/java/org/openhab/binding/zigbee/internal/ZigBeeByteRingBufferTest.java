@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeByteRingBuffer.OverflowPolicy;
+
+/**
+ * Test of the ZigBeeByteRingBuffer
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeByteRingBufferTest {
+
+    @Test
+    public void capacity() {
+        assertEquals(512, new ZigBeeByteRingBuffer(512).getCapacity());
+        assertEquals(1024, new ZigBeeByteRingBuffer(513).getCapacity());
+    }
+
+    @Test
+    public void singleByte() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4);
+
+        assertTrue(buffer.put((byte) 0x7E));
+        assertTrue(buffer.put((byte) 0xFF));
+        assertEquals(2, buffer.size());
+        assertEquals(0x7E, buffer.take(0));
+        assertEquals(0xFF, buffer.take(0));
+        assertEquals(-1, buffer.take(0));
+    }
+
+    @Test
+    public void full() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4);
+
+        assertEquals(4, buffer.put(new byte[] { 1, 2, 3, 4, 5, 6 }, 0, 6));
+        assertFalse(buffer.put((byte) 7));
+        assertEquals(1, buffer.take(0));
+        assertTrue(buffer.put((byte) 7));
+    }
+
+    @Test
+    public void dropCounted() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4, 16, OverflowPolicy.DROP);
+
+        assertEquals(4, buffer.put(new byte[] { 1, 2, 3, 4, 5, 6 }, 0, 6));
+        assertFalse(buffer.put((byte) 7));
+        assertEquals(4, buffer.getCapacity());
+        assertEquals(1, buffer.getOverflowCount());
+        assertEquals(3, buffer.getDroppedBytes());
+        assertEquals(4, buffer.getHighWaterMark());
+
+        // A new overflow is only counted once space has been available
+        assertEquals(1, buffer.take(0));
+        assertTrue(buffer.put((byte) 8));
+        assertFalse(buffer.put((byte) 9));
+        assertEquals(2, buffer.getOverflowCount());
+        assertEquals(4, buffer.getDroppedBytes());
+    }
+
+    @Test
+    public void grow() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4, 16, OverflowPolicy.GROW);
+        byte[] data = new byte[30];
+        for (int cnt = 0; cnt < data.length; cnt++) {
+            data[cnt] = (byte) cnt;
+        }
+
+        assertEquals(6, buffer.put(data, 0, 6));
+        assertEquals(8, buffer.getCapacity());
+        assertTrue(buffer.put((byte) 6));
+        assertEquals(0, buffer.getOverflowCount());
+
+        // Grows to the maximum and then discards. The full 4 and 8 byte rings are still waiting to be drained.
+        assertEquals(21, buffer.put(data, 7, 23));
+        assertEquals(16, buffer.getCapacity());
+        assertEquals(28, buffer.size());
+        assertEquals(28, buffer.getHighWaterMark());
+        assertFalse(buffer.put((byte) 30));
+        assertFalse(buffer.put((byte) 31));
+        assertEquals(1, buffer.getOverflowCount());
+        assertEquals(4, buffer.getDroppedBytes());
+
+        // Data is read back in order across all the rings
+        byte[] out = new byte[28];
+        int received = 0;
+        while (received < out.length) {
+            received += buffer.take(out, received, out.length - received, 0);
+        }
+        assertArrayEquals(java.util.Arrays.copyOf(data, 28), out);
+        assertEquals(-1, buffer.take(0));
+    }
+
+    @Test
+    public void growClear() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4, 16, OverflowPolicy.GROW);
+
+        assertEquals(10, buffer.put(new byte[10], 0, 10));
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.put((byte) 0x55));
+        assertEquals(0x55, buffer.take(0));
+    }
+
+    @Test
+    public void bulkWrap() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(8);
+        byte[] out = new byte[8];
+
+        // Move the positions so the next block wraps around the end of the array
+        assertEquals(6, buffer.put(new byte[] { 0, 0, 0, 0, 0, 0 }, 0, 6));
+        assertEquals(6, buffer.take(out, 0, 8, 0));
+
+        assertEquals(5, buffer.put(new byte[] { 1, 2, 3, 4, 5 }, 0, 5));
+        assertEquals(5, buffer.take(out, 0, 8, 0));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, java.util.Arrays.copyOf(out, 5));
+        assertEquals(-1, buffer.take(out, 0, 8, 0));
+    }
+
+    @Test
+    public void clear() {
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(8);
+
+        buffer.put(new byte[] { 1, 2, 3 }, 0, 3);
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertEquals(-1, buffer.take(0));
+    }
+
+    @Test
+    public void closeReleasesConsumer() throws InterruptedException {
+        final ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(8);
+        final int[] result = new int[] { 0 };
+
+        Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                result[0] = buffer.take(10000);
+            }
+        };
+        consumer.start();
+        Thread.sleep(50);
+        buffer.close();
+        consumer.join(1000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(-1, result[0]);
+    }
+
+    @Test
+    public void producerConsumer() throws InterruptedException {
+        final ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(16);
+        final int total = 100000;
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[7];
+                int value = 0;
+                while (value < total) {
+                    int count = Math.min(chunk.length, total - value);
+                    for (int cnt = 0; cnt < count; cnt++) {
+                        chunk[cnt] = (byte) (value + cnt);
+                    }
+                    int offset = 0;
+                    while (offset < count) {
+                        offset += buffer.put(chunk, offset, count - offset);
+                    }
+                    value += count;
+                }
+            }
+        };
+        producer.start();
+
+        for (int cnt = 0; cnt < total; cnt++) {
+            assertEquals(cnt & 0xFF, buffer.take(1000));
+        }
+        producer.join();
+    }
+
+    @Test
+    public void producerConsumerGrow() throws InterruptedException {
+        final ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4, 4096, OverflowPolicy.GROW);
+        final int total = 100000;
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[13];
+                int value = 0;
+                while (value < total) {
+                    int count = Math.min(chunk.length, total - value);
+                    for (int cnt = 0; cnt < count; cnt++) {
+                        chunk[cnt] = (byte) (value + cnt);
+                    }
+                    int offset = 0;
+                    while (offset < count) {
+                        offset += buffer.put(chunk, offset, count - offset);
+                    }
+                    value += count;
+                }
+            }
+        };
+        producer.start();
+
+        for (int cnt = 0; cnt < total; cnt++) {
+            assertEquals(cnt & 0xFF, buffer.take(1000));
+        }
+        producer.join();
+    }
+}
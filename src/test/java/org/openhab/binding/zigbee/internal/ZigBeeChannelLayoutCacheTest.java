@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.junit.Test;
+import org.openhab.binding.zigbee.ZigBeeBindingConstants;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+
+/**
+ * Test of the ZigBeeChannelLayoutCache
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeChannelLayoutCacheTest {
+    private ZigBeeEndpoint createEndpoint(int endpointId, Integer... inputClusters) {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1234567890ABCDEF"));
+        node.setNetworkAddress(0x1234);
+        ZigBeeEndpoint endpoint = new ZigBeeEndpoint(networkManager, node, endpointId);
+        endpoint.setProfileId(0x104);
+        endpoint.setDeviceId(0x100);
+        endpoint.setInputClusterIds(Arrays.asList(inputClusters));
+        return endpoint;
+    }
+
+    @Test
+    public void getFingerprint() {
+        String fingerprint = ZigBeeChannelLayoutCache
+                .getFingerprint(Collections.singletonList(createEndpoint(1, 0, 6, 8)));
+        assertEquals(fingerprint,
+                ZigBeeChannelLayoutCache.getFingerprint(Collections.singletonList(createEndpoint(1, 8, 6, 0))));
+        assertFalse(fingerprint
+                .equals(ZigBeeChannelLayoutCache.getFingerprint(Collections.singletonList(createEndpoint(1, 0, 6)))));
+        assertFalse(fingerprint.equals(
+                ZigBeeChannelLayoutCache.getFingerprint(Collections.singletonList(createEndpoint(2, 0, 6, 8)))));
+    }
+
+    @Test
+    public void getChannels() {
+        ZigBeeChannelLayoutCache cache = new ZigBeeChannelLayoutCache();
+        IeeeAddress address = new IeeeAddress("1234567890ABCDEF");
+        ThingUID thingUID = new ThingUID("zigbee:device:ctrl:1234567890abcdef");
+
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(ZigBeeBindingConstants.CHANNEL_PROPERTY_ENDPOINT, "1");
+        Channel channel = ChannelBuilder.create(new ChannelUID(thingUID, "1234567890ABCDEF_1_switch_level"), "Dimmer")
+                .withType(new ChannelTypeUID(ZigBeeBindingConstants.CHANNEL_SWITCH_LEVEL)).withLabel("Dimmer")
+                .withProperties(properties).build();
+
+        assertNull(cache.getChannels(address, "A", thingUID));
+        cache.setChannels(address, "A", Collections.singletonList(channel));
+        assertNull(cache.getChannels(address, "B", thingUID));
+
+        List<Channel> channels = cache.getChannels(address, "A", thingUID);
+        assertEquals(1, channels.size());
+        assertEquals(channel.getUID(), channels.get(0).getUID());
+        assertEquals(channel.getChannelTypeUID(), channels.get(0).getChannelTypeUID());
+        assertEquals("Dimmer", channels.get(0).getAcceptedItemType());
+        assertEquals("1", channels.get(0).getProperties().get(ZigBeeBindingConstants.CHANNEL_PROPERTY_ENDPOINT));
+
+        cache.removeChannels(address);
+        assertNull(cache.getChannels(address, "A", thingUID));
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * Test of the ZigBeeCommandQueue
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeCommandQueueTest {
+    /**
+     * Executor that holds the tasks until the test runs them
+     */
+    class ManualExecutor implements Executor {
+        Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+    }
+
+    private Runnable getCommand(final List<String> sent, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                sent.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void coalesce() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeCommandQueue queue = new ZigBeeCommandQueue("TEST", executor);
+        List<String> sent = new ArrayList<String>();
+
+        // The first command starts, and the slider values after it replace each other while it is in progress
+        queue.submit("level", getCommand(sent, "10"));
+        queue.submit("level", getCommand(sent, "20"));
+        queue.submit("color", getCommand(sent, "red"));
+        queue.submit("level", getCommand(sent, "30"));
+        queue.submit("level", getCommand(sent, "40"));
+
+        assertEquals(1, executor.tasks.size());
+        assertEquals(2, queue.getQueueDepth());
+        assertEquals(2, queue.getCoalesced());
+
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext();
+        }
+        assertEquals(3, sent.size());
+        assertEquals("10", sent.get(0));
+        assertEquals("40", sent.get(1));
+        assertEquals("red", sent.get(2));
+        assertEquals(3, queue.getProcessed());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void submitIfAbsent() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeCommandQueue queue = new ZigBeeCommandQueue("TEST", executor);
+        List<String> sent = new ArrayList<String>();
+
+        // A delayed step doesn't replace a newer command that is waiting
+        queue.submit("color", getCommand(sent, "red"));
+        queue.submit("color", getCommand(sent, "green"));
+        assertFalse(queue.submitIfAbsent("color", getCommand(sent, "delayed")));
+
+        // A newer command replaces a delayed step that is waiting
+        assertTrue(queue.submitIfAbsent("level", getCommand(sent, "delayed")));
+        queue.submit("level", getCommand(sent, "50"));
+
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext();
+        }
+        assertEquals(3, sent.size());
+        assertEquals("red", sent.get(0));
+        assertEquals("green", sent.get(1));
+        assertEquals("50", sent.get(2));
+    }
+
+    @Test
+    public void exceptionInCommand() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeCommandQueue queue = new ZigBeeCommandQueue("TEST", executor);
+        List<String> sent = new ArrayList<String>();
+
+        queue.submit("A", new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        queue.submit("B", getCommand(sent, "B"));
+
+        executor.runNext();
+        executor.runNext();
+        assertEquals(1, sent.size());
+        assertEquals(2, queue.getProcessed());
+    }
+
+    @Test
+    public void shutdown() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeCommandQueue queue = new ZigBeeCommandQueue("TEST", executor);
+        List<String> sent = new ArrayList<String>();
+
+        queue.submit("A", getCommand(sent, "A"));
+        queue.submit("B", getCommand(sent, "B"));
+        queue.shutdown();
+        assertFalse(queue.submit("C", getCommand(sent, "C")));
+
+        // The command in progress completes, but nothing else is sent
+        executor.runNext();
+        assertTrue(executor.tasks.isEmpty());
+        assertEquals(1, sent.size());
+        assertEquals(2, queue.getDropped());
+    }
+}
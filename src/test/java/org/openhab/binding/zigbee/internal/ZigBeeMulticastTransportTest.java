@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.zsmartsystems.zigbee.ZigBeeApsFrame;
+import com.zsmartsystems.zigbee.ZigBeeEndpointAddress;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNwkAddressMode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OnCommand;
+
+/**
+ * Test of the ZigBeeMulticastTransport
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeMulticastTransportTest {
+    @Test
+    public void groupAddress() {
+        final List<ZigBeeApsFrame> frames = new ArrayList<ZigBeeApsFrame>();
+        ZigBeeSimulatedTransport dongle = new ZigBeeSimulatedTransport(1) {
+            @Override
+            public void sendCommand(ZigBeeApsFrame apsFrame) {
+                frames.add(apsFrame);
+            }
+        };
+        ZigBeeMulticastTransport transport = new ZigBeeMulticastTransport(dongle);
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(transport);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+
+        transport.sendGroupCommand(networkManager, 0x1234, new OnCommand());
+        assertEquals(1, frames.size());
+        assertEquals(ZigBeeNwkAddressMode.GROUP, frames.get(0).getAddressMode());
+        assertEquals(0x1234, frames.get(0).getGroupAddress());
+        assertEquals(ZclOnOffCluster.CLUSTER_ID, frames.get(0).getCluster());
+
+        // Commands to a device are not changed
+        networkManager.send(new ZigBeeEndpointAddress(0x1001, 1), new OnCommand());
+        assertEquals(2, frames.size());
+        assertEquals(ZigBeeNwkAddressMode.DEVICE, frames.get(1).getAddressMode());
+        assertEquals(0x1001, frames.get(1).getDestinationAddress());
+        assertEquals(0, frames.get(1).getGroupAddress());
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeNodeInitialisationQueue.Priority;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zdo.field.NodeDescriptor;
+import com.zsmartsystems.zigbee.zdo.field.PowerDescriptor;
+
+/**
+ * Test of the ZigBeeNodeInitialisationQueue
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeNodeInitialisationQueueTest {
+    /**
+     * Executor that holds the tasks until the test runs them
+     */
+    class ManualExecutor implements Executor {
+        Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+    }
+
+    private Callable<Boolean> getTask(final List<Integer> order, final int id, final boolean result) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                order.add(id);
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void priorityOrder() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeNodeInitialisationQueue queue = new ZigBeeNodeInitialisationQueue(executor, 1);
+        List<Integer> order = new ArrayList<Integer>();
+
+        queue.submit(new IeeeAddress("1"), Priority.END_DEVICE, getTask(order, 1, true));
+        queue.submit(new IeeeAddress("2"), Priority.SLEEPY, getTask(order, 2, true));
+        queue.submit(new IeeeAddress("3"), Priority.END_DEVICE, getTask(order, 3, true));
+        queue.submit(new IeeeAddress("4"), Priority.ROUTER, getTask(order, 4, true));
+
+        // The first task started as soon as it was submitted
+        assertEquals(1, executor.tasks.size());
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext();
+        }
+        assertEquals(4, order.size());
+        assertEquals(Integer.valueOf(1), order.get(0));
+        assertEquals(Integer.valueOf(4), order.get(1));
+        assertEquals(Integer.valueOf(3), order.get(2));
+        assertEquals(Integer.valueOf(2), order.get(3));
+    }
+
+    @Test
+    public void parallelism() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeNodeInitialisationQueue queue = new ZigBeeNodeInitialisationQueue(executor, 2);
+        List<Integer> order = new ArrayList<Integer>();
+
+        for (int cnt = 0; cnt < 5; cnt++) {
+            queue.submit(new IeeeAddress(Integer.toString(cnt + 1)), Priority.ROUTER, getTask(order, cnt, true));
+        }
+        assertEquals(2, executor.tasks.size());
+        assertEquals(2, queue.getRunning());
+
+        executor.runNext();
+        assertEquals(2, executor.tasks.size());
+
+        queue.setParallelism(4);
+        assertEquals(4, executor.tasks.size());
+    }
+
+    @Test
+    public void progress() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeNodeInitialisationQueue queue = new ZigBeeNodeInitialisationQueue(executor, 1);
+        List<Integer> order = new ArrayList<Integer>();
+        final List<String> progress = new ArrayList<String>();
+        queue.setProgressListener((completed, total, remainingTime) -> {
+            progress.add(completed + "/" + total);
+        });
+
+        IeeeAddress address = new IeeeAddress("1");
+        assertTrue(queue.submit(address, Priority.ROUTER, getTask(order, 1, false)));
+        assertFalse(queue.submit(address, Priority.ROUTER, getTask(order, 1, true)));
+        queue.submit(new IeeeAddress("2"), Priority.ROUTER, getTask(order, 2, true));
+        assertEquals(2, queue.getTotal());
+
+        // A deferred node is not complete, and may be queued again
+        executor.runNext();
+        assertEquals(0, queue.getCompleted());
+        assertTrue(queue.submit(address, Priority.ROUTER, getTask(order, 1, true)));
+
+        executor.runNext();
+        executor.runNext();
+        assertEquals(2, queue.getCompleted());
+        assertEquals(0, queue.getRemainingTime());
+        assertEquals(2, progress.size());
+        assertEquals("2/2", progress.get(1));
+    }
+
+    @Test
+    public void removeAndShutdown() {
+        ManualExecutor executor = new ManualExecutor();
+        ZigBeeNodeInitialisationQueue queue = new ZigBeeNodeInitialisationQueue(executor, 1);
+        List<Integer> order = new ArrayList<Integer>();
+
+        queue.submit(new IeeeAddress("1"), Priority.ROUTER, getTask(order, 1, true));
+        queue.submit(new IeeeAddress("2"), Priority.ROUTER, getTask(order, 2, true));
+        queue.submit(new IeeeAddress("3"), Priority.ROUTER, getTask(order, 3, true));
+        queue.remove(new IeeeAddress("2"));
+        assertEquals(2, queue.getTotal());
+
+        executor.runNext();
+        queue.shutdown();
+        executor.runNext();
+        assertTrue(executor.tasks.isEmpty());
+        assertEquals(2, order.size());
+        assertFalse(queue.submit(new IeeeAddress("4"), Priority.ROUTER, getTask(order, 4, true)));
+    }
+
+    @Test
+    public void getPriority() {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1"));
+        node.setNodeDescriptor(new NodeDescriptor(0, 0, 0, false, 0, 1, 0, 0, false, 0));
+        node.setPowerDescriptor(new PowerDescriptor(0, 0, 0, 0));
+        assertEquals(Priority.ROUTER, Priority.getPriority(node));
+
+        node.setNodeDescriptor(new NodeDescriptor(0, 0, 0, false, 0, 2, 0, 0, false, 0));
+        assertEquals(Priority.END_DEVICE, Priority.getPriority(node));
+
+        node.setPowerDescriptor(new PowerDescriptor(1, 4, 4, 0));
+        assertEquals(Priority.SLEEPY, Priority.getPriority(node));
+
+        assertEquals(Priority.END_DEVICE, Priority.getPriority(null));
+    }
+}
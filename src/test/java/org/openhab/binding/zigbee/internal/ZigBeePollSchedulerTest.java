@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeePollScheduler.PollTask;
+
+/**
+ * Test of the ZigBeePollScheduler. The wheel is advanced manually, and polls run on the calling thread.
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeePollSchedulerTest {
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private PollTask getTask(final AtomicInteger counter) {
+        return getTask(counter, 1);
+    }
+
+    private PollTask getTask(final AtomicInteger counter, final int reads) {
+        return new PollTask() {
+            @Override
+            public int poll() {
+                counter.incrementAndGet();
+                return reads;
+            }
+        };
+    }
+
+    @Test
+    public void period() {
+        // 10 slots of 100ms, with a period longer than the wheel
+        ZigBeePollScheduler scheduler = new ZigBeePollScheduler(executor, 100, 10, 100);
+        AtomicInteger counter = new AtomicInteger();
+        scheduler.register("A", 2500, getTask(counter));
+        assertEquals(1, scheduler.getRegistered());
+
+        // The first poll is within the first period
+        for (int tick = 0; tick < 25; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(1, counter.get());
+
+        // Then once every period
+        for (int tick = 0; tick < 250; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(11, counter.get());
+    }
+
+    @Test
+    public void rateLimit() {
+        // 2 polls per second with a 100ms tick is one poll every 5 ticks
+        ZigBeePollScheduler scheduler = new ZigBeePollScheduler(executor, 2, 16, 100);
+        AtomicInteger counter = new AtomicInteger();
+        for (int cnt = 0; cnt < 10; cnt++) {
+            scheduler.register(cnt, 100, getTask(counter));
+        }
+
+        scheduler.tick();
+        assertEquals(0, counter.get());
+        assertEquals(10, scheduler.getBacklog());
+
+        for (int tick = 0; tick < 20; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(4, counter.get());
+        assertEquals(4, scheduler.getPollCount());
+        assertTrue(scheduler.getBacklog() > 0);
+    }
+
+    @Test
+    public void readRateLimit() {
+        // 10 reads per second with a 100ms tick is one read every tick
+        ZigBeePollScheduler scheduler = new ZigBeePollScheduler(executor, 10, 16, 100);
+        AtomicInteger counter = new AtomicInteger();
+        scheduler.register("A", 100, getTask(counter, 3));
+
+        // A poll sending 3 reads delays the next poll by 3 ticks
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(4, counter.get());
+        assertEquals(4, scheduler.getPollCount());
+        assertEquals(12, scheduler.getReadCount());
+
+        // Once the reads of the last poll are repaid, a poll sending no reads is refunded so runs every tick
+        scheduler.register("A", 100, getTask(counter, 0));
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(12, counter.get());
+        assertEquals(12, scheduler.getReadCount());
+    }
+
+    @Test
+    public void unregister() {
+        ZigBeePollScheduler scheduler = new ZigBeePollScheduler(executor, 100, 16, 100);
+        AtomicInteger counterA = new AtomicInteger();
+        AtomicInteger counterB = new AtomicInteger();
+        scheduler.register("A", 1000, getTask(counterA));
+        scheduler.register("B", 1000, getTask(counterB));
+
+        // Replacing a poll only keeps the new task
+        AtomicInteger counterC = new AtomicInteger();
+        scheduler.register("B", 1000, getTask(counterC));
+        assertEquals(2, scheduler.getRegistered());
+
+        scheduler.unregister("A");
+        for (int tick = 0; tick < 50; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(0, counterA.get());
+        assertEquals(0, counterB.get());
+        assertEquals(5, counterC.get());
+
+        scheduler.shutdown();
+        assertEquals(0, scheduler.getRegistered());
+        scheduler.tick();
+        assertEquals(5, counterC.get());
+    }
+
+    @Test
+    public void exceptionInPoll() {
+        ZigBeePollScheduler scheduler = new ZigBeePollScheduler(executor, 100, 16, 100);
+        AtomicInteger counter = new AtomicInteger();
+        scheduler.register("A", 100, new PollTask() {
+            @Override
+            public int poll() {
+                counter.incrementAndGet();
+                throw new IllegalStateException();
+            }
+        });
+
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(2, counter.get());
+    }
+}
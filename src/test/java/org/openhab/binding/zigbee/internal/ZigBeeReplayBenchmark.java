@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.zigbee.internal.ZigBeeReplayPort.Speed;
+
+import com.zsmartsystems.zigbee.ZigBeeCommand;
+import com.zsmartsystems.zigbee.ZigBeeCommandListener;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.dongle.cc2531.ZigBeeDongleTiCc2531;
+import com.zsmartsystems.zigbee.dongle.ember.ZigBeeDongleEzsp;
+import com.zsmartsystems.zigbee.dongle.telegesis.ZigBeeDongleTelegesis;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportTransmit;
+
+/**
+ * Replays a capture recorded by the {@link ZigBeeRecordingPort} through the dongle driver and the
+ * {@link ZigBeeNetworkManager}, and reports how quickly the received commands are decoded.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method with the capture file and the dongle type (ember,
+ * cc2531 or telegesis). The capture must have been recorded from the start of the coordinator initialisation so that
+ * the driver sends the same frames as it did when the capture was made.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeReplayBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: ZigBeeReplayBenchmark <capture file> <ember|cc2531|telegesis> [original|fast]");
+            return;
+        }
+
+        Speed speed = args.length > 2 ? Speed.valueOf(args[2].toUpperCase()) : Speed.FAST;
+        ZigBeeReplayPort port = new ZigBeeReplayPort(new File(args[0]), speed);
+
+        ZigBeeTransportTransmit dongle;
+        switch (args[1].toLowerCase()) {
+            case "ember":
+                dongle = new ZigBeeDongleEzsp(port);
+                break;
+            case "cc2531":
+                dongle = new ZigBeeDongleTiCc2531(port);
+                break;
+            case "telegesis":
+                dongle = new ZigBeeDongleTelegesis(port);
+                break;
+            default:
+                System.out.println("Unknown dongle type " + args[1]);
+                return;
+        }
+
+        final AtomicLong commands = new AtomicLong();
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(dongle);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+        networkManager.addCommandListener(new ZigBeeCommandListener() {
+            @Override
+            public void commandReceived(ZigBeeCommand command) {
+                commands.incrementAndGet();
+            }
+        });
+
+        networkManager.initialize();
+        networkManager.startup(false);
+        port.waitForCompletion(TimeUnit.HOURS.toMillis(1));
+
+        long time = port.getReplayTime();
+        System.out.println(String.format("Replay %s in %,d ms", port.isComplete() ? "complete" : "incomplete",
+                TimeUnit.NANOSECONDS.toMillis(time)));
+        System.out.println(String.format("Received bytes      : %,12d  (%,.0f bytes/s)", port.getReceivedBytes(),
+                port.getReceivedBytes() * 1e9 / time));
+        System.out.println(String.format("Commands            : %,12d  (%,.0f commands/s)", commands.get(),
+                commands.get() * 1e9 / time));
+        System.out.println(String.format("Transmit mismatches : %,12d", port.getTransmitMismatchCount()));
+        System.out.println(String.format("Transmit missing    : %,12d", port.getTransmitMissingCount()));
+
+        networkManager.shutdown();
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeReplayPort.Speed;
+
+import com.zsmartsystems.zigbee.transport.ZigBeePort;
+
+/**
+ * Test of the ZigBeeRecordingPort and ZigBeeReplayPort
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeReplayPortTest {
+
+    /**
+     * Stand-in port that returns queued data and records anything written
+     */
+    static class TestPort implements ZigBeePort {
+        final Queue<Integer> receive = new LinkedList<Integer>();
+        final List<Integer> transmit = new ArrayList<Integer>();
+
+        @Override
+        public boolean open() {
+            return true;
+        }
+
+        @Override
+        public boolean open(int baudRate) {
+            return true;
+        }
+
+        @Override
+        public boolean open(int baudRate, FlowControl flowControl) {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void write(int value) {
+            transmit.add(value);
+        }
+
+        @Override
+        public int read() {
+            return read(0);
+        }
+
+        @Override
+        public int read(int timeout) {
+            Integer value = receive.poll();
+            return value == null ? -1 : value;
+        }
+
+        @Override
+        public void purgeRxBuffer() {
+            receive.clear();
+        }
+    }
+
+    private File record() throws IOException, InterruptedException {
+        File file = File.createTempFile("zigbee", ".capture");
+        file.deleteOnExit();
+
+        TestPort testPort = new TestPort();
+        ZigBeeRecordingPort port = new ZigBeeRecordingPort(testPort, file);
+        assertTrue(port.open());
+
+        // Request / response, with a gap before the response
+        port.write(0x1A);
+        port.write(0xC0);
+        Thread.sleep(100);
+        testPort.receive.add(0x7E);
+        testPort.receive.add(0x00);
+        testPort.receive.add(0xFF);
+        assertEquals(0x7E, port.read(0));
+        assertEquals(0x00, port.read(0));
+        assertEquals(0xFF, port.read(0));
+        assertEquals(-1, port.read(0));
+
+        port.close();
+        assertEquals(2, testPort.transmit.size());
+        return file;
+    }
+
+    @Test
+    public void captureFlushedWhenIdle() throws IOException {
+        File file = File.createTempFile("zigbee", ".capture");
+        file.deleteOnExit();
+
+        TestPort testPort = new TestPort();
+        ZigBeeRecordingPort port = new ZigBeeRecordingPort(testPort, file);
+        assertTrue(port.open());
+
+        port.write(0x1A);
+        testPort.receive.add(0x7E);
+        assertEquals(0x7E, port.read(0));
+
+        // The read timeout writes the records to the file before the port is closed
+        assertEquals(-1, port.read(0));
+        ZigBeeCaptureFile.Reader reader = new ZigBeeCaptureFile.Reader(file);
+        int count = 0;
+        while (reader.next() != null) {
+            count++;
+        }
+        reader.close();
+        port.close();
+
+        assertEquals(2, count);
+    }
+
+    @Test
+    public void captureFile() throws IOException, InterruptedException {
+        File file = record();
+
+        ZigBeeCaptureFile.Reader reader = new ZigBeeCaptureFile.Reader(file);
+        List<ZigBeeCaptureFile.Record> records = new ArrayList<ZigBeeCaptureFile.Record>();
+        ZigBeeCaptureFile.Record record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        reader.close();
+
+        assertEquals(5, records.size());
+        assertTrue(records.get(0).isTransmit());
+        assertEquals(0x1A, records.get(0).getValue());
+        assertTrue(records.get(1).isTransmit());
+        assertFalse(records.get(2).isTransmit());
+        assertEquals(0x7E, records.get(2).getValue());
+        assertEquals(0xFF, records.get(4).getValue());
+        assertTrue(records.get(2).getTime() - records.get(1).getTime() >= 90000000);
+
+        // Header, plus 4 or 5 bytes per record
+        assertTrue(file.length() < 13 + 5 * 6);
+    }
+
+    @Test
+    public void replay() throws IOException, InterruptedException {
+        File file = record();
+
+        ZigBeeReplayPort port = ZigBeeReplayPort.create(ZigBeeReplayPort.PREFIX + file.getPath());
+        assertTrue(port.open());
+
+        // Nothing is received until the driver sends the request
+        assertEquals(-1, port.read(20));
+        long start = System.nanoTime();
+        port.write(0x1A);
+        port.write(0xC0);
+        assertEquals(0x7E, port.read(1000));
+        assertTrue(System.nanoTime() - start >= 90000000);
+        assertEquals(0x00, port.read(1000));
+        assertEquals(0xFF, port.read(1000));
+
+        assertTrue(port.waitForCompletion(1000));
+        assertEquals(3, port.getReceivedBytes());
+        assertEquals(0, port.getTransmitMismatchCount());
+        assertEquals(0, port.getTransmitMissingCount());
+        port.close();
+    }
+
+    @Test
+    public void replayFast() throws IOException, InterruptedException {
+        File file = record();
+
+        ZigBeeReplayPort port = new ZigBeeReplayPort(file, Speed.FAST);
+        assertTrue(port.open());
+
+        long start = System.nanoTime();
+        port.write(0x1A);
+        port.write(0x00);
+        assertEquals(0x7E, port.read(1000));
+        assertEquals(0x00, port.read(1000));
+        assertEquals(0xFF, port.read(1000));
+        assertTrue(System.nanoTime() - start < 90000000);
+
+        assertTrue(port.waitForCompletion(1000));
+        assertEquals(1, port.getTransmitMismatchCount());
+        port.close();
+    }
+}
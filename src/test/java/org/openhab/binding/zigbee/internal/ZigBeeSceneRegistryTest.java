@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+
+/**
+ * Test of the ZigBeeSceneRegistry
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeSceneRegistryTest {
+    @Test
+    public void storeScene() {
+        ZigBeeSceneRegistry registry = new ZigBeeSceneRegistry();
+        assertTrue(registry.getScene(1).isEmpty());
+
+        Map<ChannelUID, State> states = new HashMap<ChannelUID, State>();
+        states.put(new ChannelUID("zigbee:device:ctrl:light:switch_onoff"), OnOffType.ON);
+        registry.storeScene(1, states);
+        states.clear();
+
+        assertEquals(1, registry.getScene(1).size());
+        assertEquals(OnOffType.ON, registry.getScene(1).get(new ChannelUID("zigbee:device:ctrl:light:switch_onoff")));
+        assertEquals(1, registry.getSceneIds().size());
+
+        registry.removeScene(1);
+        assertTrue(registry.getScene(1).isEmpty());
+    }
+
+    @Test
+    public void serializeScene() {
+        ZigBeeSceneRegistry registry = new ZigBeeSceneRegistry();
+
+        Map<ChannelUID, State> states = new HashMap<ChannelUID, State>();
+        states.put(new ChannelUID("zigbee:device:ctrl:light:switch_onoff"), OnOffType.OFF);
+        states.put(new ChannelUID("zigbee:device:ctrl:light:switch_level"), new PercentType(40));
+        states.put(new ChannelUID("zigbee:device:ctrl:light:color_color"), new HSBType("120,50,75"));
+        states.put(new ChannelUID("zigbee:device:ctrl:light:scene_recall"), new DecimalType(3));
+        registry.storeScene(5, states);
+
+        ZigBeeSceneRegistry loaded = new ZigBeeSceneRegistry();
+        loaded.deserializeScene(5, registry.serializeScene(5));
+        assertEquals(states, loaded.getScene(5));
+    }
+
+    @Test
+    public void deserializeInvalidScene() {
+        ZigBeeSceneRegistry registry = new ZigBeeSceneRegistry();
+
+        registry.deserializeScene(2,
+                "zigbee:device:ctrl:light:switch_onoff=OnOffType:ON;invalid;zigbee:device:ctrl:light:x=StringType:A");
+        assertEquals(1, registry.getScene(2).size());
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.InputStream;
+
+/**
+ * Benchmark of the {@link ZigBeeSerialPort} receive path, comparing the serial event drained one byte at a time with
+ * {@link InputStream#read()} against the block read used in {@link ZigBeeSerialPort#readAvailable()}.
+ * <p>
+ * The port is connected to a stand-in stream that delivers a fixed number of bytes per serial event, and burns a fixed
+ * amount of time per call to model the cost of the native read in the RXTX library.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the results.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeSerialPortReadBenchmark {
+    private static final int EVENTS = 20000;
+    private static final long CALL_COST_NS = 2000;
+
+    private static class SerialInputStream extends InputStream {
+        long calls = 0;
+        int pending = 0;
+
+        private void syscall() {
+            calls++;
+            long end = System.nanoTime() + CALL_COST_NS;
+            while (System.nanoTime() < end) {
+                // Model the time spent in the native read
+            }
+        }
+
+        @Override
+        public int available() {
+            syscall();
+            return pending;
+        }
+
+        @Override
+        public int read() {
+            syscall();
+            if (pending == 0) {
+                return -1;
+            }
+            pending--;
+            return 0x7E;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            syscall();
+            if (pending == 0) {
+                return -1;
+            }
+            int count = Math.min(len, pending);
+            pending -= count;
+            return count;
+        }
+    }
+
+    /**
+     * The receive loop as it was used in the serial port before block reads were introduced
+     */
+    private static void readBytes(InputStream inputStream, ZigBeeByteRingBuffer buffer) throws Exception {
+        int recv;
+        while ((recv = inputStream.read()) != -1) {
+            buffer.put((byte) recv);
+        }
+    }
+
+    private static void run(boolean block, int chunk) throws Exception {
+        SerialInputStream stream = new SerialInputStream();
+        ZigBeeSerialPort port = ZigBeeSerialPortTest.getPort(stream);
+        ZigBeeByteRingBuffer buffer = new ZigBeeByteRingBuffer(4096);
+        byte[] data = new byte[4096];
+
+        long start = System.nanoTime();
+        for (int cnt = 0; cnt < EVENTS; cnt++) {
+            stream.pending = chunk;
+            if (block) {
+                port.readAvailable();
+                while (port.read(data, 0, data.length, 0) > 0) {
+                    // Drain the port so it never fills
+                }
+            } else {
+                readBytes(stream, buffer);
+                buffer.clear();
+            }
+        }
+        long time = System.nanoTime() - start;
+
+        System.out.println(String.format("%-12s %3d bytes/event: %,12.0f bytes/s  %,6.1f calls/event",
+                block ? "block read" : "byte read", chunk, (double) EVENTS * chunk * 1e9 / time,
+                stream.calls / (double) EVENTS));
+    }
+
+    public static void main(String[] args) throws Exception {
+        // At 115200 baud the serial event will typically see between a few bytes and a full frame
+        for (int chunk : new int[] { 1, 8, 32, 128 }) {
+            run(false, chunk);
+            run(true, chunk);
+        }
+    }
+}
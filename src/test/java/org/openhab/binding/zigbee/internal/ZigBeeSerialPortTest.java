@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import com.zsmartsystems.zigbee.transport.ZigBeePort.FlowControl;
+
+/**
+ * Test of the ZigBeeSerialPort transmit path using a loopback stream in place of the serial port
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeSerialPortTest {
+
+    /**
+     * Loopback stand-in for the RXTX output stream. It records the data and the number of write calls made to the
+     * port.
+     */
+    static class LoopbackOutputStream extends ByteArrayOutputStream {
+        int writeCalls = 0;
+        boolean fail = false;
+
+        @Override
+        public synchronized void write(int b) {
+            writeCalls++;
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writeCalls++;
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (fail) {
+                throw new IOException("Port closed");
+            }
+        }
+    }
+
+    static ZigBeeSerialPort getPort(OutputStream outputStream) {
+        ZigBeeSerialPort port = new ZigBeeSerialPort("/dev/null", 115200, FlowControl.FLOWCONTROL_OUT_NONE);
+        setField(port, "outputStream", outputStream);
+        return port;
+    }
+
+    static ZigBeeSerialPort getPort(InputStream inputStream) {
+        ZigBeeSerialPort port = new ZigBeeSerialPort("/dev/null", 115200, FlowControl.FLOWCONTROL_OUT_NONE);
+        setField(port, "inputStream", inputStream);
+        return port;
+    }
+
+    private static void setField(ZigBeeSerialPort port, String name, Object value) {
+        try {
+            Field field = ZigBeeSerialPort.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(port, value);
+        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void writeFrame() {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        ZigBeeSerialPort port = getPort(stream);
+
+        int[] frame = new int[300];
+        for (int cnt = 0; cnt < frame.length; cnt++) {
+            frame[cnt] = cnt & 0xFF;
+        }
+        assertTrue(port.write(frame));
+        assertEquals(1, stream.writeCalls);
+        assertEquals(300, stream.size());
+        assertEquals(0xFF, stream.toByteArray()[255] & 0xFF);
+        assertEquals(0, port.getWriteErrorCount());
+    }
+
+    @Test
+    public void writeBytesThrough() {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        ZigBeeSerialPort port = getPort(stream);
+
+        // With no transmit idle time each byte goes straight to the port
+        for (int value : new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }) {
+            port.write(value);
+        }
+        assertEquals(5, stream.writeCalls);
+        assertEquals(5, stream.size());
+        assertEquals(5, port.getStatistics().getBytesTransmitted());
+        assertEquals(0, port.getStatistics().getFramesTransmitted());
+    }
+
+    @Test
+    public void writeBytesCoalesced() {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        ZigBeeSerialPort port = getPort(stream);
+        port.setTransmitIdleTime(500);
+
+        for (int value : new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }) {
+            port.write(value);
+        }
+        assertEquals(0, stream.writeCalls);
+
+        // A frame is sent after the waiting bytes in the same write
+        assertTrue(port.write(new int[] { 0x7E }));
+        assertEquals(1, stream.writeCalls);
+        assertEquals(6, stream.size());
+        assertEquals(6, port.getStatistics().getBytesTransmitted());
+    }
+
+    @Test
+    public void writeBytesFlushedWhenIdle() throws InterruptedException {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        ZigBeeSerialPort port = getPort(stream);
+        port.setTransmitIdleTime(500);
+        port.startTransmitThread();
+
+        for (int value : new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }) {
+            port.write(value);
+        }
+        long end = System.currentTimeMillis() + 1000;
+        while (stream.size() < 5 && System.currentTimeMillis() < end) {
+            Thread.sleep(1);
+        }
+        port.stopTransmitThread();
+
+        assertEquals(1, stream.writeCalls);
+        assertEquals(5, stream.size());
+        assertEquals(1, port.getStatistics().getFramesTransmitted());
+    }
+
+    @Test
+    public void writeErrorsCounted() {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        stream.fail = true;
+        ZigBeeSerialPort port = getPort(stream);
+
+        assertFalse(port.write(new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }));
+        assertFalse(port.write(new byte[] { 0x1A }, 0, 1));
+        assertEquals(2, port.getWriteErrorCount());
+    }
+
+    @Test
+    public void writeClosed() {
+        ZigBeeSerialPort port = new ZigBeeSerialPort("/dev/null", 115200, FlowControl.FLOWCONTROL_OUT_NONE);
+
+        assertFalse(port.write(new int[] { 0x7E }));
+        assertEquals(0, port.getWriteErrorCount());
+    }
+
+    @Test
+    public void readAvailable() {
+        byte[] data = new byte[1000];
+        for (int cnt = 0; cnt < data.length; cnt++) {
+            data[cnt] = (byte) cnt;
+        }
+        ZigBeeSerialPort port = getPort(new ByteArrayInputStream(data));
+
+        port.readAvailable();
+
+        byte[] received = new byte[data.length];
+        int length = 0;
+        while (length < received.length) {
+            int count = port.read(received, length, received.length - length, 0);
+            assertTrue(count > 0);
+            length += count;
+        }
+        assertArrayEquals(data, received);
+        assertEquals(-1, port.read(0));
+    }
+
+    @Test
+    public void latencyRecorded() {
+        ZigBeeSerialPort port = getPort(new ByteArrayInputStream(new byte[] { 0x1A, (byte) 0xC0, 0x38 }));
+        setField(port, "outputStream", new LoopbackOutputStream());
+
+        assertEquals(0, port.getPickupLatency().getCount());
+        assertEquals(0, port.getTurnaroundLatency().getCount());
+
+        assertTrue(port.write(new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }));
+        port.readAvailable();
+        assertEquals(1, port.getTurnaroundLatency().getCount());
+
+        // Latency is recorded once for the block of data
+        assertEquals(0x1A, port.read(0));
+        assertEquals(0xC0, port.read(0));
+        assertEquals(1, port.getPickupLatency().getCount());
+        assertTrue(port.getPickupLatency().getMaximum() >= port.getPickupLatency().getAverage());
+    }
+
+    @Test
+    public void statisticsCounted() {
+        ZigBeeSerialPort port = getPort(new ByteArrayInputStream(new byte[] { 0x1A, (byte) 0xC0, 0x38 }));
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        setField(port, "outputStream", stream);
+        ZigBeePortStatistics statistics = port.getStatistics();
+
+        assertTrue(port.write(new int[] { 0x1A, 0xC0, 0x38, 0xBC, 0x7E }));
+        port.write(0x7E);
+        assertEquals(6, statistics.getBytesTransmitted());
+        assertEquals(1, statistics.getFramesTransmitted());
+
+        port.readAvailable();
+        assertEquals(3, statistics.getBytesReceived());
+        assertEquals(1, statistics.getBlocksReceived());
+
+        byte[] received = new byte[3];
+        assertEquals(3, port.read(received, 0, received.length, 0));
+        assertEquals(0, statistics.getReadTimeouts());
+        assertEquals(-1, port.read(1));
+        assertEquals(1, statistics.getReadTimeouts());
+
+        stream.fail = true;
+        assertFalse(port.write(new int[] { 0x7E }));
+        assertEquals(1, statistics.getWriteErrors());
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.io.OutputStream;
+
+/**
+ * Benchmark of the {@link ZigBeeSerialPort} transmit path, comparing a frame sent byte by byte through
+ * {@link ZigBeeSerialPort#write(int)}, both written through and held for the transmit idle time, with the same frame
+ * sent through {@link ZigBeeSerialPort#write(int[])}.
+ * <p>
+ * The port is connected to a loopback stand-in that counts the number of calls made into the stream, and burns a fixed
+ * amount of time per call to model the cost of the native write in the RXTX library. The latency is the time from the
+ * first byte of a frame being written to the port until the last byte of the frame reaches the stream, so it includes
+ * the idle wait of the transmit thread.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the results.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeSerialPortWriteBenchmark {
+    private static final int FRAMES = 2000;
+    private static final long CALL_COST_NS = 2000;
+    private static final int TRANSMIT_IDLE_TIME = 500;
+
+    private static class LoopbackOutputStream extends OutputStream {
+        volatile long calls = 0;
+        volatile long bytes = 0;
+        volatile long lastWriteTime = 0;
+
+        private void syscall() {
+            calls++;
+            long end = System.nanoTime() + CALL_COST_NS;
+            while (System.nanoTime() < end) {
+                // Model the time spent in the native write
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            syscall();
+            bytes++;
+            lastWriteTime = System.nanoTime();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            syscall();
+            bytes += len;
+            lastWriteTime = System.nanoTime();
+        }
+    }
+
+    private static void run(String name, boolean frameWrite, int transmitIdleTime, int[] frame) {
+        LoopbackOutputStream stream = new LoopbackOutputStream();
+        ZigBeeSerialPort port = ZigBeeSerialPortTest.getPort(stream);
+        port.setTransmitIdleTime(transmitIdleTime);
+        if (transmitIdleTime > 0) {
+            port.startTransmitThread();
+        }
+
+        long latency = 0;
+        long maximumLatency = 0;
+        long start = System.nanoTime();
+        for (int cnt = 0; cnt < FRAMES; cnt++) {
+            long frameStart = System.nanoTime();
+            if (frameWrite) {
+                port.write(frame);
+            } else {
+                for (int value : frame) {
+                    port.write(value);
+                }
+            }
+
+            // Wait for the frame to reach the stream
+            long expected = (cnt + 1L) * frame.length;
+            while (stream.bytes < expected) {
+                Thread.yield();
+            }
+            long frameLatency = stream.lastWriteTime - frameStart;
+            latency += frameLatency;
+            maximumLatency = Math.max(maximumLatency, frameLatency);
+        }
+        long time = System.nanoTime() - start;
+        port.stopTransmitThread();
+
+        System.out.println(String.format(
+                "%-16s %3d byte frames: %,10.0f frames/s  %,6.1f calls/frame  latency %,8.1fus avg %,8.1fus max",
+                name, frame.length, FRAMES * 1e9 / time, stream.calls / (double) FRAMES, latency / 1e3 / FRAMES,
+                maximumLatency / 1e3));
+    }
+
+    public static void main(String[] args) {
+        // A typical ASH data frame is around 30 to 60 bytes
+        for (int length : new int[] { 8, 32, 64, 128 }) {
+            int[] frame = new int[length];
+            run("write(int)", false, 0, frame);
+            run("write(int) idle", false, TRANSMIT_IDLE_TIME, frame);
+            run("write(int[])", true, 0, frame);
+        }
+    }
+}
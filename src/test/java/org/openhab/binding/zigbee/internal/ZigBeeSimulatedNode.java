@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclBasicCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclElectricalMeasurementCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclIasZoneCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclTemperatureMeasurementCluster;
+import com.zsmartsystems.zigbee.zcl.protocol.ZclDataType;
+
+/**
+ * A virtual node used by the {@link ZigBeeSimulatedTransport}. The node holds a set of endpoints, each with a set of
+ * server clusters and their attribute values, and the reporting configuration for each attribute.
+ * <p>
+ * The node state is only modified from the simulation thread, so no synchronisation is used.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeSimulatedNode {
+    /**
+     * The logical type of the node, as reported in the node descriptor
+     */
+    public enum LogicalType {
+        COORDINATOR(0),
+        ROUTER(1),
+        END_DEVICE(2);
+
+        private final int key;
+
+        LogicalType(int key) {
+            this.key = key;
+        }
+
+        public int getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Predefined device types. Each defines the HA device ID, the logical type, and the server clusters on the
+     * endpoint.
+     */
+    public enum DeviceType {
+        ON_OFF_LIGHT(0x0100, LogicalType.ROUTER, ZclOnOffCluster.CLUSTER_ID),
+        DIMMABLE_LIGHT(0x0101, LogicalType.ROUTER, ZclOnOffCluster.CLUSTER_ID, ZclLevelControlCluster.CLUSTER_ID),
+        COLOR_LIGHT(0x0102, LogicalType.ROUTER, ZclOnOffCluster.CLUSTER_ID, ZclLevelControlCluster.CLUSTER_ID,
+                ZclColorControlCluster.CLUSTER_ID),
+        SMART_PLUG(0x0051, LogicalType.ROUTER, ZclOnOffCluster.CLUSTER_ID,
+                ZclElectricalMeasurementCluster.CLUSTER_ID),
+        TEMPERATURE_SENSOR(0x0302, LogicalType.END_DEVICE, ZclTemperatureMeasurementCluster.CLUSTER_ID),
+        IAS_SENSOR(0x0402, LogicalType.END_DEVICE, ZclIasZoneCluster.CLUSTER_ID),
+        COLOR_XY_LIGHT(0x0102, LogicalType.ROUTER, ZclOnOffCluster.CLUSTER_ID, ZclLevelControlCluster.CLUSTER_ID,
+                ZclColorControlCluster.CLUSTER_ID);
+
+        private final int deviceId;
+        private final LogicalType logicalType;
+        private final int[] clusters;
+
+        DeviceType(int deviceId, LogicalType logicalType, int... clusters) {
+            this.deviceId = deviceId;
+            this.logicalType = logicalType;
+            this.clusters = clusters;
+        }
+
+        public int getDeviceId() {
+            return deviceId;
+        }
+
+        public LogicalType getLogicalType() {
+            return logicalType;
+        }
+    }
+
+    /**
+     * A single attribute value, with its reporting configuration
+     */
+    static class Attribute {
+        final int id;
+        final ZclDataType dataType;
+        Object value;
+
+        int minimumInterval = -1;
+        int maximumInterval = -1;
+        long lastReport;
+        boolean changed;
+
+        Attribute(int id, ZclDataType dataType, Object value) {
+            this.id = id;
+            this.dataType = dataType;
+            this.value = value;
+        }
+
+        boolean isReporting() {
+            return maximumInterval >= 0;
+        }
+
+        void setValue(Object value) {
+            if (!value.equals(this.value)) {
+                this.value = value;
+                changed = true;
+            }
+        }
+    }
+
+    /**
+     * A single endpoint on the node
+     */
+    static class Endpoint {
+        final int id;
+        final int profileId;
+        final int deviceId;
+        final Map<Integer, Map<Integer, Attribute>> clusters = new TreeMap<Integer, Map<Integer, Attribute>>();
+
+        Endpoint(int id, int profileId, int deviceId) {
+            this.id = id;
+            this.profileId = profileId;
+            this.deviceId = deviceId;
+        }
+
+        void addAttribute(int clusterId, int attributeId, ZclDataType dataType, Object value) {
+            Map<Integer, Attribute> attributes = clusters.get(clusterId);
+            if (attributes == null) {
+                attributes = new TreeMap<Integer, Attribute>();
+                clusters.put(clusterId, attributes);
+            }
+            attributes.put(attributeId, new Attribute(attributeId, dataType, value));
+        }
+
+        Attribute getAttribute(int clusterId, int attributeId) {
+            Map<Integer, Attribute> attributes = clusters.get(clusterId);
+            return attributes == null ? null : attributes.get(attributeId);
+        }
+
+        List<Integer> getClusterIds() {
+            return new ArrayList<Integer>(clusters.keySet());
+        }
+    }
+
+    private final IeeeAddress ieeeAddress;
+    private final int networkAddress;
+    private final LogicalType logicalType;
+    private final Map<Integer, Endpoint> endpoints = new TreeMap<Integer, Endpoint>();
+
+    /**
+     * Constructor
+     *
+     * @param ieeeAddress the {@link IeeeAddress} of the node
+     * @param networkAddress the network address of the node
+     * @param logicalType the {@link LogicalType} of the node
+     */
+    public ZigBeeSimulatedNode(IeeeAddress ieeeAddress, int networkAddress, LogicalType logicalType) {
+        this.ieeeAddress = ieeeAddress;
+        this.networkAddress = networkAddress;
+        this.logicalType = logicalType;
+    }
+
+    /**
+     * Creates a node with a single endpoint of the requested {@link DeviceType}
+     *
+     * @param ieeeAddress the {@link IeeeAddress} of the node
+     * @param networkAddress the network address of the node
+     * @param deviceType the {@link DeviceType}
+     * @return the new {@link ZigBeeSimulatedNode}
+     */
+    public static ZigBeeSimulatedNode create(IeeeAddress ieeeAddress, int networkAddress, DeviceType deviceType) {
+        ZigBeeSimulatedNode node = new ZigBeeSimulatedNode(ieeeAddress, networkAddress, deviceType.getLogicalType());
+        node.addEndpoint(1, deviceType);
+        return node;
+    }
+
+    /**
+     * Adds an endpoint with the clusters defined by the {@link DeviceType}
+     *
+     * @param endpointId the endpoint number
+     * @param deviceType the {@link DeviceType}
+     */
+    public void addEndpoint(int endpointId, DeviceType deviceType) {
+        Endpoint endpoint = new Endpoint(endpointId, 0x0104, deviceType.getDeviceId());
+
+        endpoint.addAttribute(ZclBasicCluster.CLUSTER_ID, ZclBasicCluster.ATTR_ZCLVERSION,
+                ZclDataType.UNSIGNED_8_BIT_INTEGER, 1);
+        endpoint.addAttribute(ZclBasicCluster.CLUSTER_ID, ZclBasicCluster.ATTR_MANUFACTURERNAME,
+                ZclDataType.CHARACTER_STRING, "Simulated");
+        endpoint.addAttribute(ZclBasicCluster.CLUSTER_ID, ZclBasicCluster.ATTR_MODELIDENTIFIER,
+                ZclDataType.CHARACTER_STRING, deviceType.toString());
+        endpoint.addAttribute(ZclBasicCluster.CLUSTER_ID, ZclBasicCluster.ATTR_POWERSOURCE,
+                ZclDataType.ENUMERATION_8_BIT, deviceType.getLogicalType() == LogicalType.END_DEVICE ? 3 : 1);
+
+        for (int clusterId : deviceType.clusters) {
+            switch (clusterId) {
+                case ZclOnOffCluster.CLUSTER_ID:
+                    endpoint.addAttribute(clusterId, ZclOnOffCluster.ATTR_ONOFF, ZclDataType.BOOLEAN, false);
+                    break;
+                case ZclLevelControlCluster.CLUSTER_ID:
+                    endpoint.addAttribute(clusterId, ZclLevelControlCluster.ATTR_CURRENTLEVEL,
+                            ZclDataType.UNSIGNED_8_BIT_INTEGER, 0);
+                    break;
+                case ZclColorControlCluster.CLUSTER_ID:
+                    // XY lights don't support the hue and saturation attributes
+                    boolean xyOnly = deviceType == DeviceType.COLOR_XY_LIGHT;
+                    if (!xyOnly) {
+                        endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_CURRENTHUE,
+                                ZclDataType.UNSIGNED_8_BIT_INTEGER, 0);
+                        endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_CURRENTSATURATION,
+                                ZclDataType.UNSIGNED_8_BIT_INTEGER, 0);
+                    }
+                    endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_CURRENTX,
+                            ZclDataType.UNSIGNED_16_BIT_INTEGER, 0x616B);
+                    endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_CURRENTY,
+                            ZclDataType.UNSIGNED_16_BIT_INTEGER, 0x607D);
+                    endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_COLORTEMPERATURE,
+                            ZclDataType.UNSIGNED_16_BIT_INTEGER, 370);
+                    endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_COLORMODE,
+                            ZclDataType.ENUMERATION_8_BIT, 0);
+                    endpoint.addAttribute(clusterId, ZclColorControlCluster.ATTR_COLORCAPABILITIES,
+                            ZclDataType.BITMAP_16_BIT, xyOnly ? 0x0018 : 0x001F);
+                    break;
+                case ZclElectricalMeasurementCluster.CLUSTER_ID:
+                    endpoint.addAttribute(clusterId, ZclElectricalMeasurementCluster.ATTR_ACTIVEPOWER,
+                            ZclDataType.SIGNED_16_BIT_INTEGER, 0);
+                    endpoint.addAttribute(clusterId, ZclElectricalMeasurementCluster.ATTR_RMSVOLTAGE,
+                            ZclDataType.UNSIGNED_16_BIT_INTEGER, 230);
+                    endpoint.addAttribute(clusterId, ZclElectricalMeasurementCluster.ATTR_RMSCURRENT,
+                            ZclDataType.UNSIGNED_16_BIT_INTEGER, 0);
+                    break;
+                case ZclTemperatureMeasurementCluster.CLUSTER_ID:
+                    endpoint.addAttribute(clusterId, ZclTemperatureMeasurementCluster.ATTR_MEASUREDVALUE,
+                            ZclDataType.SIGNED_16_BIT_INTEGER, 2100);
+                    endpoint.addAttribute(clusterId, ZclTemperatureMeasurementCluster.ATTR_MINMEASUREDVALUE,
+                            ZclDataType.SIGNED_16_BIT_INTEGER, -4000);
+                    endpoint.addAttribute(clusterId, ZclTemperatureMeasurementCluster.ATTR_MAXMEASUREDVALUE,
+                            ZclDataType.SIGNED_16_BIT_INTEGER, 8500);
+                    break;
+                case ZclIasZoneCluster.CLUSTER_ID:
+                    endpoint.addAttribute(clusterId, ZclIasZoneCluster.ATTR_ZONESTATE, ZclDataType.ENUMERATION_8_BIT,
+                            1);
+                    endpoint.addAttribute(clusterId, ZclIasZoneCluster.ATTR_ZONETYPE, ZclDataType.ENUMERATION_16_BIT,
+                            0x000D);
+                    endpoint.addAttribute(clusterId, ZclIasZoneCluster.ATTR_ZONESTATUS, ZclDataType.BITMAP_16_BIT,
+                            0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        endpoints.put(endpointId, endpoint);
+    }
+
+    /**
+     * Gets the {@link IeeeAddress} of the node
+     *
+     * @return the {@link IeeeAddress}
+     */
+    public IeeeAddress getIeeeAddress() {
+        return ieeeAddress;
+    }
+
+    /**
+     * Gets the network address of the node
+     *
+     * @return the network address
+     */
+    public int getNetworkAddress() {
+        return networkAddress;
+    }
+
+    /**
+     * Gets the {@link LogicalType} of the node
+     *
+     * @return the {@link LogicalType}
+     */
+    public LogicalType getLogicalType() {
+        return logicalType;
+    }
+
+    /**
+     * Gets the current value of an attribute
+     *
+     * @param endpointId the endpoint number
+     * @param clusterId the cluster ID
+     * @param attributeId the attribute ID
+     * @return the attribute value or null if the attribute is not supported
+     */
+    public Object getAttributeValue(int endpointId, int clusterId, int attributeId) {
+        Endpoint endpoint = endpoints.get(endpointId);
+        if (endpoint == null) {
+            return null;
+        }
+        Attribute attribute = endpoint.getAttribute(clusterId, attributeId);
+        return attribute == null ? null : attribute.value;
+    }
+
+    Collection<Endpoint> getEndpoints() {
+        return endpoints.values();
+    }
+
+    Endpoint getEndpoint(int endpointId) {
+        return endpoints.get(endpointId);
+    }
+
+    /**
+     * Randomly changes the measured values on the node, as a real sensor would
+     *
+     * @param random the {@link Random} used to vary the values
+     */
+    void updateMeasurements(Random random) {
+        for (Endpoint endpoint : endpoints.values()) {
+            Attribute attribute = endpoint.getAttribute(ZclTemperatureMeasurementCluster.CLUSTER_ID,
+                    ZclTemperatureMeasurementCluster.ATTR_MEASUREDVALUE);
+            if (attribute != null) {
+                attribute.setValue((Integer) attribute.value + random.nextInt(41) - 20);
+            }
+
+            attribute = endpoint.getAttribute(ZclIasZoneCluster.CLUSTER_ID, ZclIasZoneCluster.ATTR_ZONESTATUS);
+            if (attribute != null) {
+                attribute.setValue((Integer) attribute.value ^ 0x0001);
+            }
+
+            attribute = endpoint.getAttribute(ZclElectricalMeasurementCluster.CLUSTER_ID,
+                    ZclElectricalMeasurementCluster.ATTR_ACTIVEPOWER);
+            Attribute onOff = endpoint.getAttribute(ZclOnOffCluster.CLUSTER_ID, ZclOnOffCluster.ATTR_ONOFF);
+            if (attribute != null && onOff != null) {
+                int power = Boolean.TRUE.equals(onOff.value) ? 60 + random.nextInt(10) : 0;
+                attribute.setValue(power);
+                endpoint.getAttribute(ZclElectricalMeasurementCluster.CLUSTER_ID,
+                        ZclElectricalMeasurementCluster.ATTR_RMSCURRENT).setValue(power * 1000 / 230);
+            }
+        }
+    }
+}
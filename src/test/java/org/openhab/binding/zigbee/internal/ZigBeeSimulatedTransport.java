@@ -0,0 +1,800 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.Attribute;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.DeviceType;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.Endpoint;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.LogicalType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zsmartsystems.zigbee.ExtendedPanId;
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeApsFrame;
+import com.zsmartsystems.zigbee.ZigBeeKey;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager.ZigBeeInitializeResponse;
+import com.zsmartsystems.zigbee.ZigBeeNodeStatus;
+import com.zsmartsystems.zigbee.ZigBeeNwkAddressMode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.transport.TransportConfig;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportReceive;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportState;
+import com.zsmartsystems.zigbee.transport.ZigBeeTransportTransmit;
+import com.zsmartsystems.zigbee.zcl.ZclCommand;
+import com.zsmartsystems.zigbee.zcl.ZclFieldDeserializer;
+import com.zsmartsystems.zigbee.zcl.ZclFieldSerializer;
+import com.zsmartsystems.zigbee.zcl.ZclFrameType;
+import com.zsmartsystems.zigbee.zcl.ZclHeader;
+import com.zsmartsystems.zigbee.zcl.ZclStatus;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToColorTemperatureCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.colorcontrol.MoveToHueAndSaturationCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ConfigureReportingCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ConfigureReportingResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.general.DefaultResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.general.DiscoverAttributesCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.DiscoverAttributesResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ReadAttributesCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ReadAttributesResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ReportAttributesCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.WriteAttributesCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.general.WriteAttributesResponse;
+import com.zsmartsystems.zigbee.zcl.clusters.levelcontrol.MoveToLevelCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.levelcontrol.MoveToLevelWithOnOffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OffCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.OnCommand;
+import com.zsmartsystems.zigbee.zcl.clusters.onoff.ToggleCommand;
+import com.zsmartsystems.zigbee.zcl.field.AttributeInformation;
+import com.zsmartsystems.zigbee.zcl.field.AttributeReport;
+import com.zsmartsystems.zigbee.zcl.field.AttributeReportingConfigurationRecord;
+import com.zsmartsystems.zigbee.zcl.field.ReadAttributeStatusRecord;
+import com.zsmartsystems.zigbee.zcl.field.WriteAttributeRecord;
+import com.zsmartsystems.zigbee.zcl.field.WriteAttributeStatusRecord;
+import com.zsmartsystems.zigbee.zcl.protocol.ZclCommandDirection;
+import com.zsmartsystems.zigbee.zcl.protocol.ZclCommandType;
+import com.zsmartsystems.zigbee.zcl.protocol.ZclDataType;
+import com.zsmartsystems.zigbee.zdo.ZdoStatus;
+import com.zsmartsystems.zigbee.zdo.command.NetworkAddressRequest;
+import com.zsmartsystems.zigbee.zdo.command.SimpleDescriptorRequest;
+
+/**
+ * An in-process {@link ZigBeeTransportTransmit} that simulates a network of {@link ZigBeeSimulatedNode}s. This allows
+ * the {@link com.zsmartsystems.zigbee.ZigBeeNetworkManager}, and the binding above it, to be run against thousands of
+ * nodes without any hardware.
+ * <p>
+ * The simulation answers the ZDO requests used during discovery, and the ZCL read, write, discover and configure
+ * reporting commands, along with the on/off, level and color commands. Nodes send attribute reports once reporting is
+ * configured, and measurement clusters change their values over time. Responses are delayed by a random latency, and
+ * frames can be dropped in either direction to simulate packet loss.
+ * <p>
+ * All frames are processed on a single simulation thread so the node state needs no synchronisation.
+ *
+ * @author Chris Jackson
+ */
+public class ZigBeeSimulatedTransport implements ZigBeeTransportTransmit {
+    /**
+     * The logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(ZigBeeSimulatedTransport.class);
+
+    private static final int ZDO_NETWORK_ADDRESS = 0x0000;
+    private static final int ZDO_IEEE_ADDRESS = 0x0001;
+    private static final int ZDO_NODE_DESCRIPTOR = 0x0002;
+    private static final int ZDO_POWER_DESCRIPTOR = 0x0003;
+    private static final int ZDO_SIMPLE_DESCRIPTOR = 0x0004;
+    private static final int ZDO_ACTIVE_ENDPOINTS = 0x0005;
+    private static final int ZDO_BIND = 0x0021;
+    private static final int ZDO_UNBIND = 0x0022;
+    private static final int ZDO_MANAGEMENT_LQI = 0x0031;
+    private static final int ZDO_MANAGEMENT_ROUTING = 0x0032;
+    private static final int ZDO_RESPONSE = 0x8000;
+
+    private final ZigBeeSimulatedNode coordinator;
+    private final Map<Integer, ZigBeeSimulatedNode> nodes = new ConcurrentHashMap<Integer, ZigBeeSimulatedNode>();
+    private final List<ZigBeeSimulatedNode> joinOrder = Collections
+            .synchronizedList(new ArrayList<ZigBeeSimulatedNode>());
+
+    private final Random random;
+    private ZigBeeTransportReceive receiver;
+    private ScheduledExecutorService scheduler;
+
+    private int minimumLatency = 10;
+    private int maximumLatency = 50;
+    private double packetLoss = 0;
+    private int joinInterval = 0;
+    private int tickPeriod = 1000;
+    private double measurementChange = 0.05;
+
+    private int channel = 11;
+    private int panId = 0x1234;
+    private ExtendedPanId extendedPanId = new ExtendedPanId("1234567890ABCDEF");
+
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong reportsSent = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param seed the seed for the random latency, packet loss and measurement changes, so that runs can be repeated
+     */
+    public ZigBeeSimulatedTransport(long seed) {
+        random = new Random(seed);
+        coordinator = new ZigBeeSimulatedNode(new IeeeAddress("00124B0000000000"), 0, LogicalType.COORDINATOR);
+        nodes.put(0, coordinator);
+    }
+
+    /**
+     * Adds a node to the network. The node joins the network when the transport is started.
+     *
+     * @param node the {@link ZigBeeSimulatedNode} to add
+     */
+    public void addNode(ZigBeeSimulatedNode node) {
+        nodes.put(node.getNetworkAddress(), node);
+        joinOrder.add(node);
+    }
+
+    /**
+     * Adds a number of nodes to the network, cycling through the requested device types
+     *
+     * @param count the number of nodes to add
+     * @param deviceTypes the {@link DeviceType}s to create
+     * @return the list of new {@link ZigBeeSimulatedNode}s
+     */
+    public List<ZigBeeSimulatedNode> addNodes(int count, DeviceType... deviceTypes) {
+        List<ZigBeeSimulatedNode> created = new ArrayList<ZigBeeSimulatedNode>(count);
+        int base = nodes.size();
+        for (int cnt = 0; cnt < count; cnt++) {
+            int index = base + cnt;
+            ZigBeeSimulatedNode node = ZigBeeSimulatedNode.create(
+                    new IeeeAddress(String.format("00158D00%08X", index)), 0x1000 + index,
+                    deviceTypes[cnt % deviceTypes.length]);
+            addNode(node);
+            created.add(node);
+        }
+        return created;
+    }
+
+    /**
+     * Gets a node from its network address
+     *
+     * @param networkAddress the network address
+     * @return the {@link ZigBeeSimulatedNode} or null if not found
+     */
+    public ZigBeeSimulatedNode getNode(int networkAddress) {
+        return nodes.get(networkAddress);
+    }
+
+    /**
+     * Sets the range of the random delay before a node responds to a request
+     *
+     * @param minimum the minimum latency in milliseconds
+     * @param maximum the maximum latency in milliseconds
+     */
+    public void setLatency(int minimum, int maximum) {
+        this.minimumLatency = minimum;
+        this.maximumLatency = Math.max(minimum, maximum);
+    }
+
+    /**
+     * Sets the probability that any frame, in either direction, is lost
+     *
+     * @param packetLoss the probability between 0 and 1
+     */
+    public void setPacketLoss(double packetLoss) {
+        this.packetLoss = packetLoss;
+    }
+
+    /**
+     * Sets the time between each node joining the network when the transport starts. If 0, all nodes join at once.
+     *
+     * @param joinInterval the join interval in milliseconds
+     */
+    public void setJoinInterval(int joinInterval) {
+        this.joinInterval = joinInterval;
+    }
+
+    /**
+     * Sets the period of the simulation tick. On each tick, measured values may change and any reports that are due
+     * are sent.
+     *
+     * @param tickPeriod the tick period in milliseconds
+     */
+    public void setTickPeriod(int tickPeriod) {
+        this.tickPeriod = tickPeriod;
+    }
+
+    /**
+     * Sets the probability that a node updates its measured values on each tick
+     *
+     * @param measurementChange the probability between 0 and 1
+     */
+    public void setMeasurementChange(double measurementChange) {
+        this.measurementChange = measurementChange;
+    }
+
+    /**
+     * @return the number of frames sent to the simulated network by the stack
+     */
+    public long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    /**
+     * @return the number of frames sent from the simulated network to the stack
+     */
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * @return the number of frames lost in either direction
+     */
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    /**
+     * @return the number of attribute reports sent to the stack
+     */
+    public long getReportsSent() {
+        return reportsSent.get();
+    }
+
+    @Override
+    public ZigBeeInitializeResponse initialize() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        return ZigBeeInitializeResponse.JOINED;
+    }
+
+    @Override
+    public boolean startup(boolean reinitialize) {
+        receiver.setNetworkState(ZigBeeTransportState.ONLINE);
+
+        List<ZigBeeSimulatedNode> joining;
+        synchronized (joinOrder) {
+            joining = new ArrayList<ZigBeeSimulatedNode>(joinOrder);
+        }
+        long delay = 0;
+        for (final ZigBeeSimulatedNode node : joining) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    receiver.nodeStatusUpdate(ZigBeeNodeStatus.UNSECURED_JOIN, node.getNetworkAddress(),
+                            node.getIeeeAddress());
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            delay += joinInterval;
+        }
+
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }, tickPeriod, tickPeriod, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public String getVersionString() {
+        return "Simulated";
+    }
+
+    @Override
+    public IeeeAddress getIeeeAddress() {
+        return coordinator.getIeeeAddress();
+    }
+
+    @Override
+    public void sendCommand(final ZigBeeApsFrame apsFrame) {
+        framesReceived.incrementAndGet();
+        if (isLost()) {
+            return;
+        }
+
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    process(apsFrame);
+                } catch (Exception e) {
+                    logger.debug("Simulation error processing {}", apsFrame, e);
+                }
+            }
+        }, getLatency(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void setZigBeeTransportReceive(ZigBeeTransportReceive zigbeeTransportReceive) {
+        receiver = zigbeeTransportReceive;
+    }
+
+    @Override
+    public int getZigBeeChannel() {
+        return channel;
+    }
+
+    @Override
+    public boolean setZigBeeChannel(int channel) {
+        this.channel = channel;
+        return true;
+    }
+
+    @Override
+    public int getZigBeePanId() {
+        return panId;
+    }
+
+    @Override
+    public boolean setZigBeePanId(int panId) {
+        this.panId = panId;
+        return true;
+    }
+
+    @Override
+    public ExtendedPanId getZigBeeExtendedPanId() {
+        return extendedPanId;
+    }
+
+    @Override
+    public boolean setZigBeeExtendedPanId(ExtendedPanId panId) {
+        this.extendedPanId = panId;
+        return true;
+    }
+
+    @Override
+    public boolean setZigBeeNetworkKey(ZigBeeKey key) {
+        return true;
+    }
+
+    @Override
+    public boolean setTcLinkKey(ZigBeeKey key) {
+        return true;
+    }
+
+    @Override
+    public void updateTransportConfig(TransportConfig configuration) {
+    }
+
+    private boolean isLost() {
+        if (packetLoss > 0 && random.nextDouble() < packetLoss) {
+            framesDropped.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private long getLatency() {
+        return minimumLatency + random.nextInt(maximumLatency - minimumLatency + 1);
+    }
+
+    private void deliver(ZigBeeApsFrame apsFrame) {
+        if (isLost()) {
+            return;
+        }
+        framesSent.incrementAndGet();
+        receiver.receiveCommand(apsFrame);
+    }
+
+    private void process(ZigBeeApsFrame apsFrame) {
+        ZigBeeSimulatedNode node;
+        if (apsFrame.getProfile() == 0 && apsFrame.getCluster() == ZDO_NETWORK_ADDRESS) {
+            // Network address requests are broadcast and answered by the node with the requested IEEE address
+            NetworkAddressRequest request = new NetworkAddressRequest();
+            request.deserialize(getDeserializer(apsFrame.getPayload()));
+            node = findNode(request.getIeeeAddr());
+        } else if (apsFrame.getAddressMode() == ZigBeeNwkAddressMode.DEVICE) {
+            node = nodes.get(apsFrame.getDestinationAddress());
+        } else {
+            node = null;
+        }
+
+        if (node == null) {
+            logger.trace("Simulation has no node for {}", apsFrame);
+            return;
+        }
+
+        if (apsFrame.getProfile() == 0) {
+            processZdo(node, apsFrame);
+        } else {
+            processZcl(node, apsFrame);
+        }
+    }
+
+    private ZigBeeSimulatedNode findNode(IeeeAddress ieeeAddress) {
+        for (ZigBeeSimulatedNode node : nodes.values()) {
+            if (node.getIeeeAddress().equals(ieeeAddress)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void processZdo(ZigBeeSimulatedNode node, ZigBeeApsFrame apsFrame) {
+        ZclFieldSerializer serializer = getSerializer();
+        serializer.serialize(apsFrame.getPayload()[0], ZclDataType.UNSIGNED_8_BIT_INTEGER);
+
+        switch (apsFrame.getCluster()) {
+            case ZDO_NETWORK_ADDRESS:
+            case ZDO_IEEE_ADDRESS:
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                serializer.serialize(node.getIeeeAddress(), ZclDataType.IEEE_ADDRESS);
+                serializer.serialize(node.getNetworkAddress(), ZclDataType.NWK_ADDRESS);
+                serializer.serialize(0, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(0, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                break;
+            case ZDO_NODE_DESCRIPTOR:
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                serializer.serialize(node.getNetworkAddress(), ZclDataType.NWK_ADDRESS);
+                serializer.serialize(node.getLogicalType().getKey(), ZclDataType.DATA_8_BIT);
+                serializer.serialize(0x40, ZclDataType.DATA_8_BIT);
+                serializer.serialize(node.getLogicalType() == LogicalType.END_DEVICE ? 0x80 : 0x8E,
+                        ZclDataType.DATA_8_BIT);
+                serializer.serialize(0x1234, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(82, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(82, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(0, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(82, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(0, ZclDataType.DATA_8_BIT);
+                break;
+            case ZDO_POWER_DESCRIPTOR:
+                boolean battery = node.getLogicalType() == LogicalType.END_DEVICE;
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                serializer.serialize(node.getNetworkAddress(), ZclDataType.NWK_ADDRESS);
+                serializer.serialize(battery ? 0x42 : 0x10, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(battery ? 0xC4 : 0xC1, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                break;
+            case ZDO_ACTIVE_ENDPOINTS:
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                serializer.serialize(node.getNetworkAddress(), ZclDataType.NWK_ADDRESS);
+                List<Integer> endpointIds = new ArrayList<Integer>();
+                for (Endpoint endpoint : node.getEndpoints()) {
+                    endpointIds.add(endpoint.id);
+                }
+                serializer.serialize(endpointIds, ZclDataType.N_X_UNSIGNED_8_BIT_INTEGER);
+                break;
+            case ZDO_SIMPLE_DESCRIPTOR:
+                SimpleDescriptorRequest request = new SimpleDescriptorRequest();
+                request.deserialize(getDeserializer(apsFrame.getPayload()));
+                Endpoint endpoint = node.getEndpoint(request.getEndpoint());
+                if (endpoint == null) {
+                    serializer.serialize(ZdoStatus.NOT_ACTIVE, ZclDataType.ZDO_STATUS);
+                    break;
+                }
+                List<Integer> clusterIds = endpoint.getClusterIds();
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                serializer.serialize(node.getNetworkAddress(), ZclDataType.NWK_ADDRESS);
+                serializer.serialize(8 + clusterIds.size() * 2, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(endpoint.id, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(endpoint.profileId, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(endpoint.deviceId, ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(0, ZclDataType.UNSIGNED_8_BIT_INTEGER);
+                serializer.serialize(clusterIds, ZclDataType.N_X_UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(new ArrayList<Integer>(), ZclDataType.N_X_UNSIGNED_16_BIT_INTEGER);
+                break;
+            case ZDO_BIND:
+            case ZDO_UNBIND:
+                serializer.serialize(ZdoStatus.SUCCESS, ZclDataType.ZDO_STATUS);
+                break;
+            case ZDO_MANAGEMENT_LQI:
+            case ZDO_MANAGEMENT_ROUTING:
+                serializer.serialize(ZdoStatus.NOT_SUPPORTED, ZclDataType.ZDO_STATUS);
+                break;
+            default:
+                logger.trace("Simulation ignoring ZDO cluster {}", String.format("%04X", apsFrame.getCluster()));
+                return;
+        }
+
+        ZigBeeApsFrame response = new ZigBeeApsFrame();
+        response.setProfile(0);
+        response.setCluster(apsFrame.getCluster() | ZDO_RESPONSE);
+        response.setSourceAddress(node.getNetworkAddress());
+        response.setSourceEndpoint(0);
+        response.setDestinationAddress(0);
+        response.setDestinationEndpoint(0);
+        response.setAddressMode(ZigBeeNwkAddressMode.DEVICE);
+        response.setPayload(serializer.getPayload());
+        deliver(response);
+    }
+
+    private void processZcl(ZigBeeSimulatedNode node, ZigBeeApsFrame apsFrame) {
+        ZclFieldDeserializer deserializer = getDeserializer(apsFrame.getPayload());
+        ZclHeader header = new ZclHeader(deserializer);
+
+        ZclCommandType commandType;
+        if (header.getFrameType() == ZclFrameType.ENTIRE_PROFILE_COMMAND) {
+            commandType = ZclCommandType.getGeneric(header.getCommandId());
+        } else {
+            commandType = ZclCommandType.getCommandType(apsFrame.getCluster(), header.getCommandId(),
+                    header.getDirection());
+        }
+        ZclCommand command = commandType == null ? null : commandType.instantiateCommand();
+        Endpoint endpoint = node.getEndpoint(apsFrame.getDestinationEndpoint());
+        if (command == null || endpoint == null) {
+            sendDefaultResponse(node, apsFrame, header, ZclStatus.UNSUP_CLUSTER_COMMAND);
+            return;
+        }
+        if (command instanceof ReadAttributesCommand) {
+            // The library deserialises the identifier list as bytes, so read it as 16 bit values here
+            List<Integer> identifiers = new ArrayList<Integer>();
+            while (deserializer.getRemainingLength() >= 2) {
+                identifiers.add((Integer) deserializer.deserialize(ZclDataType.UNSIGNED_16_BIT_INTEGER));
+            }
+            ((ReadAttributesCommand) command).setIdentifiers(identifiers);
+        } else {
+            command.deserialize(deserializer);
+        }
+        command.setClusterId(apsFrame.getCluster());
+
+        ZclCommand response = null;
+        if (command instanceof ReadAttributesCommand) {
+            response = readAttributes(endpoint, apsFrame.getCluster(), (ReadAttributesCommand) command);
+        } else if (command instanceof WriteAttributesCommand) {
+            response = writeAttributes(endpoint, apsFrame.getCluster(), (WriteAttributesCommand) command);
+        } else if (command instanceof DiscoverAttributesCommand) {
+            response = discoverAttributes(endpoint, apsFrame.getCluster(), (DiscoverAttributesCommand) command);
+        } else if (command instanceof ConfigureReportingCommand) {
+            response = configureReporting(endpoint, apsFrame.getCluster(), (ConfigureReportingCommand) command);
+        } else {
+            sendDefaultResponse(node, apsFrame, header,
+                    processClusterCommand(endpoint, command) ? ZclStatus.SUCCESS : ZclStatus.UNSUP_CLUSTER_COMMAND);
+            return;
+        }
+
+        sendZcl(node, endpoint.id, apsFrame.getCluster(), response, header.getSequenceNumber());
+    }
+
+    private ZclCommand readAttributes(Endpoint endpoint, int clusterId, ReadAttributesCommand command) {
+        List<ReadAttributeStatusRecord> records = new ArrayList<ReadAttributeStatusRecord>();
+        for (int attributeId : command.getIdentifiers()) {
+            // Unsupported attributes are omitted as the status record can't be serialised without a data type
+            Attribute attribute = endpoint.getAttribute(clusterId, attributeId);
+            if (attribute == null) {
+                continue;
+            }
+            ReadAttributeStatusRecord record = new ReadAttributeStatusRecord();
+            record.setAttributeIdentifier(attributeId);
+            record.setStatus(ZclStatus.SUCCESS);
+            record.setAttributeDataType(attribute.dataType);
+            record.setAttributeValue(attribute.value);
+            records.add(record);
+        }
+
+        ReadAttributesResponse response = new ReadAttributesResponse();
+        response.setRecords(records);
+        return response;
+    }
+
+    private ZclCommand writeAttributes(Endpoint endpoint, int clusterId, WriteAttributesCommand command) {
+        for (WriteAttributeRecord record : command.getRecords()) {
+            Attribute attribute = endpoint.getAttribute(clusterId, record.getAttributeIdentifier());
+            if (attribute != null) {
+                attribute.setValue(record.getAttributeValue());
+            }
+        }
+
+        WriteAttributeStatusRecord record = new WriteAttributeStatusRecord();
+        record.setStatus(ZclStatus.SUCCESS.getId());
+        WriteAttributesResponse response = new WriteAttributesResponse();
+        response.setRecords(Collections.singletonList(record));
+        return response;
+    }
+
+    private ZclCommand discoverAttributes(Endpoint endpoint, int clusterId, DiscoverAttributesCommand command) {
+        List<AttributeInformation> information = new ArrayList<AttributeInformation>();
+        Map<Integer, Attribute> attributes = endpoint.clusters.get(clusterId);
+        if (attributes != null) {
+            for (Attribute attribute : attributes.values()) {
+                if (attribute.id < command.getStartAttributeIdentifier()
+                        || information.size() >= command.getMaximumAttributeIdentifiers()) {
+                    continue;
+                }
+                AttributeInformation info = new AttributeInformation();
+                info.setIdentifier(attribute.id);
+                info.setDataType(attribute.dataType);
+                information.add(info);
+            }
+        }
+
+        DiscoverAttributesResponse response = new DiscoverAttributesResponse();
+        response.setDiscoveryComplete(true);
+        response.setAttributeInformation(information);
+        return response;
+    }
+
+    private ZclCommand configureReporting(Endpoint endpoint, int clusterId, ConfigureReportingCommand command) {
+        for (AttributeReportingConfigurationRecord record : command.getRecords()) {
+            Attribute attribute = endpoint.getAttribute(clusterId, record.getAttributeIdentifier());
+            if (attribute != null) {
+                attribute.minimumInterval = record.getMinimumReportingInterval();
+                attribute.maximumInterval = record.getMaximumReportingInterval();
+                attribute.changed = true;
+            }
+        }
+
+        ConfigureReportingResponse response = new ConfigureReportingResponse();
+        response.setStatus(ZclStatus.SUCCESS);
+        return response;
+    }
+
+    private boolean processClusterCommand(Endpoint endpoint, ZclCommand command) {
+        Attribute onOff = endpoint.getAttribute(ZclOnOffCluster.CLUSTER_ID, ZclOnOffCluster.ATTR_ONOFF);
+        Attribute level = endpoint.getAttribute(ZclLevelControlCluster.CLUSTER_ID,
+                ZclLevelControlCluster.ATTR_CURRENTLEVEL);
+
+        if (command instanceof OnCommand && onOff != null) {
+            onOff.setValue(true);
+        } else if (command instanceof OffCommand && onOff != null) {
+            onOff.setValue(false);
+        } else if (command instanceof ToggleCommand && onOff != null) {
+            onOff.setValue(!(Boolean) onOff.value);
+        } else if (command instanceof MoveToLevelCommand && level != null) {
+            level.setValue(((MoveToLevelCommand) command).getLevel());
+        } else if (command instanceof MoveToLevelWithOnOffCommand && level != null) {
+            int newLevel = ((MoveToLevelWithOnOffCommand) command).getLevel();
+            level.setValue(newLevel);
+            if (onOff != null) {
+                onOff.setValue(newLevel > 0);
+            }
+        } else if (command instanceof MoveToHueAndSaturationCommand) {
+            MoveToHueAndSaturationCommand color = (MoveToHueAndSaturationCommand) command;
+            setColor(endpoint, ZclColorControlCluster.ATTR_CURRENTHUE, color.getHue(), 0);
+            setColor(endpoint, ZclColorControlCluster.ATTR_CURRENTSATURATION, color.getSaturation(), 0);
+        } else if (command instanceof MoveToColorCommand) {
+            MoveToColorCommand color = (MoveToColorCommand) command;
+            setColor(endpoint, ZclColorControlCluster.ATTR_CURRENTX, color.getColorX(), 1);
+            setColor(endpoint, ZclColorControlCluster.ATTR_CURRENTY, color.getColorY(), 1);
+        } else if (command instanceof MoveToColorTemperatureCommand) {
+            setColor(endpoint, ZclColorControlCluster.ATTR_COLORTEMPERATURE,
+                    ((MoveToColorTemperatureCommand) command).getColorTemperature(), 2);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void setColor(Endpoint endpoint, int attributeId, Integer value, int colorMode) {
+        Attribute attribute = endpoint.getAttribute(ZclColorControlCluster.CLUSTER_ID, attributeId);
+        if (attribute != null && value != null) {
+            attribute.setValue(value);
+            endpoint.getAttribute(ZclColorControlCluster.CLUSTER_ID, ZclColorControlCluster.ATTR_COLORMODE)
+                    .setValue(colorMode);
+        }
+    }
+
+    private void sendDefaultResponse(ZigBeeSimulatedNode node, ZigBeeApsFrame apsFrame, ZclHeader header,
+            ZclStatus status) {
+        if (header.isDisableDefaultResponse() && status == ZclStatus.SUCCESS) {
+            return;
+        }
+        DefaultResponse response = new DefaultResponse();
+        response.setCommandIdentifier(header.getCommandId());
+        response.setStatusCode(status);
+        sendZcl(node, apsFrame.getDestinationEndpoint(), apsFrame.getCluster(), response, header.getSequenceNumber());
+    }
+
+    private void sendZcl(ZigBeeSimulatedNode node, int endpointId, int clusterId, ZclCommand command,
+            int sequence) {
+        ZclHeader header = new ZclHeader();
+        header.setFrameType(
+                command.isGenericCommand() ? ZclFrameType.ENTIRE_PROFILE_COMMAND : ZclFrameType.CLUSTER_SPECIFIC_COMMAND);
+        header.setCommandId(command.getCommandId());
+        header.setSequenceNumber(sequence);
+        header.setDirection(ZclCommandDirection.SERVER_TO_CLIENT);
+        header.setDisableDefaultResponse(true);
+
+        ZclFieldSerializer serializer = getSerializer();
+        if (command instanceof DiscoverAttributesResponse) {
+            // The library serialises the attribute data type as an integer, so write the records here
+            DiscoverAttributesResponse response = (DiscoverAttributesResponse) command;
+            serializer.serialize(response.getDiscoveryComplete(), ZclDataType.BOOLEAN);
+            for (AttributeInformation information : response.getAttributeInformation()) {
+                serializer.serialize(information.getIdentifier(), ZclDataType.UNSIGNED_16_BIT_INTEGER);
+                serializer.serialize(information.getDataType().getId(), ZclDataType.UNSIGNED_8_BIT_INTEGER);
+            }
+        } else {
+            command.serialize(serializer);
+        }
+
+        ZigBeeApsFrame apsFrame = new ZigBeeApsFrame();
+        apsFrame.setProfile(0x0104);
+        apsFrame.setCluster(clusterId);
+        apsFrame.setSourceAddress(node.getNetworkAddress());
+        apsFrame.setSourceEndpoint(endpointId);
+        apsFrame.setDestinationAddress(0);
+        apsFrame.setDestinationEndpoint(1);
+        apsFrame.setAddressMode(ZigBeeNwkAddressMode.DEVICE);
+        apsFrame.setPayload(header.serialize(serializer, serializer.getPayload()));
+        deliver(apsFrame);
+    }
+
+    /**
+     * Updates the measured values and sends any reports that are due
+     */
+    private void tick() {
+        long now = System.currentTimeMillis();
+        int sequence = 0;
+        for (ZigBeeSimulatedNode node : nodes.values()) {
+            if (measurementChange > 0 && random.nextDouble() < measurementChange) {
+                node.updateMeasurements(random);
+            }
+
+            for (Endpoint endpoint : node.getEndpoints()) {
+                for (Map.Entry<Integer, Map<Integer, Attribute>> cluster : endpoint.clusters.entrySet()) {
+                    List<AttributeReport> reports = null;
+                    for (Attribute attribute : cluster.getValue().values()) {
+                        if (!isReportDue(attribute, now)) {
+                            continue;
+                        }
+                        AttributeReport report = new AttributeReport();
+                        report.setAttributeIdentifier(attribute.id);
+                        report.setAttributeDataType(attribute.dataType);
+                        report.setAttributeValue(attribute.value);
+                        if (reports == null) {
+                            reports = new ArrayList<AttributeReport>();
+                        }
+                        reports.add(report);
+                        attribute.lastReport = now;
+                        attribute.changed = false;
+                    }
+
+                    if (reports != null) {
+                        ReportAttributesCommand command = new ReportAttributesCommand();
+                        command.setReports(reports);
+                        sendZcl(node, endpoint.id, cluster.getKey(), command, sequence++ & 0xFF);
+                        reportsSent.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isReportDue(Attribute attribute, long now) {
+        if (!attribute.isReporting()) {
+            return false;
+        }
+        long elapsed = now - attribute.lastReport;
+        if (attribute.changed) {
+            return elapsed >= attribute.minimumInterval * 1000L;
+        }
+        return attribute.maximumInterval > 0 && elapsed >= attribute.maximumInterval * 1000L;
+    }
+
+    private ZclFieldSerializer getSerializer() {
+        return new ZclFieldSerializer(new DefaultSerializer());
+    }
+
+    private ZclFieldDeserializer getDeserializer(int[] payload) {
+        return new ZclFieldDeserializer(new DefaultDeserializer(payload));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.DeviceType;
+
+import com.zsmartsystems.zigbee.CommandResult;
+import com.zsmartsystems.zigbee.ZigBeeCommand;
+import com.zsmartsystems.zigbee.ZigBeeCommandListener;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclTemperatureMeasurementCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.general.ReportAttributesCommand;
+
+/**
+ * Test of the ZigBeeSimulatedTransport
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeSimulatedTransportTest {
+    private static final int NODES = 12;
+
+    private ZigBeeSimulatedTransport transport;
+    private ZigBeeNetworkManager networkManager;
+
+    @Before
+    public void startNetwork() {
+        transport = new ZigBeeSimulatedTransport(1);
+        transport.setLatency(1, 5);
+        transport.setTickPeriod(100);
+        transport.addNodes(NODES, DeviceType.values());
+
+        networkManager = new ZigBeeNetworkManager(transport);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+        networkManager.initialize();
+        networkManager.startup(false);
+    }
+
+    @After
+    public void stopNetwork() {
+        networkManager.shutdown();
+    }
+
+    private int waitForDiscovery(long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        int discovered;
+        do {
+            discovered = 0;
+            for (ZigBeeNode node : networkManager.getNodes()) {
+                if (node.isDiscovered()) {
+                    discovered++;
+                }
+            }
+            if (discovered == NODES) {
+                break;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < end);
+        return discovered;
+    }
+
+    private ZigBeeNode getNode(DeviceType deviceType) {
+        return networkManager.getNode(0x1001 + deviceType.ordinal());
+    }
+
+    @Test
+    public void discovery() throws InterruptedException {
+        assertEquals(NODES, waitForDiscovery(10000));
+
+        ZigBeeNode node = getNode(DeviceType.COLOR_LIGHT);
+        assertNotNull(node.getEndpoint(1));
+        assertEquals(DeviceType.COLOR_LIGHT.getDeviceId(), node.getEndpoint(1).getDeviceId());
+        assertNotNull(node.getEndpoint(1).getInputCluster(ZclOnOffCluster.CLUSTER_ID));
+        assertTrue(transport.getFramesReceived() > 0);
+        assertEquals(0, transport.getFramesDropped());
+    }
+
+    @Test
+    public void command() throws InterruptedException, ExecutionException {
+        assertEquals(NODES, waitForDiscovery(10000));
+
+        ZigBeeNode node = getNode(DeviceType.ON_OFF_LIGHT);
+        ZclOnOffCluster cluster = (ZclOnOffCluster) node.getEndpoint(1).getInputCluster(ZclOnOffCluster.CLUSTER_ID);
+        CommandResult result = cluster.onCommand().get();
+        assertTrue(result.isSuccess());
+        assertEquals(Boolean.TRUE, transport.getNode(node.getNetworkAddress()).getAttributeValue(1,
+                ZclOnOffCluster.CLUSTER_ID, ZclOnOffCluster.ATTR_ONOFF));
+
+        assertEquals(Boolean.TRUE, cluster.getOnOff(0));
+    }
+
+    @Test
+    public void reporting() throws InterruptedException, ExecutionException {
+        assertEquals(NODES, waitForDiscovery(10000));
+
+        final AtomicInteger reports = new AtomicInteger();
+        final ZigBeeNode node = getNode(DeviceType.TEMPERATURE_SENSOR);
+        networkManager.addCommandListener(new ZigBeeCommandListener() {
+            @Override
+            public void commandReceived(ZigBeeCommand command) {
+                if (command instanceof ReportAttributesCommand
+                        && command.getSourceAddress().getAddress() == node.getNetworkAddress()) {
+                    reports.incrementAndGet();
+                }
+            }
+        });
+
+        ZclTemperatureMeasurementCluster cluster = (ZclTemperatureMeasurementCluster) node.getEndpoint(1)
+                .getInputCluster(ZclTemperatureMeasurementCluster.CLUSTER_ID);
+        assertTrue(cluster.setMeasuredValueReporting(0, 1, 0).get().isSuccess());
+
+        // Initial report, and at least one more at the maximum interval
+        Thread.sleep(1500);
+        assertTrue(reports.get() >= 2);
+        assertNotNull(cluster.getMeasuredValue(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void packetLoss() throws InterruptedException {
+        transport.setPacketLoss(0.1);
+        // Discovery retries lost frames, so all nodes should still be discovered
+        assertEquals(NODES, waitForDiscovery(60000));
+        assertTrue(transport.getFramesDropped() > 0);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.DeviceType;
+
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+
+/**
+ * Starts a {@link ZigBeeNetworkManager} against a large {@link ZigBeeSimulatedTransport} network and reports the time
+ * taken to discover all nodes, the heap used, and the CPU used while the network is idle.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method with the number of nodes, and optionally the packet
+ * loss in percent and the steady state measurement time in seconds.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeSimulationBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        double loss = args.length > 1 ? Double.parseDouble(args[1]) / 100 : 0;
+        int steadyTime = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        ZigBeeSimulatedTransport transport = new ZigBeeSimulatedTransport(1);
+        transport.setLatency(20, 80);
+        transport.setPacketLoss(loss);
+        transport.addNodes(nodes, DeviceType.values());
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(transport);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+        networkManager.initialize();
+        networkManager.startup(false);
+
+        int discovered = 0;
+        long end = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(30);
+        while (discovered < nodes && System.currentTimeMillis() < end) {
+            Thread.sleep(500);
+            discovered = 0;
+            for (ZigBeeNode node : networkManager.getNodes()) {
+                if (node.isDiscovered()) {
+                    discovered++;
+                }
+            }
+        }
+        long discoveryTime = System.nanoTime() - start;
+
+        System.out.println(String.format("Discovered %,d of %,d nodes in %,d ms", discovered, nodes,
+                TimeUnit.NANOSECONDS.toMillis(discoveryTime)));
+        System.out.println(String.format("Frames to network   : %,12d", transport.getFramesReceived()));
+        System.out.println(String.format("Frames from network : %,12d", transport.getFramesSent()));
+        System.out.println(String.format("Frames dropped      : %,12d", transport.getFramesDropped()));
+        System.out.println(String.format("Heap used           : %,12d KB  (%,d bytes/node)",
+                (usedHeap() - heapBefore) / 1024, (usedHeap() - heapBefore) / nodes));
+
+        long cpuStart = processCpuTime();
+        long reportsStart = transport.getReportsSent();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(steadyTime));
+        long cpu = processCpuTime() - cpuStart;
+        System.out.println(String.format("Steady state CPU    : %,12.1f %%  (%,d reports)",
+                cpu * 100.0 / TimeUnit.SECONDS.toNanos(steadyTime), transport.getReportsSent() - reportsStart));
+
+        networkManager.shutdown();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long processCpuTime() {
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+        }
+        return 0;
+    }
+}
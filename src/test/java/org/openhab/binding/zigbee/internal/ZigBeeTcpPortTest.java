@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeByteRingBuffer.OverflowPolicy;
+
+/**
+ * Test of the ZigBeeTcpPort using a local server in place of the serial bridge
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeTcpPortTest {
+    private ServerSocket server;
+    private ZigBeeTcpPort port;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        server.setSoTimeout(5000);
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        if (port != null) {
+            port.close();
+        }
+        server.close();
+    }
+
+    private String getUrl() {
+        return "tcp://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+    }
+
+    private static byte[] readFully(InputStream stream, int length) throws IOException {
+        byte[] data = new byte[length];
+        int received = 0;
+        while (received < length) {
+            int count = stream.read(data, received, length - received);
+            if (count == -1) {
+                break;
+            }
+            received += count;
+        }
+        return data;
+    }
+
+    @Test
+    public void create() {
+        assertTrue(ZigBeeTcpPort.isTcpPort("tcp://192.168.1.10:8880"));
+        assertTrue(ZigBeeTcpPort.isTcpPort("TCP://bridge:8880"));
+        assertFalse(ZigBeeTcpPort.isTcpPort("/dev/ttyUSB0"));
+        assertFalse(ZigBeeTcpPort.isTcpPort(null));
+
+        assertNotNull(ZigBeeTcpPort.create("tcp://bridge:8880", 512, 512, OverflowPolicy.DROP));
+        try {
+            ZigBeeTcpPort.create("tcp://bridge", 512, 512, OverflowPolicy.DROP);
+            fail("Port number is required");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void openFailsWithoutServer() throws IOException {
+        int unusedPort = server.getLocalPort();
+        server.close();
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+
+        ZigBeeTcpPort closedPort = new ZigBeeTcpPort("127.0.0.1", unusedPort);
+        assertFalse(closedPort.open());
+    }
+
+    @Test
+    public void readWrite() throws IOException {
+        port = ZigBeeTcpPort.create(getUrl(), 512, 4096, OverflowPolicy.GROW);
+        assertTrue(port.open());
+
+        Socket socket = server.accept();
+
+        // Data from the bridge is available to read
+        OutputStream out = socket.getOutputStream();
+        out.write(new byte[] { 0x1A, (byte) 0xC0, 0x38, (byte) 0xBC, 0x7E });
+        out.flush();
+        assertEquals(0x1A, port.read(2000));
+        assertEquals(0xC0, port.read(2000));
+        assertEquals(0x38, port.read(2000));
+
+        port.purgeRxBuffer();
+        assertEquals(-1, port.read(50));
+
+        // Data written to the port is sent to the bridge
+        port.write(0x11);
+        port.write(0x22);
+        assertTrue(port.write(new int[] { 0x33, 0x44, 0x55 }));
+        assertArrayEquals(new byte[] { 0x11, 0x22, 0x33, 0x44, 0x55 }, readFully(socket.getInputStream(), 5));
+        assertEquals(0, port.getWriteErrorCount());
+
+        socket.close();
+    }
+
+    @Test
+    public void reconnect() throws IOException, InterruptedException {
+        port = ZigBeeTcpPort.create(getUrl(), 512, 4096, OverflowPolicy.GROW);
+        port.setReconnectDelay(50);
+        assertTrue(port.open());
+
+        // Drop the connection from the bridge end
+        server.accept().close();
+
+        // The port should connect again
+        Socket socket = server.accept();
+        OutputStream out = socket.getOutputStream();
+        out.write(0x7E);
+        out.flush();
+        assertEquals(0x7E, port.read(2000));
+        assertEquals(1, port.getReconnectCount());
+        assertTrue(port.isConnected());
+
+        socket.close();
+    }
+}
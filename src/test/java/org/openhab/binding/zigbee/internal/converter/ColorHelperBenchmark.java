@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+
+/**
+ * Benchmark comparing the primitive {@link ColorHelper} conversions with the {@link HSBType} based conversions
+ * previously used by the color converter.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the number of XY to HSB and HSB to XY
+ * conversions per second for each implementation.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ColorHelperBenchmark {
+    private static final int ITERATIONS = 2000000;
+
+    /**
+     * The conversions as they were implemented before the primitive methods were introduced
+     */
+    private static class LegacyColorHelper {
+        private static float Xy2Rgb[][] = { { 3.2406f, -1.5372f, -0.4986f }, { -0.9689f, 1.8758f, 0.0415f },
+                { 0.0557f, -0.2040f, 1.0570f } };
+
+        private static float Rgb2Xy[][] = { { 0.4124f, 0.3576f, 0.1805f }, { 0.2126f, 0.7152f, 0.0722f },
+                { 0.0193f, 0.1192f, 0.9505f } };
+
+        private static float gammaCompress(float c) {
+            if (c < 0.0f) {
+                c = 0.0f;
+            } else if (c > 1.0f) {
+                c = 1.0f;
+            }
+
+            return c <= 0.0031308f ? 19.92f * c : (1.0f + 0.055f) * (float) Math.pow(c, 1.0f / 2.4f) - 0.055f;
+        }
+
+        private static float gammaDecompress(float c) {
+            if (c < 0.0f) {
+                c = 0.0f;
+            } else if (c > 1.0f) {
+                c = 1.0f;
+            }
+
+            return c <= 0.04045f ? c / 19.92f : (float) Math.pow((c + 0.055f) / (1.0f + 0.055f), 2.4f);
+        }
+
+        static HSBType fromXY(float x, float y) {
+            float Yo = 1.0f;
+            float X = (Yo / y) * x;
+            float Z = (Yo / y) * (1.0f - x - y);
+
+            float r = X * Xy2Rgb[0][0] + Yo * Xy2Rgb[0][1] + Z * Xy2Rgb[0][2];
+            float g = X * Xy2Rgb[1][0] + Yo * Xy2Rgb[1][1] + Z * Xy2Rgb[1][2];
+            float b = X * Xy2Rgb[2][0] + Yo * Xy2Rgb[2][1] + Z * Xy2Rgb[2][2];
+
+            float max = r > g ? r : g;
+            if (b > max) {
+                max = b;
+            }
+
+            r = gammaCompress(r / max);
+            g = gammaCompress(g / max);
+            b = gammaCompress(b / max);
+
+            return HSBType.fromRGB((int) (r * 255.0f + 0.5f), (int) (g * 255.0f + 0.5f), (int) (b * 255.0f + 0.5f));
+        }
+
+        static PercentType[] toXY(HSBType HSB) {
+            PercentType sRGB[] = new HSBType(HSB.getHue(), HSB.getSaturation(), PercentType.HUNDRED).toRGB();
+
+            float r = gammaDecompress(sRGB[0].floatValue() / 100.0f);
+            float g = gammaDecompress(sRGB[1].floatValue() / 100.0f);
+            float b = gammaDecompress(sRGB[2].floatValue() / 100.0f);
+
+            float X = r * Rgb2Xy[0][0] + g * Rgb2Xy[0][1] + b * Rgb2Xy[0][2];
+            float Y = r * Rgb2Xy[1][0] + g * Rgb2Xy[1][1] + b * Rgb2Xy[1][2];
+            float Z = r * Rgb2Xy[2][0] + g * Rgb2Xy[2][1] + b * Rgb2Xy[2][2];
+
+            float x = X / (X + Y + Z);
+            float y = Y / (X + Y + Z);
+
+            return new PercentType[] { new PercentType(Float.valueOf(x * 100.0f).toString()),
+                    new PercentType(Float.valueOf(y * 100.0f).toString()),
+                    new PercentType(Float.valueOf(Y * HSB.getBrightness().floatValue()).toString()) };
+        }
+    }
+
+    /**
+     * Converts a range of colors to XY and back, as the converter does when sending a color and receiving the report
+     *
+     * @return the round trips per second
+     */
+    private static double legacyRoundTrip() {
+        float check = 0;
+        long start = System.nanoTime();
+        for (int cnt = 0; cnt < ITERATIONS; cnt++) {
+            HSBType color = new HSBType(new DecimalType(cnt % 360),
+                    new PercentType(cnt % 101), PercentType.HUNDRED);
+            PercentType xy[] = LegacyColorHelper.toXY(color);
+            int x = (int) (xy[0].floatValue() / 100.0f * 65536.0f + 0.5f);
+            int y = (int) (xy[1].floatValue() / 100.0f * 65536.0f + 0.5f);
+
+            HSBType result = LegacyColorHelper.fromXY(x / 65536.0f, y / 65536.0f);
+            check += result.getHue().floatValue();
+        }
+        long time = System.nanoTime() - start;
+        if (check < 0) {
+            System.out.println(check);
+        }
+        return ITERATIONS * 1e9 / time;
+    }
+
+    private static double primitiveRoundTrip() {
+        float xyY[] = new float[3];
+        float hs[] = new float[2];
+        float check = 0;
+        long start = System.nanoTime();
+        for (int cnt = 0; cnt < ITERATIONS; cnt++) {
+            ColorHelper.toXY(cnt % 360, cnt % 101, xyY);
+            int x = (int) (xyY[0] * 65536.0f + 0.5f);
+            int y = (int) (xyY[1] * 65536.0f + 0.5f);
+
+            ColorHelper.fromXY(x / 65536.0f, y / 65536.0f, hs);
+            check += hs[0];
+        }
+        long time = System.nanoTime() - start;
+        if (check < 0) {
+            System.out.println(check);
+        }
+        return ITERATIONS * 1e9 / time;
+    }
+
+    public static void main(String[] args) {
+        // Warm up
+        legacyRoundTrip();
+        primitiveRoundTrip();
+
+        System.out.println(String.format("Legacy HSBType round trip : %,14.0f conversions/s", legacyRoundTrip()));
+        System.out.println(String.format("Primitive round trip      : %,14.0f conversions/s", primitiveRoundTrip()));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ColorHelper} conversions
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ColorHelperTest {
+    @Test
+    public void hsToRgb() {
+        float rgb[] = new float[3];
+
+        ColorHelper.hsToRgb(0.0f, 100.0f, rgb);
+        assertEquals(1.0f, rgb[0], 0.0001f);
+        assertEquals(0.0f, rgb[1], 0.0001f);
+        assertEquals(0.0f, rgb[2], 0.0001f);
+
+        ColorHelper.hsToRgb(240.0f, 50.0f, rgb);
+        assertEquals(0.5f, rgb[0], 0.0001f);
+        assertEquals(0.5f, rgb[1], 0.0001f);
+        assertEquals(1.0f, rgb[2], 0.0001f);
+
+        ColorHelper.hsToRgb(360.0f, 0.0f, rgb);
+        assertEquals(1.0f, rgb[0], 0.0001f);
+        assertEquals(1.0f, rgb[1], 0.0001f);
+        assertEquals(1.0f, rgb[2], 0.0001f);
+    }
+
+    @Test
+    public void toXY() {
+        float xyY[] = new float[3];
+
+        // D65 white point
+        ColorHelper.toXY(0.0f, 0.0f, xyY);
+        assertEquals(0.3127f, xyY[0], 0.001f);
+        assertEquals(0.3290f, xyY[1], 0.001f);
+        assertEquals(1.0f, xyY[2], 0.001f);
+
+        // sRGB red primary
+        ColorHelper.toXY(0.0f, 100.0f, xyY);
+        assertEquals(0.64f, xyY[0], 0.001f);
+        assertEquals(0.33f, xyY[1], 0.001f);
+        assertEquals(0.2126f, xyY[2], 0.001f);
+    }
+
+    @Test
+    public void roundTrip() {
+        float xyY[] = new float[3];
+        float hs[] = new float[2];
+
+        for (int hue = 0; hue < 360; hue += 5) {
+            for (int saturation = 5; saturation <= 100; saturation += 5) {
+                ColorHelper.toXY(hue, saturation, xyY);
+                ColorHelper.fromXY(xyY[0], xyY[1], hs);
+
+                float error = Math.abs(hs[0] - hue);
+                error = Math.min(error, 360.0f - error);
+                assertEquals("Hue " + hue + " saturation " + saturation, 0.0f, error * saturation / 100.0f, 0.5f);
+                assertEquals("Hue " + hue + " saturation " + saturation, saturation, hs[1], 0.5f);
+            }
+        }
+    }
+
+    @Test
+    public void toBigDecimal() {
+        assertEquals(new BigDecimal("12.3457"), ColorHelper.toBigDecimal(12.34567f));
+        assertEquals(new BigDecimal("100.0000"), ColorHelper.toBigDecimal(100.0f));
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedTransport;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.ZclAttributeListener;
+import com.zsmartsystems.zigbee.zcl.ZclCluster;
+import com.zsmartsystems.zigbee.zcl.ZclStatus;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+import com.zsmartsystems.zigbee.zcl.field.ReadAttributeStatusRecord;
+
+/**
+ * Benchmark comparing attribute reports delivered through the {@link ZigBeeAttributeDispatcher} with reports delivered
+ * by the clusters to every converter listening to the cluster.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the reports per second processed by a node
+ * with 8 color light endpoints. Each endpoint has listeners for the color, color temperature, level and trigger
+ * channels, as registered by the converters.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeAttributeDispatcherBenchmark {
+    private static final int ENDPOINTS = 8;
+    private static final int REPORTS = 200000;
+
+    /**
+     * Counts the reports a listener required
+     */
+    private static final AtomicLong deliveries = new AtomicLong();
+
+    /**
+     * A listener that checks the attribute in the same way as the converters
+     */
+    private static class ConverterListener implements ZclAttributeListener {
+        private final List<Integer> attributeIds = new ArrayList<Integer>();
+        private final int clusterId;
+
+        ConverterListener(int clusterId, Integer... attributeIds) {
+            this.clusterId = clusterId;
+            Collections.addAll(this.attributeIds, attributeIds);
+        }
+
+        @Override
+        public void attributeUpdated(ZclAttribute attribute) {
+            if (attribute.getCluster().getId() == clusterId && attributeIds.contains(attribute.getId())) {
+                deliveries.incrementAndGet();
+            }
+        }
+    }
+
+    private static class Registration {
+        final ZclCluster cluster;
+        final ConverterListener listener;
+        final int[] attributeIds;
+
+        Registration(ZclCluster cluster, int... attributeIds) {
+            this.cluster = cluster;
+            this.attributeIds = attributeIds;
+            Integer[] ids = new Integer[attributeIds.length];
+            for (int cnt = 0; cnt < attributeIds.length; cnt++) {
+                ids[cnt] = attributeIds[cnt];
+            }
+            this.listener = new ConverterListener(cluster.getClusterId(), ids);
+        }
+    }
+
+    private static class Report {
+        final ZclCluster cluster;
+        final List<ReadAttributeStatusRecord> records;
+
+        Report(ZclCluster cluster, int attributeId, Object value) {
+            this.cluster = cluster;
+            ReadAttributeStatusRecord record = new ReadAttributeStatusRecord();
+            record.setAttributeIdentifier(attributeId);
+            record.setAttributeDataType(cluster.getAttribute(attributeId).getDataType());
+            record.setAttributeValue(value);
+            record.setStatus(ZclStatus.SUCCESS);
+            this.records = Collections.singletonList(record);
+        }
+    }
+
+    private static final List<Registration> registrations = new ArrayList<Registration>();
+    private static final List<Report> reports = new ArrayList<Report>();
+
+    private static void createNode() {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1234567890ABCDEF"));
+        node.setNetworkAddress(0x1234);
+
+        for (int endpointId = 1; endpointId <= ENDPOINTS; endpointId++) {
+            ZigBeeEndpoint endpoint = new ZigBeeEndpoint(networkManager, node, endpointId);
+            ZclOnOffCluster onOff = new ZclOnOffCluster(networkManager, endpoint);
+            ZclLevelControlCluster level = new ZclLevelControlCluster(networkManager, endpoint);
+            ZclColorControlCluster color = new ZclColorControlCluster(networkManager, endpoint);
+
+            // Color channel
+            registrations.add(new Registration(onOff, ZclOnOffCluster.ATTR_ONOFF));
+            registrations.add(new Registration(level, ZclLevelControlCluster.ATTR_CURRENTLEVEL));
+            registrations.add(new Registration(color, ZclColorControlCluster.ATTR_CURRENTHUE,
+                    ZclColorControlCluster.ATTR_CURRENTSATURATION, ZclColorControlCluster.ATTR_CURRENTX,
+                    ZclColorControlCluster.ATTR_CURRENTY));
+            // Color temperature channel
+            registrations.add(new Registration(color, ZclColorControlCluster.ATTR_COLORTEMPERATURE));
+            // Level and trigger channels
+            registrations.add(new Registration(level, ZclLevelControlCluster.ATTR_CURRENTLEVEL));
+            registrations.add(new Registration(onOff, ZclOnOffCluster.ATTR_ONOFF));
+
+            // A light moving to a new color reports the transition
+            reports.add(new Report(onOff, ZclOnOffCluster.ATTR_ONOFF, Boolean.TRUE));
+            reports.add(new Report(level, ZclLevelControlCluster.ATTR_CURRENTLEVEL, 100));
+            reports.add(new Report(level, ZclLevelControlCluster.ATTR_REMAININGTIME, 10));
+            reports.add(new Report(color, ZclColorControlCluster.ATTR_CURRENTHUE, 100));
+            reports.add(new Report(color, ZclColorControlCluster.ATTR_CURRENTSATURATION, 200));
+            reports.add(new Report(color, ZclColorControlCluster.ATTR_COLORTEMPERATURE, 300));
+            reports.add(new Report(color, ZclColorControlCluster.ATTR_REMAININGTIME, 10));
+        }
+    }
+
+    private static long getExpectedDeliveries() {
+        long expected = 0;
+        for (Report report : reports) {
+            int attributeId = report.records.get(0).getAttributeIdentifier();
+            for (Registration registration : registrations) {
+                if (registration.cluster != report.cluster) {
+                    continue;
+                }
+                for (int id : registration.attributeIds) {
+                    if (id == attributeId) {
+                        expected++;
+                    }
+                }
+            }
+        }
+        return expected;
+    }
+
+    private static double run(int count) throws InterruptedException {
+        long expected = getExpectedDeliveries() * (count / reports.size());
+        deliveries.set(0);
+
+        long start = System.nanoTime();
+        for (int cnt = 0; cnt < count / reports.size(); cnt++) {
+            for (Report report : reports) {
+                report.cluster.handleAttributeStatus(report.records);
+            }
+        }
+        while (deliveries.get() < expected) {
+            Thread.sleep(1);
+        }
+        long time = System.nanoTime() - start;
+        return (count / reports.size()) * reports.size() * 1e9 / time;
+    }
+
+    private static double runDirect(int count) throws InterruptedException {
+        for (Registration registration : registrations) {
+            registration.cluster.addAttributeListener(registration.listener);
+        }
+        double rate = run(count);
+        for (Registration registration : registrations) {
+            registration.cluster.removeAttributeListener(registration.listener);
+        }
+        return rate;
+    }
+
+    private static double runDispatched(int count) throws InterruptedException {
+        ZigBeeAttributeDispatcher dispatcher = new ZigBeeAttributeDispatcher();
+        for (Registration registration : registrations) {
+            dispatcher.addListener(registration.cluster, registration.listener, registration.attributeIds);
+        }
+        double rate = run(count);
+        for (Registration registration : registrations) {
+            dispatcher.removeListener(registration.cluster, registration.listener);
+        }
+        return rate;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        createNode();
+        System.out.println(String.format("%d endpoints, %d listeners, %d required notifications per %d reports",
+                ENDPOINTS, registrations.size(), getExpectedDeliveries(), reports.size()));
+
+        // Warm up
+        runDirect(REPORTS / 10);
+        runDispatched(REPORTS / 10);
+        Thread.sleep(500);
+
+        double direct = runDirect(REPORTS);
+        Thread.sleep(500);
+        double dispatched = runDispatched(REPORTS);
+
+        System.out.println(String.format("Direct:     %10.0f reports/s", direct));
+        System.out.println(String.format("Dispatched: %10.0f reports/s", dispatched));
+        System.exit(0);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedTransport;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.ZclAttributeListener;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclLevelControlCluster;
+
+/**
+ * Test of the ZigBeeAttributeDispatcher
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeAttributeDispatcherTest {
+    private final List<ZclAttributeListener> clusterListeners = new ArrayList<ZclAttributeListener>();
+
+    private ZclLevelControlCluster createCluster() {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1234567890ABCDEF"));
+        node.setNetworkAddress(0x1234);
+        ZigBeeEndpoint endpoint = new ZigBeeEndpoint(networkManager, node, 1);
+
+        // Record the listeners so the reports can be delivered without the notification threads
+        return new ZclLevelControlCluster(networkManager, endpoint) {
+            @Override
+            public void addAttributeListener(ZclAttributeListener listener) {
+                clusterListeners.add(listener);
+            }
+
+            @Override
+            public void removeAttributeListener(ZclAttributeListener listener) {
+                clusterListeners.remove(listener);
+            }
+        };
+    }
+
+    private void report(ZclAttribute attribute) {
+        for (ZclAttributeListener listener : clusterListeners) {
+            listener.attributeUpdated(attribute);
+        }
+    }
+
+    private static class RecordingListener implements ZclAttributeListener {
+        private final List<Integer> attributeIds = new ArrayList<Integer>();
+
+        @Override
+        public void attributeUpdated(ZclAttribute attribute) {
+            attributeIds.add(attribute.getId());
+        }
+    }
+
+    @Test
+    public void dispatch() {
+        ZigBeeAttributeDispatcher dispatcher = new ZigBeeAttributeDispatcher();
+        ZclLevelControlCluster cluster = createCluster();
+        RecordingListener levelListener = new RecordingListener();
+        RecordingListener timeListener = new RecordingListener();
+
+        dispatcher.addListener(cluster, levelListener, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
+        dispatcher.addListener(cluster, timeListener, ZclLevelControlCluster.ATTR_CURRENTLEVEL,
+                ZclLevelControlCluster.ATTR_REMAININGTIME);
+        assertEquals(1, clusterListeners.size());
+
+        report(cluster.getAttribute(ZclLevelControlCluster.ATTR_CURRENTLEVEL));
+        report(cluster.getAttribute(ZclLevelControlCluster.ATTR_REMAININGTIME));
+        report(cluster.getAttribute(ZclLevelControlCluster.ATTR_ONLEVEL));
+
+        assertEquals(1, levelListener.attributeIds.size());
+        assertEquals(2, timeListener.attributeIds.size());
+        assertEquals(Integer.valueOf(ZclLevelControlCluster.ATTR_REMAININGTIME), timeListener.attributeIds.get(1));
+    }
+
+    @Test
+    public void removeListener() {
+        ZigBeeAttributeDispatcher dispatcher = new ZigBeeAttributeDispatcher();
+        ZclLevelControlCluster cluster = createCluster();
+        RecordingListener levelListener = new RecordingListener();
+        RecordingListener timeListener = new RecordingListener();
+
+        dispatcher.addListener(cluster, levelListener, ZclLevelControlCluster.ATTR_CURRENTLEVEL);
+        dispatcher.addListener(cluster, timeListener, ZclLevelControlCluster.ATTR_REMAININGTIME);
+
+        dispatcher.removeListener(cluster, levelListener);
+        report(cluster.getAttribute(ZclLevelControlCluster.ATTR_CURRENTLEVEL));
+        assertEquals(0, levelListener.attributeIds.size());
+        assertEquals(1, clusterListeners.size());
+
+        // The dispatcher stops listening to the cluster when the last listener is removed
+        dispatcher.removeListener(cluster, timeListener);
+        assertEquals(0, clusterListeners.size());
+    }
+}
@@ -7,13 +7,26 @@
  */
 package org.openhab.binding.zigbee.internal.converter;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorHandler;
+import org.openhab.binding.zigbee.handler.ZigBeeThingHandler;
 import org.openhab.binding.zigbee.internal.converter.ZigBeeBaseChannelConverter;
 import org.openhab.binding.zigbee.internal.converter.ZigBeeConverterSwitchLevel;
 
+import com.zsmartsystems.zigbee.CommandResult;
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+
 /**
  * Test of the ZigBeeBaseChannelConverter
  *
@@ -37,4 +50,65 @@ public class ZigBeeBaseChannelConverterTest {
         assertEquals(PercentType.ZERO, converter.levelToPercent(0));
         assertEquals(PercentType.HUNDRED, converter.levelToPercent(254));
     }
+
+    private ZigBeeBaseChannelConverter createConverter() {
+        ZigBeeEndpoint endpoint = Mockito.mock(ZigBeeEndpoint.class);
+        ZigBeeCoordinatorHandler coordinatorHandler = Mockito.mock(ZigBeeCoordinatorHandler.class);
+        Mockito.when(coordinatorHandler.getEndpoint(Matchers.any(IeeeAddress.class), Matchers.anyInt()))
+                .thenReturn(endpoint);
+        ZigBeeThingHandler thingHandler = Mockito.mock(ZigBeeThingHandler.class);
+
+        ZigBeeBaseChannelConverter converter = new ZigBeeConverterSwitchOnoff();
+        converter.initialize(thingHandler, new Channel(new ChannelUID("a:b:c:d"), ""), coordinatorHandler,
+                new IeeeAddress("1234567890ABCDEF"), 1);
+        return converter;
+    }
+
+    @Test
+    public void pollRequired() {
+        ZigBeeBaseChannelConverter converter = createConverter();
+        assertEquals(0, converter.getLastUpdateTime());
+        assertTrue(converter.isPollRequired(60));
+
+        converter.updateChannelState(OnOffType.ON);
+        assertTrue(converter.getLastUpdateTime() != 0);
+        assertFalse(converter.isPollRequired(60));
+        assertTrue(converter.isPollRequired(0));
+    }
+
+    @Test
+    public void pollRequiredAfterPollResponse() {
+        ZigBeeBaseChannelConverter converter = createConverter();
+
+        // The first poll is answered by the device
+        assertTrue(converter.isPollRequired(60));
+        converter.handlePoll();
+        converter.updateChannelState(OnOffType.ON);
+
+        // The response to the first poll doesn't cause the second poll to be skipped
+        assertTrue(converter.isPollRequired(60));
+        converter.handlePoll();
+        converter.updateChannelState(OnOffType.OFF);
+        assertTrue(converter.isPollRequired(60));
+    }
+
+    @Test
+    public void waitForCommandFailed() {
+        ZigBeeBaseChannelConverter converter = createConverter();
+
+        CompletableFuture<CommandResult> command = new CompletableFuture<CommandResult>();
+        command.completeExceptionally(new IllegalStateException());
+        assertNull(converter.waitForCommand(command));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void waitForCommandInterrupted() {
+        ZigBeeBaseChannelConverter converter = createConverter();
+
+        // The interrupt is passed back to the caller so the result isn't treated as a failure
+        Thread.currentThread().interrupt();
+        assertNull(converter.waitForCommand(new CompletableFuture<CommandResult>()));
+        assertTrue(Thread.interrupted());
+    }
 }
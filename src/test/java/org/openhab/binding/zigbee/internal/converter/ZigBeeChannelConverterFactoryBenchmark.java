@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedTransport;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+
+/**
+ * Benchmark comparing the cluster indexed channel detection in {@link ZigBeeChannelConverterFactory} with the
+ * previous detection, which created every converter by reflection and checked it against every endpoint.
+ * <p>
+ * This is not run as part of the unit tests. Run the main method to print the time taken to detect the channels of an
+ * 8 gang relay, and the number of converters checked for each endpoint.
+ *
+ * @author Chris Jackson
+ *
+ */
+public class ZigBeeChannelConverterFactoryBenchmark {
+    private static final int ITERATIONS = 20000;
+    private static final int ENDPOINTS = 8;
+
+    /**
+     * The converter classes checked by the previous channel detection
+     */
+    private static final List<Class<? extends ZigBeeBaseChannelConverter>> LEGACY_CONVERTERS = Arrays.asList(
+            ZigBeeConverterColorColor.class, ZigBeeConverterColorTemperature.class,
+            ZigBeeConverterMeasurementPower.class, ZigBeeConverterRelativeHumidity.class,
+            ZigBeeConverterIasContactPortal1.class, ZigBeeConverterIasMotionIntrusion.class,
+            ZigBeeConverterIasMotionPresence.class, ZigBeeConverterIasCieSystem.class,
+            ZigBeeConverterIlluminance.class, ZigBeeConverterOccupancy.class, ZigBeeConverterBatteryPercent.class,
+            ZigBeeConverterBatteryVoltage.class, ZigBeeConverterAtmosphericPressure.class,
+            ZigBeeConverterSwitchOnoff.class, ZigBeeConverterSwitchTrigger.class, ZigBeeConverterSwitchLevel.class,
+            ZigBeeConverterTemperature.class);
+
+    private static int legacyChannels(ThingUID thingUID, List<ZigBeeEndpoint> endpoints) throws Exception {
+        int count = 0;
+        for (ZigBeeEndpoint endpoint : endpoints) {
+            for (Class<? extends ZigBeeBaseChannelConverter> converterClass : LEGACY_CONVERTERS) {
+                Constructor<? extends ZigBeeBaseChannelConverter> constructor = converterClass.getConstructor();
+                Channel channel = constructor.newInstance().getChannel(thingUID, endpoint);
+                if (channel != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int indexedChannels(ThingUID thingUID, List<ZigBeeEndpoint> endpoints) {
+        ZigBeeChannelConverterFactory factory = new ZigBeeChannelConverterFactory();
+        int count = 0;
+        for (ZigBeeEndpoint endpoint : endpoints) {
+            count += factory.getChannels(thingUID, endpoint).size();
+        }
+        return count;
+    }
+
+    private static List<ZigBeeEndpoint> createRelay() {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1234567890ABCDEF"));
+        node.setNetworkAddress(0x1234);
+
+        // Each gang has the basic, identify, groups, scenes and on/off clusters
+        List<ZigBeeEndpoint> endpoints = new ArrayList<ZigBeeEndpoint>();
+        for (int endpointId = 1; endpointId <= ENDPOINTS; endpointId++) {
+            ZigBeeEndpoint endpoint = new ZigBeeEndpoint(networkManager, node, endpointId);
+            endpoint.setProfileId(0x104);
+            endpoint.setDeviceId(0x100);
+            endpoint.setInputClusterIds(Arrays.asList(0, 3, 4, 5, 6));
+            endpoint.setOutputClusterIds(Arrays.asList(0x19));
+            endpoints.add(endpoint);
+        }
+        return endpoints;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ThingUID thingUID = new ThingUID("zigbee:device:ctrl:1234567890abcdef");
+        List<ZigBeeEndpoint> endpoints = createRelay();
+
+        int legacyCount = legacyChannels(thingUID, endpoints);
+        int indexedCount = indexedChannels(thingUID, endpoints);
+        System.out.println("Channels detected: legacy " + legacyCount + ", indexed " + indexedCount);
+
+        // Warm up
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyChannels(thingUID, endpoints);
+            indexedChannels(thingUID, endpoints);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyChannels(thingUID, endpoints);
+        }
+        long legacyTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            indexedChannels(thingUID, endpoints);
+        }
+        long indexedTime = System.nanoTime() - start;
+
+        System.out.println(String.format("Legacy:  %8.2f us per device, %d converters checked per endpoint",
+                legacyTime / 1000.0 / ITERATIONS, LEGACY_CONVERTERS.size()));
+        System.out.println(String.format("Indexed: %8.2f us per device", indexedTime / 1000.0 / ITERATIONS));
+    }
+}
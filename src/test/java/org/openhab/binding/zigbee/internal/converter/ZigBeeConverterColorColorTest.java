@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openhab.binding.zigbee.handler.ZigBeeCoordinatorHandler;
+import org.openhab.binding.zigbee.handler.ZigBeeThingHandler;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedNode.DeviceType;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedTransport;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.serialization.DefaultDeserializer;
+import com.zsmartsystems.zigbee.serialization.DefaultSerializer;
+import com.zsmartsystems.zigbee.zcl.ZclAttribute;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclColorControlCluster;
+
+/**
+ * Tests for the color converter using simulated color lights
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeConverterColorColorTest {
+    private static final int COLOR_CHANGE_DELAY = 200;
+
+    private ZigBeeSimulatedTransport transport;
+    private ZigBeeNetworkManager networkManager;
+    private ScheduledThreadPoolExecutor converterScheduler;
+    private ZigBeeCoordinatorHandler coordinatorHandler;
+    private ZigBeeThingHandler thingHandler;
+    private Channel channel = new Channel(new ChannelUID("a:b:c:d"), "");
+
+    @Before
+    public void startNetwork() {
+        transport = new ZigBeeSimulatedTransport(1);
+        transport.setLatency(1, 5);
+        // No reports are sent, so the converter only sees the attribute updates made by the tests
+        transport.setTickPeriod(Integer.MAX_VALUE);
+        transport.addNodes(2, DeviceType.COLOR_LIGHT, DeviceType.COLOR_XY_LIGHT);
+
+        networkManager = new ZigBeeNetworkManager(transport);
+        networkManager.setSerializer(DefaultSerializer.class, DefaultDeserializer.class);
+        networkManager.initialize();
+        networkManager.startup(false);
+
+        converterScheduler = new ScheduledThreadPoolExecutor(2);
+        converterScheduler.setRemoveOnCancelPolicy(true);
+        coordinatorHandler = Mockito.mock(ZigBeeCoordinatorHandler.class);
+        Mockito.when(coordinatorHandler.getConverterScheduler()).thenReturn(converterScheduler);
+        thingHandler = Mockito.mock(ZigBeeThingHandler.class);
+        // Channel commands are run straight away in place of the thing command queue
+        Mockito.when(thingHandler.submitChannelCommand(Matchers.any(ChannelUID.class), Matchers.any(Runnable.class)))
+                .thenAnswer(new Answer<Boolean>() {
+                    @Override
+                    public Boolean answer(InvocationOnMock invocation) {
+                        ((Runnable) invocation.getArguments()[1]).run();
+                        return true;
+                    }
+                });
+    }
+
+    @After
+    public void stopNetwork() {
+        converterScheduler.shutdownNow();
+        networkManager.shutdown();
+    }
+
+    private ZigBeeEndpoint getEndpoint(int networkAddress) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        ZigBeeNode node = null;
+        while (System.currentTimeMillis() < end) {
+            node = networkManager.getNode(networkAddress);
+            if (node != null && node.isDiscovered()) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertNotNull(node);
+        assertTrue(node.isDiscovered());
+
+        ZigBeeEndpoint endpoint = node.getEndpoint(1);
+        Mockito.when(coordinatorHandler.getEndpoint(Matchers.any(IeeeAddress.class), Matchers.anyInt()))
+                .thenReturn(endpoint);
+        return endpoint;
+    }
+
+    private ZigBeeConverterColorColor createConverter(ZigBeeEndpoint endpoint) {
+        ZigBeeConverterColorColor converter = new ZigBeeConverterColorColor();
+        converter.initialize(thingHandler, channel, coordinatorHandler, endpoint.getIeeeAddress(), 1);
+        assertTrue(converter.initializeConverter());
+        return converter;
+    }
+
+    private ZigBeeConverterColorColor createXYConverter(int colorChangeDelay) throws InterruptedException {
+        ZigBeeConverterColorColor converter = createConverter(getEndpoint(0x1002));
+        Configuration configuration = new Configuration();
+        configuration.put("zigbee_colorcontrol_colorchangedelay", new BigDecimal(colorChangeDelay));
+        converter.updateConfiguration(configuration);
+        return converter;
+    }
+
+    private Object getColorX() {
+        return transport.getNode(0x1002).getAttributeValue(1, ZclColorControlCluster.CLUSTER_ID,
+                ZclColorControlCluster.ATTR_CURRENTX);
+    }
+
+    private boolean waitForColorChange(Object x, long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        while (System.currentTimeMillis() < end) {
+            if (!x.equals(getColorX())) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return !x.equals(getColorX());
+    }
+
+    @Test
+    public void delayedColorChange() throws InterruptedException {
+        ZigBeeConverterColorColor converter = createXYConverter(COLOR_CHANGE_DELAY);
+        Object x = getColorX();
+
+        // The brightness is changed first, and the color once the brightness transition is complete
+        long start = System.currentTimeMillis();
+        converter.handleCommand(new HSBType("120,100,50"));
+        assertEquals(x, getColorX());
+        assertTrue(waitForColorChange(x, 5000));
+        assertTrue(System.currentTimeMillis() - start >= COLOR_CHANGE_DELAY);
+
+        converter.disposeConverter();
+    }
+
+    @Test
+    public void delayedColorChangeCancelled() throws InterruptedException {
+        ZigBeeConverterColorColor converter = createXYConverter(COLOR_CHANGE_DELAY);
+        Object x = getColorX();
+
+        // A newer command cancels the color change that is waiting for the brightness transition
+        converter.handleCommand(new HSBType("120,100,50"));
+        converter.handleCommand(PercentType.HUNDRED);
+        assertFalse(waitForColorChange(x, COLOR_CHANGE_DELAY * 3));
+
+        converter.disposeConverter();
+    }
+
+    @Test
+    public void colorChangeNotDelayed() throws InterruptedException {
+        ZigBeeConverterColorColor converter = createXYConverter(0);
+        Object x = getColorX();
+
+        // With no delay the color is sent straight after the brightness
+        converter.handleCommand(new HSBType("120,100,50"));
+        assertFalse(x.equals(getColorX()));
+
+        converter.disposeConverter();
+    }
+
+    @Test
+    public void timersCancelled() throws InterruptedException {
+        ZigBeeEndpoint endpoint = getEndpoint(0x1001);
+        ZclAttribute hue = endpoint.getInputCluster(ZclColorControlCluster.CLUSTER_ID)
+                .getAttribute(ZclColorControlCluster.ATTR_CURRENTHUE);
+        hue.updateValue(Integer.valueOf(100));
+
+        for (int cycle = 0; cycle < 20; cycle++) {
+            ZigBeeConverterColorColor converter = createConverter(endpoint);
+
+            // Updating only the hue starts the timer that waits for the saturation
+            converter.attributeUpdated(hue);
+            assertEquals(1, converterScheduler.getQueue().size());
+
+            // Disposing the converter cancels the timer, so nothing is left on the shared scheduler
+            converter.disposeConverter();
+            assertEquals(0, converterScheduler.getQueue().size());
+        }
+    }
+}
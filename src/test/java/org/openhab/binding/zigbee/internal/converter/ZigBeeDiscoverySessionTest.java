@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.zigbee.internal.ZigBeeSimulatedTransport;
+
+import com.zsmartsystems.zigbee.IeeeAddress;
+import com.zsmartsystems.zigbee.ZigBeeEndpoint;
+import com.zsmartsystems.zigbee.ZigBeeNetworkManager;
+import com.zsmartsystems.zigbee.ZigBeeNode;
+import com.zsmartsystems.zigbee.zcl.clusters.ZclOnOffCluster;
+
+/**
+ * Test of the ZigBeeDiscoverySession
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeDiscoverySessionTest {
+    private final AtomicInteger discoveries = new AtomicInteger();
+
+    private ZclOnOffCluster createCluster(int endpointId, final boolean discoveryResult) {
+        ZigBeeNetworkManager networkManager = new ZigBeeNetworkManager(new ZigBeeSimulatedTransport(1));
+        ZigBeeNode node = new ZigBeeNode(networkManager, new IeeeAddress("1234567890ABCDEF"));
+        node.setNetworkAddress(0x1234);
+        ZigBeeEndpoint endpoint = new ZigBeeEndpoint(networkManager, node, endpointId);
+
+        return new ZclOnOffCluster(networkManager, endpoint) {
+            @Override
+            public Future<Boolean> discoverAttributes(boolean rediscover) {
+                discoveries.incrementAndGet();
+                FutureTask<Boolean> future = new FutureTask<Boolean>(() -> discoveryResult);
+                future.run();
+                return future;
+            }
+        };
+    }
+
+    @Test
+    public void discoverAttributes() {
+        ZigBeeDiscoverySession session = new ZigBeeDiscoverySession();
+        ZclOnOffCluster cluster = createCluster(1, false);
+
+        // A failed discovery is remembered
+        assertFalse(session.discoverAttributes(cluster));
+        assertFalse(session.discoverAttributes(cluster));
+        assertEquals(1, discoveries.get());
+
+        // The same cluster on a different endpoint is discovered separately
+        assertTrue(session.discoverAttributes(createCluster(2, true)));
+        assertEquals(2, discoveries.get());
+    }
+
+    @Test
+    public void readAttribute() {
+        ZigBeeDiscoverySession session = new ZigBeeDiscoverySession();
+        ZclOnOffCluster cluster = createCluster(1, true);
+        final AtomicInteger reads = new AtomicInteger();
+
+        assertEquals(Integer.valueOf(1), session.readAttribute(cluster, 0, () -> reads.incrementAndGet()));
+        assertEquals(Integer.valueOf(1), session.readAttribute(cluster, 0, () -> reads.incrementAndGet()));
+        assertEquals(1, reads.get());
+
+        // A failed read is remembered
+        assertNull(session.readAttribute(cluster, 1, () -> {
+            reads.incrementAndGet();
+            return null;
+        }));
+        assertNull(session.readAttribute(cluster, 1, () -> reads.incrementAndGet()));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void close() {
+        ZigBeeDiscoverySession session = new ZigBeeDiscoverySession();
+        ZclOnOffCluster cluster = createCluster(1, false);
+        final AtomicInteger reads = new AtomicInteger();
+
+        assertFalse(session.discoverAttributes(cluster));
+        assertNull(session.readAttribute(cluster, 0, () -> {
+            reads.incrementAndGet();
+            return null;
+        }));
+
+        // Failures remembered during the initialisation are retried once the session is closed
+        session.close();
+        assertFalse(session.discoverAttributes(cluster));
+        assertFalse(session.discoverAttributes(cluster));
+        assertEquals(3, discoveries.get());
+        assertEquals(Integer.valueOf(2), session.readAttribute(cluster, 0, () -> reads.incrementAndGet()));
+        assertEquals(Integer.valueOf(3), session.readAttribute(cluster, 0, () -> reads.incrementAndGet()));
+    }
+}
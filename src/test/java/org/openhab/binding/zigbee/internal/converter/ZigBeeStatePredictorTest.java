@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zigbee.internal.converter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test of the ZigBeeStatePredictor
+ *
+ * @author Chris Jackson - Initial contribution
+ *
+ */
+public class ZigBeeStatePredictorTest {
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    private final List<State> states = new ArrayList<State>();
+
+    private ZigBeeStatePredictor createPredictor() {
+        return new ZigBeeStatePredictor(scheduler, new ZigBeeStatePredictor.StateUpdater() {
+            @Override
+            public void updateState(State state) {
+                synchronized (states) {
+                    states.add(state);
+                }
+            }
+        });
+    }
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void reportWithoutPrediction() {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.report(new PercentType(20));
+        predictor.report(new PercentType(30));
+        assertEquals(2, states.size());
+        assertFalse(predictor.isPredicting());
+    }
+
+    @Test
+    public void predictionMet() {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.predict(new PercentType(80), 10000);
+        assertTrue(predictor.isPredicting());
+        assertEquals(new PercentType(80), states.get(0));
+
+        // Intermediate levels during the transition are held back
+        predictor.report(new PercentType(40));
+        predictor.report(new PercentType(60));
+        assertEquals(1, states.size());
+
+        predictor.report(new PercentType(79));
+        assertFalse(predictor.isPredicting());
+        assertEquals(2, states.size());
+        assertEquals(new PercentType(79), states.get(1));
+    }
+
+    @Test
+    public void predictionHSB() {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.predict(new HSBType("120,50,100"), 10000);
+        predictor.report(new HSBType("60,50,100"));
+        assertTrue(predictor.isPredicting());
+
+        predictor.report(new HSBType("120.6,49.8,100"));
+        assertFalse(predictor.isPredicting());
+    }
+
+    @Test
+    public void rollback() {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.report(new PercentType(20));
+        predictor.predict(new PercentType(80), 10000);
+        predictor.rollback();
+
+        assertFalse(predictor.isPredicting());
+        assertEquals(3, states.size());
+        assertEquals(new PercentType(20), states.get(2));
+    }
+
+    @Test
+    public void timeoutReconciles() throws InterruptedException {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.predict(new PercentType(80), 50);
+        predictor.report(new PercentType(50));
+        Thread.sleep(200);
+
+        assertFalse(predictor.isPredicting());
+        synchronized (states) {
+            assertEquals(2, states.size());
+            assertEquals(new PercentType(50), states.get(1));
+        }
+    }
+
+    @Test
+    public void timeoutWithoutReport() throws InterruptedException {
+        ZigBeeStatePredictor predictor = createPredictor();
+
+        predictor.predict(new PercentType(80), 50);
+        Thread.sleep(200);
+
+        assertFalse(predictor.isPredicting());
+        synchronized (states) {
+            assertEquals(1, states.size());
+        }
+    }
+}